@@ -0,0 +1,80 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link TimelineDateParser} with the new {@link SimpleDateFormat} per value that it replaced.
+ * Timestamps one second apart are parsed in turn, each several times over, as they would be for a burst of tweets from a stream.
+ * Run with <code>-prof gc</code> to compare allocation as well as time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimelineDateParserBenchmark {
+
+	private static final int TIMESTAMPS = 4096;
+
+	private char[][] timestamps;
+
+	private int next;
+
+	@Setup
+	public void setUp() {
+		SimpleDateFormat format = new SimpleDateFormat("EEE MMM dd HH:mm:ss ZZZZZ yyyy", Locale.ENGLISH);
+		timestamps = new char[TIMESTAMPS][];
+		long start = System.currentTimeMillis();
+		for (int i = 0; i < TIMESTAMPS; i++) {
+			timestamps[i] = format.format(new Date(start + i * 1000L)).toCharArray();
+		}
+	}
+
+	@Benchmark
+	public long timelineDateParser() throws ParseException {
+		char[] timestamp = nextTimestamp();
+		return TimelineDateParser.parse(timestamp, 0, timestamp.length);
+	}
+
+	@Benchmark
+	public long simpleDateFormat() throws ParseException {
+		char[] timestamp = nextTimestamp();
+		return new SimpleDateFormat("EEE MMM dd HH:mm:ss ZZZZZ yyyy", Locale.ENGLISH).parse(new String(timestamp)).getTime();
+	}
+
+	private char[] nextTimestamp() {
+		return timestamps[(next++ >> 4) & (TIMESTAMPS - 1)];
+	}
+
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.social.twitter.api.LazyTweet;
+import org.springframework.social.twitter.api.Tweet;
+import org.springframework.social.twitter.api.TweetFilter;
+import org.springframework.social.twitter.api.TweetProjection;
+import org.springframework.social.twitter.api.TweetProjection.Field;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Compares {@link TweetDeserializer} with the tree-based {@link LegacyTweetDeserializer} it replaced, reading a tweet from the streaming API.
+ * Run with <code>-prof gc</code> to compare allocation per tweet as well as time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TweetDeserializerBenchmark {
+
+	private String json;
+
+	// tweets by a few hundred authors taking turns, whose counts change from each tweet to the next
+	private String[] repeatAuthorJson;
+
+	private int repeatAuthorIndex;
+
+	private ObjectReader repeatAuthorCachingReader;
+
+	private ObjectReader streamingReader;
+
+	private ObjectReader legacyReader;
+
+	private ObjectReader cachingReader;
+
+	private ObjectReader projectingReader;
+
+	private TweetFilterScanner filterScanner;
+
+	@Setup
+	public void setUp() throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(TweetDeserializerBenchmark.class.getResourceAsStream("filter-stream-track.json"), StandardCharsets.UTF_8));
+		try {
+			json = reader.readLine();
+		} finally {
+			reader.close();
+		}
+		ObjectMapper streamingMapper = new ObjectMapper();
+		streamingMapper.registerModule(new TwitterModule());
+		streamingReader = streamingMapper.readerFor(Tweet.class);
+		cachingReader = streamingReader.withAttribute(TwitterProfileCache.class, new TwitterProfileCache());
+		filterScanner = new TweetFilterScanner(TweetFilter.absent("retweeted_status").and(TweetFilter.atLeast("user.followers_count", 1000)));
+		projectingReader = streamingReader.withAttribute(TweetProjection.class, TweetProjection.of(Field.ID, Field.TEXT, Field.USER_ID, Field.CREATED_AT, Field.HASHTAGS));
+		repeatAuthorJson = repeatAuthorTweets(streamingMapper, 4096, 256);
+		repeatAuthorCachingReader = streamingReader.withAttribute(TwitterProfileCache.class, new TwitterProfileCache());
+		ObjectMapper legacyMapper = new ObjectMapper();
+		legacyMapper.registerModule(new TwitterModule());
+		legacyMapper.addMixIn(Tweet.class, LegacyTweetMixin.class);
+		legacyReader = legacyMapper.readerFor(Tweet.class);
+	}
+
+	@Benchmark
+	public Tweet streaming() throws IOException {
+		return streamingReader.readValue(json);
+	}
+
+	// the same author tweeting again with an unchanged profile, as is common on a busy stream
+	@Benchmark
+	public Tweet streamingWithProfileCache() throws IOException {
+		return cachingReader.readValue(json);
+	}
+
+	@Benchmark
+	public Tweet streamingRepeatAuthors() throws IOException {
+		return streamingReader.readValue(nextRepeatAuthorJson());
+	}
+
+	// as on a real stream, where an author's counts differ from one of their tweets to the next
+	@Benchmark
+	public Tweet streamingRepeatAuthorsWithProfileCache() throws IOException {
+		return repeatAuthorCachingReader.readValue(nextRepeatAuthorJson());
+	}
+
+	// what most consumers read from a tweet
+	@Benchmark
+	public Tweet streamingWithProjection() throws IOException {
+		return projectingReader.readValue(json);
+	}
+
+	// the tweet is a retweet, so the filter rejects it without it being deserialized
+	@Benchmark
+	public boolean rejectedByFilter() {
+		return filterScanner.accepts(json);
+	}
+
+	// only the ID and text are decoded; the rest stays as bytes
+	@Benchmark
+	public String lazyIdAndText() throws IOException {
+		LazyTweet tweet = new LazyTweetImpl(json);
+		return tweet.getId() + tweet.getText();
+	}
+
+	@Benchmark
+	public Tweet legacy() throws IOException {
+		return legacyReader.readValue(json);
+	}
+
+	private String nextRepeatAuthorJson() {
+		String next = repeatAuthorJson[repeatAuthorIndex];
+		repeatAuthorIndex = (repeatAuthorIndex + 1) % repeatAuthorJson.length;
+		return next;
+	}
+
+	private String[] repeatAuthorTweets(ObjectMapper mapper, int tweets, int authors) throws IOException {
+		ObjectNode tweet = (ObjectNode) mapper.readTree(json);
+		tweet.remove("retweeted_status");
+		ObjectNode user = (ObjectNode) tweet.get("user");
+		long userId = user.get("id").asLong();
+		int statusesCount = user.get("statuses_count").asInt();
+		int followersCount = user.get("followers_count").asInt();
+		String[] tweetJson = new String[tweets];
+		for (int i = 0; i < tweets; i++) {
+			int author = i % authors;
+			tweet.put("id", tweet.get("id").asLong() + 1);
+			user.put("id", userId + author);
+			user.put("id_str", String.valueOf(userId + author));
+			user.put("statuses_count", statusesCount + i);
+			user.put("followers_count", followersCount + i / 7);
+			tweetJson[i] = mapper.writeValueAsString(tweet);
+		}
+		return tweetJson;
+	}
+
+	@JsonIgnoreProperties(ignoreUnknown = true)
+	@JsonDeserialize(using = LegacyTweetDeserializer.class)
+	abstract static class LegacyTweetMixin extends TwitterObjectMixin {
+	}
+
+}
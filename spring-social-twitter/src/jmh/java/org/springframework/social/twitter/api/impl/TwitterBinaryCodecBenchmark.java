@@ -0,0 +1,133 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.social.twitter.api.Tweet;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Compares {@link TwitterBinaryCodec} with Java serialization, and with keeping a tweet as Twitter's JSON or as the equivalent Smile,
+ * for a retweet from the streaming API. The encoded sizes are printed when the benchmark starts.
+ * The library only reads Twitter's JSON, so there's nothing to compare encoding with for JSON and Smile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TwitterBinaryCodecBenchmark {
+
+	private Tweet tweet;
+
+	private byte[] binary;
+
+	private byte[] serialized;
+
+	private String json;
+
+	private byte[] smile;
+
+	private ObjectReader jsonReader;
+
+	private ObjectReader smileReader;
+
+	@Setup
+	public void setUp() throws IOException, ClassNotFoundException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(TwitterBinaryCodecBenchmark.class.getResourceAsStream("filter-stream-track.json"), StandardCharsets.UTF_8));
+		try {
+			json = reader.readLine();
+		} finally {
+			reader.close();
+		}
+		jsonReader = TwitterObjectMapper.readerFor(Tweet.class);
+		tweet = jsonReader.readValue(json);
+		ObjectMapper smileMapper = new ObjectMapper(new SmileFactory()).registerModule(new TwitterModule());
+		smile = smileMapper.writeValueAsBytes(TwitterObjectMapper.get().readTree(json));
+		smileReader = smileMapper.readerFor(Tweet.class);
+		binary = encodeBinary();
+		serialized = serialize();
+		ByteArrayOutputStream withoutProfiles = new ByteArrayOutputStream();
+		TwitterBinaryCodec.Encoder encoder = new TwitterBinaryCodec.Encoder(withoutProfiles);
+		encoder.setIncludeProfiles(false);
+		encoder.writeTweet(tweet);
+		System.out.printf("%nEncoded sizes: binary %d B (%d B without profiles), Java serialization %d B, JSON %d B, Smile %d B%n",
+				binary.length, withoutProfiles.size(), serialized.length, json.getBytes(StandardCharsets.UTF_8).length, smile.length);
+	}
+
+	@Benchmark
+	public byte[] encodeBinary() {
+		return TwitterBinaryCodec.encode(tweet);
+	}
+
+	@Benchmark
+	public Tweet decodeBinary() throws IOException {
+		return TwitterBinaryCodec.decodeTweet(binary);
+	}
+
+	@Benchmark
+	public byte[] serialize() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(tweet);
+		out.close();
+		return bytes.toByteArray();
+	}
+
+	@Benchmark
+	public Object deserialize() throws IOException, ClassNotFoundException {
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized));
+		try {
+			return in.readObject();
+		} finally {
+			in.close();
+		}
+	}
+
+	@Benchmark
+	public Tweet readJson() throws IOException {
+		return jsonReader.readValue(json);
+	}
+
+	@Benchmark
+	public Tweet readSmile() throws IOException {
+		return smileReader.readValue(smile);
+	}
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api;
+
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.LongFunction;
+import java.util.stream.StreamSupport;
+
+/**
+ * An iterator over the elements of a response that is read from the connection as it is iterated, rather than being read whole up front.
+ * Holds the connection open until every element has been read or the iterator is closed, so an iterator that isn't read to the end should be closed.
+ * @param <T> the element type
+ */
+public interface CloseableIterator<T> extends Iterator<T>, Closeable {
+
+	/**
+	 * Closes the underlying connection. Any elements that haven't been read yet are discarded.
+	 * Does nothing if the iterator is already closed.
+	 */
+	void close();
+
+	/**
+	 * Wraps this iterator in a sequential stream over its remaining elements, which closes the iterator when the stream is closed.
+	 * @return a stream of the remaining elements
+	 */
+	default java.util.stream.Stream<T> stream() {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(new Runnable() {
+					public void run() {
+						close();
+					}
+				});
+	}
+
+	/**
+	 * Adapts an iterator over elements that have already been read, e.g. those of a list, whose close() just discards the elements that are left.
+	 * @param iterator the iterator to adapt
+	 * @return a CloseableIterator over the iterator's elements
+	 */
+	static <T> CloseableIterator<T> of(final Iterator<T> iterator) {
+		return new CloseableIterator<T>() {
+			private boolean closed;
+			public boolean hasNext() {
+				return !closed && iterator.hasNext();
+			}
+			public T next() {
+				if (closed) {
+					throw new NoSuchElementException();
+				}
+				return iterator.next();
+			}
+			public void close() {
+				closed = true;
+			}
+		};
+	}
+
+	/**
+	 * Iterates over the items of every page of a cursored resource, fetching each page with the given function once the previous page has been read.
+	 * Closing the iterator stops it fetching pages.
+	 * @param pages fetches the page at the given cursor, starting from -1
+	 * @return an iterator over the items of every page
+	 */
+	static <T> CloseableIterator<T> ofCursor(final LongFunction<CursoredList<T>> pages) {
+		return new CloseableIterator<T>() {
+			private Iterator<T> current = Collections.<T>emptyIterator();
+			private long nextCursor = -1;
+			private boolean lastPage;
+			public boolean hasNext() {
+				while (!current.hasNext() && !lastPage) {
+					CursoredList<T> page = pages.apply(nextCursor);
+					current = page.iterator();
+					lastPage = !page.hasNext();
+					nextCursor = page.getNextCursor();
+				}
+				return current.hasNext();
+			}
+			public T next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return current.next();
+			}
+			public void close() {
+				current = Collections.<T>emptyIterator();
+				lastPage = true;
+			}
+		};
+	}
+
+}
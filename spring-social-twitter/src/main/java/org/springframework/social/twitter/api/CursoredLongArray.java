@@ -0,0 +1,141 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.stream.LongStream;
+
+/**
+ * A page of IDs that includes previous and next cursors, like a {@link CursoredList} of Longs, but holding the IDs in a long[] rather than boxing each one.
+ * A full page of 5000 IDs takes about 40KB this way, against about 140KB as a CursoredList.
+ * Use a {@link LongIdCollector} to gather the IDs from several pages.
+ */
+public class CursoredLongArray implements Iterable<Long> {
+
+	private final long[] ids;
+
+	private final long previousCursor;
+
+	private final long nextCursor;
+
+	/**
+	 * @param ids the IDs, which are held as given rather than copied
+	 * @param previousCursor the cursor to retrieve the previous page of results
+	 * @param nextCursor the cursor to retrieve the next page of results
+	 */
+	public CursoredLongArray(long[] ids, long previousCursor, long nextCursor) {
+		this.ids = ids;
+		this.previousCursor = previousCursor;
+		this.nextCursor = nextCursor;
+	}
+
+	/**
+	 * Unboxes a page of IDs read as a {@link CursoredList}.
+	 * @param page the page of IDs
+	 * @return the page's IDs in a long[], with its cursors
+	 */
+	public static CursoredLongArray of(CursoredList<Long> page) {
+		long[] ids = new long[page.size()];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = page.get(i);
+		}
+		return new CursoredLongArray(ids, page.getPreviousCursor(), page.getNextCursor());
+	}
+
+	/**
+	 * @return the number of IDs in the page
+	 */
+	public int size() {
+		return ids.length;
+	}
+
+	public boolean isEmpty() {
+		return ids.length == 0;
+	}
+
+	/**
+	 * @param index the position of the ID in the page
+	 * @return the ID
+	 */
+	public long get(int index) {
+		return ids[index];
+	}
+
+	/**
+	 * @return a copy of the page's IDs
+	 */
+	public long[] toArray() {
+		return ids.clone();
+	}
+
+	/**
+	 * @return an iterator over the IDs, whose {@link PrimitiveIterator.OfLong#nextLong()} doesn't box them
+	 */
+	public PrimitiveIterator.OfLong iterator() {
+		return new PrimitiveIterator.OfLong() {
+			private int next;
+			public boolean hasNext() {
+				return next < ids.length;
+			}
+			public long nextLong() {
+				if (next >= ids.length) {
+					throw new NoSuchElementException();
+				}
+				return ids[next++];
+			}
+		};
+	}
+
+	public LongStream stream() {
+		return Arrays.stream(ids);
+	}
+
+	/**
+	 * @return the cursor to retrieve the previous page of results.
+	 */
+	public long getPreviousCursor() {
+		return previousCursor;
+	}
+
+	/**
+	 * @return the cursor value to retrieve the next page of results.
+	 */
+	public long getNextCursor() {
+		return nextCursor;
+	}
+
+	/**
+	 * @return true if there is a previous page of results.
+	 */
+	public boolean hasPrevious() {
+		return previousCursor > 0;
+	}
+
+	/**
+	 * @return true if there is a next page of results.
+	 */
+	public boolean hasNext() {
+		return nextCursor > 0;
+	}
+
+	// for LongIdCollector, to append the IDs without copying them first
+	long[] ids() {
+		return ids;
+	}
+
+}
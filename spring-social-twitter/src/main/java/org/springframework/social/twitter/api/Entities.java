@@ -16,99 +16,102 @@
 package org.springframework.social.twitter.api;
 
 import java.io.Serializable;
+import java.util.AbstractList;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.RandomAccess;
 
 /**
  * <p>A json representation of entities found within twitter status objects.<p>
+ * <p>Entities are kept with every tweet, so they're held compactly: each kind in an immutable list that's sized to fit,
+ * with the kinds a tweet doesn't have sharing a single empty list. The lists can't be modified; copy them to change them.<p>
  * @author bowen
  */
 public class Entities extends TwitterObject implements Serializable {
-	
+
 	private static final long serialVersionUID = 1L;
-	
-	private List<UrlEntity> urls = new LinkedList<UrlEntity>();
-	
-	private List<HashTagEntity> tags = new LinkedList<HashTagEntity>();
-	
-	private List<MentionEntity> mentions = new LinkedList<MentionEntity>();
-	
-	private List<MediaEntity> media = new LinkedList<MediaEntity>();
 
-	private List<TickerSymbolEntity> tickerSymbols = new LinkedList<TickerSymbolEntity>();
+	private List<UrlEntity> urls;
+
+	private List<HashTagEntity> tags;
+
+	private List<MentionEntity> mentions;
+
+	private List<MediaEntity> media;
+
+	private List<TickerSymbolEntity> tickerSymbols;
 
 	public Entities(List<UrlEntity> urls, List<HashTagEntity> tags, List<MentionEntity> mentions, List<MediaEntity> media) {
-		this.urls = urls;
-		this.tags = tags;
-		this.mentions = mentions;
-		this.media = media;
+		this(urls, tags, mentions, media, null);
 	}
-	
+
 	public Entities(List<UrlEntity> urls, List<HashTagEntity> tags, List<MentionEntity> mentions, List<MediaEntity> media, List<TickerSymbolEntity> tickerSymbols) {
-		this(urls, tags, mentions, media);
-		this.tickerSymbols = tickerSymbols;
+		this.urls = compact(urls);
+		this.tags = compact(tags);
+		this.mentions = compact(mentions);
+		this.media = compact(media);
+		this.tickerSymbols = compact(tickerSymbols);
 	}
 
+	/**
+	 * @return the URLs in the tweet, as an unmodifiable list; empty if there are none
+	 */
 	public List<UrlEntity> getUrls() {
-		if (this.urls == null) {
-			return Collections.emptyList();
-		}
 		return this.urls;
 	}
 	
 	
+	/**
+	 * @return the hashtags in the tweet, as an unmodifiable list; empty if there are none
+	 */
 	public List<HashTagEntity> getHashTags() {
-		if (this.tags == null) {
-			return Collections.emptyList();
-		}
 		return this.tags;
 	}
 	
 	
+	/**
+	 * @return the user mentions in the tweet, as an unmodifiable list; empty if there are none
+	 */
 	public List<MentionEntity> getMentions() {
-		if (this.mentions == null) {
-			return Collections.emptyList();
-		}
 		return this.mentions;
 	}
 	
 	
+	/**
+	 * @return the media in the tweet, as an unmodifiable list; empty if there are none
+	 */
 	public List<MediaEntity> getMedia() {
-		if (this.media == null) {
-			return Collections.emptyList();
-		}
 		return this.media;
 	}
 	
+	/**
+	 * @return the ticker symbols in the tweet, as an unmodifiable list; empty if there are none
+	 */
 	public List<TickerSymbolEntity> getTickerSymbols() {
-		if (this.tickerSymbols == null) {
-			return Collections.emptyList();
-		}
 		return this.tickerSymbols;
 	}
 	
 	public boolean hasUrls() {
-		return this.urls != null && !this.urls.isEmpty();
+		return !this.urls.isEmpty();
 	}
 	
 	
 	public boolean hasTags() {
-		return this.tags != null && !this.tags.isEmpty();
+		return !this.tags.isEmpty();
 	}
 	
 	
 	public boolean hasMentions() {
-		return this.mentions != null && !this.mentions.isEmpty();
+		return !this.mentions.isEmpty();
 	}
 	
 	
 	public boolean hasMedia() {
-		return this.media != null && !this.media.isEmpty();
+		return !this.media.isEmpty();
 	}
 	
 	public boolean hasTickerSymbols() {
-		return this.tickerSymbols != null && !this.tickerSymbols.isEmpty();
+		return !this.tickerSymbols.isEmpty();
 	}
 	
 	@Override
@@ -121,19 +124,19 @@ public class Entities extends TwitterObject implements Serializable {
 		}
 		
 		Entities entities = (Entities) o;
-		if (media != null ? !media.equals(entities.media) : entities.media != null) {
+		if (!media.equals(entities.media)) {
 			return false;
 		}
-		if (mentions != null ? !mentions.equals(entities.mentions) : entities.mentions != null) {
+		if (!mentions.equals(entities.mentions)) {
 			return false;
 		}
-		if (tags != null ? !tags.equals(entities.tags) : entities.tags != null) {
+		if (!tags.equals(entities.tags)) {
 			return false;
 		}
-		if (urls != null ? !urls.equals(entities.urls) : entities.urls != null) {
+		if (!urls.equals(entities.urls)) {
 			return false;
 		}
-		if (tickerSymbols != null ? !tickerSymbols.equals(entities.tickerSymbols) : entities.tickerSymbols != null) {
+		if (!tickerSymbols.equals(entities.tickerSymbols)) {
 			return false;
 		}
 		
@@ -143,11 +146,51 @@ public class Entities extends TwitterObject implements Serializable {
 	
 	@Override
 	public int hashCode() {
-		int result = urls != null ? urls.hashCode() : 0;
-		result = 31 * result + (tags != null ? tags.hashCode() : 0);
-		result = 31 * result + (mentions != null ? mentions.hashCode() : 0);
-		result = 31 * result + (media != null ? media.hashCode() : 0);
-		result = 31 * result + (tickerSymbols != null ? tickerSymbols.hashCode() : 0);
+		int result = urls.hashCode();
+		result = 31 * result + tags.hashCode();
+		result = 31 * result + mentions.hashCode();
+		result = 31 * result + media.hashCode();
+		result = 31 * result + tickerSymbols.hashCode();
 		return result;
 	}
+
+	// entities serialized before they were held compactly may have null lists
+	private Object readResolve() {
+		return new Entities(urls, tags, mentions, media, tickerSymbols);
+	}
+
+	// an immutable copy that's no bigger than it needs to be
+	@SuppressWarnings("unchecked")
+	private static <T> List<T> compact(List<T> list) {
+		if (list == null || list.isEmpty()) {
+			return Collections.emptyList();
+		}
+		if (list instanceof EntityList) {
+			return list;
+		}
+		return new EntityList<T>((T[]) list.toArray());
+	}
+
+	private static final class EntityList<T> extends AbstractList<T> implements RandomAccess, Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final T[] entities;
+
+		EntityList(T[] entities) {
+			this.entities = entities;
+		}
+
+		@Override
+		public T get(int index) {
+			return entities[index];
+		}
+
+		@Override
+		public int size() {
+			return entities.length;
+		}
+
+	}
+
 }
@@ -15,6 +15,8 @@
  */
 package org.springframework.social.twitter.api;
 
+import java.util.function.LongFunction;
+
 import org.springframework.social.ApiException;
 import org.springframework.social.MissingAuthorizationException;
 
@@ -161,6 +163,49 @@ public interface FriendOperations {
 	 */
 	CursoredList<Long> getFriendIdsInCursor(String screenName, long cursor);
 
+	/**
+	 * Retrieves up to 5000 IDs for the Twitter users that the authenticated user follows, in a long[] rather than as Longs.
+	 * <p>
+	 * The default implementation unboxes the page that {@link #getFriendIdsInCursor(long)} returns.
+	 * @param cursor The cursor value to fetch a specific page of entries. Use -1 for the first page of entries.
+	 * @return a page of user IDs
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials.
+	 */
+	default CursoredLongArray getFriendIdArrayInCursor(long cursor) {
+		return CursoredLongArray.of(getFriendIdsInCursor(cursor));
+	}
+
+	/**
+	 * Retrieves up to 5000 IDs for the Twitter users that the given user follows, in a long[] rather than as Longs.
+	 * Supports either application or user authorization.
+	 * <p>
+	 * The default implementation unboxes the page that {@link #getFriendIdsInCursor(long, long)} returns.
+	 * @param userId the user's Twitter ID
+	 * @param cursor the cursor value to fetch a specific page of entries. Use -1 for the first page of entries.
+	 * @return a page of user IDs
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	default CursoredLongArray getFriendIdArrayInCursor(long userId, long cursor) {
+		return CursoredLongArray.of(getFriendIdsInCursor(userId, cursor));
+	}
+
+	/**
+	 * Retrieves up to 5000 IDs for the Twitter users that the given user follows, in a long[] rather than as Longs.
+	 * Supports either application or user authorization.
+	 * <p>
+	 * The default implementation unboxes the page that {@link #getFriendIdsInCursor(String, long)} returns.
+	 * @param screenName the user's Twitter screen name
+	 * @param cursor the cursor value to fetch a specific page of entries. Use -1 for the first page of entries.
+	 * @return a page of user IDs
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	default CursoredLongArray getFriendIdArrayInCursor(String screenName, long cursor) {
+		return CursoredLongArray.of(getFriendIdsInCursor(screenName, cursor));
+	}
+
 	/**
 	 * Retrieves a list of up to 5000 users that the authenticated user is being followed by
 	 * Note that this method make multiple calls to Twitter's REST API (one call to get a list of the follower IDs and one call for every 100 followers).
@@ -297,6 +342,321 @@ public interface FriendOperations {
 	 */
 	CursoredList<Long> getFollowerIdsInCursor(String screenName, long cursor);
 
+	/**
+	 * Retrieves up to 5000 IDs for the Twitter users that follow the authenticated user, in a long[] rather than as Longs.
+	 * <p>
+	 * The default implementation unboxes the page that {@link #getFollowerIdsInCursor(long)} returns.
+	 * @param cursor The cursor value to fetch a specific page of entries. Use -1 for the first page of entries.
+	 * @return a page of user IDs
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials.
+	 */
+	default CursoredLongArray getFollowerIdArrayInCursor(long cursor) {
+		return CursoredLongArray.of(getFollowerIdsInCursor(cursor));
+	}
+
+	/**
+	 * Retrieves up to 5000 IDs for the Twitter users that follow the given user, in a long[] rather than as Longs.
+	 * Supports either application or user authorization.
+	 * <p>
+	 * The default implementation unboxes the page that {@link #getFollowerIdsInCursor(long, long)} returns.
+	 * @param userId the user's Twitter ID
+	 * @param cursor the cursor value to fetch a specific page of entries. Use -1 for the first page of entries.
+	 * @return a page of user IDs
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	default CursoredLongArray getFollowerIdArrayInCursor(long userId, long cursor) {
+		return CursoredLongArray.of(getFollowerIdsInCursor(userId, cursor));
+	}
+
+	/**
+	 * Retrieves up to 5000 IDs for the Twitter users that follow the given user, in a long[] rather than as Longs.
+	 * Supports either application or user authorization.
+	 * <p>
+	 * The default implementation unboxes the page that {@link #getFollowerIdsInCursor(String, long)} returns.
+	 * @param screenName the user's Twitter screen name
+	 * @param cursor the cursor value to fetch a specific page of entries. Use -1 for the first page of entries.
+	 * @return a page of user IDs
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	default CursoredLongArray getFollowerIdArrayInCursor(String screenName, long cursor) {
+		return CursoredLongArray.of(getFollowerIdsInCursor(screenName, cursor));
+	}
+
+	/**
+	 * Iterates over the Twitter profiles of the users the given user follows, across every page of the cursor.
+	 * The following pages are fetched in the background while a page is consumed, as far ahead as TwitterTemplate's cursor prefetch depth allows.
+	 * Supports either application or user authorization.
+	 * <p>
+	 * The default implementation fetches each page with {@link #getFriendsInCursor(long, long)} once the previous page has been read, without fetching ahead.
+	 * @param userId the user's Twitter ID
+	 * @return an iterator over every page, which should be closed if it isn't read to the end
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	default CloseableIterator<TwitterProfile> iterateAllFriends(final long userId) {
+		return CloseableIterator.ofCursor(new LongFunction<CursoredList<TwitterProfile>>() {
+			public CursoredList<TwitterProfile> apply(long cursor) {
+				return getFriendsInCursor(userId, cursor);
+			}
+		});
+	}
+
+	/**
+	 * Iterates over the Twitter profiles of the users the given user follows, across every page of the cursor.
+	 * The following pages are fetched in the background while a page is consumed, as far ahead as TwitterTemplate's cursor prefetch depth allows.
+	 * Supports either application or user authorization.
+	 * <p>
+	 * The default implementation fetches each page with {@link #getFriendsInCursor(String, long)} once the previous page has been read, without fetching ahead.
+	 * @param screenName the user's Twitter screen name
+	 * @return an iterator over every page, which should be closed if it isn't read to the end
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	default CloseableIterator<TwitterProfile> iterateAllFriends(final String screenName) {
+		return CloseableIterator.ofCursor(new LongFunction<CursoredList<TwitterProfile>>() {
+			public CursoredList<TwitterProfile> apply(long cursor) {
+				return getFriendsInCursor(screenName, cursor);
+			}
+		});
+	}
+
+	/**
+	 * Streams the Twitter profiles of the users the given user follows, across every page of the cursor.
+	 * The following pages are fetched in the background while a page is consumed, as far ahead as TwitterTemplate's cursor prefetch depth allows.
+	 * Supports either application or user authorization.
+	 * <p>
+	 * The default implementation streams the elements of {@link #iterateAllFriends(long)}.
+	 * @param userId the user's Twitter ID
+	 * @return a stream of every page, which should be closed if it isn't consumed to the end
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	default java.util.stream.Stream<TwitterProfile> streamAllFriends(long userId) {
+		return iterateAllFriends(userId).stream();
+	}
+
+	/**
+	 * Streams the Twitter profiles of the users the given user follows, across every page of the cursor.
+	 * The following pages are fetched in the background while a page is consumed, as far ahead as TwitterTemplate's cursor prefetch depth allows.
+	 * Supports either application or user authorization.
+	 * <p>
+	 * The default implementation streams the elements of {@link #iterateAllFriends(String)}.
+	 * @param screenName the user's Twitter screen name
+	 * @return a stream of every page, which should be closed if it isn't consumed to the end
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	default java.util.stream.Stream<TwitterProfile> streamAllFriends(String screenName) {
+		return iterateAllFriends(screenName).stream();
+	}
+
+	/**
+	 * Iterates over the IDs of the users the given user follows, across every page of the cursor.
+	 * The following pages are fetched in the background while a page is consumed, as far ahead as TwitterTemplate's cursor prefetch depth allows.
+	 * Supports either application or user authorization.
+	 * <p>
+	 * The default implementation fetches each page with {@link #getFriendIdsInCursor(long, long)} once the previous page has been read, without fetching ahead.
+	 * @param userId the user's Twitter ID
+	 * @return an iterator over every page, which should be closed if it isn't read to the end
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	default CloseableIterator<Long> iterateAllFriendIds(final long userId) {
+		return CloseableIterator.ofCursor(new LongFunction<CursoredList<Long>>() {
+			public CursoredList<Long> apply(long cursor) {
+				return getFriendIdsInCursor(userId, cursor);
+			}
+		});
+	}
+
+	/**
+	 * Iterates over the IDs of the users the given user follows, across every page of the cursor.
+	 * The following pages are fetched in the background while a page is consumed, as far ahead as TwitterTemplate's cursor prefetch depth allows.
+	 * Supports either application or user authorization.
+	 * <p>
+	 * The default implementation fetches each page with {@link #getFriendIdsInCursor(String, long)} once the previous page has been read, without fetching ahead.
+	 * @param screenName the user's Twitter screen name
+	 * @return an iterator over every page, which should be closed if it isn't read to the end
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	default CloseableIterator<Long> iterateAllFriendIds(final String screenName) {
+		return CloseableIterator.ofCursor(new LongFunction<CursoredList<Long>>() {
+			public CursoredList<Long> apply(long cursor) {
+				return getFriendIdsInCursor(screenName, cursor);
+			}
+		});
+	}
+
+	/**
+	 * Streams the IDs of the users the given user follows, across every page of the cursor.
+	 * The following pages are fetched in the background while a page is consumed, as far ahead as TwitterTemplate's cursor prefetch depth allows.
+	 * Supports either application or user authorization.
+	 * <p>
+	 * The default implementation streams the elements of {@link #iterateAllFriendIds(long)}.
+	 * @param userId the user's Twitter ID
+	 * @return a stream of every page, which should be closed if it isn't consumed to the end
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	default java.util.stream.Stream<Long> streamAllFriendIds(long userId) {
+		return iterateAllFriendIds(userId).stream();
+	}
+
+	/**
+	 * Streams the IDs of the users the given user follows, across every page of the cursor.
+	 * The following pages are fetched in the background while a page is consumed, as far ahead as TwitterTemplate's cursor prefetch depth allows.
+	 * Supports either application or user authorization.
+	 * <p>
+	 * The default implementation streams the elements of {@link #iterateAllFriendIds(String)}.
+	 * @param screenName the user's Twitter screen name
+	 * @return a stream of every page, which should be closed if it isn't consumed to the end
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	default java.util.stream.Stream<Long> streamAllFriendIds(String screenName) {
+		return iterateAllFriendIds(screenName).stream();
+	}
+
+	/**
+	 * Iterates over the Twitter profiles of the users that follow the given user, across every page of the cursor.
+	 * The following pages are fetched in the background while a page is consumed, as far ahead as TwitterTemplate's cursor prefetch depth allows.
+	 * Supports either application or user authorization.
+	 * <p>
+	 * The default implementation fetches each page with {@link #getFollowersInCursor(long, long)} once the previous page has been read, without fetching ahead.
+	 * @param userId the user's Twitter ID
+	 * @return an iterator over every page, which should be closed if it isn't read to the end
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	default CloseableIterator<TwitterProfile> iterateAllFollowers(final long userId) {
+		return CloseableIterator.ofCursor(new LongFunction<CursoredList<TwitterProfile>>() {
+			public CursoredList<TwitterProfile> apply(long cursor) {
+				return getFollowersInCursor(userId, cursor);
+			}
+		});
+	}
+
+	/**
+	 * Iterates over the Twitter profiles of the users that follow the given user, across every page of the cursor.
+	 * The following pages are fetched in the background while a page is consumed, as far ahead as TwitterTemplate's cursor prefetch depth allows.
+	 * Supports either application or user authorization.
+	 * <p>
+	 * The default implementation fetches each page with {@link #getFollowersInCursor(String, long)} once the previous page has been read, without fetching ahead.
+	 * @param screenName the user's Twitter screen name
+	 * @return an iterator over every page, which should be closed if it isn't read to the end
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	default CloseableIterator<TwitterProfile> iterateAllFollowers(final String screenName) {
+		return CloseableIterator.ofCursor(new LongFunction<CursoredList<TwitterProfile>>() {
+			public CursoredList<TwitterProfile> apply(long cursor) {
+				return getFollowersInCursor(screenName, cursor);
+			}
+		});
+	}
+
+	/**
+	 * Streams the Twitter profiles of the users that follow the given user, across every page of the cursor.
+	 * The following pages are fetched in the background while a page is consumed, as far ahead as TwitterTemplate's cursor prefetch depth allows.
+	 * Supports either application or user authorization.
+	 * <p>
+	 * The default implementation streams the elements of {@link #iterateAllFollowers(long)}.
+	 * @param userId the user's Twitter ID
+	 * @return a stream of every page, which should be closed if it isn't consumed to the end
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	default java.util.stream.Stream<TwitterProfile> streamAllFollowers(long userId) {
+		return iterateAllFollowers(userId).stream();
+	}
+
+	/**
+	 * Streams the Twitter profiles of the users that follow the given user, across every page of the cursor.
+	 * The following pages are fetched in the background while a page is consumed, as far ahead as TwitterTemplate's cursor prefetch depth allows.
+	 * Supports either application or user authorization.
+	 * <p>
+	 * The default implementation streams the elements of {@link #iterateAllFollowers(String)}.
+	 * @param screenName the user's Twitter screen name
+	 * @return a stream of every page, which should be closed if it isn't consumed to the end
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	default java.util.stream.Stream<TwitterProfile> streamAllFollowers(String screenName) {
+		return iterateAllFollowers(screenName).stream();
+	}
+
+	/**
+	 * Iterates over the IDs of the users that follow the given user, across every page of the cursor.
+	 * The following pages are fetched in the background while a page is consumed, as far ahead as TwitterTemplate's cursor prefetch depth allows.
+	 * Supports either application or user authorization.
+	 * <p>
+	 * The default implementation fetches each page with {@link #getFollowerIdsInCursor(long, long)} once the previous page has been read, without fetching ahead.
+	 * @param userId the user's Twitter ID
+	 * @return an iterator over every page, which should be closed if it isn't read to the end
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	default CloseableIterator<Long> iterateAllFollowerIds(final long userId) {
+		return CloseableIterator.ofCursor(new LongFunction<CursoredList<Long>>() {
+			public CursoredList<Long> apply(long cursor) {
+				return getFollowerIdsInCursor(userId, cursor);
+			}
+		});
+	}
+
+	/**
+	 * Iterates over the IDs of the users that follow the given user, across every page of the cursor.
+	 * The following pages are fetched in the background while a page is consumed, as far ahead as TwitterTemplate's cursor prefetch depth allows.
+	 * Supports either application or user authorization.
+	 * <p>
+	 * The default implementation fetches each page with {@link #getFollowerIdsInCursor(String, long)} once the previous page has been read, without fetching ahead.
+	 * @param screenName the user's Twitter screen name
+	 * @return an iterator over every page, which should be closed if it isn't read to the end
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	default CloseableIterator<Long> iterateAllFollowerIds(final String screenName) {
+		return CloseableIterator.ofCursor(new LongFunction<CursoredList<Long>>() {
+			public CursoredList<Long> apply(long cursor) {
+				return getFollowerIdsInCursor(screenName, cursor);
+			}
+		});
+	}
+
+	/**
+	 * Streams the IDs of the users that follow the given user, across every page of the cursor.
+	 * The following pages are fetched in the background while a page is consumed, as far ahead as TwitterTemplate's cursor prefetch depth allows.
+	 * Supports either application or user authorization.
+	 * <p>
+	 * The default implementation streams the elements of {@link #iterateAllFollowerIds(long)}.
+	 * @param userId the user's Twitter ID
+	 * @return a stream of every page, which should be closed if it isn't consumed to the end
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	default java.util.stream.Stream<Long> streamAllFollowerIds(long userId) {
+		return iterateAllFollowerIds(userId).stream();
+	}
+
+	/**
+	 * Streams the IDs of the users that follow the given user, across every page of the cursor.
+	 * The following pages are fetched in the background while a page is consumed, as far ahead as TwitterTemplate's cursor prefetch depth allows.
+	 * Supports either application or user authorization.
+	 * <p>
+	 * The default implementation streams the elements of {@link #iterateAllFollowerIds(String)}.
+	 * @param screenName the user's Twitter screen name
+	 * @return a stream of every page, which should be closed if it isn't consumed to the end
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	default java.util.stream.Stream<Long> streamAllFollowerIds(String screenName) {
+		return iterateAllFollowerIds(screenName).stream();
+	}
+
 	/**
 	 * Allows the authenticated user to follow (create a friendship) with another user.
 	 * @param userId The Twitter ID of the user to follow
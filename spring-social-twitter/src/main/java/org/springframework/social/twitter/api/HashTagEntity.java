@@ -15,8 +15,11 @@
  */
 package org.springframework.social.twitter.api;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
-import java.util.Arrays;
 
 /**
  * <p>A representation of tweet hashtags.</p>
@@ -25,9 +28,18 @@ import java.util.Arrays;
 public class HashTagEntity extends TwitterObject implements Serializable {
 	private static final long serialVersionUID = 1L;
 
+	// the serialized form is still that of earlier versions, which held the indices as an int[]
+	private static final ObjectStreamField[] serialPersistentFields = {
+		new ObjectStreamField("text", String.class),
+		new ObjectStreamField("indices", int[].class)
+	};
+
 	private String text;
 
-	private int[] indices;
+	// held as two ints rather than an int[], to keep entities small
+	private int beginIndex;
+
+	private int endIndex;
 
 	public String getText() {
 		return this.text;
@@ -35,16 +47,34 @@ public class HashTagEntity extends TwitterObject implements Serializable {
 
 	public HashTagEntity(String text, int[] indices) {
 		this.text = text;
-		this.indices = indices;
+		boolean hasIndices = indices != null && indices.length > 1;
+		this.beginIndex = hasIndices ? indices[0] : -1;
+		this.endIndex = hasIndices ? indices[1] : -1;
 	}
 
 	public int[] getIndices() {
-		if (this.indices == null || this.indices.length <= 0) {
+		if (this.beginIndex < 0) {
 			return new int[0];
 		}
-		return this.indices;
+		return new int[] { this.beginIndex, this.endIndex };
+	}
+
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		ObjectOutputStream.PutField fields = out.putFields();
+		fields.put("text", text);
+		fields.put("indices", getIndices());
+		out.writeFields();
 	}
 
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		ObjectInputStream.GetField fields = in.readFields();
+		text = (String) fields.get("text", null);
+		int[] indices = (int[]) fields.get("indices", null);
+		boolean hasIndices = indices != null && indices.length > 1;
+		this.beginIndex = hasIndices ? indices[0] : -1;
+		this.endIndex = hasIndices ? indices[1] : -1;
+	}
 
 	@Override
 	public boolean equals(Object o) {
@@ -57,7 +87,7 @@ public class HashTagEntity extends TwitterObject implements Serializable {
 
 		HashTagEntity that = (HashTagEntity) o;
 
-		if (!Arrays.equals(indices, that.indices)) {
+		if (beginIndex != that.beginIndex || endIndex != that.endIndex) {
 			return false;
 		}
 		if (text != null ? !text.equals(that.text) : that.text != null) {
@@ -71,7 +101,7 @@ public class HashTagEntity extends TwitterObject implements Serializable {
 	@Override
 	public int hashCode() {
 		int result = text != null ? text.hashCode() : 0;
-		result = 31 * result + (indices != null ? Arrays.hashCode(indices) : 0);
+		result = 31 * result + (beginIndex < 0 ? 0 : 31 * (31 + beginIndex) + endIndex);
 		return result;
 	}
 }
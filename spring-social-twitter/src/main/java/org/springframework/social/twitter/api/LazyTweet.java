@@ -0,0 +1,134 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api;
+
+import java.util.Date;
+
+/**
+ * A tweet from a stream that is read only as far as it's used. It holds the tweet's raw JSON, along with where each of its top-level values starts,
+ * and decodes each value the first time it's asked for. Decoded values are kept, so asking again is free.
+ * Safe to read from several threads at once, as the listeners of a stream do; threads that ask for a value together may each decode it, but all of them get the same instance.
+ * <p>
+ * Properties follow those of {@link Tweet}, except that a value the tweet doesn't have is null rather than defaulted.
+ * </p>
+ * @see LazyTweetListener
+ */
+public interface LazyTweet {
+
+	/**
+	 * @return the tweet's ID
+	 */
+	String getId();
+
+	/**
+	 * @return the text of the tweet
+	 * @see Tweet#getText()
+	 */
+	String getText();
+
+	/**
+	 * @return when the tweet was created
+	 */
+	Date getCreatedAt();
+
+	/**
+	 * @return the ID of the tweet's author, or 0 if the tweet has no author
+	 */
+	long getFromUserId();
+
+	/**
+	 * @return the screen name of the tweet's author
+	 */
+	String getFromUser();
+
+	/**
+	 * @return the full profile of the tweet's author
+	 */
+	TwitterProfile getUser();
+
+	/**
+	 * @return the tweet's language code
+	 */
+	String getLanguageCode();
+
+	/**
+	 * @return what the tweet was sent with
+	 */
+	String getSource();
+
+	/**
+	 * @return the ID of the tweet this tweet replies to
+	 */
+	Long getInReplyToStatusId();
+
+	/**
+	 * @return the ID of the user this tweet replies to
+	 */
+	Long getInReplyToUserId();
+
+	/**
+	 * @return the screen name of the user this tweet replies to
+	 */
+	String getInReplyToScreenName();
+
+	/**
+	 * @return the number of times the tweet has been retweeted
+	 */
+	Integer getRetweetCount();
+
+	/**
+	 * @return the number of times the tweet has been favorited
+	 */
+	Integer getFavoriteCount();
+
+	/**
+	 * @return true if the authenticating user has retweeted the tweet
+	 */
+	boolean isRetweeted();
+
+	/**
+	 * @return true if the authenticating user has favorited the tweet
+	 */
+	boolean isFavorited();
+
+	/**
+	 * @return true if this tweet is a retweet of another tweet
+	 */
+	boolean isRetweet();
+
+	/**
+	 * @return the tweet that this tweet retweets, read just as lazily, or null if this tweet isn't a retweet
+	 */
+	LazyTweet getRetweetedStatus();
+
+	/**
+	 * @return the tweet's entities, including ticker symbols, or those found in its text if Twitter didn't send any
+	 * @see Tweet#getEntities()
+	 */
+	Entities getEntities();
+
+	/**
+	 * @return the tweet's JSON, as it was received
+	 */
+	String getJson();
+
+	/**
+	 * Deserializes the whole tweet, as a {@link StreamListener} would have received it. The result is kept, so only the first call pays for it.
+	 * @return the tweet
+	 */
+	Tweet toTweet();
+
+}
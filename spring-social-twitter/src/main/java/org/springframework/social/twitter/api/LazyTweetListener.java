@@ -0,0 +1,31 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api;
+
+/**
+ * Callback interface for stream listeners that only look at a few parts of each tweet.
+ * Any {@link StreamListener} given to {@link StreamingOperations} that also implements this interface receives tweets through {@link #onLazyTweet(LazyTweet)}
+ * instead of {@link StreamListener#onTweet(Tweet)}. Tweets are only deserialized whole if some other listener on the stream wants them that way.
+ */
+public interface LazyTweetListener {
+
+	/**
+	 * Called when a new tweet is available on the stream.
+	 * @param tweet a tweet available on the stream, read only as far as the listener uses it
+	 */
+	void onLazyTweet(LazyTweet tweet);
+
+}
@@ -16,6 +16,7 @@
 package org.springframework.social.twitter.api;
 
 import java.util.List;
+import java.util.function.LongFunction;
 
 import org.springframework.social.ApiException;
 import org.springframework.social.MissingAuthorizationException;
@@ -221,6 +222,134 @@ public interface ListOperations {
 	 */
 	CursoredList<TwitterProfile> getListMembersInCursor(String screenName, String listSlug, long cursor);
 
+	/**
+	 * Iterates over the Twitter profiles of the list's members, reading each one from the response as it is asked for rather than reading the whole page of members up front.
+	 * Supports either user or application authorization.
+	 * <p>
+	 * The default implementation delegates to {@link #getListMembers(long)}, which reads the whole page of members up front.
+	 * @param listId the ID of the list.
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 * @return an iterator over the first page of members, which should be closed if it isn't read to the end
+	 */
+	default CloseableIterator<TwitterProfile> iterateListMembers(long listId) {
+		return CloseableIterator.of(getListMembers(listId).iterator());
+	}
+
+	/**
+	 * Iterates over the Twitter profiles of the list's members, reading each one from the response as it is asked for rather than reading the whole page of members up front.
+	 * Supports either user or application authorization.
+	 * <p>
+	 * The default implementation delegates to {@link #getListMembers(String, String)}, which reads the whole page of members up front.
+	 * @param screenName the screen name of the list owner.
+	 * @param listSlug the slug of the list.
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 * @return an iterator over the first page of members, which should be closed if it isn't read to the end
+	 */
+	default CloseableIterator<TwitterProfile> iterateListMembers(String screenName, String listSlug) {
+		return CloseableIterator.of(getListMembers(screenName, listSlug).iterator());
+	}
+
+	/**
+	 * Streams the Twitter profiles of the list's members, reading each one from the response as the stream consumes it rather than reading the whole page of members up front.
+	 * Supports either user or application authorization.
+	 * <p>
+	 * The default implementation delegates to {@link #getListMembers(long)}, which reads the whole page of members up front.
+	 * @param listId the ID of the list.
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 * @return a stream of the first page of members, which should be closed if it isn't consumed to the end
+	 */
+	default java.util.stream.Stream<TwitterProfile> streamListMembers(long listId) {
+		return getListMembers(listId).stream();
+	}
+
+	/**
+	 * Streams the Twitter profiles of the list's members, reading each one from the response as the stream consumes it rather than reading the whole page of members up front.
+	 * Supports either user or application authorization.
+	 * <p>
+	 * The default implementation delegates to {@link #getListMembers(String, String)}, which reads the whole page of members up front.
+	 * @param screenName the screen name of the list owner.
+	 * @param listSlug the slug of the list.
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 * @return a stream of the first page of members, which should be closed if it isn't consumed to the end
+	 */
+	default java.util.stream.Stream<TwitterProfile> streamListMembers(String screenName, String listSlug) {
+		return getListMembers(screenName, listSlug).stream();
+	}
+
+	/**
+	 * Iterates over the Twitter profiles of the list's members, across every page of the cursor.
+	 * The following pages are fetched in the background while a page is consumed, as far ahead as TwitterTemplate's cursor prefetch depth allows.
+	 * Supports either user or application authorization.
+	 * <p>
+	 * The default implementation fetches each page with {@link #getListMembersInCursor(long, long)} once the previous page has been read, without fetching ahead.
+	 * @param listId the ID of the list.
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 * @return an iterator over every page of members, which should be closed if it isn't read to the end
+	 */
+	default CloseableIterator<TwitterProfile> iterateAllListMembers(final long listId) {
+		return CloseableIterator.ofCursor(new LongFunction<CursoredList<TwitterProfile>>() {
+			public CursoredList<TwitterProfile> apply(long cursor) {
+				return getListMembersInCursor(listId, cursor);
+			}
+		});
+	}
+
+	/**
+	 * Iterates over the Twitter profiles of the list's members, across every page of the cursor.
+	 * The following pages are fetched in the background while a page is consumed, as far ahead as TwitterTemplate's cursor prefetch depth allows.
+	 * Supports either user or application authorization.
+	 * <p>
+	 * The default implementation fetches each page with {@link #getListMembersInCursor(String, String, long)} once the previous page has been read, without fetching ahead.
+	 * @param screenName the screen name of the list owner.
+	 * @param listSlug the slug of the list.
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 * @return an iterator over every page of members, which should be closed if it isn't read to the end
+	 */
+	default CloseableIterator<TwitterProfile> iterateAllListMembers(final String screenName, final String listSlug) {
+		return CloseableIterator.ofCursor(new LongFunction<CursoredList<TwitterProfile>>() {
+			public CursoredList<TwitterProfile> apply(long cursor) {
+				return getListMembersInCursor(screenName, listSlug, cursor);
+			}
+		});
+	}
+
+	/**
+	 * Streams the Twitter profiles of the list's members, across every page of the cursor.
+	 * The following pages are fetched in the background while a page is consumed, as far ahead as TwitterTemplate's cursor prefetch depth allows.
+	 * Supports either user or application authorization.
+	 * <p>
+	 * The default implementation streams the elements of {@link #iterateAllListMembers(long)}.
+	 * @param listId the ID of the list.
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 * @return a stream of every page of members, which should be closed if it isn't consumed to the end
+	 */
+	default java.util.stream.Stream<TwitterProfile> streamAllListMembers(long listId) {
+		return iterateAllListMembers(listId).stream();
+	}
+
+	/**
+	 * Streams the Twitter profiles of the list's members, across every page of the cursor.
+	 * The following pages are fetched in the background while a page is consumed, as far ahead as TwitterTemplate's cursor prefetch depth allows.
+	 * Supports either user or application authorization.
+	 * <p>
+	 * The default implementation streams the elements of {@link #iterateAllListMembers(String, String)}.
+	 * @param screenName the screen name of the list owner.
+	 * @param listSlug the slug of the list.
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 * @return a stream of every page of members, which should be closed if it isn't consumed to the end
+	 */
+	default java.util.stream.Stream<TwitterProfile> streamAllListMembers(String screenName, String listSlug) {
+		return iterateAllListMembers(screenName, listSlug).stream();
+	}
+
 	/**
 	 * Adds one or more new members to a user list.
 	 * @param listId the ID of the list.
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api;
+
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+/**
+ * Gathers IDs into one long[], appending a page of IDs at a time, e.g. to collect every follower of an account:
+ * <pre>
+ * LongIdCollector followerIds = new LongIdCollector();
+ * CursoredLongArray page = friendOperations.getFollowerIdArrayInCursor("habuma", -1);
+ * followerIds.addAll(page);
+ * while (page.hasNext()) {
+ *     page = friendOperations.getFollowerIdArrayInCursor("habuma", page.getNextCursor());
+ *     followerIds.addAll(page);
+ * }
+ * </pre>
+ * Its add methods also suit {@link LongStream#collect(java.util.function.Supplier, java.util.function.ObjLongConsumer, java.util.function.BiConsumer)}.
+ * Not thread-safe.
+ */
+public class LongIdCollector {
+
+	private long[] ids;
+
+	private int size;
+
+	public LongIdCollector() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param initialCapacity how many IDs to make room for at first, e.g. an account's follower count
+	 */
+	public LongIdCollector(int initialCapacity) {
+		ids = new long[initialCapacity];
+	}
+
+	public LongIdCollector add(long id) {
+		ensureCapacity(size + 1);
+		ids[size++] = id;
+		return this;
+	}
+
+	public LongIdCollector addAll(CursoredLongArray page) {
+		return addAll(page.ids(), page.size());
+	}
+
+	public LongIdCollector addAll(LongIdCollector other) {
+		return addAll(other.ids, other.size);
+	}
+
+	/**
+	 * @return the number of IDs collected
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param index the position of the ID, in the order the IDs were added
+	 * @return the ID
+	 */
+	public long get(int index) {
+		if (index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		return ids[index];
+	}
+
+	/**
+	 * @return the IDs collected, in an array of their own
+	 */
+	public long[] toArray() {
+		return Arrays.copyOf(ids, size);
+	}
+
+	public LongStream stream() {
+		return Arrays.stream(ids, 0, size);
+	}
+
+	private LongIdCollector addAll(long[] source, int length) {
+		ensureCapacity(size + length);
+		System.arraycopy(source, 0, ids, size, length);
+		size += length;
+		return this;
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity < 0) {
+			throw new IllegalStateException("Too many IDs to collect in one array");
+		}
+		if (capacity > ids.length) {
+			ids = Arrays.copyOf(ids, Math.max(capacity, ids.length + (ids.length >> 1) + 1));
+		}
+	}
+
+	private static final int DEFAULT_CAPACITY = 5000;
+
+}
@@ -15,8 +15,11 @@
  */
 package org.springframework.social.twitter.api;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
-import java.util.Arrays;
 
 /**
  * <p>A representation of embedded media entity.</p>
@@ -26,6 +29,18 @@ public class MediaEntity extends TwitterObject implements Serializable {
 
 	private static final long serialVersionUID = 1L;
 
+	// the serialized form is still that of earlier versions, which held the indices as an int[]
+	private static final ObjectStreamField[] serialPersistentFields = {
+		new ObjectStreamField("id", long.class),
+		new ObjectStreamField("mediaHttp", String.class),
+		new ObjectStreamField("mediaHttps", String.class),
+		new ObjectStreamField("url", String.class),
+		new ObjectStreamField("display", String.class),
+		new ObjectStreamField("expanded", String.class),
+		new ObjectStreamField("type", String.class),
+		new ObjectStreamField("indices", int[].class)
+	};
+
 	private long id;
 
 	private String mediaHttp;
@@ -40,7 +55,10 @@ public class MediaEntity extends TwitterObject implements Serializable {
 
 	private String type;
 
-	private int[] indices;
+	// held as two ints rather than an int[], to keep entities small
+	private int beginIndex;
+
+	private int endIndex;
 
 	public MediaEntity(long id, String mediaHttp, String mediaHttps, String url, String display, String expanded, String type, int[] indices) {
 		this.id = id;
@@ -50,7 +68,9 @@ public class MediaEntity extends TwitterObject implements Serializable {
 		this.display = display;
 		this.expanded = expanded;
 		this.type = type;
-		this.indices = indices;
+		boolean hasIndices = indices != null && indices.length > 1;
+		this.beginIndex = hasIndices ? indices[0] : -1;
+		this.endIndex = hasIndices ? indices[1] : -1;
 	}
 
 
@@ -90,12 +110,40 @@ public class MediaEntity extends TwitterObject implements Serializable {
 
 
 	public int[] getIndices() {
-		if (this.indices == null || this.indices.length <= 0) {
+		if (this.beginIndex < 0) {
 			return new int[0];
 		}
-		return this.indices;
+		return new int[] { this.beginIndex, this.endIndex };
+	}
+
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		ObjectOutputStream.PutField fields = out.putFields();
+		fields.put("id", id);
+		fields.put("mediaHttp", mediaHttp);
+		fields.put("mediaHttps", mediaHttps);
+		fields.put("url", url);
+		fields.put("display", display);
+		fields.put("expanded", expanded);
+		fields.put("type", type);
+		fields.put("indices", getIndices());
+		out.writeFields();
 	}
 
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		ObjectInputStream.GetField fields = in.readFields();
+		id = fields.get("id", 0L);
+		mediaHttp = (String) fields.get("mediaHttp", null);
+		mediaHttps = (String) fields.get("mediaHttps", null);
+		url = (String) fields.get("url", null);
+		display = (String) fields.get("display", null);
+		expanded = (String) fields.get("expanded", null);
+		type = (String) fields.get("type", null);
+		int[] indices = (int[]) fields.get("indices", null);
+		boolean hasIndices = indices != null && indices.length > 1;
+		this.beginIndex = hasIndices ? indices[0] : -1;
+		this.endIndex = hasIndices ? indices[1] : -1;
+	}
 
 	@Override
 	public boolean equals(Object o) {
@@ -117,7 +165,7 @@ public class MediaEntity extends TwitterObject implements Serializable {
 		if (expanded != null ? !expanded.equals(that.expanded) : that.expanded != null) {
 			return false;
 		}
-		if (!Arrays.equals(indices, that.indices)) {
+		if (beginIndex != that.beginIndex || endIndex != that.endIndex) {
 			return false;
 		}
 		if (mediaHttp != null ? !mediaHttp.equals(that.mediaHttp) : that.mediaHttp != null) {
@@ -146,7 +194,7 @@ public class MediaEntity extends TwitterObject implements Serializable {
 		result = 31 * result + (display != null ? display.hashCode() : 0);
 		result = 31 * result + (expanded != null ? expanded.hashCode() : 0);
 		result = 31 * result + (type != null ? type.hashCode() : 0);
-		result = 31 * result + (indices != null ? Arrays.hashCode(indices) : 0);
+		result = 31 * result + (beginIndex < 0 ? 0 : 31 * (31 + beginIndex) + endIndex);
 		return result;
 	}
 }
@@ -15,8 +15,11 @@
  */
 package org.springframework.social.twitter.api;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
-import java.util.Arrays;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -27,6 +30,14 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 public class MentionEntity extends TwitterObject implements Serializable {
 	private static final long serialVersionUID = 1L;
 
+	// the serialized form is still that of earlier versions, which held the indices as an int[]
+	private static final ObjectStreamField[] serialPersistentFields = {
+		new ObjectStreamField("id", long.class),
+		new ObjectStreamField("screenName", String.class),
+		new ObjectStreamField("name", String.class),
+		new ObjectStreamField("indices", int[].class)
+	};
+
 	@JsonProperty("id")
 	private long id;
 
@@ -36,14 +47,18 @@ public class MentionEntity extends TwitterObject implements Serializable {
 	@JsonProperty("name")
 	private String name;
 
-	@JsonProperty("indices")
-	private int[] indices;
+	// held as two ints rather than an int[], to keep entities small
+	private int beginIndex;
+
+	private int endIndex;
 
 	public MentionEntity(long id, String screenName, String name, int[] indices) {
 		this.id = id;
 		this.screenName = screenName;
 		this.name = name;
-		this.indices = indices;
+		boolean hasIndices = indices != null && indices.length > 1;
+		this.beginIndex = hasIndices ? indices[0] : -1;
+		this.endIndex = hasIndices ? indices[1] : -1;
 	}
 
 
@@ -63,12 +78,32 @@ public class MentionEntity extends TwitterObject implements Serializable {
 
 
 	public int[] getIndices() {
-		if (this.indices == null || this.indices.length <= 0) {
+		if (this.beginIndex < 0) {
 			return new int[0];
 		}
-		return this.indices;
+		return new int[] { this.beginIndex, this.endIndex };
+	}
+
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		ObjectOutputStream.PutField fields = out.putFields();
+		fields.put("id", id);
+		fields.put("screenName", screenName);
+		fields.put("name", name);
+		fields.put("indices", getIndices());
+		out.writeFields();
 	}
 
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		ObjectInputStream.GetField fields = in.readFields();
+		id = fields.get("id", 0L);
+		screenName = (String) fields.get("screenName", null);
+		name = (String) fields.get("name", null);
+		int[] indices = (int[]) fields.get("indices", null);
+		boolean hasIndices = indices != null && indices.length > 1;
+		this.beginIndex = hasIndices ? indices[0] : -1;
+		this.endIndex = hasIndices ? indices[1] : -1;
+	}
 
 	@Override
 	public boolean equals(Object o) {
@@ -87,7 +122,7 @@ public class MentionEntity extends TwitterObject implements Serializable {
 		if (name != null ? !name.equals(that.name) : that.name != null) {
 			return false;
 		}
-		if (!Arrays.equals(indices, that.indices)) {
+		if (beginIndex != that.beginIndex || endIndex != that.endIndex) {
 			return false;
 		}
 		if (screenName != null ? !screenName.equals(that.screenName) : that.screenName != null) {
@@ -103,7 +138,7 @@ public class MentionEntity extends TwitterObject implements Serializable {
 		int result = (int) (id ^ (id >>> 32));
 		result = 31 * result + (screenName != null ? screenName.hashCode() : 0);
 		result = 31 * result + (name != null ? name.hashCode() : 0);
-		result = 31 * result + (indices != null ? Arrays.hashCode(indices) : 0);
+		result = 31 * result + (beginIndex < 0 ? 0 : 31 * (31 + beginIndex) + endIndex);
 		return result;
 	}
 }
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api;
+
+import org.springframework.social.ApiException;
+import org.springframework.social.MissingAuthorizationException;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Interface defining the operations for retrieving friends and followers without blocking.
+ * The reactive counterpart of the retrieval operations of {@link FriendOperations}: the <code>Flux</code> operations cover every page of their results,
+ * and the <code>InCursor</code> operations fetch a single page.
+ * Errors listed as thrown below, including a {@link MissingAuthorizationException}, are signalled by the returned publisher
+ * when it's subscribed to; the operations themselves don't throw them.
+ */
+public interface ReactiveFriendOperations {
+
+	/**
+	 * Retrieves the IDs of every user that the given user follows.
+	 * Pages are fetched by cursor, each only once the previous page has been consumed and more are requested.
+	 * Supports either user or application authorization.
+	 * @param userId the user's ID
+	 * @return the IDs of the users the user follows
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if ReactiveTwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	Flux<Long> getFriendIds(long userId);
+
+	/**
+	 * Retrieves the IDs of every user that the given user follows.
+	 * Pages are fetched by cursor, each only once the previous page has been consumed and more are requested.
+	 * Supports either user or application authorization.
+	 * @param screenName the user's screen name
+	 * @return the IDs of the users the user follows
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if ReactiveTwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	Flux<Long> getFriendIds(String screenName);
+
+	/**
+	 * Retrieves the IDs of every user that follows the given user.
+	 * Pages are fetched by cursor, each only once the previous page has been consumed and more are requested.
+	 * Supports either user or application authorization.
+	 * @param userId the user's ID
+	 * @return the IDs of the user's followers
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if ReactiveTwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	Flux<Long> getFollowerIds(long userId);
+
+	/**
+	 * Retrieves the IDs of every user that follows the given user.
+	 * Pages are fetched by cursor, each only once the previous page has been consumed and more are requested.
+	 * Supports either user or application authorization.
+	 * @param screenName the user's screen name
+	 * @return the IDs of the user's followers
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if ReactiveTwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	Flux<Long> getFollowerIds(String screenName);
+
+	/**
+	 * Retrieves the profiles of every user that the given user follows.
+	 * Pages are fetched by cursor, each only once the previous page has been consumed and more are requested.
+	 * Supports either user or application authorization.
+	 * @param userId the user's ID
+	 * @return the profiles of the users the user follows
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if ReactiveTwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	Flux<TwitterProfile> getFriends(long userId);
+
+	/**
+	 * Retrieves the profiles of every user that the given user follows.
+	 * Pages are fetched by cursor, each only once the previous page has been consumed and more are requested.
+	 * Supports either user or application authorization.
+	 * @param screenName the user's screen name
+	 * @return the profiles of the users the user follows
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if ReactiveTwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	Flux<TwitterProfile> getFriends(String screenName);
+
+	/**
+	 * Retrieves the profiles of every user that follows the given user.
+	 * Pages are fetched by cursor, each only once the previous page has been consumed and more are requested.
+	 * Supports either user or application authorization.
+	 * @param userId the user's ID
+	 * @return the profiles of the user's followers
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if ReactiveTwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	Flux<TwitterProfile> getFollowers(long userId);
+
+	/**
+	 * Retrieves the profiles of every user that follows the given user.
+	 * Pages are fetched by cursor, each only once the previous page has been consumed and more are requested.
+	 * Supports either user or application authorization.
+	 * @param screenName the user's screen name
+	 * @return the profiles of the user's followers
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if ReactiveTwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	Flux<TwitterProfile> getFollowers(String screenName);
+
+	/**
+	 * Retrieves one cursored page of the IDs of the users that the given user follows.
+	 * Supports either user or application authorization.
+	 * @param userId the user's ID
+	 * @param cursor the cursor value to fetch a specific page of entries. Use -1 for the first page of entries.
+	 * @return a {@link CursoredList} of the IDs of the users the user follows, with the cursors of the pages before and after it
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if ReactiveTwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	Mono<CursoredList<Long>> getFriendIdsInCursor(long userId, long cursor);
+
+	/**
+	 * Retrieves one cursored page of the IDs of the users that the given user follows.
+	 * Supports either user or application authorization.
+	 * @param screenName the user's screen name
+	 * @param cursor the cursor value to fetch a specific page of entries. Use -1 for the first page of entries.
+	 * @return a {@link CursoredList} of the IDs of the users the user follows, with the cursors of the pages before and after it
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if ReactiveTwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	Mono<CursoredList<Long>> getFriendIdsInCursor(String screenName, long cursor);
+
+	/**
+	 * Retrieves one cursored page of the IDs of the users that follow the given user.
+	 * Supports either user or application authorization.
+	 * @param userId the user's ID
+	 * @param cursor the cursor value to fetch a specific page of entries. Use -1 for the first page of entries.
+	 * @return a {@link CursoredList} of the IDs of the user's followers, with the cursors of the pages before and after it
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if ReactiveTwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	Mono<CursoredList<Long>> getFollowerIdsInCursor(long userId, long cursor);
+
+	/**
+	 * Retrieves one cursored page of the IDs of the users that follow the given user.
+	 * Supports either user or application authorization.
+	 * @param screenName the user's screen name
+	 * @param cursor the cursor value to fetch a specific page of entries. Use -1 for the first page of entries.
+	 * @return a {@link CursoredList} of the IDs of the user's followers, with the cursors of the pages before and after it
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if ReactiveTwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	Mono<CursoredList<Long>> getFollowerIdsInCursor(String screenName, long cursor);
+
+	/**
+	 * Retrieves one cursored page of the profiles of the users that the given user follows.
+	 * Supports either user or application authorization.
+	 * @param userId the user's ID
+	 * @param cursor the cursor value to fetch a specific page of entries. Use -1 for the first page of entries.
+	 * @return a {@link CursoredList} of the profiles of the users the user follows, with the cursors of the pages before and after it
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if ReactiveTwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	Mono<CursoredList<TwitterProfile>> getFriendsInCursor(long userId, long cursor);
+
+	/**
+	 * Retrieves one cursored page of the profiles of the users that the given user follows.
+	 * Supports either user or application authorization.
+	 * @param screenName the user's screen name
+	 * @param cursor the cursor value to fetch a specific page of entries. Use -1 for the first page of entries.
+	 * @return a {@link CursoredList} of the profiles of the users the user follows, with the cursors of the pages before and after it
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if ReactiveTwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	Mono<CursoredList<TwitterProfile>> getFriendsInCursor(String screenName, long cursor);
+
+	/**
+	 * Retrieves one cursored page of the profiles of the users that follow the given user.
+	 * Supports either user or application authorization.
+	 * @param userId the user's ID
+	 * @param cursor the cursor value to fetch a specific page of entries. Use -1 for the first page of entries.
+	 * @return a {@link CursoredList} of the profiles of the user's followers, with the cursors of the pages before and after it
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if ReactiveTwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	Mono<CursoredList<TwitterProfile>> getFollowersInCursor(long userId, long cursor);
+
+	/**
+	 * Retrieves one cursored page of the profiles of the users that follow the given user.
+	 * Supports either user or application authorization.
+	 * @param screenName the user's screen name
+	 * @param cursor the cursor value to fetch a specific page of entries. Use -1 for the first page of entries.
+	 * @return a {@link CursoredList} of the profiles of the user's followers, with the cursors of the pages before and after it
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if ReactiveTwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	Mono<CursoredList<TwitterProfile>> getFollowersInCursor(String screenName, long cursor);
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api;
+
+import org.springframework.social.ApiException;
+import org.springframework.social.DuplicateStatusException;
+import org.springframework.social.MissingAuthorizationException;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Interface defining the operations for reading and posting tweets without blocking.
+ * The reactive counterpart of the most used of the {@link TimelineOperations}.
+ * Errors listed as thrown below, including a {@link MissingAuthorizationException}, are signalled by the returned publisher
+ * when it's subscribed to; the operations themselves don't throw them.
+ */
+public interface ReactiveTimelineOperations {
+
+	/**
+	 * Retrieves tweets in the authenticating user's home timeline. The most recent tweets are listed first.
+	 * @param pageSize The number of {@link Tweet}s per page. Should be less than or equal to 200. (Will return at most 200 entries, even if pageSize is greater than 200.)
+	 * @param sinceId The minimum {@link Tweet} ID to return in the results
+	 * @param maxId The maximum {@link Tweet} ID to return in the results
+	 * @return the {@link Tweet}s in the authenticating user's home timeline.
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if ReactiveTwitterTemplate was not created with OAuth credentials.
+	 */
+	Flux<Tweet> getHomeTimeline(int pageSize, long sinceId, long maxId);
+
+	/**
+	 * Retrieves tweets posted by the given user. The most recent tweets are listed first.
+	 * Supports either user or application authorization.
+	 * @param screenName The screen name of the user whose timeline is being requested.
+	 * @param pageSize The number of {@link Tweet}s per page. Should be less than or equal to 200. (Will return at most 200 entries, even if pageSize is greater than 200.)
+	 * @param sinceId The minimum {@link Tweet} ID to return in the results
+	 * @param maxId The maximum {@link Tweet} ID to return in the results
+	 * @return the {@link Tweet}s from the specified user's timeline.
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if ReactiveTwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	Flux<Tweet> getUserTimeline(String screenName, int pageSize, long sinceId, long maxId);
+
+	/**
+	 * Retrieves tweets posted by the given user. The most recent tweets are listed first.
+	 * Supports either user or application authorization.
+	 * @param userId The user ID of the user whose timeline is being requested.
+	 * @param pageSize The number of {@link Tweet}s per page. Should be less than or equal to 200. (Will return at most 200 entries, even if pageSize is greater than 200.)
+	 * @param sinceId The minimum {@link Tweet} ID to return in the results
+	 * @param maxId The maximum {@link Tweet} ID to return in the results
+	 * @return the {@link Tweet}s from the specified user's timeline.
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if ReactiveTwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	Flux<Tweet> getUserTimeline(long userId, int pageSize, long sinceId, long maxId);
+
+	/**
+	 * Retrieves the given user's whole timeline, as far back as Twitter allows, most recent tweets first.
+	 * Each page is fetched only once the tweets before it have been consumed and more are requested.
+	 * Supports either user or application authorization.
+	 * @param screenName The screen name of the user whose timeline is being requested.
+	 * @param pageSize The number of {@link Tweet}s to fetch per request. Should be less than or equal to 200.
+	 * @return the {@link Tweet}s from the specified user's timeline.
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if ReactiveTwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	Flux<Tweet> getAllUserTimeline(String screenName, int pageSize);
+
+	/**
+	 * Retrieves the given user's whole timeline, as far back as Twitter allows, most recent tweets first.
+	 * Each page is fetched only once the tweets before it have been consumed and more are requested.
+	 * Supports either user or application authorization.
+	 * @param userId The user ID of the user whose timeline is being requested.
+	 * @param pageSize The number of {@link Tweet}s to fetch per request. Should be less than or equal to 200.
+	 * @return the {@link Tweet}s from the specified user's timeline.
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if ReactiveTwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	Flux<Tweet> getAllUserTimeline(long userId, int pageSize);
+
+	/**
+	 * Retrieves tweets that mention the authenticating user. The most recent tweets are listed first.
+	 * @param pageSize The number of {@link Tweet}s per page. Should be less than or equal to 200. (Will return at most 200 entries, even if pageSize is greater than 200.)
+	 * @param sinceId The minimum {@link Tweet} ID to return in the results
+	 * @param maxId The maximum {@link Tweet} ID to return in the results
+	 * @return the {@link Tweet}s that mention the authenticating user.
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if ReactiveTwitterTemplate was not created with OAuth credentials.
+	 */
+	Flux<Tweet> getMentions(int pageSize, long sinceId, long maxId);
+
+	/**
+	 * Returns a single tweet.
+	 * Supports either user or application authorization.
+	 * @param tweetId the tweet's ID
+	 * @return the Tweet
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if ReactiveTwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	Mono<Tweet> getStatus(long tweetId);
+
+	/**
+	 * Updates the user's status.
+	 * @param status The status message
+	 * @return the created Tweet
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws DuplicateStatusException if the status message duplicates a previously posted status.
+	 * @throws MessageTooLongException if the length of the status message exceeds Twitter's limit.
+	 * @throws MissingAuthorizationException if ReactiveTwitterTemplate was not created with OAuth credentials.
+	 */
+	Mono<Tweet> updateStatus(String status);
+
+	/**
+	 * Removes a status entry.
+	 * @param tweetId the tweet's ID to be removed
+	 * @return a Mono that completes once the status has been removed
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if ReactiveTwitterTemplate was not created with OAuth credentials.
+	 */
+	Mono<Void> deleteStatus(long tweetId);
+
+}
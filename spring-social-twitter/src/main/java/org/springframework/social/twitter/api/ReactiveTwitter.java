@@ -0,0 +1,49 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api;
+
+import org.springframework.social.ApiBinding;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Interface specifying a basic set of operations for interacting with Twitter without blocking.
+ * Implemented by ReactiveTwitterTemplate. Operations return a {@link reactor.core.publisher.Mono} or {@link reactor.core.publisher.Flux}
+ * that makes its request when subscribed to.
+ */
+public interface ReactiveTwitter extends ApiBinding {
+
+	/**
+	 * Returns the portion of the Twitter API containing the tweet and timeline operations.
+	 */
+	ReactiveTimelineOperations timelineOperations();
+
+	/**
+	 * Returns the portion of the Twitter API containing the user operations.
+	 */
+	ReactiveUserOperations userOperations();
+
+	/**
+	 * Returns the portion of the Twitter API containing the friends and followers operations.
+	 */
+	ReactiveFriendOperations friendOperations();
+
+	/**
+	 * Returns the underlying {@link WebClient} that requests are made through, which signs requests with the binding's credentials.
+	 * Useful for invoking Twitter API operations that are not yet supported by the reactive binding.
+	 */
+	WebClient webClient();
+
+}
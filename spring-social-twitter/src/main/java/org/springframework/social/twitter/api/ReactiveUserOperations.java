@@ -0,0 +1,80 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api;
+
+import org.springframework.social.ApiException;
+import org.springframework.social.MissingAuthorizationException;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Interface defining the operations for retrieving information about Twitter users without blocking.
+ * The reactive counterpart of the most used of the {@link UserOperations}.
+ * Errors listed as thrown below, including a {@link MissingAuthorizationException}, are signalled by the returned publisher
+ * when it's subscribed to; the operations themselves don't throw them.
+ */
+public interface ReactiveUserOperations {
+
+	/**
+	 * Retrieves the authenticated user's Twitter profile details.
+	 * @return a {@link TwitterProfile} object representing the user's profile.
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if ReactiveTwitterTemplate was not created with OAuth credentials.
+	 */
+	Mono<TwitterProfile> getUserProfile();
+
+	/**
+	 * Retrieves a specific user's Twitter profile details.
+	 * Supports either user or application authorization.
+	 * @param screenName the screen name for the user whose details are to be retrieved.
+	 * @return a {@link TwitterProfile} object representing the user's profile.
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if ReactiveTwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	Mono<TwitterProfile> getUserProfile(String screenName);
+
+	/**
+	 * Retrieves a specific user's Twitter profile details.
+	 * Supports either user or application authorization.
+	 * @param userId the user ID for the user whose details are to be retrieved.
+	 * @return a {@link TwitterProfile} object representing the user's profile.
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if ReactiveTwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	Mono<TwitterProfile> getUserProfile(long userId);
+
+	/**
+	 * Retrieves the Twitter profiles for the given list of user IDs, each decoded as it arrives.
+	 * Supports either user or application authorization.
+	 * @param userIds The user IDs to retrieve profiles for
+	 * @return the Twitter profiles
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if ReactiveTwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	Flux<TwitterProfile> getUsers(long... userIds);
+
+	/**
+	 * Retrieves the Twitter profiles for the given list of screen names, each decoded as it arrives.
+	 * Supports either user or application authorization.
+	 * @param screenNames The screen names to retrieve profiles for
+	 * @return the Twitter profiles
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if ReactiveTwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	Flux<TwitterProfile> getUsers(String... screenNames);
+
+}
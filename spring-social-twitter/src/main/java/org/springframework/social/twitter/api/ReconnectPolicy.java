@@ -0,0 +1,34 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api;
+
+/**
+ * Strategy interface for deciding how long a {@link Stream} waits before it reconnects, or whether it should give up.
+ * A single policy instance is shared by all of the streams it is configured for, so implementations must be thread-safe
+ * and should keep any per-stream state in the arguments they are given.
+ */
+public interface ReconnectPolicy {
+
+	/**
+	 * Determines the delay before the next connection attempt.
+	 * @param reason why the stream needs to reconnect
+	 * @param attempt the number of consecutive attempts made since the stream was last connected, whatever their reasons, starting at 1
+	 * @param previousDelay the delay returned for the previous attempt, or 0 if this is the first attempt or the previous attempt was for another reason
+	 * @return the number of milliseconds to wait before reconnecting (0 to reconnect immediately), or a negative value to give up and close the stream
+	 */
+	long getReconnectDelay(ReconnectReason reason, int attempt, long previousDelay);
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api;
+
+/**
+ * The reasons a {@link Stream} may need to reconnect, as given to a {@link ReconnectPolicy}.
+ * Twitter asks that clients back off differently for each of these.
+ */
+public enum ReconnectReason {
+
+	/**
+	 * An established connection was dropped. Twitter allows an immediate reconnect.
+	 */
+	CONNECTION_DROPPED,
+
+	/**
+	 * A connection could not be established because of a network (TCP/IP level) error.
+	 */
+	NETWORK_ERROR,
+
+	/**
+	 * Twitter refused the connection with HTTP 420 (Enhance Your Calm) or 429 (Too Many Requests).
+	 */
+	RATE_LIMITED,
+
+	/**
+	 * Twitter refused the connection with an HTTP 5xx error.
+	 */
+	SERVER_ERROR,
+
+	/**
+	 * Twitter refused the connection with any other HTTP error, such as 401 or 403.
+	 */
+	HTTP_ERROR
+
+}
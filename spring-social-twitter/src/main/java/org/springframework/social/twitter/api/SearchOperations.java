@@ -137,4 +137,15 @@ public interface SearchOperations {
 	 */
 	Trends getLocalTrends(long whereOnEarthId, boolean excludeHashtags);
 
+	/**
+	 * Returns search operations that only deserialize the given parts of the tweets found by a search, skipping the rest.
+	 * <p>
+	 * The default implementation returns these operations unchanged, as tweets read whole have every part a projection asks for.
+	 * @param projection the parts of each tweet to deserialize
+	 * @return search operations that read tweets with the given projection
+	 */
+	default SearchOperations withProjection(TweetProjection projection) {
+		return this;
+	}
+
 }
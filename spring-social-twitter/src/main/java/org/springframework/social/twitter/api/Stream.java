@@ -15,6 +15,8 @@
  */
 package org.springframework.social.twitter.api;
 
+import java.time.Duration;
+
 /**
  * Represents a Twitter stream.
  * @author Craig Walls
@@ -24,5 +26,36 @@ public interface Stream {
 	void open();
 	
 	void close();
+
+	/**
+	 * Closes the stream gracefully.
+	 * Stops reading from Twitter, then keeps delivering messages that were already received to the listeners until they
+	 * have all been delivered or the drain timeout expires, whichever comes first. Anything still undelivered at that point is discarded
+	 * and the stream's threads are stopped.
+	 * <p>
+	 * The default implementation throws {@link UnsupportedOperationException}, for streams that can't be drained;
+	 * they can only be closed with {@link #close()}.
+	 * @param drainTimeout the maximum time to spend delivering messages that were already received
+	 * @return a report of how many of those messages were delivered and how many were discarded
+	 */
+	default StreamDrainReport close(Duration drainTimeout) {
+		throw new UnsupportedOperationException("This stream can't be drained; close it with close()");
+	}
+
+	/**
+	 * The default implementation throws {@link UnsupportedOperationException}, for streams that don't track their state.
+	 * @return the current lifecycle state of the stream
+	 */
+	default StreamState getState() {
+		throw new UnsupportedOperationException("This stream doesn't track its state");
+	}
+
+	/**
+	 * The default implementation throws {@link UnsupportedOperationException}, for streams that don't track their state.
+	 * @return the time at which the stream entered its current state, in milliseconds since the epoch
+	 */
+	default long getStateTimestamp() {
+		throw new UnsupportedOperationException("This stream doesn't track its state");
+	}
 	
 }
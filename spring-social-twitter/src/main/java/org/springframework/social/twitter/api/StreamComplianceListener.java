@@ -0,0 +1,43 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api;
+
+/**
+ * Callback interface for clients that must honor Twitter's compliance messages, such as requests to remove location data or withhold content.
+ * Any {@link StreamListener} given to {@link StreamingOperations} that also implements this interface will be notified.
+ * Compliance messages are not deserialized at all unless at least one listener implements this interface.
+ */
+public interface StreamComplianceListener {
+
+	/**
+	 * Called when geolocation data should be stripped from a range of a user's tweets.
+	 * @param scrubGeoEvent a scrub geo event
+	 */
+	void onScrubGeo(StreamScrubGeoEvent scrubGeoEvent);
+
+	/**
+	 * Called when a tweet has been withheld in certain countries.
+	 * @param statusWithheldEvent a status withheld event
+	 */
+	void onStatusWithheld(StreamStatusWithheldEvent statusWithheldEvent);
+
+	/**
+	 * Called when a user has been withheld in certain countries.
+	 * @param userWithheldEvent a user withheld event
+	 */
+	void onUserWithheld(StreamUserWithheldEvent userWithheldEvent);
+
+}
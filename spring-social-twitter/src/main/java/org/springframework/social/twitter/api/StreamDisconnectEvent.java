@@ -0,0 +1,98 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api;
+
+/**
+ * A stream event sent by Twitter just before it closes the connection, explaining why.
+ * The stream reconnects after a disconnect unless the code indicates that reconnecting can't succeed
+ * (a duplicate stream, a revoked token or an administrative logout), in which case the stream is closed.
+ */
+public class StreamDisconnectEvent extends TwitterObject {
+
+	/** Twitter is shutting down the stream, typically to restart a server. */
+	public static final int SHUTDOWN = 1;
+
+	/** Another connection was opened with the same credentials. */
+	public static final int DUPLICATE_STREAM = 2;
+
+	/** The stream was closed through a control request. */
+	public static final int CONTROL_REQUEST = 3;
+
+	/** The client was reading too slowly and fell too far behind. */
+	public static final int STALL = 4;
+
+	/** The stream was closed normally. */
+	public static final int NORMAL = 5;
+
+	/** The OAuth token used to open the stream was revoked. */
+	public static final int TOKEN_REVOKED = 6;
+
+	/** The same credentials were used to log out administratively. */
+	public static final int ADMIN_LOGOUT = 7;
+
+	/** The stream delivered the maximum number of messages requested. */
+	public static final int MAX_MESSAGE_LIMIT = 9;
+
+	/** An internal error occurred in the stream. */
+	public static final int STREAM_EXCEPTION = 10;
+
+	/** An internal error occurred in the message broker. */
+	public static final int BROKER_STALL = 11;
+
+	/** Twitter is shedding load. */
+	public static final int SHED_LOAD = 12;
+
+	private final int code;
+
+	private final String streamName;
+
+	private final String reason;
+
+	public StreamDisconnectEvent(int code, String streamName, String reason) {
+		this.code = code;
+		this.streamName = streamName;
+		this.reason = reason;
+	}
+
+	/**
+	 * @return the disconnect code, one of the constants defined on this class
+	 */
+	public int getCode() {
+		return code;
+	}
+
+	/**
+	 * @return the name of the stream that was disconnected
+	 */
+	public String getStreamName() {
+		return streamName;
+	}
+
+	/**
+	 * @return a human-readable description of the reason for the disconnect
+	 */
+	public String getReason() {
+		return reason;
+	}
+
+	/**
+	 * @return true if reconnecting with the same credentials won't succeed
+	 */
+	public boolean isFatal() {
+		return code == DUPLICATE_STREAM || code == TOKEN_REVOKED || code == ADMIN_LOGOUT;
+	}
+
+}
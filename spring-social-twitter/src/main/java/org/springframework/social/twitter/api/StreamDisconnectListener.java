@@ -0,0 +1,31 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api;
+
+/**
+ * Callback interface for clients that want to know why Twitter closed a stream.
+ * Any {@link StreamListener} given to {@link StreamingOperations} that also implements this interface will be notified.
+ * The stream reconnects (or closes) on its own; this is purely informational.
+ */
+public interface StreamDisconnectListener {
+
+	/**
+	 * Called when Twitter announces that it is about to close the connection.
+	 * @param disconnectEvent a disconnect event
+	 */
+	void onDisconnect(StreamDisconnectEvent disconnectEvent);
+
+}
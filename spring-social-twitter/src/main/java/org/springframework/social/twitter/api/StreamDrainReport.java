@@ -0,0 +1,60 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api;
+
+import java.time.Duration;
+
+/**
+ * Reports what happened to the messages a {@link Stream} had already received when it was closed with {@link Stream#close(Duration)}.
+ */
+public class StreamDrainReport {
+
+	private final long deliveredCount;
+
+	private final long discardedCount;
+
+	public StreamDrainReport(long deliveredCount, long discardedCount) {
+		this.deliveredCount = deliveredCount;
+		this.discardedCount = discardedCount;
+	}
+
+	/**
+	 * @return the number of buffered or in-flight messages that were delivered to all listeners before the drain deadline
+	 */
+	public long getDeliveredCount() {
+		return deliveredCount;
+	}
+
+	/**
+	 * @return the number of buffered or in-flight messages that had not been delivered to all listeners by the drain deadline
+	 */
+	public long getDiscardedCount() {
+		return discardedCount;
+	}
+
+	/**
+	 * @return true if every message received before the stream was closed was delivered
+	 */
+	public boolean isComplete() {
+		return discardedCount == 0;
+	}
+
+	@Override
+	public String toString() {
+		return "StreamDrainReport[delivered=" + deliveredCount + ", discarded=" + discardedCount + "]";
+	}
+
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api;
+
+import java.util.List;
+
+/**
+ * The first message on a user stream, listing the IDs of the users that the authenticated user follows.
+ */
+public class StreamFriendsEvent extends TwitterObject {
+
+	private final List<Long> friendIds;
+
+	public StreamFriendsEvent(List<Long> friendIds) {
+		this.friendIds = friendIds;
+	}
+
+	/**
+	 * @return the IDs of the users the authenticated user follows
+	 */
+	public List<Long> getFriendIds() {
+		return friendIds;
+	}
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api;
+
+/**
+ * Strategy for recording how far behind real time a {@link Stream} is running and where its time goes.
+ * Every call names the stream it concerns ("sample", "filter", "user" or "firehose"), so a single instance can serve all streams.
+ * Implementations are called from the stream's reader, dispatcher and listener threads; they must be thread-safe and cheap.
+ * @see StreamingOperations
+ */
+public interface StreamMetrics {
+
+	/**
+	 * Called when a message has been read from the connection.
+	 * @param stream the name of the stream
+	 */
+	void messageReceived(String stream);
+
+	/**
+	 * Called when every interested listener has finished handling a message.
+	 * @param stream the name of the stream
+	 */
+	void messageDelivered(String stream);
+
+	/**
+	 * Records how long after a tweet was created it was received, based on the timestamp embedded in its ID.
+	 * @param stream the name of the stream
+	 * @param lagMillis the lag, in milliseconds
+	 */
+	void recordLag(String stream, long lagMillis);
+
+	/**
+	 * Records how long a message waited between being read and being dispatched.
+	 * @param stream the name of the stream
+	 * @param nanos the time in the queue, in nanoseconds
+	 */
+	void recordQueueTime(String stream, long nanos);
+
+	/**
+	 * Records how long it took to deserialize a message.
+	 * @param stream the name of the stream
+	 * @param nanos the deserialization time, in nanoseconds
+	 */
+	void recordDeserializationTime(String stream, long nanos);
+
+	/**
+	 * Records how long a single listener took to handle a message.
+	 * @param stream the name of the stream
+	 * @param nanos the time spent in the listener, in nanoseconds
+	 */
+	void recordListenerTime(String stream, long nanos);
+
+	/**
+	 * Records a {@link TweetFilter} being evaluated against a tweet before it was deserialized.
+	 * @param stream the name of the stream
+	 * @param accepted whether the tweet was accepted; rejected tweets aren't deserialized or delivered
+	 * @param nanos the time spent evaluating the filter, in nanoseconds
+	 */
+	void recordFilterEvaluation(String stream, boolean accepted, long nanos);
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api;
+
+/**
+ * Strategy for handling stream messages that couldn't be handed to a listener because the listener has been
+ * quarantined for failing or running slowly, or because it has fallen too far behind.
+ * Implementations might log the message, count it, or park it somewhere to be replayed later.
+ * Called on the stream's dispatch threads; implementations must be thread-safe and must not block.
+ */
+public interface StreamOverflowHandler {
+
+	/**
+	 * Called with a message that was diverted away from a listener.
+	 * @param listener the listener that didn't receive the message
+	 * @param message the message, as the raw JSON received from Twitter
+	 * @param reason why the message was diverted
+	 */
+	void onOverflow(StreamListener listener, String message, Reason reason);
+
+	/**
+	 * Why a message was diverted away from a listener.
+	 */
+	enum Reason {
+
+		/**
+		 * The listener has been quarantined after repeatedly throwing exceptions or exceeding its time budget.
+		 */
+		QUARANTINED,
+
+		/**
+		 * The listener has too many messages waiting for it already.
+		 */
+		BACKLOGGED
+
+	}
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api;
+
+/**
+ * The lifecycle states of a {@link Stream}.
+ * @see StreamStateListener
+ */
+public enum StreamState {
+
+	/**
+	 * The stream is opening (or re-opening) its connection to Twitter.
+	 */
+	CONNECTING,
+
+	/**
+	 * The stream is connected and receiving data.
+	 */
+	CONNECTED,
+
+	/**
+	 * The stream failed to connect and is waiting before trying again.
+	 */
+	BACKING_OFF,
+
+	/**
+	 * The stream is connected, but nothing (not even a keep-alive) has been received for longer than the stall timeout.
+	 * A stalled stream will be dropped and reconnected.
+	 */
+	STALLED,
+
+	/**
+	 * The stream has been closed, either by the client or because it gave up reconnecting.
+	 * This is a terminal state.
+	 */
+	CLOSED
+
+}
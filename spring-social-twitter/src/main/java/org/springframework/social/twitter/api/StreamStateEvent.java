@@ -0,0 +1,81 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api;
+
+/**
+ * Describes a transition of a {@link Stream} from one {@link StreamState} to another.
+ */
+public class StreamStateEvent {
+
+	private final Stream stream;
+
+	private final StreamState previousState;
+
+	private final StreamState state;
+
+	private final long timestamp;
+
+	private final Throwable cause;
+
+	public StreamStateEvent(Stream stream, StreamState previousState, StreamState state, long timestamp, Throwable cause) {
+		this.stream = stream;
+		this.previousState = previousState;
+		this.state = state;
+		this.timestamp = timestamp;
+		this.cause = cause;
+	}
+
+	/**
+	 * @return the stream whose state changed
+	 */
+	public Stream getStream() {
+		return stream;
+	}
+
+	/**
+	 * @return the state the stream was in before the transition
+	 */
+	public StreamState getPreviousState() {
+		return previousState;
+	}
+
+	/**
+	 * @return the state the stream is in after the transition
+	 */
+	public StreamState getState() {
+		return state;
+	}
+
+	/**
+	 * @return the time of the transition, in milliseconds since the epoch
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 * @return the error that caused the transition, or null if the transition was not caused by an error
+	 */
+	public Throwable getCause() {
+		return cause;
+	}
+
+	@Override
+	public String toString() {
+		return "StreamStateEvent[" + previousState + " -> " + state + " at " + timestamp + (cause != null ? ", cause: " + cause : "") + "]";
+	}
+
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api;
+
+/**
+ * Callback interface for clients that want to be notified of a {@link Stream}'s lifecycle transitions.
+ * Any {@link StreamListener} given to {@link StreamingOperations} that also implements this interface will be notified.
+ * Callbacks are made synchronously on the thread that drives the transition and should return quickly.
+ * @see StreamState
+ */
+public interface StreamStateListener {
+
+	/**
+	 * Called when a stream moves from one state to another.
+	 * @param event the state transition
+	 */
+	void onStateChange(StreamStateEvent event);
+
+}
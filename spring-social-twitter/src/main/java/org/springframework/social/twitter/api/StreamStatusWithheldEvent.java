@@ -0,0 +1,58 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api;
+
+import java.util.List;
+
+/**
+ * A stream event indicating that a tweet has been withheld in certain countries.
+ */
+public class StreamStatusWithheldEvent extends TwitterObject {
+
+	private final long tweetId;
+
+	private final long userId;
+
+	private final List<String> withheldInCountries;
+
+	public StreamStatusWithheldEvent(long tweetId, long userId, List<String> withheldInCountries) {
+		this.tweetId = tweetId;
+		this.userId = userId;
+		this.withheldInCountries = withheldInCountries;
+	}
+
+	/**
+	 * @return the ID of the withheld tweet
+	 */
+	public long getTweetId() {
+		return tweetId;
+	}
+
+	/**
+	 * @return the ID of the user who posted the tweet
+	 */
+	public long getUserId() {
+		return userId;
+	}
+
+	/**
+	 * @return the two-letter country codes of the countries in which the tweet is withheld
+	 */
+	public List<String> getWithheldInCountries() {
+		return withheldInCountries;
+	}
+
+}
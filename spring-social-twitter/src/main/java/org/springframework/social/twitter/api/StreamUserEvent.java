@@ -0,0 +1,85 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api;
+
+import java.util.Date;
+
+/**
+ * A user stream event describing an action taken by or on the authenticated user, such as a follow, favorite or list membership change.
+ */
+public class StreamUserEvent extends TwitterObject {
+
+	private final String eventType;
+
+	private final Date createdAt;
+
+	private final TwitterProfile source;
+
+	private final TwitterProfile target;
+
+	private final Tweet targetTweet;
+
+	private final UserList targetList;
+
+	public StreamUserEvent(String eventType, Date createdAt, TwitterProfile source, TwitterProfile target, Tweet targetTweet, UserList targetList) {
+		this.eventType = eventType;
+		this.createdAt = createdAt;
+		this.source = source;
+		this.target = target;
+		this.targetTweet = targetTweet;
+		this.targetList = targetList;
+	}
+
+	/**
+	 * @return the kind of event, as named by Twitter (e.g., "follow", "favorite", "list_member_added")
+	 */
+	public String getEventType() {
+		return eventType;
+	}
+
+	public Date getCreatedAt() {
+		return createdAt;
+	}
+
+	/**
+	 * @return the user who took the action
+	 */
+	public TwitterProfile getSource() {
+		return source;
+	}
+
+	/**
+	 * @return the user the action was taken on
+	 */
+	public TwitterProfile getTarget() {
+		return target;
+	}
+
+	/**
+	 * @return the tweet the action was taken on, for tweet events such as "favorite"; null otherwise
+	 */
+	public Tweet getTargetTweet() {
+		return targetTweet;
+	}
+
+	/**
+	 * @return the list the action was taken on, for list events such as "list_member_added"; null otherwise
+	 */
+	public UserList getTargetList() {
+		return targetList;
+	}
+
+}
@@ -71,4 +71,31 @@ public interface StreamingOperations {
 	
 	Stream user(UserStreamParameters parameters, List<StreamListener> listeners);
 
+	/**
+	 * Returns streaming operations whose streams only deserialize the given parts of each tweet, skipping the rest.
+	 * The streams are otherwise configured just as this instance's are.
+	 * <p>
+	 * The default implementation returns these operations unchanged, as tweets read whole have every part a projection asks for.
+	 * @param projection the parts of each tweet to deserialize
+	 * @return streaming operations that read tweets with the given projection
+	 */
+	default StreamingOperations withProjection(TweetProjection projection) {
+		return this;
+	}
+
+	/**
+	 * Returns streaming operations whose streams only deliver the tweets that the given filter accepts.
+	 * The filter is evaluated against each tweet's JSON before the tweet is deserialized, so rejected tweets cost little more than the read.
+	 * Applied on top of any filter that this instance already has; the streams are otherwise configured just as this instance's are.
+	 * Each evaluation is reported to the stream's {@link StreamMetrics}.
+	 * Other messages, such as deletes and limit notices, are unaffected.
+	 * <p>
+	 * The default implementation throws {@link UnsupportedOperationException}, as ignoring the filter would deliver tweets it rejects.
+	 * @param filter the filter that tweets must pass
+	 * @return streaming operations that filter tweets with the given filter
+	 */
+	default StreamingOperations withFilter(TweetFilter filter) {
+		throw new UnsupportedOperationException("These streaming operations can't filter tweets");
+	}
+
 }
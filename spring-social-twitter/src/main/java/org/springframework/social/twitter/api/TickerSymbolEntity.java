@@ -15,8 +15,11 @@
  */
 package org.springframework.social.twitter.api;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
-import java.util.Arrays;
 
 /**
  * A representation of embedded ticker symbol entity.
@@ -25,17 +28,29 @@ import java.util.Arrays;
 public class TickerSymbolEntity implements Serializable {
 
 	private static final long serialVersionUID = 1L;
+
+	// the serialized form is still that of earlier versions, which held the indices as an int[]
+	private static final ObjectStreamField[] serialPersistentFields = {
+		new ObjectStreamField("tickerSymbol", String.class),
+		new ObjectStreamField("url", String.class),
+		new ObjectStreamField("indices", int[].class)
+	};
 	
 	private String tickerSymbol;
 
 	private String url;
 
-	private int[] indices;
+	// held as two ints rather than an int[], to keep entities small
+	private int beginIndex;
+
+	private int endIndex;
 
 	public TickerSymbolEntity(String tickerSymbol, String url, int[] indices) {
 		this.tickerSymbol = tickerSymbol;
 		this.url = url;
-		this.indices = indices;
+		boolean hasIndices = indices != null && indices.length > 1;
+		this.beginIndex = hasIndices ? indices[0] : -1;
+		this.endIndex = hasIndices ? indices[1] : -1;
 	}
 
 	public String getTickerSymbol() {
@@ -47,12 +62,30 @@ public class TickerSymbolEntity implements Serializable {
 	}
 
 	public int[] getIndices() {
-		if (this.indices == null || this.indices.length <= 0) {
+		if (this.beginIndex < 0) {
 			return new int[0];
 		}
-		return this.indices;
+		return new int[] { this.beginIndex, this.endIndex };
+	}
+
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		ObjectOutputStream.PutField fields = out.putFields();
+		fields.put("tickerSymbol", tickerSymbol);
+		fields.put("url", url);
+		fields.put("indices", getIndices());
+		out.writeFields();
 	}
 
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		ObjectInputStream.GetField fields = in.readFields();
+		tickerSymbol = (String) fields.get("tickerSymbol", null);
+		url = (String) fields.get("url", null);
+		int[] indices = (int[]) fields.get("indices", null);
+		boolean hasIndices = indices != null && indices.length > 1;
+		this.beginIndex = hasIndices ? indices[0] : -1;
+		this.endIndex = hasIndices ? indices[1] : -1;
+	}
 
 	@Override
 	public boolean equals(Object o) {
@@ -81,7 +114,7 @@ public class TickerSymbolEntity implements Serializable {
 	public int hashCode() {
 		int result = tickerSymbol.hashCode() ^ (tickerSymbol.hashCode());
 		result = 31 * result + (url != null ? url.hashCode() : 0);
-		result = 31 * result + (indices != null ? Arrays.hashCode(indices) : 0);
+		result = 31 * result + (beginIndex < 0 ? 0 : 31 * (31 + beginIndex) + endIndex);
 		return result;
 	}
 }
@@ -159,6 +159,104 @@ public interface TimelineOperations {
 	 */
 	List<Tweet> getUserTimeline(long userId, int pageSize, long sinceId, long maxId);
 
+	/**
+	 * Iterates over tweets posted by the authenticating user, reading each one from the response as it is asked for rather than reading the whole timeline up front. The most recent tweets are listed first.
+	 * <p>
+	 * The default implementation delegates to {@link #getUserTimeline(int, long, long)}, which reads the whole timeline up front.
+	 * @param pageSize The number of {@link Tweet}s per page. Should be less than or equal to 200. (Will return at most 200 entries, even if pageSize is greater than 200.)
+	 * @param sinceId The minimum {@link Tweet} ID to return in the results
+	 * @param maxId The maximum {@link Tweet} ID to return in the results
+	 * @return an iterator over the {@link Tweet}s, which should be closed if it isn't read to the end.
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials.
+	 */
+	default CloseableIterator<Tweet> iterateUserTimeline(int pageSize, long sinceId, long maxId) {
+		return CloseableIterator.of(getUserTimeline(pageSize, sinceId, maxId).iterator());
+	}
+
+	/**
+	 * Iterates over tweets posted by the given user, reading each one from the response as it is asked for rather than reading the whole timeline up front. The most recent tweets are listed first.
+	 * Supports either user or application authorization.
+	 * <p>
+	 * The default implementation delegates to {@link #getUserTimeline(String, int, long, long)}, which reads the whole timeline up front.
+	 * @param screenName The screen name of the user whose timeline is being requested.
+	 * @param pageSize The number of {@link Tweet}s per page. Should be less than or equal to 200. (Will return at most 200 entries, even if pageSize is greater than 200.)
+	 * @param sinceId The minimum {@link Tweet} ID to return in the results
+	 * @param maxId The maximum {@link Tweet} ID to return in the results
+	 * @return an iterator over the {@link Tweet}s, which should be closed if it isn't read to the end.
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	default CloseableIterator<Tweet> iterateUserTimeline(String screenName, int pageSize, long sinceId, long maxId) {
+		return CloseableIterator.of(getUserTimeline(screenName, pageSize, sinceId, maxId).iterator());
+	}
+
+	/**
+	 * Iterates over tweets posted by the given user, reading each one from the response as it is asked for rather than reading the whole timeline up front. The most recent tweets are listed first.
+	 * Supports either user or application authorization.
+	 * <p>
+	 * The default implementation delegates to {@link #getUserTimeline(long, int, long, long)}, which reads the whole timeline up front.
+	 * @param userId The user ID of the user whose timeline is being requested.
+	 * @param pageSize The number of {@link Tweet}s per page. Should be less than or equal to 200. (Will return at most 200 entries, even if pageSize is greater than 200.)
+	 * @param sinceId The minimum {@link Tweet} ID to return in the results
+	 * @param maxId The maximum {@link Tweet} ID to return in the results
+	 * @return an iterator over the {@link Tweet}s, which should be closed if it isn't read to the end.
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	default CloseableIterator<Tweet> iterateUserTimeline(long userId, int pageSize, long sinceId, long maxId) {
+		return CloseableIterator.of(getUserTimeline(userId, pageSize, sinceId, maxId).iterator());
+	}
+
+	/**
+	 * Streams tweets posted by the authenticating user, reading each one from the response as the stream consumes it rather than reading the whole timeline up front. The most recent tweets are listed first.
+	 * <p>
+	 * The default implementation delegates to {@link #getUserTimeline(int, long, long)}, which reads the whole timeline up front.
+	 * @param pageSize The number of {@link Tweet}s per page. Should be less than or equal to 200. (Will return at most 200 entries, even if pageSize is greater than 200.)
+	 * @param sinceId The minimum {@link Tweet} ID to return in the results
+	 * @param maxId The maximum {@link Tweet} ID to return in the results
+	 * @return a stream of the {@link Tweet}s, which should be closed if it isn't consumed to the end.
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials.
+	 */
+	default java.util.stream.Stream<Tweet> streamUserTimeline(int pageSize, long sinceId, long maxId) {
+		return getUserTimeline(pageSize, sinceId, maxId).stream();
+	}
+
+	/**
+	 * Streams tweets posted by the given user, reading each one from the response as the stream consumes it rather than reading the whole timeline up front. The most recent tweets are listed first.
+	 * Supports either user or application authorization.
+	 * <p>
+	 * The default implementation delegates to {@link #getUserTimeline(String, int, long, long)}, which reads the whole timeline up front.
+	 * @param screenName The screen name of the user whose timeline is being requested.
+	 * @param pageSize The number of {@link Tweet}s per page. Should be less than or equal to 200. (Will return at most 200 entries, even if pageSize is greater than 200.)
+	 * @param sinceId The minimum {@link Tweet} ID to return in the results
+	 * @param maxId The maximum {@link Tweet} ID to return in the results
+	 * @return a stream of the {@link Tweet}s, which should be closed if it isn't consumed to the end.
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	default java.util.stream.Stream<Tweet> streamUserTimeline(String screenName, int pageSize, long sinceId, long maxId) {
+		return getUserTimeline(screenName, pageSize, sinceId, maxId).stream();
+	}
+
+	/**
+	 * Streams tweets posted by the given user, reading each one from the response as the stream consumes it rather than reading the whole timeline up front. The most recent tweets are listed first.
+	 * Supports either user or application authorization.
+	 * <p>
+	 * The default implementation delegates to {@link #getUserTimeline(long, int, long, long)}, which reads the whole timeline up front.
+	 * @param userId The user ID of the user whose timeline is being requested.
+	 * @param pageSize The number of {@link Tweet}s per page. Should be less than or equal to 200. (Will return at most 200 entries, even if pageSize is greater than 200.)
+	 * @param sinceId The minimum {@link Tweet} ID to return in the results
+	 * @param maxId The maximum {@link Tweet} ID to return in the results
+	 * @return a stream of the {@link Tweet}s, which should be closed if it isn't consumed to the end.
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	default java.util.stream.Stream<Tweet> streamUserTimeline(long userId, int pageSize, long sinceId, long maxId) {
+		return getUserTimeline(userId, pageSize, sinceId, maxId).stream();
+	}
+
 	/**
 	 * Retrieve the 20 most recent tweets of the authenticated user that have been retweeted by others.
 	 * @return a list of Tweets
@@ -384,4 +482,16 @@ public interface TimelineOperations {
 	 */
 	void removeFromFavorites(long id);
 
+	/**
+	 * Returns timeline operations that only deserialize the given parts of the tweets they retrieve, skipping the rest.
+	 * Applies to the tweets returned by the timeline, status, retweet and favorite retrievals; tweets returned when posting are always read whole.
+	 * <p>
+	 * The default implementation returns these operations unchanged, as tweets read whole have every part a projection asks for.
+	 * @param projection the parts of each tweet to deserialize
+	 * @return timeline operations that read tweets with the given projection
+	 */
+	default TimelineOperations withProjection(TweetProjection projection) {
+		return this;
+	}
+
 }
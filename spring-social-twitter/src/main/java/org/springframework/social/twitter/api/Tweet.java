@@ -305,7 +305,7 @@ public class Tweet extends TwitterObject implements Serializable {
 		if (fromUserId != tweet.fromUserId) {
 			return false;
 		}
-		if (id != tweet.id) {
+		if (id != null ? !id.equals(tweet.id) : tweet.id != null) {
 			return false;
 		}
 		if (retweeted != tweet.retweeted) {
@@ -0,0 +1,292 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.util.Assert;
+
+/**
+ * A condition on a tweet's JSON that a stream checks before deserializing the tweet, so that tweets a consumer would only throw away are never built.
+ * Conditions name their values by dotted paths through the tweet's objects, e.g. "lang", "user.followers_count" or "retweeted_status";
+ * paths don't reach into arrays. A value that is missing or null is absent.
+ * <p>
+ * For example, English tweets that aren't retweets, from accounts with at least 1000 followers:
+ * <code>TweetFilter.equalTo("lang", "en").and(TweetFilter.absent("retweeted_status")).and(TweetFilter.atLeast("user.followers_count", 1000))</code>
+ * </p>
+ * @see StreamingOperations#withFilter(TweetFilter)
+ */
+public abstract class TweetFilter {
+
+	private final Set<String> paths;
+
+	TweetFilter(Set<String> paths) {
+		this.paths = Collections.unmodifiableSet(paths);
+	}
+
+	/**
+	 * @param path the path of a value
+	 * @return a filter that accepts tweets in which the value is present and isn't null
+	 */
+	public static TweetFilter present(String path) {
+		return new Present(path);
+	}
+
+	/**
+	 * @param path the path of a value
+	 * @return a filter that accepts tweets in which the value is missing or null
+	 */
+	public static TweetFilter absent(String path) {
+		return present(path).negate();
+	}
+
+	/**
+	 * @param path the path of a value
+	 * @param value the value to accept, compared as text (e.g. "en", "true" or "12345")
+	 * @return a filter that accepts tweets in which the value is the given one
+	 */
+	public static TweetFilter equalTo(String path, String value) {
+		return in(path, value);
+	}
+
+	/**
+	 * @param path the path of a value
+	 * @param values the values to accept, compared as text
+	 * @return a filter that accepts tweets in which the value is any of the given ones
+	 */
+	public static TweetFilter in(String path, String... values) {
+		return new In(path, values);
+	}
+
+	/**
+	 * @param path the path of a numeric value
+	 * @param min the least value to accept
+	 * @return a filter that accepts tweets in which the value is a number no less than the given one
+	 */
+	public static TweetFilter atLeast(String path, long min) {
+		return new Range(path, min, Long.MAX_VALUE);
+	}
+
+	/**
+	 * @param path the path of a numeric value
+	 * @param max the greatest value to accept
+	 * @return a filter that accepts tweets in which the value is a number no greater than the given one
+	 */
+	public static TweetFilter atMost(String path, long max) {
+		return new Range(path, Long.MIN_VALUE, max);
+	}
+
+	/**
+	 * @param other another filter
+	 * @return a filter that accepts tweets that both this filter and the other accept
+	 */
+	public TweetFilter and(TweetFilter other) {
+		return new And(this, other);
+	}
+
+	/**
+	 * @param other another filter
+	 * @return a filter that accepts tweets that either this filter or the other accepts
+	 */
+	public TweetFilter or(TweetFilter other) {
+		return new Or(this, other);
+	}
+
+	/**
+	 * @return a filter that accepts the tweets that this filter rejects
+	 */
+	public TweetFilter negate() {
+		return new Not(this);
+	}
+
+	/**
+	 * @return the paths of the values this filter needs
+	 */
+	public Set<String> getPaths() {
+		return paths;
+	}
+
+	/**
+	 * Evaluates this filter against values taken from a tweet.
+	 * @param values the tweet's values, keyed by path, for those of this filter's paths that are present and not null.
+	 * Objects and arrays are present but have no value of their own, so they're mapped to null.
+	 * @return true if the tweet is accepted
+	 */
+	public abstract boolean matches(Map<String, String> values);
+
+	private static Set<String> pathOf(String path) {
+		Assert.hasText(path, "path may not be empty");
+		return Collections.singleton(path);
+	}
+
+	private static Set<String> pathsOf(TweetFilter first, TweetFilter second) {
+		Assert.notNull(second, "TweetFilter may not be null");
+		Set<String> paths = new LinkedHashSet<String>(first.paths);
+		paths.addAll(second.paths);
+		return paths;
+	}
+
+	private static class Present extends TweetFilter {
+
+		private final String path;
+
+		Present(String path) {
+			super(pathOf(path));
+			this.path = path;
+		}
+
+		public boolean matches(Map<String, String> values) {
+			return values.containsKey(path);
+		}
+
+		@Override
+		public String toString() {
+			return "present(" + path + ")";
+		}
+
+	}
+
+	private static class In extends TweetFilter {
+
+		private final String path;
+
+		private final Set<String> accepted;
+
+		In(String path, String... values) {
+			super(pathOf(path));
+			this.path = path;
+			this.accepted = new HashSet<String>(Arrays.asList(values));
+		}
+
+		public boolean matches(Map<String, String> values) {
+			String value = values.get(path);
+			return value != null && accepted.contains(value);
+		}
+
+		@Override
+		public String toString() {
+			return path + " in " + accepted;
+		}
+
+	}
+
+	private static class Range extends TweetFilter {
+
+		private final String path;
+
+		private final long min;
+
+		private final long max;
+
+		Range(String path, long min, long max) {
+			super(pathOf(path));
+			this.path = path;
+			this.min = min;
+			this.max = max;
+		}
+
+		public boolean matches(Map<String, String> values) {
+			String value = values.get(path);
+			if (value == null) {
+				return false;
+			}
+			try {
+				long number = Long.parseLong(value);
+				return number >= min && number <= max;
+			} catch (NumberFormatException e) {
+				return false;
+			}
+		}
+
+		@Override
+		public String toString() {
+			return min + " <= " + path + " <= " + max;
+		}
+
+	}
+
+	private static class And extends TweetFilter {
+
+		private final TweetFilter first;
+
+		private final TweetFilter second;
+
+		And(TweetFilter first, TweetFilter second) {
+			super(pathsOf(first, second));
+			this.first = first;
+			this.second = second;
+		}
+
+		public boolean matches(Map<String, String> values) {
+			return first.matches(values) && second.matches(values);
+		}
+
+		@Override
+		public String toString() {
+			return "(" + first + " and " + second + ")";
+		}
+
+	}
+
+	private static class Or extends TweetFilter {
+
+		private final TweetFilter first;
+
+		private final TweetFilter second;
+
+		Or(TweetFilter first, TweetFilter second) {
+			super(pathsOf(first, second));
+			this.first = first;
+			this.second = second;
+		}
+
+		public boolean matches(Map<String, String> values) {
+			return first.matches(values) || second.matches(values);
+		}
+
+		@Override
+		public String toString() {
+			return "(" + first + " or " + second + ")";
+		}
+
+	}
+
+	private static class Not extends TweetFilter {
+
+		private final TweetFilter filter;
+
+		Not(TweetFilter filter) {
+			super(new LinkedHashSet<String>(filter.paths));
+			this.filter = filter;
+		}
+
+		public boolean matches(Map<String, String> values) {
+			return !filter.matches(values);
+		}
+
+		@Override
+		public String toString() {
+			return "not " + filter;
+		}
+
+	}
+
+}
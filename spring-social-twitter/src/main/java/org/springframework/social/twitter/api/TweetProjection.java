@@ -0,0 +1,156 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The parts of a {@link Tweet} that a consumer needs. Tweets read with a projection only have those parts deserialized;
+ * the rest of each tweet's JSON is skipped over, and the corresponding properties are left null (or false, or zero).
+ * <p>
+ * For example, a consumer that only looks at what was said, by whom and when could read tweets with
+ * <code>TweetProjection.of(ID, TEXT, USER_ID, CREATED_AT, HASHTAGS)</code>, statically importing {@link Field}'s constants.
+ * </p>
+ * @see StreamingOperations#withProjection(TweetProjection)
+ * @see TimelineOperations#withProjection(TweetProjection)
+ * @see SearchOperations#withProjection(TweetProjection)
+ */
+public final class TweetProjection {
+
+	/**
+	 * A projection of every part of a tweet, equivalent to reading tweets without a projection.
+	 */
+	public static final TweetProjection ALL = new TweetProjection(EnumSet.allOf(Field.class));
+
+	private final Set<Field> fields;
+
+	private TweetProjection(EnumSet<Field> fields) {
+		this.fields = fields;
+	}
+
+	/**
+	 * Creates a projection of the given parts of a tweet.
+	 * @param first a part of the tweet to deserialize
+	 * @param rest any other parts of the tweet to deserialize
+	 * @return the projection
+	 */
+	public static TweetProjection of(Field first, Field... rest) {
+		return new TweetProjection(EnumSet.of(first, rest));
+	}
+
+	/**
+	 * @param field a part of a tweet
+	 * @return true if tweets read with this projection have the given part
+	 */
+	public boolean includes(Field field) {
+		return fields.contains(field);
+	}
+
+	/**
+	 * @return the parts of a tweet that this projection includes
+	 */
+	public Set<Field> getFields() {
+		return Collections.unmodifiableSet(fields);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+		return fields.equals(((TweetProjection) o).fields);
+	}
+
+	@Override
+	public int hashCode() {
+		return fields.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return "TweetProjection" + fields;
+	}
+
+	/**
+	 * The parts of a tweet that a {@link TweetProjection} can include.
+	 */
+	public enum Field {
+
+		/** The tweet's ID: {@link Tweet#getId()} */
+		ID,
+
+		/** The tweet's text: {@link Tweet#getText()}, {@link Tweet#getUnmodifiedText()} */
+		TEXT,
+
+		/** When the tweet was created: {@link Tweet#getCreatedAt()} */
+		CREATED_AT,
+
+		/** The ID of the tweet's author: {@link Tweet#getFromUserId()} */
+		USER_ID,
+
+		/** The screen name of the tweet's author: {@link Tweet#getFromUser()} */
+		USER_SCREEN_NAME,
+
+		/** The author's full profile: {@link Tweet#getUser()}, along with everything {@link #USER_ID} and {@link #USER_SCREEN_NAME} cover and {@link Tweet#getProfileImageUrl()} */
+		USER,
+
+		/** What the tweet was sent with: {@link Tweet#getSource()} */
+		SOURCE,
+
+		/** The tweet's language: {@link Tweet#getLanguageCode()} */
+		LANGUAGE,
+
+		/** What the tweet replies to: {@link Tweet#getInReplyToStatusId()}, {@link Tweet#getInReplyToUserId()}, {@link Tweet#getToUserId()}, {@link Tweet#getInReplyToScreenName()} */
+		IN_REPLY_TO,
+
+		/** {@link Tweet#getRetweetCount()} */
+		RETWEET_COUNT,
+
+		/** {@link Tweet#isRetweeted()} */
+		RETWEETED,
+
+		/** The tweet that this tweet retweets, projected the same way: {@link Tweet#getRetweetedStatus()} */
+		RETWEETED_STATUS,
+
+		/** {@link Tweet#getFavoriteCount()} */
+		FAVORITE_COUNT,
+
+		/** {@link Tweet#isFavorited()} */
+		FAVORITED,
+
+		/** {@link Entities#getHashTags()} */
+		HASHTAGS,
+
+		/** {@link Entities#getMentions()} */
+		MENTIONS,
+
+		/** {@link Entities#getUrls()} */
+		URLS,
+
+		/** {@link Entities#getMedia()} */
+		MEDIA,
+
+		/** {@link Entities#getTickerSymbols()} */
+		TICKER_SYMBOLS
+
+	}
+
+}
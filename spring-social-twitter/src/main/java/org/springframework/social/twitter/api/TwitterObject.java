@@ -27,16 +27,19 @@ import com.fasterxml.jackson.annotation.JsonAnySetter;
  */
 public class TwitterObject {
 
+	// created on demand, since most objects never have any
 	private Map<String, Object> extraData;
 
 	public TwitterObject() {
-		this.extraData = new HashMap<String, Object>();
 	}
 	
 	/**
 	 * @return Any fields in response from Twitter that are otherwise not mapped to any properties.
 	 */
 	public Map<String, Object> getExtraData() {
+		if (extraData == null) {
+			extraData = new HashMap<String, Object>();
+		}
 		return extraData;
 	}
 	
@@ -46,7 +49,7 @@ public class TwitterObject {
 	 * @param value The property's value.
 	 */
 	protected void add(String key, Object value) {
-		extraData.put(key, value);
+		getExtraData().put(key, value);
 	}
 
 }
@@ -15,8 +15,11 @@
  */
 package org.springframework.social.twitter.api;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
-import java.util.Arrays;
 
 /**
  * <p>A representation of a URL found within a tweet entity.</p>
@@ -26,19 +29,32 @@ public class UrlEntity extends TwitterObject implements Serializable {
 
 	private static final long serialVersionUID = 1L;
 
+	// the serialized form is still that of earlier versions, which held the indices as an int[]
+	private static final ObjectStreamField[] serialPersistentFields = {
+		new ObjectStreamField("display", String.class),
+		new ObjectStreamField("expanded", String.class),
+		new ObjectStreamField("url", String.class),
+		new ObjectStreamField("indices", int[].class)
+	};
+
 	private String display;
 
 	private String expanded;
 
 	private String url;
 
-	private int[] indices;
+	// held as two ints rather than an int[], to keep entities small
+	private int beginIndex;
+
+	private int endIndex;
 
 	public UrlEntity(String display, String expanded, String url, int[] indices) {
 		this.display = display;
 		this.expanded = expanded;
 		this.url = url;
-		this.indices = indices;
+		boolean hasIndices = indices != null && indices.length > 1;
+		this.beginIndex = hasIndices ? indices[0] : -1;
+		this.endIndex = hasIndices ? indices[1] : -1;
 	}
 
 
@@ -58,12 +74,32 @@ public class UrlEntity extends TwitterObject implements Serializable {
 
 
 	public int[] getIndices() {
-		if (this.indices == null || this.indices.length <= 0) {
+		if (this.beginIndex < 0) {
 			return new int[0];
 		}
-		return this.indices;
+		return new int[] { this.beginIndex, this.endIndex };
+	}
+
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		ObjectOutputStream.PutField fields = out.putFields();
+		fields.put("display", display);
+		fields.put("expanded", expanded);
+		fields.put("url", url);
+		fields.put("indices", getIndices());
+		out.writeFields();
 	}
 
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		ObjectInputStream.GetField fields = in.readFields();
+		display = (String) fields.get("display", null);
+		expanded = (String) fields.get("expanded", null);
+		url = (String) fields.get("url", null);
+		int[] indices = (int[]) fields.get("indices", null);
+		boolean hasIndices = indices != null && indices.length > 1;
+		this.beginIndex = hasIndices ? indices[0] : -1;
+		this.endIndex = hasIndices ? indices[1] : -1;
+	}
 
 	@Override
 	public boolean equals(Object o) {
@@ -81,7 +117,7 @@ public class UrlEntity extends TwitterObject implements Serializable {
 		if (expanded != null ? !expanded.equals(urlEntity.expanded) : urlEntity.expanded != null) {
 			return false;
 		}
-		if (!Arrays.equals(indices, urlEntity.indices)) {
+		if (beginIndex != urlEntity.beginIndex || endIndex != urlEntity.endIndex) {
 			return false;
 		}
 		if (url != null ? !url.equals(urlEntity.url) : urlEntity.url != null) {
@@ -96,7 +132,7 @@ public class UrlEntity extends TwitterObject implements Serializable {
 		int result = display != null ? display.hashCode() : 0;
 		result = 31 * result + (expanded != null ? expanded.hashCode() : 0);
 		result = 31 * result + (url != null ? url.hashCode() : 0);
-		result = 31 * result + (indices != null ? Arrays.hashCode(indices) : 0);
+		result = 31 * result + (beginIndex < 0 ? 0 : 31 * (31 + beginIndex) + endIndex);
 		return result;
 	}
 }
@@ -92,6 +92,62 @@ public interface UserOperations {
 	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
 	 */
 	List<TwitterProfile> getUsers(String... screenNames);
+
+	/**
+	 * Iterates over the Twitter profiles for the given list of user IDs, reading each one from the response as it is asked for rather than reading the whole list up front.
+	 * Supports either user or application authorization.
+	 * <p>
+	 * The default implementation delegates to {@link #getUsers(long...)}, which reads every profile up front.
+	 * @param userIds The user IDs to retrieve profiles for
+	 * @return an iterator over the Twitter profiles, which should be closed if it isn't read to the end
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	default CloseableIterator<TwitterProfile> iterateUsers(long... userIds) {
+		return CloseableIterator.of(getUsers(userIds).iterator());
+	}
+
+	/**
+	 * Iterates over the Twitter profiles for the given list of screen names, reading each one from the response as it is asked for rather than reading the whole list up front.
+	 * Supports either user or application authorization.
+	 * <p>
+	 * The default implementation delegates to {@link #getUsers(String...)}, which reads every profile up front.
+	 * @param screenNames The screen names to retrieve profiles for
+	 * @return an iterator over the Twitter profiles, which should be closed if it isn't read to the end
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	default CloseableIterator<TwitterProfile> iterateUsers(String... screenNames) {
+		return CloseableIterator.of(getUsers(screenNames).iterator());
+	}
+
+	/**
+	 * Streams the Twitter profiles for the given list of user IDs, reading each one from the response as the stream consumes it rather than reading the whole list up front.
+	 * Supports either user or application authorization.
+	 * <p>
+	 * The default implementation delegates to {@link #getUsers(long...)}, which reads every profile up front.
+	 * @param userIds The user IDs to retrieve profiles for
+	 * @return a stream of the Twitter profiles, which should be closed if it isn't consumed to the end
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	default java.util.stream.Stream<TwitterProfile> streamUsers(long... userIds) {
+		return getUsers(userIds).stream();
+	}
+
+	/**
+	 * Streams the Twitter profiles for the given list of screen names, reading each one from the response as the stream consumes it rather than reading the whole list up front.
+	 * Supports either user or application authorization.
+	 * <p>
+	 * The default implementation delegates to {@link #getUsers(String...)}, which reads every profile up front.
+	 * @param screenNames The screen names to retrieve profiles for
+	 * @return a stream of the Twitter profiles, which should be closed if it isn't consumed to the end
+	 * @throws ApiException if there is an error while communicating with Twitter.
+	 * @throws MissingAuthorizationException if TwitterTemplate was not created with OAuth credentials or an application access token.
+	 */
+	default java.util.stream.Stream<TwitterProfile> streamUsers(String... screenNames) {
+		return getUsers(screenNames).stream();
+	}
 	
 	/**
 	 * Searches for up to 20 users that match a given query.
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api;
+
+/**
+ * Callback interface for clients that want the user-specific messages sent on a user stream.
+ * Any {@link StreamListener} given to {@link StreamingOperations#user(java.util.List)} or
+ * {@link StreamingOperations#user(UserStreamParameters, java.util.List)} that also implements this interface will be notified.
+ */
+public interface UserStreamListener {
+
+	/**
+	 * Called with the list of the authenticated user's friends, sent when a user stream opens.
+	 * @param friendsEvent a friends event
+	 */
+	void onFriends(StreamFriendsEvent friendsEvent);
+
+	/**
+	 * Called when the authenticated user takes an action, or an action is taken on the authenticated user.
+	 * @param userEvent a user event
+	 */
+	void onUserEvent(StreamUserEvent userEvent);
+
+}
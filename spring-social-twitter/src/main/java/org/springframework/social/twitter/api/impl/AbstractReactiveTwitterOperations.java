@@ -0,0 +1,195 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.reactivestreams.Publisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.social.UncategorizedApiException;
+import org.springframework.social.twitter.api.CursoredList;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Base for the reactive operations, making requests through a WebClient and turning Twitter's error responses
+ * into the same exceptions as {@link TwitterErrorHandler} does for the blocking operations.
+ */
+class AbstractReactiveTwitterOperations extends AbstractTwitterOperations {
+
+	private final WebClient webClient;
+
+	public AbstractReactiveTwitterOperations(WebClient webClient, boolean isUserAuthorized, boolean isAppAuthorized) {
+		super(isUserAuthorized, isAppAuthorized);
+		this.webClient = webClient;
+	}
+
+	protected WebClient.ResponseSpec get(URI uri) {
+		return webClient.get().uri(uri).accept(MediaType.APPLICATION_JSON).retrieve().onStatus(IS_ERROR, TO_EXCEPTION);
+	}
+
+	protected WebClient.ResponseSpec post(URI uri) {
+		return webClient.post().uri(uri).accept(MediaType.APPLICATION_JSON).retrieve().onStatus(IS_ERROR, TO_EXCEPTION);
+	}
+
+	// the form data is also passed to the signing filter as an attribute, since it can't read the body
+	protected WebClient.ResponseSpec post(URI uri, MultiValueMap<String, String> data) {
+		return webClient.post().uri(uri).accept(MediaType.APPLICATION_JSON).attribute(OAuth1SigningFilter.FORM_DATA_ATTRIBUTE, data)
+				.body(BodyInserters.fromFormData(data)).retrieve().onStatus(IS_ERROR, TO_EXCEPTION);
+	}
+
+	/**
+	 * Checks for user authorization on subscription, so that its absence is signalled by the returned Mono rather than thrown by the operation.
+	 */
+	protected <T> Mono<T> requireUserAuthorization(final Mono<T> call) {
+		return Mono.defer(new Supplier<Mono<T>>() {
+			public Mono<T> get() {
+				requireUserAuthorization();
+				return call;
+			}
+		});
+	}
+
+	/**
+	 * Checks for either user or application authorization on subscription, so that its absence is signalled by the returned Mono rather than thrown by the operation.
+	 */
+	protected <T> Mono<T> requireEitherUserOrAppAuthorization(final Mono<T> call) {
+		return Mono.defer(new Supplier<Mono<T>>() {
+			public Mono<T> get() {
+				requireEitherUserOrAppAuthorization();
+				return call;
+			}
+		});
+	}
+
+	/**
+	 * Checks for user authorization on subscription, so that its absence is signalled by the returned Flux rather than thrown by the operation.
+	 */
+	protected <T> Flux<T> requireUserAuthorization(final Flux<T> call) {
+		return Flux.defer(new Supplier<Flux<T>>() {
+			public Flux<T> get() {
+				requireUserAuthorization();
+				return call;
+			}
+		});
+	}
+
+	/**
+	 * Checks for either user or application authorization on subscription, so that its absence is signalled by the returned Flux rather than thrown by the operation.
+	 */
+	protected <T> Flux<T> requireEitherUserOrAppAuthorization(final Flux<T> call) {
+		return Flux.defer(new Supplier<Flux<T>>() {
+			public Flux<T> get() {
+				requireEitherUserOrAppAuthorization();
+				return call;
+			}
+		});
+	}
+
+	/**
+	 * Emits the items of every page from the given cursor on, fetching each page only once the previous one
+	 * has been emitted and more items are requested.
+	 * The walk is flat, expanding each page into the request for the next rather than nesting it, so it can cover any number of pages.
+	 */
+	protected <T> Flux<T> cursored(final Function<Long, Mono<CursoredList<T>>> fetchPage, long cursor) {
+		return pages(fetchPage.apply(cursor), new Function<CursoredList<T>, Mono<CursoredList<T>>>() {
+			public Mono<CursoredList<T>> apply(CursoredList<T> page) {
+				return page.hasNext() ? fetchPage.apply(page.getNextCursor()) : Mono.<CursoredList<T>>empty();
+			}
+		});
+	}
+
+	/**
+	 * Emits the items of the first page and of each page after it, where each page's successor is fetched by <code>nextPage</code>,
+	 * which returns an empty Mono after the last page. A page is fetched only once the items of the previous one have been emitted and more are requested.
+	 */
+	protected <T, P extends Iterable<T>> Flux<T> pages(Mono<P> firstPage, final Function<P, Mono<P>> nextPage) {
+		return firstPage.expand(new Function<P, Publisher<P>>() {
+			public Publisher<P> apply(P page) {
+				return nextPage.apply(page);
+			}
+		}).flatMapIterable(new Function<P, Iterable<T>>() {
+			public Iterable<T> apply(P page) {
+				return page;
+			}
+		}, 1);
+	}
+
+	private static final Predicate<HttpStatus> IS_ERROR = new Predicate<HttpStatus>() {
+		public boolean test(HttpStatus status) {
+			return status.isError();
+		}
+	};
+
+	private static final Function<ClientResponse, Mono<? extends Throwable>> TO_EXCEPTION = new Function<ClientResponse, Mono<? extends Throwable>>() {
+		public Mono<? extends Throwable> apply(final ClientResponse response) {
+			return response.bodyToMono(String.class).defaultIfEmpty("").map(new Function<String, Throwable>() {
+				public Throwable apply(String body) {
+					return toException(response.statusCode(), response.headers().asHttpHeaders(), body.getBytes(StandardCharsets.UTF_8));
+				}
+			});
+		}
+	};
+
+	// interprets the error just as the RestTemplate's error handler would, by handing it a buffered copy of the response
+	private static Throwable toException(final HttpStatus status, final HttpHeaders headers, final byte[] body) {
+		ClientHttpResponse bufferedResponse = new ClientHttpResponse() {
+			public HttpStatus getStatusCode() {
+				return status;
+			}
+			public int getRawStatusCode() {
+				return status.value();
+			}
+			public String getStatusText() {
+				return status.getReasonPhrase();
+			}
+			public HttpHeaders getHeaders() {
+				return headers;
+			}
+			public InputStream getBody() {
+				return new ByteArrayInputStream(body);
+			}
+			public void close() {
+			}
+		};
+		try {
+			ERROR_HANDLER.handleError(bufferedResponse);
+		} catch (RuntimeException e) {
+			return e;
+		} catch (IOException e) {
+			return new UncategorizedApiException("twitter", "Error consuming Twitter REST API", e);
+		}
+		return new UncategorizedApiException("twitter", "Error consuming Twitter REST API: " + status, null);
+	}
+
+	private static final TwitterErrorHandler ERROR_HANDLER = new TwitterErrorHandler();
+
+}
@@ -33,6 +33,14 @@ class AbstractTwitterOperations {
 		this.isAppAuthorized = isAppAuthorized;
 	}
 	
+	protected boolean isUserAuthorized() {
+		return isUserAuthorized;
+	}
+
+	protected boolean isAppAuthorized() {
+		return isAppAuthorized;
+	}
+
 	protected void requireUserAuthorization() {
 		if (!isUserAuthorized) {
 			throw new MissingAuthorizationException("twitter");
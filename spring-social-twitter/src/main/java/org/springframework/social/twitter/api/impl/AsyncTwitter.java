@@ -0,0 +1,426 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import org.springframework.social.twitter.api.CursoredList;
+import org.springframework.social.twitter.api.ReactiveFriendOperations;
+import org.springframework.social.twitter.api.ReactiveTimelineOperations;
+import org.springframework.social.twitter.api.ReactiveTwitter;
+import org.springframework.social.twitter.api.ReactiveUserOperations;
+import org.springframework.social.twitter.api.ResourceFamily;
+import org.springframework.social.twitter.api.Tweet;
+import org.springframework.social.twitter.api.TwitterProfile;
+import org.springframework.util.Assert;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs the operations of a {@link ReactiveTwitter} as {@link CompletableFuture}s, for callers that would rather compose futures than publishers.
+ * <p>
+ * Its scope is the reactive binding's, which is narrower than {@link org.springframework.social.twitter.api.Twitter}'s:
+ * the timeline, user and friend operations of {@link ReactiveTimelineOperations}, {@link ReactiveUserOperations} and {@link ReactiveFriendOperations}.
+ * There are no counterparts here for the list, search, direct message, block, geo, trends or streaming operations;
+ * a call to one of those endpoints can be made through the binding's {@link ReactiveTwitter#webClient() WebClient}
+ * and run through {@link #toFuture(ResourceFamily, Mono)}.
+ * Each operation makes a single request, e.g. <code>asyncTwitter.getUserProfile("habuma")</code>, with the items of its response collected into a list;
+ * friends and followers are fetched a cursored page per call, so that walking a long list takes as many calls as it has pages.
+ * <p>
+ * No thread waits on a call in flight, so hundreds of calls can be outstanding at once. To keep a fan-out from
+ * spending a resource family's rate limit all at once, no more than a set number of calls to each family are in flight;
+ * the rest are queued, without holding a thread, and each is started as an earlier one completes.
+ * A backlog of calls to one family doesn't hold up calls to another.
+ * A failed call completes its future exceptionally with the exception the reactive binding signalled.
+ * Cancelling a future cancels its request, or drops it from the queue if it hasn't been started.
+ */
+public class AsyncTwitter {
+
+	private final ReactiveTwitter twitter;
+
+	private final Map<ResourceFamily, CallLimit> limits;
+
+	/**
+	 * Creates an AsyncTwitter allowing 16 calls in flight per resource family.
+	 * @param twitter the reactive binding to run operations of
+	 */
+	public AsyncTwitter(ReactiveTwitter twitter) {
+		this(twitter, DEFAULT_MAX_CONCURRENCY);
+	}
+
+	/**
+	 * @param twitter the reactive binding to run operations of
+	 * @param maxConcurrency how many calls to each resource family may be in flight at once
+	 */
+	public AsyncTwitter(ReactiveTwitter twitter, int maxConcurrency) {
+		Assert.notNull(twitter, "ReactiveTwitter may not be null");
+		Assert.isTrue(maxConcurrency > 0, "maxConcurrency must be greater than zero");
+		this.twitter = twitter;
+		this.limits = new EnumMap<ResourceFamily, CallLimit>(ResourceFamily.class);
+		for (ResourceFamily family : ResourceFamily.values()) {
+			limits.put(family, new CallLimit(maxConcurrency));
+		}
+	}
+
+	/**
+	 * @see ReactiveTimelineOperations#getHomeTimeline(int, long, long)
+	 */
+	public CompletableFuture<List<Tweet>> getHomeTimeline(final int pageSize, final long sinceId, final long maxId) {
+		return toFuture(ResourceFamily.STATUSES, new Supplier<Mono<List<Tweet>>>() {
+			public Mono<List<Tweet>> get() {
+				return timeline().getHomeTimeline(pageSize, sinceId, maxId).collectList();
+			}
+		});
+	}
+
+	/**
+	 * @see ReactiveTimelineOperations#getUserTimeline(String, int, long, long)
+	 */
+	public CompletableFuture<List<Tweet>> getUserTimeline(final String screenName, final int pageSize, final long sinceId, final long maxId) {
+		return toFuture(ResourceFamily.STATUSES, new Supplier<Mono<List<Tweet>>>() {
+			public Mono<List<Tweet>> get() {
+				return timeline().getUserTimeline(screenName, pageSize, sinceId, maxId).collectList();
+			}
+		});
+	}
+
+	/**
+	 * @see ReactiveTimelineOperations#getUserTimeline(long, int, long, long)
+	 */
+	public CompletableFuture<List<Tweet>> getUserTimeline(final long userId, final int pageSize, final long sinceId, final long maxId) {
+		return toFuture(ResourceFamily.STATUSES, new Supplier<Mono<List<Tweet>>>() {
+			public Mono<List<Tweet>> get() {
+				return timeline().getUserTimeline(userId, pageSize, sinceId, maxId).collectList();
+			}
+		});
+	}
+
+	/**
+	 * @see ReactiveTimelineOperations#getMentions(int, long, long)
+	 */
+	public CompletableFuture<List<Tweet>> getMentions(final int pageSize, final long sinceId, final long maxId) {
+		return toFuture(ResourceFamily.STATUSES, new Supplier<Mono<List<Tweet>>>() {
+			public Mono<List<Tweet>> get() {
+				return timeline().getMentions(pageSize, sinceId, maxId).collectList();
+			}
+		});
+	}
+
+	/**
+	 * @see ReactiveTimelineOperations#getStatus(long)
+	 */
+	public CompletableFuture<Tweet> getStatus(final long tweetId) {
+		return toFuture(ResourceFamily.STATUSES, new Supplier<Mono<Tweet>>() {
+			public Mono<Tweet> get() {
+				return timeline().getStatus(tweetId);
+			}
+		});
+	}
+
+	/**
+	 * @see ReactiveTimelineOperations#updateStatus(String)
+	 */
+	public CompletableFuture<Tweet> updateStatus(final String status) {
+		return toFuture(ResourceFamily.STATUSES, new Supplier<Mono<Tweet>>() {
+			public Mono<Tweet> get() {
+				return timeline().updateStatus(status);
+			}
+		});
+	}
+
+	/**
+	 * @see ReactiveTimelineOperations#deleteStatus(long)
+	 */
+	public CompletableFuture<Void> deleteStatus(final long tweetId) {
+		return toFuture(ResourceFamily.STATUSES, new Supplier<Mono<Void>>() {
+			public Mono<Void> get() {
+				return timeline().deleteStatus(tweetId);
+			}
+		});
+	}
+
+	/**
+	 * @see ReactiveUserOperations#getUserProfile()
+	 */
+	public CompletableFuture<TwitterProfile> getUserProfile() {
+		return toFuture(ResourceFamily.ACCOUNT, new Supplier<Mono<TwitterProfile>>() {
+			public Mono<TwitterProfile> get() {
+				return users().getUserProfile();
+			}
+		});
+	}
+
+	/**
+	 * @see ReactiveUserOperations#getUserProfile(String)
+	 */
+	public CompletableFuture<TwitterProfile> getUserProfile(final String screenName) {
+		return toFuture(ResourceFamily.USERS, new Supplier<Mono<TwitterProfile>>() {
+			public Mono<TwitterProfile> get() {
+				return users().getUserProfile(screenName);
+			}
+		});
+	}
+
+	/**
+	 * @see ReactiveUserOperations#getUserProfile(long)
+	 */
+	public CompletableFuture<TwitterProfile> getUserProfile(final long userId) {
+		return toFuture(ResourceFamily.USERS, new Supplier<Mono<TwitterProfile>>() {
+			public Mono<TwitterProfile> get() {
+				return users().getUserProfile(userId);
+			}
+		});
+	}
+
+	/**
+	 * @see ReactiveUserOperations#getUsers(long...)
+	 */
+	public CompletableFuture<List<TwitterProfile>> getUsers(final long... userIds) {
+		return toFuture(ResourceFamily.USERS, new Supplier<Mono<List<TwitterProfile>>>() {
+			public Mono<List<TwitterProfile>> get() {
+				return users().getUsers(userIds).collectList();
+			}
+		});
+	}
+
+	/**
+	 * @see ReactiveUserOperations#getUsers(String...)
+	 */
+	public CompletableFuture<List<TwitterProfile>> getUsers(final String... screenNames) {
+		return toFuture(ResourceFamily.USERS, new Supplier<Mono<List<TwitterProfile>>>() {
+			public Mono<List<TwitterProfile>> get() {
+				return users().getUsers(screenNames).collectList();
+			}
+		});
+	}
+
+	/**
+	 * @see ReactiveFriendOperations#getFriendIdsInCursor(long, long)
+	 */
+	public CompletableFuture<CursoredList<Long>> getFriendIdsInCursor(final long userId, final long cursor) {
+		return toFuture(ResourceFamily.FRIENDS, new Supplier<Mono<CursoredList<Long>>>() {
+			public Mono<CursoredList<Long>> get() {
+				return friends().getFriendIdsInCursor(userId, cursor);
+			}
+		});
+	}
+
+	/**
+	 * @see ReactiveFriendOperations#getFriendIdsInCursor(String, long)
+	 */
+	public CompletableFuture<CursoredList<Long>> getFriendIdsInCursor(final String screenName, final long cursor) {
+		return toFuture(ResourceFamily.FRIENDS, new Supplier<Mono<CursoredList<Long>>>() {
+			public Mono<CursoredList<Long>> get() {
+				return friends().getFriendIdsInCursor(screenName, cursor);
+			}
+		});
+	}
+
+	/**
+	 * @see ReactiveFriendOperations#getFollowerIdsInCursor(long, long)
+	 */
+	public CompletableFuture<CursoredList<Long>> getFollowerIdsInCursor(final long userId, final long cursor) {
+		return toFuture(ResourceFamily.FOLLOWERS, new Supplier<Mono<CursoredList<Long>>>() {
+			public Mono<CursoredList<Long>> get() {
+				return friends().getFollowerIdsInCursor(userId, cursor);
+			}
+		});
+	}
+
+	/**
+	 * @see ReactiveFriendOperations#getFollowerIdsInCursor(String, long)
+	 */
+	public CompletableFuture<CursoredList<Long>> getFollowerIdsInCursor(final String screenName, final long cursor) {
+		return toFuture(ResourceFamily.FOLLOWERS, new Supplier<Mono<CursoredList<Long>>>() {
+			public Mono<CursoredList<Long>> get() {
+				return friends().getFollowerIdsInCursor(screenName, cursor);
+			}
+		});
+	}
+
+	/**
+	 * @see ReactiveFriendOperations#getFriendsInCursor(long, long)
+	 */
+	public CompletableFuture<CursoredList<TwitterProfile>> getFriendsInCursor(final long userId, final long cursor) {
+		return toFuture(ResourceFamily.FRIENDS, new Supplier<Mono<CursoredList<TwitterProfile>>>() {
+			public Mono<CursoredList<TwitterProfile>> get() {
+				return friends().getFriendsInCursor(userId, cursor);
+			}
+		});
+	}
+
+	/**
+	 * @see ReactiveFriendOperations#getFriendsInCursor(String, long)
+	 */
+	public CompletableFuture<CursoredList<TwitterProfile>> getFriendsInCursor(final String screenName, final long cursor) {
+		return toFuture(ResourceFamily.FRIENDS, new Supplier<Mono<CursoredList<TwitterProfile>>>() {
+			public Mono<CursoredList<TwitterProfile>> get() {
+				return friends().getFriendsInCursor(screenName, cursor);
+			}
+		});
+	}
+
+	/**
+	 * @see ReactiveFriendOperations#getFollowersInCursor(long, long)
+	 */
+	public CompletableFuture<CursoredList<TwitterProfile>> getFollowersInCursor(final long userId, final long cursor) {
+		return toFuture(ResourceFamily.FOLLOWERS, new Supplier<Mono<CursoredList<TwitterProfile>>>() {
+			public Mono<CursoredList<TwitterProfile>> get() {
+				return friends().getFollowersInCursor(userId, cursor);
+			}
+		});
+	}
+
+	/**
+	 * @see ReactiveFriendOperations#getFollowersInCursor(String, long)
+	 */
+	public CompletableFuture<CursoredList<TwitterProfile>> getFollowersInCursor(final String screenName, final long cursor) {
+		return toFuture(ResourceFamily.FOLLOWERS, new Supplier<Mono<CursoredList<TwitterProfile>>>() {
+			public Mono<CursoredList<TwitterProfile>> get() {
+				return friends().getFollowersInCursor(screenName, cursor);
+			}
+		});
+	}
+
+	/**
+	 * Runs a call the reactive binding doesn't have an operation for, e.g. one made through its {@link ReactiveTwitter#webClient() WebClient},
+	 * counting it against the given resource family's limit.
+	 * @param family the resource family the call's endpoint belongs to
+	 * @param call the call, which is subscribed to once a call to the family may be in flight
+	 * @return a future of the call's value, completed with null if the call completes empty
+	 */
+	public <T> CompletableFuture<T> toFuture(ResourceFamily family, final Mono<T> call) {
+		Assert.notNull(family, "family may not be null");
+		Assert.notNull(call, "call may not be null");
+		return toFuture(family, new Supplier<Mono<T>>() {
+			public Mono<T> get() {
+				return call;
+			}
+		});
+	}
+
+	private ReactiveTimelineOperations timeline() {
+		return twitter.timelineOperations();
+	}
+
+	private ReactiveUserOperations users() {
+		return twitter.userOperations();
+	}
+
+	private ReactiveFriendOperations friends() {
+		return twitter.friendOperations();
+	}
+
+	private <T> CompletableFuture<T> toFuture(ResourceFamily family, final Supplier<Mono<T>> call) {
+		final CallLimit limit = limits.get(family);
+		final CompletableFuture<T> future = new CompletableFuture<T>();
+		limit.submit(new Runnable() {
+			public void run() {
+				if (future.isDone()) {
+					// cancelled while it was queued
+					limit.release();
+					return;
+				}
+				final CompletableFuture<T> result;
+				try {
+					result = call.get().toFuture();
+				} catch (RuntimeException e) {
+					limit.release();
+					future.completeExceptionally(e);
+					return;
+				}
+				result.whenComplete(new BiConsumer<T, Throwable>() {
+					public void accept(T value, Throwable error) {
+						limit.release();
+						if (error != null) {
+							future.completeExceptionally(error);
+						} else {
+							future.complete(value);
+						}
+					}
+				});
+				future.whenComplete(new BiConsumer<T, Throwable>() {
+					public void accept(T value, Throwable error) {
+						if (future.isCancelled()) {
+							result.cancel(true);
+						}
+					}
+				});
+			}
+		});
+		return future;
+	}
+
+	/**
+	 * Limits the calls in flight to a resource family, queueing the rest rather than blocking the thread that makes them.
+	 * Whichever thread submits a call or completes one starts as many queued calls as there are permits for;
+	 * if another thread is already starting calls, it's left to start them, so that calls completing as they're started don't recurse.
+	 */
+	private static class CallLimit {
+
+		private final Semaphore permits;
+
+		private final Queue<Runnable> queued = new ConcurrentLinkedQueue<Runnable>();
+
+		private final AtomicInteger starting = new AtomicInteger();
+
+		CallLimit(int maxConcurrency) {
+			this.permits = new Semaphore(maxConcurrency);
+		}
+
+		void submit(Runnable call) {
+			queued.add(call);
+			startQueued();
+		}
+
+		void release() {
+			permits.release();
+			startQueued();
+		}
+
+		// a queued call and a free permit can't both be missed: submit() queues and release() frees its permit before asking for another pass
+		private void startQueued() {
+			if (starting.getAndIncrement() != 0) {
+				return;
+			}
+			int passes = 1;
+			do {
+				while (!queued.isEmpty() && permits.tryAcquire()) {
+					Runnable call = queued.poll();
+					if (call == null) {
+						permits.release();
+					} else {
+						call.run();
+					}
+				}
+				passes = starting.addAndGet(-passes);
+			} while (passes != 0);
+		}
+
+	}
+
+	private static final int DEFAULT_MAX_CONCURRENCY = 16;
+
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.social.twitter.api.CloseableIterator;
+import org.springframework.social.twitter.api.CursoredList;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Iterates over the items of every page of a cursored resource, from the first page to the last.
+ * While a page is being consumed, up to <code>prefetchDepth</code> following pages are fetched in the background,
+ * so that walking a long cursor takes about as long as the slower of fetching and consuming it rather than the sum of the two.
+ * <p>
+ * Pages are fetched ahead one at a time, each as a task on a small pool of daemon threads shared by every walk, so no thread is
+ * set aside for a walk or waits on its consumer: a walk that is abandoned without being closed fetches no more than the page
+ * in flight, and is then left for the garbage collector. If the page the consumer is waiting for hasn't been started because
+ * the pool is busy with other walks, the consumer fetches it itself.
+ * <p>
+ * If the RestTemplate has a {@link RateLimitGovernor}, pages are only fetched ahead while the endpoint has more requests left in its budget
+ * than the prefetch depth; beyond that, each page is fetched once it is needed, so that a walk that is abandoned part way
+ * doesn't leave the rest of the application without budget.
+ */
+class CursorPageIterator<T> implements CloseableIterator<T> {
+
+	/**
+	 * Fetches one page of a cursored resource.
+	 */
+	interface PageSource<T> {
+		CursoredList<T> fetch(long cursor);
+	}
+
+	private final PageSource<T> source;
+
+	private final int prefetchDepth;
+
+	private final RateLimitGovernor governor;
+
+	private final String endpoint;
+
+	// pages fetched ahead, the exception that fetching the next page failed with, or CLOSED
+	private final LinkedBlockingQueue<Object> pages = new LinkedBlockingQueue<Object>();
+
+	private final Object lock = new Object();
+
+	// guarded by lock: how many pages the consumer has asked for
+	private int demanded;
+
+	// guarded by lock: how many pages have been fetched, and the cursor of the next one
+	private int fetched;
+
+	private long fetchCursor = -1;
+
+	// guarded by lock: whether the last page, or an error, has been fetched
+	private boolean exhausted;
+
+	// guarded by lock: the fetch that's been scheduled but not yet finished, if any
+	private PageFetch pending;
+
+	private volatile boolean closed;
+
+	private Iterator<T> current = Collections.<T>emptyIterator();
+
+	private long nextCursor = -1;
+
+	private boolean lastPage;
+
+	/**
+	 * @param restTemplate the RestTemplate that the source fetches pages through, consulted for a rate limit governor
+	 * @param path the path of the resource, relative to the API's base URL, e.g. "followers/ids.json"
+	 * @param prefetchDepth how many pages to fetch ahead of the one being consumed, or 0 to fetch each page on the consuming thread once it is needed
+	 */
+	CursorPageIterator(RestTemplate restTemplate, String path, int prefetchDepth, PageSource<T> source) {
+		this.source = source;
+		this.prefetchDepth = prefetchDepth;
+		this.governor = governorOf(restTemplate);
+		this.endpoint = RateLimitGovernor.endpointOf("/" + path);
+	}
+
+	public boolean hasNext() {
+		while (!current.hasNext()) {
+			if (lastPage || closed) {
+				return false;
+			}
+			Object next = nextPage();
+			if (next == CLOSED) {
+				return false;
+			}
+			if (next instanceof RuntimeException) {
+				close();
+				throw (RuntimeException) next;
+			}
+			@SuppressWarnings("unchecked")
+			CursoredList<T> page = (CursoredList<T>) next;
+			current = page.iterator();
+			lastPage = !page.hasNext();
+			nextCursor = page.getNextCursor();
+		}
+		return true;
+	}
+
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return current.next();
+	}
+
+	/**
+	 * Stops fetching pages. Any pages already fetched ahead are discarded.
+	 */
+	public void close() {
+		closed = true;
+		current = Collections.<T>emptyIterator();
+		synchronized (lock) {
+			if (pending != null && pending.future != null) {
+				// in case it's held up by the rate limit governor
+				pending.future.cancel(true);
+			}
+			pages.clear();
+			// in case the consumer is waiting for a page on another thread
+			pages.add(CLOSED);
+		}
+	}
+
+	private Object nextPage() {
+		if (prefetchDepth == 0) {
+			try {
+				return source.fetch(nextCursor);
+			} catch (RuntimeException e) {
+				return e;
+			}
+		}
+		PageFetch fetch;
+		synchronized (lock) {
+			demanded++;
+			fetch = schedule();
+		}
+		if (fetch != null && pages.isEmpty()) {
+			// pages are fetched one at a time, so this is the page being waited for; fetch it here unless a pool thread has started it
+			fetch.run();
+		}
+		try {
+			return pages.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			close();
+			throw new ResourceAccessException("Interrupted while waiting for the next page of " + endpoint);
+		}
+	}
+
+	// must hold lock; schedules the next page if it may be fetched and no fetch is pending, returning the pending fetch
+	private PageFetch schedule() {
+		if (pending == null && !closed && !exhausted && mayFetch(fetched)) {
+			pending = new PageFetch(fetchCursor);
+			pending.future = PREFETCH_EXECUTOR.submit(pending);
+		}
+		return pending;
+	}
+
+	// the page may be fetched if the consumer is waiting for it, or if it's within the prefetch depth and the endpoint has budget to spare
+	private boolean mayFetch(int page) {
+		if (page < demanded) {
+			return true;
+		}
+		return page < demanded + prefetchDepth && (governor == null || governor.available(endpoint) > prefetchDepth);
+	}
+
+	private static RateLimitGovernor governorOf(RestTemplate restTemplate) {
+		for (ClientHttpRequestInterceptor interceptor : restTemplate.getInterceptors()) {
+			if (interceptor instanceof RateLimitGovernor) {
+				return (RateLimitGovernor) interceptor;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Fetches one page, on whichever of a pool thread and the consumer gets to it first, and then schedules the next.
+	 */
+	private class PageFetch implements Runnable {
+
+		private final long cursor;
+
+		private final AtomicBoolean started = new AtomicBoolean();
+
+		// guarded by lock
+		Future<?> future;
+
+		PageFetch(long cursor) {
+			this.cursor = cursor;
+		}
+
+		public void run() {
+			if (!started.compareAndSet(false, true)) {
+				return;
+			}
+			Object page;
+			try {
+				page = source.fetch(cursor);
+			} catch (RuntimeException e) {
+				page = e;
+			}
+			synchronized (lock) {
+				pending = null;
+				if (closed) {
+					return;
+				}
+				fetched++;
+				if (page instanceof RuntimeException) {
+					exhausted = true;
+				} else {
+					CursoredList<?> list = (CursoredList<?>) page;
+					exhausted = !list.hasNext();
+					fetchCursor = list.getNextCursor();
+				}
+				pages.add(page);
+				schedule();
+			}
+		}
+
+	}
+
+	private static final Object CLOSED = new Object();
+
+	static final int PREFETCH_THREADS = 4;
+
+	private static final ThreadPoolExecutor PREFETCH_EXECUTOR = prefetchExecutor();
+
+	// a few daemon threads shared by every walk, let go of once there's been nothing to prefetch for a minute
+	private static ThreadPoolExecutor prefetchExecutor() {
+		final AtomicInteger threadCount = new AtomicInteger();
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(PREFETCH_THREADS, PREFETCH_THREADS, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "twitter-cursor-prefetch-" + threadCount.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.springframework.social.twitter.api.CursoredLongArray;
+import org.springframework.social.twitter.api.impl.CursoredLongArrayMixin.CursoredLongArrayDeserializer;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonDeserialize(using = CursoredLongArrayDeserializer.class)
+abstract class CursoredLongArrayMixin {
+
+	/**
+	 * Reads the "ids" array straight into a long[], without a Long or a tree node for each ID.
+	 */
+	static final class CursoredLongArrayDeserializer extends JsonDeserializer<CursoredLongArray> {
+		@Override
+		public CursoredLongArray deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
+			long[] ids = NO_IDS;
+			long previousCursor = 0;
+			long nextCursor = 0;
+			JsonToken token = jp.getCurrentToken() == JsonToken.START_OBJECT ? jp.nextToken() : jp.getCurrentToken();
+			for (; token == JsonToken.FIELD_NAME; token = jp.nextToken()) {
+				String fieldName = jp.getCurrentName();
+				token = jp.nextToken();
+				if ("ids".equals(fieldName) && token == JsonToken.START_ARRAY) {
+					ids = readIds(jp);
+				} else if ("previous_cursor".equals(fieldName)) {
+					previousCursor = jp.getValueAsLong();
+				} else if ("next_cursor".equals(fieldName)) {
+					nextCursor = jp.getValueAsLong();
+				} else {
+					jp.skipChildren();
+				}
+			}
+			return new CursoredLongArray(ids, previousCursor, nextCursor);
+		}
+
+		// sized for a full page, and trimmed if the page is short; IDs sent as strings (stringify_ids=true) are read as numbers
+		private static long[] readIds(JsonParser jp) throws IOException {
+			long[] ids = new long[FULL_PAGE];
+			int size = 0;
+			while (jp.nextToken() != JsonToken.END_ARRAY) {
+				if (size == ids.length) {
+					ids = Arrays.copyOf(ids, size * 2);
+				}
+				ids[size++] = jp.getValueAsLong();
+			}
+			return size == ids.length ? ids : Arrays.copyOf(ids, size);
+		}
+
+		private static final long[] NO_IDS = new long[0];
+
+		// the most IDs Twitter returns in a page
+		private static final int FULL_PAGE = 5000;
+	}
+
+}
@@ -17,7 +17,9 @@ package org.springframework.social.twitter.api.impl;
 
 import java.util.Map;
 
+import org.springframework.social.twitter.api.CloseableIterator;
 import org.springframework.social.twitter.api.CursoredList;
+import org.springframework.social.twitter.api.CursoredLongArray;
 import org.springframework.social.twitter.api.FriendOperations;
 import org.springframework.social.twitter.api.TwitterProfile;
 import org.springframework.util.LinkedMultiValueMap;
@@ -32,11 +34,20 @@ class FriendTemplate extends AbstractTwitterOperations implements FriendOperatio
 	
 	private final RestTemplate restTemplate;
 
+	private int prefetchDepth = DEFAULT_PREFETCH_DEPTH;
+
 	public FriendTemplate(RestTemplate restTemplate, boolean isAuthorizedForUser, boolean isAuthorizedForApp) {
 		super(isAuthorizedForUser, isAuthorizedForApp);
 		this.restTemplate = restTemplate;
 	}
 
+	/**
+	 * Sets how many pages the iterateAll and streamAll methods fetch ahead of the page being consumed.
+	 */
+	void setPrefetchDepth(int prefetchDepth) {
+		this.prefetchDepth = prefetchDepth;
+	}
+
 	public CursoredList<TwitterProfile> getFriends() {
 		return getFriendsInCursor(-1);
 	}
@@ -105,6 +116,27 @@ class FriendTemplate extends AbstractTwitterOperations implements FriendOperatio
 		return restTemplate.getForObject(buildUri("friends/ids.json", parameters), CursoredLongList.class).getList();
 	}
 
+	public CursoredLongArray getFriendIdArrayInCursor(long cursor) {
+		requireUserAuthorization();
+		return restTemplate.getForObject(buildUri("friends/ids.json", "cursor", String.valueOf(cursor)), CursoredLongArray.class);
+	}
+
+	public CursoredLongArray getFriendIdArrayInCursor(long userId, long cursor) {
+		requireEitherUserOrAppAuthorization();
+		LinkedMultiValueMap<String, String> parameters = new LinkedMultiValueMap<String, String>();
+		parameters.set("cursor", String.valueOf(cursor));
+		parameters.set("user_id", String.valueOf(userId));
+		return restTemplate.getForObject(buildUri("friends/ids.json", parameters), CursoredLongArray.class);
+	}
+
+	public CursoredLongArray getFriendIdArrayInCursor(String screenName, long cursor) {
+		requireEitherUserOrAppAuthorization();
+		LinkedMultiValueMap<String, String> parameters = new LinkedMultiValueMap<String, String>();
+		parameters.set("cursor", String.valueOf(cursor));
+		parameters.set("screen_name", screenName);
+		return restTemplate.getForObject(buildUri("friends/ids.json", parameters), CursoredLongArray.class);
+	}
+
 	public CursoredList<TwitterProfile> getFollowers() {
 		return getFollowersInCursor(-1);
 	}
@@ -173,6 +205,91 @@ class FriendTemplate extends AbstractTwitterOperations implements FriendOperatio
 		return restTemplate.getForObject(buildUri("followers/ids.json", parameters), CursoredLongList.class).getList();
 	}
 
+	public CursoredLongArray getFollowerIdArrayInCursor(long cursor) {
+		requireUserAuthorization();
+		return restTemplate.getForObject(buildUri("followers/ids.json", "cursor", String.valueOf(cursor)), CursoredLongArray.class);
+	}
+
+	public CursoredLongArray getFollowerIdArrayInCursor(long userId, long cursor) {
+		requireEitherUserOrAppAuthorization();
+		LinkedMultiValueMap<String, String> parameters = new LinkedMultiValueMap<String, String>();
+		parameters.set("cursor", String.valueOf(cursor));
+		parameters.set("user_id", String.valueOf(userId));
+		return restTemplate.getForObject(buildUri("followers/ids.json", parameters), CursoredLongArray.class);
+	}
+
+	public CursoredLongArray getFollowerIdArrayInCursor(String screenName, long cursor) {
+		requireEitherUserOrAppAuthorization();
+		LinkedMultiValueMap<String, String> parameters = new LinkedMultiValueMap<String, String>();
+		parameters.set("cursor", String.valueOf(cursor));
+		parameters.set("screen_name", screenName);
+		return restTemplate.getForObject(buildUri("followers/ids.json", parameters), CursoredLongArray.class);
+	}
+
+	public CloseableIterator<TwitterProfile> iterateAllFriends(long userId) {
+		return openAllFriends(userId);
+	}
+
+	public CloseableIterator<TwitterProfile> iterateAllFriends(String screenName) {
+		return openAllFriends(screenName);
+	}
+
+	public java.util.stream.Stream<TwitterProfile> streamAllFriends(long userId) {
+		return openAllFriends(userId).stream();
+	}
+
+	public java.util.stream.Stream<TwitterProfile> streamAllFriends(String screenName) {
+		return openAllFriends(screenName).stream();
+	}
+
+	public CloseableIterator<Long> iterateAllFriendIds(long userId) {
+		return openAllFriendIds(userId);
+	}
+
+	public CloseableIterator<Long> iterateAllFriendIds(String screenName) {
+		return openAllFriendIds(screenName);
+	}
+
+	public java.util.stream.Stream<Long> streamAllFriendIds(long userId) {
+		return openAllFriendIds(userId).stream();
+	}
+
+	public java.util.stream.Stream<Long> streamAllFriendIds(String screenName) {
+		return openAllFriendIds(screenName).stream();
+	}
+
+	public CloseableIterator<TwitterProfile> iterateAllFollowers(long userId) {
+		return openAllFollowers(userId);
+	}
+
+	public CloseableIterator<TwitterProfile> iterateAllFollowers(String screenName) {
+		return openAllFollowers(screenName);
+	}
+
+	public java.util.stream.Stream<TwitterProfile> streamAllFollowers(long userId) {
+		return openAllFollowers(userId).stream();
+	}
+
+	public java.util.stream.Stream<TwitterProfile> streamAllFollowers(String screenName) {
+		return openAllFollowers(screenName).stream();
+	}
+
+	public CloseableIterator<Long> iterateAllFollowerIds(long userId) {
+		return openAllFollowerIds(userId);
+	}
+
+	public CloseableIterator<Long> iterateAllFollowerIds(String screenName) {
+		return openAllFollowerIds(screenName);
+	}
+
+	public java.util.stream.Stream<Long> streamAllFollowerIds(long userId) {
+		return openAllFollowerIds(userId).stream();
+	}
+
+	public java.util.stream.Stream<Long> streamAllFollowerIds(String screenName) {
+		return openAllFollowerIds(screenName).stream();
+	}
+
 	public String follow(long userId) {
 		requireUserAuthorization();
 		return (String) restTemplate.postForObject(buildUri("friendships/create.json", "user_id", String.valueOf(userId)), EMPTY_DATA, Map.class).get("screen_name");
@@ -243,6 +360,80 @@ class FriendTemplate extends AbstractTwitterOperations implements FriendOperatio
 		return restTemplate.getForObject(buildUri("friendships/outgoing.json", "cursor", String.valueOf(cursor)), CursoredLongList.class).getList();
 	}
 	
+	private CursorPageIterator<TwitterProfile> openAllFriends(final long userId) {
+		requireEitherUserOrAppAuthorization();
+		return new CursorPageIterator<TwitterProfile>(restTemplate, "friends/list.json", prefetchDepth, new CursorPageIterator.PageSource<TwitterProfile>() {
+			public CursoredList<TwitterProfile> fetch(long cursor) {
+				return getFriendsInCursor(userId, cursor);
+			}
+		});
+	}
+
+	private CursorPageIterator<TwitterProfile> openAllFriends(final String screenName) {
+		requireEitherUserOrAppAuthorization();
+		return new CursorPageIterator<TwitterProfile>(restTemplate, "friends/list.json", prefetchDepth, new CursorPageIterator.PageSource<TwitterProfile>() {
+			public CursoredList<TwitterProfile> fetch(long cursor) {
+				return getFriendsInCursor(screenName, cursor);
+			}
+		});
+	}
+
+	private CursorPageIterator<Long> openAllFriendIds(final long userId) {
+		requireEitherUserOrAppAuthorization();
+		return new CursorPageIterator<Long>(restTemplate, "friends/ids.json", prefetchDepth, new CursorPageIterator.PageSource<Long>() {
+			public CursoredList<Long> fetch(long cursor) {
+				return getFriendIdsInCursor(userId, cursor);
+			}
+		});
+	}
+
+	private CursorPageIterator<Long> openAllFriendIds(final String screenName) {
+		requireEitherUserOrAppAuthorization();
+		return new CursorPageIterator<Long>(restTemplate, "friends/ids.json", prefetchDepth, new CursorPageIterator.PageSource<Long>() {
+			public CursoredList<Long> fetch(long cursor) {
+				return getFriendIdsInCursor(screenName, cursor);
+			}
+		});
+	}
+
+	private CursorPageIterator<TwitterProfile> openAllFollowers(final long userId) {
+		requireEitherUserOrAppAuthorization();
+		return new CursorPageIterator<TwitterProfile>(restTemplate, "followers/list.json", prefetchDepth, new CursorPageIterator.PageSource<TwitterProfile>() {
+			public CursoredList<TwitterProfile> fetch(long cursor) {
+				return getFollowersInCursor(userId, cursor);
+			}
+		});
+	}
+
+	private CursorPageIterator<TwitterProfile> openAllFollowers(final String screenName) {
+		requireEitherUserOrAppAuthorization();
+		return new CursorPageIterator<TwitterProfile>(restTemplate, "followers/list.json", prefetchDepth, new CursorPageIterator.PageSource<TwitterProfile>() {
+			public CursoredList<TwitterProfile> fetch(long cursor) {
+				return getFollowersInCursor(screenName, cursor);
+			}
+		});
+	}
+
+	private CursorPageIterator<Long> openAllFollowerIds(final long userId) {
+		requireEitherUserOrAppAuthorization();
+		return new CursorPageIterator<Long>(restTemplate, "followers/ids.json", prefetchDepth, new CursorPageIterator.PageSource<Long>() {
+			public CursoredList<Long> fetch(long cursor) {
+				return getFollowerIdsInCursor(userId, cursor);
+			}
+		});
+	}
+
+	private CursorPageIterator<Long> openAllFollowerIds(final String screenName) {
+		requireEitherUserOrAppAuthorization();
+		return new CursorPageIterator<Long>(restTemplate, "followers/ids.json", prefetchDepth, new CursorPageIterator.PageSource<Long>() {
+			public CursoredList<Long> fetch(long cursor) {
+				return getFollowerIdsInCursor(screenName, cursor);
+			}
+		});
+	}
+
+	static final int DEFAULT_PREFETCH_DEPTH = 1;
+
 	private static final MultiValueMap<String, Object> EMPTY_DATA = new LinkedMultiValueMap<String, Object>();
 	
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.social.twitter.api.StreamMetrics;
+
+/**
+ * {@link StreamMetrics} that keeps an in-memory {@link LatencyHistogram} of each measurement, along with throughput counters, for each stream.
+ * Useful on its own for logging or health checks, and as a reference for binding stream metrics to other monitoring systems.
+ * Lag is recorded in milliseconds; all other timings are recorded in nanoseconds.
+ */
+public class HistogramStreamMetrics implements StreamMetrics {
+
+	private final ConcurrentMap<String, Statistics> statistics = new ConcurrentHashMap<String, Statistics>();
+
+	public void messageReceived(String stream) {
+		statisticsFor(stream).received.incrementAndGet();
+	}
+
+	public void messageDelivered(String stream) {
+		statisticsFor(stream).delivered.incrementAndGet();
+	}
+
+	public void recordLag(String stream, long lagMillis) {
+		statisticsFor(stream).lag.record(lagMillis);
+	}
+
+	public void recordQueueTime(String stream, long nanos) {
+		statisticsFor(stream).queueTime.record(nanos);
+	}
+
+	public void recordDeserializationTime(String stream, long nanos) {
+		statisticsFor(stream).deserializationTime.record(nanos);
+	}
+
+	public void recordListenerTime(String stream, long nanos) {
+		statisticsFor(stream).listenerTime.record(nanos);
+	}
+
+	public void recordFilterEvaluation(String stream, boolean accepted, long nanos) {
+		Statistics streamStatistics = statisticsFor(stream);
+		(accepted ? streamStatistics.filterAccepted : streamStatistics.filterRejected).incrementAndGet();
+		streamStatistics.filterTime.record(nanos);
+	}
+
+	/**
+	 * @return the number of messages read from the given stream
+	 */
+	public long getReceivedCount(String stream) {
+		return statisticsFor(stream).received.get();
+	}
+
+	/**
+	 * @return the number of messages from the given stream that all interested listeners have handled
+	 */
+	public long getDeliveredCount(String stream) {
+		return statisticsFor(stream).delivered.get();
+	}
+
+	/**
+	 * @return the number of tweets from the given stream that its filter accepted
+	 */
+	public long getFilterAcceptedCount(String stream) {
+		return statisticsFor(stream).filterAccepted.get();
+	}
+
+	/**
+	 * @return the number of tweets from the given stream that its filter rejected before they were deserialized
+	 */
+	public long getFilterRejectedCount(String stream) {
+		return statisticsFor(stream).filterRejected.get();
+	}
+
+	/**
+	 * @return the distribution of the time between a tweet's creation and its receipt, in milliseconds
+	 */
+	public LatencyHistogram getLag(String stream) {
+		return statisticsFor(stream).lag;
+	}
+
+	/**
+	 * @return the distribution of the time messages spent queued before being dispatched, in nanoseconds
+	 */
+	public LatencyHistogram getQueueTime(String stream) {
+		return statisticsFor(stream).queueTime;
+	}
+
+	/**
+	 * @return the distribution of the time spent deserializing messages, in nanoseconds
+	 */
+	public LatencyHistogram getDeserializationTime(String stream) {
+		return statisticsFor(stream).deserializationTime;
+	}
+
+	/**
+	 * @return the distribution of the time individual listeners spent handling messages, in nanoseconds
+	 */
+	public LatencyHistogram getListenerTime(String stream) {
+		return statisticsFor(stream).listenerTime;
+	}
+
+	/**
+	 * @return the distribution of the time spent evaluating the stream's filter against tweets, in nanoseconds
+	 */
+	public LatencyHistogram getFilterTime(String stream) {
+		return statisticsFor(stream).filterTime;
+	}
+
+	private Statistics statisticsFor(String stream) {
+		Statistics streamStatistics = statistics.get(stream);
+		if (streamStatistics == null) {
+			Statistics newStatistics = new Statistics();
+			streamStatistics = statistics.putIfAbsent(stream, newStatistics);
+			if (streamStatistics == null) {
+				streamStatistics = newStatistics;
+			}
+		}
+		return streamStatistics;
+	}
+
+	private static class Statistics {
+		private final AtomicLong received = new AtomicLong();
+		private final AtomicLong delivered = new AtomicLong();
+		private final AtomicLong filterAccepted = new AtomicLong();
+		private final AtomicLong filterRejected = new AtomicLong();
+		private final LatencyHistogram lag = new LatencyHistogram();
+		private final LatencyHistogram queueTime = new LatencyHistogram();
+		private final LatencyHistogram deserializationTime = new LatencyHistogram();
+		private final LatencyHistogram listenerTime = new LatencyHistogram();
+		private final LatencyHistogram filterTime = new LatencyHistogram();
+	}
+
+}
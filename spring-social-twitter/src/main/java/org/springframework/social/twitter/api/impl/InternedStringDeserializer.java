@@ -0,0 +1,52 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+
+/**
+ * Deserializer for string fields whose values repeat across tweets and profiles, pooling them in {@link StringInterner#SHARED}.
+ */
+class InternedStringDeserializer extends JsonDeserializer<String> {
+
+	@Override
+	public String deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
+		return intern(jp);
+	}
+
+	/**
+	 * Interns the parser's current value, reading it straight from the parser's buffer if it's a string.
+	 * An object or array is skipped, leaving the parser at its end as if it had been read.
+	 * @return the interned value, or null if the value is null or isn't a scalar
+	 */
+	static String intern(JsonParser jp) throws IOException {
+		JsonToken token = jp.getCurrentToken();
+		if (token == JsonToken.VALUE_STRING) {
+			return StringInterner.SHARED.intern(jp.getTextCharacters(), jp.getTextOffset(), jp.getTextLength());
+		}
+		if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+			jp.skipChildren();
+			return null;
+		}
+		return StringInterner.SHARED.intern(jp.getValueAsString());
+	}
+
+}
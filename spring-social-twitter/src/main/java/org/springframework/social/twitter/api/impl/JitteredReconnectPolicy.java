@@ -0,0 +1,137 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.social.twitter.api.ReconnectPolicy;
+import org.springframework.social.twitter.api.ReconnectReason;
+import org.springframework.util.Assert;
+
+/**
+ * {@link ReconnectPolicy} following Twitter's streaming reconnect guidelines, with optional jitter and a shared {@link ReconnectBudget}.
+ * <ul>
+ * <li>Dropped connections are reconnected immediately.</li>
+ * <li>Network errors back off linearly, 250ms at a time, up to 16 seconds.</li>
+ * <li>HTTP 5xx and other HTTP errors back off exponentially from 5 seconds, giving up once the delay would exceed 320 seconds.</li>
+ * <li>HTTP 420 and 429 back off exponentially from 1 minute, giving up once the delay would exceed 16 minutes.</li>
+ * </ul>
+ * Jitter randomizes each delay so that many clients disconnected at the same moment don't all come back at the same moment.
+ * Whatever the jitter, no reconnect happens before the budget allows it.
+ */
+public class JitteredReconnectPolicy implements ReconnectPolicy {
+
+	private final Jitter jitter;
+
+	private final ReconnectBudget budget;
+
+	/**
+	 * Creates a policy using decorrelated jitter and the JVM-wide {@link ReconnectBudget#shared() shared budget}.
+	 */
+	public JitteredReconnectPolicy() {
+		this(Jitter.DECORRELATED, ReconnectBudget.shared());
+	}
+
+	/**
+	 * Creates a policy.
+	 * @param jitter the kind of jitter to apply to the backoff delays
+	 * @param budget the reconnect budget to draw from
+	 */
+	public JitteredReconnectPolicy(Jitter jitter, ReconnectBudget budget) {
+		Assert.notNull(jitter, "jitter must not be null");
+		Assert.notNull(budget, "budget must not be null");
+		this.jitter = jitter;
+		this.budget = budget;
+	}
+
+	public long getReconnectDelay(ReconnectReason reason, int attempt, long previousDelay) {
+		long delay;
+		switch (reason) {
+			case CONNECTION_DROPPED:
+				delay = 0;
+				break;
+			case NETWORK_ERROR:
+				delay = jitter(Math.min(NETWORK_ERROR_SLEEP_MIN * attempt, NETWORK_ERROR_SLEEP_MAX), NETWORK_ERROR_SLEEP_MIN, NETWORK_ERROR_SLEEP_MAX, previousDelay);
+				break;
+			case RATE_LIMITED:
+				delay = exponential(RATE_LIMITED_SLEEP_MIN, RATE_LIMITED_SLEEP_MAX, attempt, previousDelay);
+				break;
+			default:
+				delay = exponential(HTTP_ERROR_SLEEP_MIN, HTTP_ERROR_SLEEP_MAX, attempt, previousDelay);
+				break;
+		}
+		if (delay < 0) {
+			return delay;
+		}
+		return Math.max(delay, budget.reserve());
+	}
+
+	private long exponential(long min, long max, int attempt, long previousDelay) {
+		long backoff = attempt > 31 ? Long.MAX_VALUE : min << (attempt - 1);
+		if (backoff > max || backoff < 0) {
+			return -1;
+		}
+		return jitter(backoff, min, max, previousDelay);
+	}
+
+	private long jitter(long backoff, long min, long max, long previousDelay) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		switch (jitter) {
+			case FULL:
+				return random.nextLong(backoff + 1);
+			case DECORRELATED:
+				long upper = Math.max(min, previousDelay * 3);
+				return Math.min(max, upper > min ? random.nextLong(min, upper + 1) : min);
+			default:
+				return backoff;
+		}
+	}
+
+	/**
+	 * Kinds of jitter that may be applied to a backoff delay.
+	 */
+	public static enum Jitter {
+
+		/**
+		 * Use the backoff delay as is.
+		 */
+		NONE,
+
+		/**
+		 * Pick a random delay between zero and the backoff delay.
+		 */
+		FULL,
+
+		/**
+		 * Pick a random delay between the minimum delay and three times the previous delay, capped at the maximum delay.
+		 */
+		DECORRELATED
+
+	}
+
+	static final long NETWORK_ERROR_SLEEP_MIN = 250;
+
+	static final long NETWORK_ERROR_SLEEP_MAX = 16000;
+
+	static final long HTTP_ERROR_SLEEP_MIN = 5000;
+
+	static final long HTTP_ERROR_SLEEP_MAX = 320000;
+
+	static final long RATE_LIMITED_SLEEP_MIN = 60000;
+
+	static final long RATE_LIMITED_SLEEP_MAX = 960000;
+
+}
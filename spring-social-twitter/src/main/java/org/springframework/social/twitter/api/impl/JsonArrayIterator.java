@@ -0,0 +1,176 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collections;
+import java.util.NoSuchElementException;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.social.twitter.api.CloseableIterator;
+import org.springframework.social.twitter.api.TweetProjection;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * Iterates over the elements of a JSON array in a response, deserializing each one as it is asked for rather than reading the whole response first.
+ * The RestTemplate closes a response as soon as it has been extracted, so the request is made through the RestTemplate's request factory
+ * (which applies its interceptors, including OAuth signing) and errors are handled by its error handler, just as they would be by the RestTemplate.
+ * Elements are read with the ObjectMapper of the RestTemplate's JSON message converter.
+ */
+class JsonArrayIterator<T> implements CloseableIterator<T> {
+
+	private final URI uri;
+
+	private final ClientHttpResponse response;
+
+	private final JsonParser parser;
+
+	private final ObjectReader reader;
+
+	private T next;
+
+	private boolean closed;
+
+	private JsonArrayIterator(URI uri, ClientHttpResponse response, JsonParser parser, ObjectReader reader) {
+		this.uri = uri;
+		this.response = response;
+		this.parser = parser;
+		this.reader = reader;
+	}
+
+	/**
+	 * Retrieves a resource and positions an iterator at the start of the array in it.
+	 * @param arrayField the field of the response object holding the array, or null if the response is the array itself
+	 * @param projection the parts of each tweet to deserialize, or null to deserialize tweets whole
+	 */
+	static <T> JsonArrayIterator<T> open(RestTemplate restTemplate, URI uri, Class<T> elementType, String arrayField, TweetProjection projection) {
+		ObjectReader reader = TweetProjectionResponseExtractor.objectMapperOf(restTemplate).readerFor(elementType);
+		if (projection != null) {
+			reader = reader.withAttribute(TweetProjection.class, projection);
+		}
+		ClientHttpResponse response = null;
+		try {
+			ClientHttpRequest request = restTemplate.getRequestFactory().createRequest(uri, HttpMethod.GET);
+			request.getHeaders().setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+			response = request.execute();
+			ResponseErrorHandler errorHandler = restTemplate.getErrorHandler();
+			if (errorHandler.hasError(response)) {
+				errorHandler.handleError(response);
+			}
+			JsonParser parser = reader.getFactory().createParser(response.getBody());
+			if (!startArray(parser, arrayField)) {
+				parser.close();
+				throw new RestClientException("Expected a JSON array" + (arrayField != null ? " in field '" + arrayField + "'" : "") + " in response to GET request for \"" + uri + "\"");
+			}
+			return new JsonArrayIterator<T>(uri, response, parser, reader);
+		} catch (IOException e) {
+			closeQuietly(response);
+			throw ioError(uri, e);
+		} catch (RuntimeException e) {
+			closeQuietly(response);
+			throw e;
+		}
+	}
+
+	public boolean hasNext() {
+		if (next != null) {
+			return true;
+		}
+		if (closed) {
+			return false;
+		}
+		try {
+			// null elements are skipped
+			while (next == null) {
+				JsonToken token = parser.nextToken();
+				if (token == null || token == JsonToken.END_ARRAY) {
+					close();
+					return false;
+				}
+				next = reader.readValue(parser);
+			}
+			return true;
+		} catch (IOException e) {
+			close();
+			throw ioError(uri, e);
+		}
+	}
+
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		T element = next;
+		next = null;
+		return element;
+	}
+
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			parser.close();
+		} catch (IOException e) {
+			// the response is closed regardless
+		}
+		response.close();
+	}
+
+	// leaves the parser on the array's START_ARRAY token
+	private static boolean startArray(JsonParser parser, String arrayField) throws IOException {
+		JsonToken token = parser.nextToken();
+		if (arrayField == null) {
+			return token == JsonToken.START_ARRAY;
+		}
+		if (token != JsonToken.START_OBJECT) {
+			return false;
+		}
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String fieldName = parser.getCurrentName();
+			token = parser.nextToken();
+			if (arrayField.equals(fieldName)) {
+				return token == JsonToken.START_ARRAY;
+			}
+			parser.skipChildren();
+		}
+		return false;
+	}
+
+	private static void closeQuietly(ClientHttpResponse response) {
+		if (response != null) {
+			response.close();
+		}
+	}
+
+	// the exception the RestTemplate throws for an I/O error
+	private static ResourceAccessException ioError(URI uri, IOException e) {
+		return new ResourceAccessException("I/O error on GET request for \"" + uri + "\": " + e.getMessage(), e);
+	}
+
+}
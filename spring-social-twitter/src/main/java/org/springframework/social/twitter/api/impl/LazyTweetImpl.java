@@ -0,0 +1,430 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.social.twitter.api.Entities;
+import org.springframework.social.twitter.api.LazyTweet;
+import org.springframework.social.twitter.api.Tweet;
+import org.springframework.social.twitter.api.TwitterProfile;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * {@link LazyTweet} over the line a tweet came in on. The index of where each top-level value starts is built by a single scan when the tweet is created,
+ * so that it can be shared between threads without synchronization; decoded values are published through an {@link AtomicReferenceArray}.
+ */
+class LazyTweetImpl implements LazyTweet {
+
+	private final String json;
+
+	private final int offset;
+
+	private final int length;
+
+	// where each field's value starts in json, or -1 if the tweet doesn't have it or it's null
+	private final int[] valueOffsets;
+
+	// how many chars each field's value takes up, so that a scalar can be parsed without running into what follows it
+	private final int[] valueLengths;
+
+	// decoded values, by slot; NULL marks a value that decoded to null
+	private final AtomicReferenceArray<Object> values;
+
+	LazyTweetImpl(String line) throws IOException {
+		this(line, 0, line.length());
+	}
+
+	// parsing the line's chars in place, rather than its UTF-8 bytes, saves encoding it and keeps nothing but the line itself
+	private LazyTweetImpl(String json, int offset, int length) throws IOException {
+		this.json = json;
+		this.offset = offset;
+		this.length = length;
+		this.valueOffsets = new int[FIELDS.length];
+		this.valueLengths = new int[FIELDS.length];
+		Arrays.fill(valueOffsets, -1);
+		this.values = new AtomicReferenceArray<Object>(SLOT_COUNT);
+		JsonParser parser = jsonFactory.createParser(new SliceReader(json, offset, offset + length));
+		try {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				throw new JsonParseException(parser, "A tweet must be a JSON object");
+			}
+			// a value ends where the next field name (or the end of the tweet) starts, less the separator
+			Field pending = null;
+			while (true) {
+				JsonToken next = parser.nextToken();
+				if (pending != null) {
+					valueLengths[pending.ordinal()] = valueEnd(tokenStart(parser)) - valueOffsets[pending.ordinal()];
+					pending = null;
+				}
+				if (next != JsonToken.FIELD_NAME) {
+					break;
+				}
+				Field field = fieldsByName.get(parser.getCurrentName());
+				JsonToken token = parser.nextToken();
+				int valueOffset = tokenStart(parser);
+				parser.skipChildren();
+				// a retweeted status that isn't an object isn't a retweeted status
+				if (field != null && token != JsonToken.VALUE_NULL && (field != Field.RETWEETED_STATUS || token == JsonToken.START_OBJECT)) {
+					valueOffsets[field.ordinal()] = valueOffset;
+					pending = field;
+				}
+			}
+		} finally {
+			parser.close();
+		}
+	}
+
+	public String getId() {
+		return (String) value(Field.ID);
+	}
+
+	public String getText() {
+		return (String) value(Field.TEXT);
+	}
+
+	public Date getCreatedAt() {
+		return (Date) value(Field.CREATED_AT);
+	}
+
+	public long getFromUserId() {
+		Long fromUserId = (Long) memoized(FROM_USER_ID_SLOT);
+		if (fromUserId == null) {
+			decodeAuthor();
+			fromUserId = (Long) memoized(FROM_USER_ID_SLOT);
+		}
+		return fromUserId;
+	}
+
+	public String getFromUser() {
+		if (memoized(FROM_USER_ID_SLOT) == null) {
+			decodeAuthor();
+		}
+		return (String) unmasked(memoized(FROM_USER_SLOT));
+	}
+
+	public TwitterProfile getUser() {
+		return (TwitterProfile) value(Field.USER);
+	}
+
+	public String getLanguageCode() {
+		return (String) value(Field.LANG);
+	}
+
+	public String getSource() {
+		return (String) value(Field.SOURCE);
+	}
+
+	public Long getInReplyToStatusId() {
+		return (Long) value(Field.IN_REPLY_TO_STATUS_ID);
+	}
+
+	public Long getInReplyToUserId() {
+		return (Long) value(Field.IN_REPLY_TO_USER_ID);
+	}
+
+	public String getInReplyToScreenName() {
+		return (String) value(Field.IN_REPLY_TO_SCREEN_NAME);
+	}
+
+	public Integer getRetweetCount() {
+		return (Integer) value(Field.RETWEET_COUNT);
+	}
+
+	public Integer getFavoriteCount() {
+		return (Integer) value(Field.FAVORITE_COUNT);
+	}
+
+	public boolean isRetweeted() {
+		return Boolean.TRUE.equals(value(Field.RETWEETED));
+	}
+
+	public boolean isFavorited() {
+		return Boolean.TRUE.equals(value(Field.FAVORITED));
+	}
+
+	public boolean isRetweet() {
+		return valueOffsets[Field.RETWEETED_STATUS.ordinal()] >= 0;
+	}
+
+	public LazyTweet getRetweetedStatus() {
+		return (LazyTweet) value(Field.RETWEETED_STATUS);
+	}
+
+	public Entities getEntities() {
+		Object entities = memoized(ENTITIES_SLOT);
+		if (entities == null) {
+			String text = getText();
+			Entities sent = (Entities) value(Field.ENTITIES);
+			if (sent != null) {
+				entities = text != null ? TweetEntityExtractor.addTickerSymbols(text, sent) : sent;
+			} else {
+				entities = text != null ? TweetEntityExtractor.extractEntities(text) : null;
+			}
+			entities = memoize(ENTITIES_SLOT, entities);
+		}
+		return (Entities) unmasked(entities);
+	}
+
+	public String getJson() {
+		return offset == 0 && length == json.length() ? json : json.substring(offset, offset + length);
+	}
+
+	public Tweet toTweet() {
+		Object tweet = memoized(TWEET_SLOT);
+		if (tweet == null) {
+			try {
+				tweet = memoize(TWEET_SLOT, TWEET_READER.readValue(new SliceReader(json, offset, offset + length)));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		return (Tweet) unmasked(tweet);
+	}
+
+	@Override
+	public String toString() {
+		return "LazyTweet[" + getJson() + "]";
+	}
+
+	private Object value(Field field) {
+		Object value = memoized(field.ordinal());
+		if (value == null) {
+			try {
+				value = memoize(field.ordinal(), decode(field));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		return unmasked(value);
+	}
+
+	private Object decode(Field field) throws IOException {
+		int valueOffset = valueOffsets[field.ordinal()];
+		if (valueOffset < 0) {
+			return null;
+		}
+		if (field == Field.RETWEETED_STATUS) {
+			return new LazyTweetImpl(json, valueOffset, valueLengths[field.ordinal()]);
+		}
+		JsonParser parser = parserFor(field);
+		try {
+			JsonToken token = parser.nextToken();
+			switch (field) {
+				case CREATED_AT:
+					return TimelineDateParser.toDate(parser);
+				case SOURCE:
+				case LANG:
+				case IN_REPLY_TO_SCREEN_NAME:
+					return token == JsonToken.VALUE_STRING ? InternedStringDeserializer.intern(parser) : parser.getValueAsString();
+				case IN_REPLY_TO_STATUS_ID:
+				case IN_REPLY_TO_USER_ID:
+					return parser.getValueAsLong();
+				case RETWEET_COUNT:
+				case FAVORITE_COUNT:
+					return parser.getValueAsInt();
+				case RETWEETED:
+				case FAVORITED:
+					return parser.getValueAsBoolean();
+				case ENTITIES:
+					return token == JsonToken.START_OBJECT ? ENTITIES_READER.readValue(parser) : null;
+				case USER:
+					return token == JsonToken.START_OBJECT ? PROFILE_READER.readValue(parser) : null;
+				default:
+					return token.isScalarValue() ? parser.getText() : null;
+			}
+		} finally {
+			parser.close();
+		}
+	}
+
+	// picks the author's ID and screen name out of the user object, unless the whole profile has already been decoded
+	private void decodeAuthor() {
+		Object user = memoized(Field.USER.ordinal());
+		if (user != null) {
+			TwitterProfile profile = (TwitterProfile) unmasked(user);
+			memoize(FROM_USER_SLOT, profile != null ? profile.getScreenName() : null);
+			memoize(FROM_USER_ID_SLOT, profile != null ? profile.getId() : 0L);
+			return;
+		}
+		long fromUserId = 0;
+		String fromUser = null;
+		if (valueOffsets[Field.USER.ordinal()] >= 0) {
+			try {
+				JsonParser parser = parserFor(Field.USER);
+				try {
+					if (parser.nextToken() == JsonToken.START_OBJECT) {
+						while (parser.nextToken() == JsonToken.FIELD_NAME) {
+							String name = parser.getCurrentName();
+							JsonToken token = parser.nextToken();
+							if (name.equals("id") && token != JsonToken.VALUE_NULL) {
+								fromUserId = parser.getValueAsLong();
+							} else if (name.equals("screen_name") && token == JsonToken.VALUE_STRING) {
+								fromUser = InternedStringDeserializer.intern(parser);
+							} else {
+								parser.skipChildren();
+							}
+						}
+					}
+				} finally {
+					parser.close();
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		// the screen name goes first, since the ID is what marks the author as decoded
+		memoize(FROM_USER_SLOT, fromUser);
+		memoize(FROM_USER_ID_SLOT, fromUserId);
+	}
+
+	private JsonParser parserFor(Field field) throws IOException {
+		int valueOffset = valueOffsets[field.ordinal()];
+		return jsonFactory.createParser(new SliceReader(json, valueOffset, valueOffset + valueLengths[field.ordinal()]));
+	}
+
+	// the parser's offsets are relative to where it started
+	private int tokenStart(JsonParser parser) {
+		return offset + (int) parser.getTokenLocation().getCharOffset();
+	}
+
+	private int valueEnd(int nextTokenStart) {
+		int end = nextTokenStart;
+		while (end > offset && isSeparator(json.charAt(end - 1))) {
+			end--;
+		}
+		return end;
+	}
+
+	private static boolean isSeparator(char c) {
+		return c == ',' || c == ' ' || c == '\t' || c == '\n' || c == '\r';
+	}
+
+	private Object memoized(int slot) {
+		return values.get(slot);
+	}
+
+	// the first value stored in a slot wins, so that every reader sees the same instance
+	private Object memoize(int slot, Object value) {
+		Object masked = value != null ? value : NULL;
+		return values.compareAndSet(slot, null, masked) ? masked : values.get(slot);
+	}
+
+	private static Object unmasked(Object value) {
+		return value == NULL ? null : value;
+	}
+
+	// reads part of a string without copying it out first
+	private static class SliceReader extends Reader {
+
+		private final String string;
+
+		private int position;
+
+		private final int end;
+
+		SliceReader(String string, int start, int end) {
+			this.string = string;
+			this.position = start;
+			this.end = end;
+		}
+
+		@Override
+		public int read(char[] buffer, int offset, int length) {
+			if (position >= end) {
+				return -1;
+			}
+			int count = Math.min(length, end - position);
+			string.getChars(position, position + count, buffer, offset);
+			position += count;
+			return count;
+		}
+
+		@Override
+		public void close() {}
+
+	}
+
+	private enum Field {
+
+		ID("id"),
+		TEXT("text"),
+		CREATED_AT("created_at"),
+		SOURCE("source"),
+		LANG("lang"),
+		IN_REPLY_TO_STATUS_ID("in_reply_to_status_id"),
+		IN_REPLY_TO_USER_ID("in_reply_to_user_id"),
+		IN_REPLY_TO_SCREEN_NAME("in_reply_to_screen_name"),
+		RETWEET_COUNT("retweet_count"),
+		FAVORITE_COUNT("favorite_count"),
+		RETWEETED("retweeted"),
+		FAVORITED("favorited"),
+		RETWEETED_STATUS("retweeted_status"),
+		ENTITIES("entities"),
+		USER("user");
+
+		private final String name;
+
+		private Field(String name) {
+			this.name = name;
+		}
+
+	}
+
+	private static final Field[] FIELDS = Field.values();
+
+	// slots for derived values follow those of the fields
+	private static final int FROM_USER_ID_SLOT = FIELDS.length;
+
+	private static final int FROM_USER_SLOT = FIELDS.length + 1;
+
+	private static final int ENTITIES_SLOT = FIELDS.length + 2;
+
+	private static final int TWEET_SLOT = FIELDS.length + 3;
+
+	private static final int SLOT_COUNT = FIELDS.length + 4;
+
+	private static final Object NULL = new Object();
+
+	private static final Map<String, Field> fieldsByName = new HashMap<String, Field>();
+
+	static {
+		for (Field field : FIELDS) {
+			fieldsByName.put(field.name, field);
+		}
+	}
+
+	private static final JsonFactory jsonFactory = new JsonFactory();
+
+	private static final ObjectReader TWEET_READER = TwitterObjectMapper.readerFor(Tweet.class);
+
+	private static final ObjectReader ENTITIES_READER = TwitterObjectMapper.readerFor(Entities.class);
+
+	private static final ObjectReader PROFILE_READER = TwitterObjectMapper.readerFor(TwitterProfile.class);
+
+}
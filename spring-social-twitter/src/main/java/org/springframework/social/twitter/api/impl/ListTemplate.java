@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.social.ResourceNotFoundException;
+import org.springframework.social.twitter.api.CloseableIterator;
 import org.springframework.social.twitter.api.CursoredList;
 import org.springframework.social.twitter.api.ListOperations;
 import org.springframework.social.twitter.api.Tweet;
@@ -37,10 +38,19 @@ class ListTemplate extends AbstractTwitterOperations implements ListOperations {
 	
 	private final RestTemplate restTemplate;
 					
+	private int prefetchDepth = FriendTemplate.DEFAULT_PREFETCH_DEPTH;
+
 	public ListTemplate(RestTemplate restTemplate, boolean isAuthorizedForUser, boolean isAuthorizedForApp) {
 		super(isAuthorizedForUser, isAuthorizedForApp);
 		this.restTemplate = restTemplate;
 	}
+
+	/**
+	 * Sets how many pages the iterateAll and streamAll methods fetch ahead of the page being consumed.
+	 */
+	void setPrefetchDepth(int prefetchDepth) {
+		this.prefetchDepth = prefetchDepth;
+	}
 	
 	public List<UserList> getLists() {
 		requireUserAuthorization();
@@ -153,6 +163,38 @@ class ListTemplate extends AbstractTwitterOperations implements ListOperations {
 		return restTemplate.getForObject(buildUri("lists/members.json", parameters), TwitterProfileUsersList.class).getList();
 	}
 
+	public CloseableIterator<TwitterProfile> iterateListMembers(long listId) {
+		return openListMembers(listId);
+	}
+
+	public CloseableIterator<TwitterProfile> iterateListMembers(String screenName, String listSlug) {
+		return openListMembers(screenName, listSlug);
+	}
+
+	public java.util.stream.Stream<TwitterProfile> streamListMembers(long listId) {
+		return openListMembers(listId).stream();
+	}
+
+	public java.util.stream.Stream<TwitterProfile> streamListMembers(String screenName, String listSlug) {
+		return openListMembers(screenName, listSlug).stream();
+	}
+
+	public CloseableIterator<TwitterProfile> iterateAllListMembers(long listId) {
+		return openAllListMembers(listId);
+	}
+
+	public CloseableIterator<TwitterProfile> iterateAllListMembers(String screenName, String listSlug) {
+		return openAllListMembers(screenName, listSlug);
+	}
+
+	public java.util.stream.Stream<TwitterProfile> streamAllListMembers(long listId) {
+		return openAllListMembers(listId).stream();
+	}
+
+	public java.util.stream.Stream<TwitterProfile> streamAllListMembers(String screenName, String listSlug) {
+		return openAllListMembers(screenName, listSlug).stream();
+	}
+
 	public UserList addToList(long listId, long... newMemberIds) {
 		requireUserAuthorization();
 		MultiValueMap<String, Object> request = new LinkedMultiValueMap<String, Object>();
@@ -334,6 +376,42 @@ class ListTemplate extends AbstractTwitterOperations implements ListOperations {
 		return request;
 	}
 
+	private JsonArrayIterator<TwitterProfile> openListMembers(long listId) {
+		requireEitherUserOrAppAuthorization();
+		return openListMembers(buildUri("lists/members.json", "list_id", String.valueOf(listId)));
+	}
+
+	private JsonArrayIterator<TwitterProfile> openListMembers(String screenName, String listSlug) {
+		requireEitherUserOrAppAuthorization();
+		LinkedMultiValueMap<String, String> parameters = new LinkedMultiValueMap<String, String>();
+		parameters.set("owner_screen_name", screenName);
+		parameters.set("slug", listSlug);
+		return openListMembers(buildUri("lists/members.json", parameters));
+	}
+
+	private CursorPageIterator<TwitterProfile> openAllListMembers(final long listId) {
+		requireEitherUserOrAppAuthorization();
+		return new CursorPageIterator<TwitterProfile>(restTemplate, "lists/members.json", prefetchDepth, new CursorPageIterator.PageSource<TwitterProfile>() {
+			public CursoredList<TwitterProfile> fetch(long cursor) {
+				return getListMembersInCursor(listId, cursor);
+			}
+		});
+	}
+
+	private CursorPageIterator<TwitterProfile> openAllListMembers(final String screenName, final String listSlug) {
+		requireEitherUserOrAppAuthorization();
+		return new CursorPageIterator<TwitterProfile>(restTemplate, "lists/members.json", prefetchDepth, new CursorPageIterator.PageSource<TwitterProfile>() {
+			public CursoredList<TwitterProfile> fetch(long cursor) {
+				return getListMembersInCursor(screenName, listSlug, cursor);
+			}
+		});
+	}
+
+	// the members are in the response's "users" field, alongside its cursors
+	private JsonArrayIterator<TwitterProfile> openListMembers(URI uri) {
+		return JsonArrayIterator.open(restTemplate, uri, TwitterProfile.class, "users", null);
+	}
+
 	@SuppressWarnings("serial")
 	private static class TweetList extends ArrayList<Tweet> {}
 	
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import java.time.Duration;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.social.twitter.api.StreamListener;
+import org.springframework.social.twitter.api.StreamOverflowHandler;
+import org.springframework.util.Assert;
+
+/**
+ * Governs how a stream protects its listeners from each other.
+ * Each listener is called on its own thread from its own bounded queue (its lane), so a listener that blocks or runs slowly
+ * only holds up its own messages. A listener that throws or exceeds its time budget on several consecutive messages,
+ * or that is found still working on a message well past its budget, is quarantined: for the quarantine period its
+ * messages are diverted to the {@link StreamOverflowHandler} instead. Afterwards it is given messages again, and it
+ * is released from quarantine as soon as it handles one successfully.
+ */
+public class ListenerIsolationPolicy {
+
+	private final Duration timeBudget;
+
+	private final int maxConsecutiveFailures;
+
+	private final Duration quarantineTime;
+
+	private final int laneCapacity;
+
+	private final StreamOverflowHandler overflowHandler;
+
+	/**
+	 * Creates a policy allowing each listener 5 seconds per message and 5 consecutive failures before a 30 second quarantine,
+	 * with up to 10000 messages waiting per listener. Diverted messages are discarded.
+	 */
+	public ListenerIsolationPolicy() {
+		this(DEFAULT_TIME_BUDGET, DEFAULT_MAX_CONSECUTIVE_FAILURES, DEFAULT_QUARANTINE_TIME, DEFAULT_LANE_CAPACITY, new DiscardingOverflowHandler());
+	}
+
+	/**
+	 * @param timeBudget how long a listener may take to handle a single message
+	 * @param maxConsecutiveFailures how many messages in a row a listener may fail on or take too long with before it is quarantined
+	 * @param quarantineTime how long a quarantined listener's messages are diverted
+	 * @param laneCapacity how many messages may be waiting for a listener before further messages are diverted
+	 * @param overflowHandler where diverted messages go
+	 */
+	public ListenerIsolationPolicy(Duration timeBudget, int maxConsecutiveFailures, Duration quarantineTime, int laneCapacity, StreamOverflowHandler overflowHandler) {
+		Assert.notNull(timeBudget, "timeBudget may not be null");
+		Assert.isTrue(maxConsecutiveFailures > 0, "maxConsecutiveFailures must be greater than zero");
+		Assert.notNull(quarantineTime, "quarantineTime may not be null");
+		Assert.isTrue(laneCapacity > 0, "laneCapacity must be greater than zero");
+		Assert.notNull(overflowHandler, "StreamOverflowHandler may not be null");
+		this.timeBudget = timeBudget;
+		this.maxConsecutiveFailures = maxConsecutiveFailures;
+		this.quarantineTime = quarantineTime;
+		this.laneCapacity = laneCapacity;
+		this.overflowHandler = overflowHandler;
+	}
+
+	public Duration getTimeBudget() {
+		return timeBudget;
+	}
+
+	public int getMaxConsecutiveFailures() {
+		return maxConsecutiveFailures;
+	}
+
+	public Duration getQuarantineTime() {
+		return quarantineTime;
+	}
+
+	public int getLaneCapacity() {
+		return laneCapacity;
+	}
+
+	public StreamOverflowHandler getOverflowHandler() {
+		return overflowHandler;
+	}
+
+	static final Duration DEFAULT_TIME_BUDGET = Duration.ofSeconds(5);
+
+	static final int DEFAULT_MAX_CONSECUTIVE_FAILURES = 5;
+
+	static final Duration DEFAULT_QUARANTINE_TIME = Duration.ofSeconds(30);
+
+	static final int DEFAULT_LANE_CAPACITY = 10000;
+
+	private static class DiscardingOverflowHandler implements StreamOverflowHandler {
+
+		private static final Log logger = LogFactory.getLog(ListenerIsolationPolicy.class);
+
+		public void onOverflow(StreamListener listener, String message, Reason reason) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Discarding message for " + reason.name().toLowerCase() + " listener " + listener + ": " + message);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.social.twitter.api.StreamListener;
+import org.springframework.social.twitter.api.StreamMetrics;
+import org.springframework.social.twitter.api.StreamOverflowHandler;
+import org.springframework.social.twitter.api.StreamOverflowHandler.Reason;
+
+/**
+ * Delivers messages to a single listener on its own thread, from its own bounded queue, tracking how the listener
+ * behaves and quarantining it as directed by a {@link ListenerIsolationPolicy}.
+ */
+class ListenerLane {
+
+	private static final Log logger = LogFactory.getLog(ListenerLane.class);
+
+	private final StreamListener listener;
+
+	private final String streamName;
+
+	private final StreamMetrics metrics;
+
+	private final long timeBudget;
+
+	private final int maxConsecutiveFailures;
+
+	private final long quarantineTime;
+
+	private final StreamOverflowHandler overflowHandler;
+
+	private final ThreadPoolExecutor executor;
+
+	private final BlockingDeque<Runnable> backlog;
+
+	private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+	private final AtomicLong errorCount = new AtomicLong();
+
+	private final AtomicLong slowCount = new AtomicLong();
+
+	private final AtomicLong divertedCount = new AtomicLong();
+
+	private final AtomicBoolean quarantined = new AtomicBoolean();
+
+	private volatile long quarantinedUntil;
+
+	// when the call in progress started, or 0 if the listener is idle
+	private volatile long callStartedAt;
+
+	public ListenerLane(StreamListener listener, final String streamName, StreamMetrics metrics, ListenerIsolationPolicy policy) {
+		this.listener = listener;
+		this.streamName = streamName;
+		this.metrics = metrics;
+		this.timeBudget = policy.getTimeBudget().toNanos();
+		this.maxConsecutiveFailures = policy.getMaxConsecutiveFailures();
+		this.quarantineTime = policy.getQuarantineTime().toNanos();
+		this.overflowHandler = policy.getOverflowHandler();
+		this.backlog = new LinkedBlockingDeque<Runnable>(policy.getLaneCapacity());
+		this.executor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, backlog, new ThreadFactory() {
+			public Thread newThread(Runnable runnable) {
+				return new Thread(runnable, "twitter-" + streamName + "-stream-listener");
+			}
+		});
+		// idle lanes shouldn't hold on to a thread
+		executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Queues a message for the listener, or diverts it to the overflow handler if the listener is quarantined or backlogged.
+	 * Either way, onDone is run exactly once when the message has been dealt with, unless the lane is shut down first.
+	 */
+	public void submit(StreamMessageType type, Object message, String line, Runnable onDone) {
+		Delivery delivery = new Delivery(type, message, line, onDone);
+		long now = System.nanoTime();
+		long startedAt = callStartedAt;
+		if (startedAt != 0 && now - startedAt > timeBudget) {
+			quarantine(now, "has been handling a single message for longer than its time budget");
+		}
+		if (isQuarantined(now)) {
+			divert(delivery, Reason.QUARANTINED);
+			return;
+		}
+		if (type.isControl()) {
+			submitFirst(delivery);
+			return;
+		}
+		try {
+			executor.execute(delivery);
+		} catch (RejectedExecutionException e) {
+			if (!executor.isShutdown()) {
+				divert(delivery, Reason.BACKLOGGED);
+			}
+		}
+	}
+
+	// jumps the backlog, making room by diverting the newest message if the backlog is full
+	private void submitFirst(Delivery delivery) {
+		if (executor.isShutdown()) {
+			return;
+		}
+		while (!backlog.offerFirst(delivery)) {
+			Runnable newest = backlog.pollLast();
+			if (newest != null) {
+				divert((Delivery) newest, Reason.BACKLOGGED);
+			}
+		}
+		// the lane's thread may have timed out while idle
+		executor.prestartCoreThread();
+	}
+
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		return executor.awaitTermination(timeout, unit);
+	}
+
+	public void shutdownNow() {
+		executor.shutdownNow();
+	}
+
+	public StreamListener getListener() {
+		return listener;
+	}
+
+	/**
+	 * @return the number of messages the listener has thrown an exception on
+	 */
+	public long getErrorCount() {
+		return errorCount.get();
+	}
+
+	/**
+	 * @return the number of messages the listener has taken longer than its time budget to handle
+	 */
+	public long getSlowCount() {
+		return slowCount.get();
+	}
+
+	/**
+	 * @return the number of messages diverted to the overflow handler instead of the listener
+	 */
+	public long getDivertedCount() {
+		return divertedCount.get();
+	}
+
+	public boolean isQuarantined() {
+		return isQuarantined(System.nanoTime());
+	}
+
+	private boolean isQuarantined(long now) {
+		return quarantined.get() && now - quarantinedUntil < 0;
+	}
+
+	private void succeeded() {
+		consecutiveFailures.set(0);
+		if (quarantined.compareAndSet(true, false)) {
+			logger.info("Releasing " + listener + " on the " + streamName + " stream from quarantine");
+		}
+	}
+
+	private void failed(String reason) {
+		if (consecutiveFailures.incrementAndGet() >= maxConsecutiveFailures || quarantined.get()) {
+			quarantine(System.nanoTime(), reason);
+		}
+	}
+
+	private void quarantine(long now, String reason) {
+		boolean newlyQuarantined = quarantined.compareAndSet(false, true);
+		if (!newlyQuarantined && now - quarantinedUntil < 0) {
+			return; // already quarantined
+		}
+		quarantinedUntil = now + quarantineTime;
+		logger.warn("Quarantining " + listener + " on the " + streamName + " stream for " + TimeUnit.NANOSECONDS.toMillis(quarantineTime) + "ms; it " + reason);
+		// anything already waiting would only wait longer
+		List<Runnable> waiting = new ArrayList<Runnable>();
+		backlog.drainTo(waiting);
+		for (Runnable delivery : waiting) {
+			divert((Delivery) delivery, Reason.QUARANTINED);
+		}
+	}
+
+	private void divert(Delivery delivery, Reason reason) {
+		divertedCount.incrementAndGet();
+		try {
+			overflowHandler.onOverflow(listener, delivery.line, reason);
+		} catch (RuntimeException e) {
+			logger.warn("StreamOverflowHandler threw an exception while handling a message for " + listener, e);
+		} finally {
+			delivery.onDone.run();
+		}
+	}
+
+	private class Delivery implements Runnable {
+
+		private final StreamMessageType type;
+
+		private final Object message;
+
+		private final String line;
+
+		private final Runnable onDone;
+
+		public Delivery(StreamMessageType type, Object message, String line, Runnable onDone) {
+			this.type = type;
+			this.message = message;
+			this.line = line;
+			this.onDone = onDone;
+		}
+
+		public void run() {
+			long start = System.nanoTime();
+			callStartedAt = start;
+			RuntimeException error = null;
+			try {
+				type.deliver(listener, message);
+			} catch (RuntimeException e) {
+				error = e;
+			} finally {
+				callStartedAt = 0;
+				long elapsed = System.nanoTime() - start;
+				metrics.recordListenerTime(streamName, elapsed);
+				if (error != null) {
+					errorCount.incrementAndGet();
+					logger.warn(listener + " on the " + streamName + " stream threw an exception while handling a message", error);
+					failed("repeatedly threw exceptions");
+				} else if (elapsed > timeBudget) {
+					slowCount.incrementAndGet();
+					failed("repeatedly exceeded its time budget");
+				} else {
+					succeeded();
+				}
+				onDone.run();
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.social.twitter.api.StreamMetrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * {@link StreamMetrics} that publishes to a Micrometer {@link MeterRegistry}.
+ * Each measurement is a meter tagged with the stream's name:
+ * <ul>
+ * <li>twitter.stream.messages.received and twitter.stream.messages.delivered - counters</li>
+ * <li>twitter.stream.lag - a timer of the time between a tweet's creation and its receipt</li>
+ * <li>twitter.stream.queue - a timer of the time messages spend queued before being dispatched</li>
+ * <li>twitter.stream.deserialization - a timer of the time spent deserializing messages</li>
+ * <li>twitter.stream.listener - a timer of the time individual listeners spend handling messages</li>
+ * <li>twitter.stream.filter - a timer of the time spent evaluating the stream's filter against tweets, further tagged with the result: "accepted" or "rejected"</li>
+ * </ul>
+ * Timers publish percentile histograms so that they can be aggregated across instances.
+ * Requires micrometer-core on the classpath.
+ */
+public class MicrometerStreamMetrics implements StreamMetrics {
+
+	private final MeterRegistry registry;
+
+	private final ConcurrentMap<String, Meters> meters = new ConcurrentHashMap<String, Meters>();
+
+	public MicrometerStreamMetrics(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	public void messageReceived(String stream) {
+		metersFor(stream).received.increment();
+	}
+
+	public void messageDelivered(String stream) {
+		metersFor(stream).delivered.increment();
+	}
+
+	public void recordLag(String stream, long lagMillis) {
+		metersFor(stream).lag.record(Math.max(0, lagMillis), TimeUnit.MILLISECONDS);
+	}
+
+	public void recordQueueTime(String stream, long nanos) {
+		metersFor(stream).queueTime.record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	public void recordDeserializationTime(String stream, long nanos) {
+		metersFor(stream).deserializationTime.record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	public void recordListenerTime(String stream, long nanos) {
+		metersFor(stream).listenerTime.record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	public void recordFilterEvaluation(String stream, boolean accepted, long nanos) {
+		Meters streamMeters = metersFor(stream);
+		(accepted ? streamMeters.filterAccepted : streamMeters.filterRejected).record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	// looking meters up in the registry on every message would be wasteful, so hold on to them per stream
+	private Meters metersFor(String stream) {
+		Meters streamMeters = meters.get(stream);
+		if (streamMeters == null) {
+			Meters newMeters = new Meters(registry, stream);
+			streamMeters = meters.putIfAbsent(stream, newMeters);
+			if (streamMeters == null) {
+				streamMeters = newMeters;
+			}
+		}
+		return streamMeters;
+	}
+
+	private static class Meters {
+		private final Counter received;
+		private final Counter delivered;
+		private final Timer lag;
+		private final Timer queueTime;
+		private final Timer deserializationTime;
+		private final Timer listenerTime;
+		private final Timer filterAccepted;
+		private final Timer filterRejected;
+
+		public Meters(MeterRegistry registry, String stream) {
+			received = Counter.builder("twitter.stream.messages.received").tag("stream", stream).register(registry);
+			delivered = Counter.builder("twitter.stream.messages.delivered").tag("stream", stream).register(registry);
+			lag = timer(registry, "twitter.stream.lag", stream);
+			queueTime = timer(registry, "twitter.stream.queue", stream);
+			deserializationTime = timer(registry, "twitter.stream.deserialization", stream);
+			listenerTime = timer(registry, "twitter.stream.listener", stream);
+			filterAccepted = Timer.builder("twitter.stream.filter").tag("stream", stream).tag("result", "accepted").publishPercentileHistogram().register(registry);
+			filterRejected = Timer.builder("twitter.stream.filter").tag("stream", stream).tag("result", "rejected").publishPercentileHistogram().register(registry);
+		}
+
+		private static Timer timer(MeterRegistry registry, String name, String stream) {
+			return Timer.builder(name).tag("stream", stream).publishPercentileHistogram().register(registry);
+		}
+	}
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import org.springframework.social.twitter.api.StreamMetrics;
+
+/**
+ * {@link StreamMetrics} that records nothing, used when no metrics have been configured.
+ */
+class NoOpStreamMetrics implements StreamMetrics {
+
+	static final StreamMetrics INSTANCE = new NoOpStreamMetrics();
+
+	private NoOpStreamMetrics() {}
+
+	public void messageReceived(String stream) {}
+
+	public void messageDelivered(String stream) {}
+
+	public void recordLag(String stream, long lagMillis) {}
+
+	public void recordQueueTime(String stream, long nanos) {}
+
+	public void recordDeserializationTime(String stream, long nanos) {}
+
+	public void recordListenerTime(String stream, long nanos) {}
+
+	public void recordFilterEvaluation(String stream, boolean accepted, long nanos) {}
+
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Signs each request with an OAuth 1.0a <code>Authorization</code> header (HMAC-SHA1), as the OAuth1RequestInterceptor does for a RestTemplate.
+ * The query string's parameters are signed along with those of a form body. The body hasn't been written when the filter runs,
+ * so a request with a form body carries its parameters in the {@link #FORM_DATA_ATTRIBUTE} attribute as well.
+ */
+class OAuth1SigningFilter implements ExchangeFilterFunction {
+
+	private final String consumerKey;
+
+	private final String consumerSecret;
+
+	private final String accessToken;
+
+	private final String accessTokenSecret;
+
+	private final SecureRandom random = new SecureRandom();
+
+	OAuth1SigningFilter(String consumerKey, String consumerSecret, String accessToken, String accessTokenSecret) {
+		this.consumerKey = consumerKey;
+		this.consumerSecret = consumerSecret;
+		this.accessToken = accessToken;
+		this.accessTokenSecret = accessTokenSecret;
+	}
+
+	// signs on subscription rather than assembly, so that a request subscribed to later (or again, on retry) isn't sent with a stale timestamp
+	public Mono<ClientResponse> filter(final ClientRequest request, final ExchangeFunction next) {
+		return Mono.defer(new Supplier<Mono<ClientResponse>>() {
+			public Mono<ClientResponse> get() {
+				String authorization = buildAuthorizationHeaderValue(request.method().name(), request.url(), formData(request), nonce(), System.currentTimeMillis() / 1000);
+				return next.exchange(ClientRequest.from(request).header(HttpHeaders.AUTHORIZATION, authorization).build());
+			}
+		});
+	}
+
+	String buildAuthorizationHeaderValue(String method, URI uri, MultiValueMap<String, String> formData, String nonce, long timestamp) {
+		Map<String, String> oauthParameters = new TreeMap<String, String>();
+		oauthParameters.put("oauth_consumer_key", consumerKey);
+		oauthParameters.put("oauth_nonce", nonce);
+		oauthParameters.put("oauth_signature_method", "HMAC-SHA1");
+		oauthParameters.put("oauth_timestamp", String.valueOf(timestamp));
+		oauthParameters.put("oauth_token", accessToken);
+		oauthParameters.put("oauth_version", "1.0");
+		List<String[]> parameters = new ArrayList<String[]>();
+		for (Map.Entry<String, String> parameter : oauthParameters.entrySet()) {
+			parameters.add(new String[] { encode(parameter.getKey()), encode(parameter.getValue()) });
+		}
+		String query = uri.getRawQuery();
+		if (query != null && !query.isEmpty()) {
+			for (String pair : query.split("&")) {
+				int equals = pair.indexOf('=');
+				String name = formDecode(equals >= 0 ? pair.substring(0, equals) : pair);
+				String value = equals >= 0 ? formDecode(pair.substring(equals + 1)) : "";
+				parameters.add(new String[] { encode(name), encode(value) });
+			}
+		}
+		if (formData != null) {
+			for (Map.Entry<String, List<String>> parameter : formData.entrySet()) {
+				for (String value : parameter.getValue()) {
+					parameters.add(new String[] { encode(parameter.getKey()), encode(value != null ? value : "") });
+				}
+			}
+		}
+		Collections.sort(parameters, BY_NAME_THEN_VALUE);
+		StringBuilder normalizedParameters = new StringBuilder();
+		for (String[] parameter : parameters) {
+			if (normalizedParameters.length() > 0) {
+				normalizedParameters.append('&');
+			}
+			normalizedParameters.append(parameter[0]).append('=').append(parameter[1]);
+		}
+		String baseString = method.toUpperCase(Locale.ENGLISH) + "&" + encode(baseUri(uri)) + "&" + encode(normalizedParameters.toString());
+		StringBuilder header = new StringBuilder("OAuth ");
+		for (Map.Entry<String, String> parameter : oauthParameters.entrySet()) {
+			header.append(encode(parameter.getKey())).append("=\"").append(encode(parameter.getValue())).append("\", ");
+		}
+		header.append("oauth_signature=\"").append(encode(sign(baseString))).append('"');
+		return header.toString();
+	}
+
+	private String sign(String baseString) {
+		try {
+			Mac mac = Mac.getInstance(HMAC_SHA1);
+			String key = encode(consumerSecret) + "&" + encode(accessTokenSecret);
+			mac.init(new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), HMAC_SHA1));
+			return Base64.getEncoder().encodeToString(mac.doFinal(baseString.getBytes(StandardCharsets.UTF_8)));
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("Unable to sign request with " + HMAC_SHA1, e);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static MultiValueMap<String, String> formData(ClientRequest request) {
+		return (MultiValueMap<String, String>) request.attribute(FORM_DATA_ATTRIBUTE).orElse(null);
+	}
+
+	private String nonce() {
+		return Long.toHexString(random.nextLong()) + Long.toHexString(System.nanoTime());
+	}
+
+	// the query string is form-encoded (URIBuilder writes spaces as '+'), so it's decoded the same way before being re-encoded for signing
+	private static String formDecode(String value) {
+		try {
+			return URLDecoder.decode(value, "UTF-8");
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String baseUri(URI uri) {
+		String scheme = uri.getScheme().toLowerCase(Locale.ENGLISH);
+		int port = uri.getPort();
+		boolean defaultPort = port == -1 || (scheme.equals("http") && port == 80) || (scheme.equals("https") && port == 443);
+		return scheme + "://" + uri.getHost().toLowerCase(Locale.ENGLISH) + (defaultPort ? "" : ":" + port) + uri.getRawPath();
+	}
+
+	// percent-encodes everything but the unreserved characters, as OAuth requires
+	static String encode(String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		ByteArrayOutputStream encoded = new ByteArrayOutputStream(bytes.length * 3);
+		for (byte b : bytes) {
+			if ((b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9') || b == '-' || b == '.' || b == '_' || b == '~') {
+				encoded.write(b);
+			} else {
+				encoded.write('%');
+				encoded.write(HEX[(b >> 4) & 0xF]);
+				encoded.write(HEX[b & 0xF]);
+			}
+		}
+		return new String(encoded.toByteArray(), StandardCharsets.US_ASCII);
+	}
+
+	/**
+	 * The request attribute holding the parameters of a request's form body, as a <code>MultiValueMap&lt;String, String&gt;</code>, so that they can be signed.
+	 */
+	static final String FORM_DATA_ATTRIBUTE = OAuth1SigningFilter.class.getName() + ".formData";
+
+	private static final String HMAC_SHA1 = "HmacSHA1";
+
+	// encoded parameters are sorted by name, then by value
+	private static final Comparator<String[]> BY_NAME_THEN_VALUE = new Comparator<String[]>() {
+		public int compare(String[] parameter1, String[] parameter2) {
+			int byName = parameter1[0].compareTo(parameter2[0]);
+			return byName != 0 ? byName : parameter1[1].compareTo(parameter2[1]);
+		}
+	};
+
+	private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+}
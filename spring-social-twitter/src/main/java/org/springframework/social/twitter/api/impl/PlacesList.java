@@ -29,7 +29,7 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
@@ -50,11 +50,10 @@ class PlacesList {
 		@SuppressWarnings("unchecked")
 		@Override
 		public List<Place> deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException, JsonProcessingException {
-			ObjectMapper mapper = new ObjectMapper();
-			mapper.registerModule(new TwitterModule());
-			jp.setCodec(mapper);
-			JsonNode treeNode = jp.readValueAs(JsonNode.class).get("places");
-			return (List<Place>) mapper.readerFor(new TypeReference<List<Place>>() {}).readValue(treeNode);
+			JsonNode treeNode = jp.<JsonNode>readValueAsTree().get("places");
+			return (List<Place>) PLACES_READER.readValue(treeNode);
 		}
+
+		private static final ObjectReader PLACES_READER = TwitterObjectMapper.get().readerFor(new TypeReference<List<Place>>() {});
 	}
 }
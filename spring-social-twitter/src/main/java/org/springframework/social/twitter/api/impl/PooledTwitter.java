@@ -0,0 +1,511 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.social.MissingAuthorizationException;
+import org.springframework.social.RateLimitExceededException;
+import org.springframework.social.twitter.api.BlockOperations;
+import org.springframework.social.twitter.api.DirectMessageOperations;
+import org.springframework.social.twitter.api.FriendOperations;
+import org.springframework.social.twitter.api.GeoOperations;
+import org.springframework.social.twitter.api.ListOperations;
+import org.springframework.social.twitter.api.SearchOperations;
+import org.springframework.social.twitter.api.StreamingOperations;
+import org.springframework.social.twitter.api.TimelineOperations;
+import org.springframework.social.twitter.api.Twitter;
+import org.springframework.social.twitter.api.UserOperations;
+import org.springframework.util.Assert;
+import org.springframework.web.client.RestOperations;
+
+/**
+ * A {@link Twitter} that spreads its REST requests over a pool of {@link TwitterTemplate}s, each with its own credentials and so its own rate limits.
+ * Members may be authorized for users or only for the application.
+ * <p>
+ * Only reads whose results don't depend on who makes them are pooled: those on a fixed list of reads that name what they read, such as a user by ID or screen name,
+ * a tweet, a list or a search query. A protected account or a private list can only be read by a member allowed to see it, so read those through that member's TwitterTemplate.
+ * Each pooled read goes to the member with the most budget left for the endpoint the call uses, as reported by the member's {@link RateLimitGovernor},
+ * passing over members whose budget for the endpoint is spent until it resets. Which endpoint a call uses is learned from its first request.
+ * A read refused for its rate limit is retried on the next best member, and a {@link RateLimitExceededException} is thrown only once every member has refused it.
+ * Reads that require user authorization are only ever routed to members authorized for a user.
+ * <p>
+ * Everything else acts for, or reads the data of, the authorized user, e.g. {@link TimelineOperations#getHomeTimeline()}, {@link TimelineOperations#updateStatus(String)}
+ * or {@link FriendOperations#follow(long)}. These always go to the first member authorized for a user, and are never retried on another member.
+ * If no member is authorized for a user, they go to the first member, and so throw {@link MissingAuthorizationException} where a TwitterTemplate would.
+ * <p>
+ * A member without a {@link RateLimitGovernor} is given one that fails fast. A member that already has one keeps it, and is routed to by its budgets;
+ * if it waits for budgets to reset, a call routed to the member waits with it rather than moving on to another member.
+ * Streams aren't pooled: {@link #streamingOperations()} and {@link #restOperations()} are those of the first member.
+ */
+public class PooledTwitter implements Twitter {
+
+	private final List<Member> members;
+
+	// the member that acts for the authorized user
+	private final int userMember;
+
+	private final AtomicInteger rotation = new AtomicInteger();
+
+	// the endpoint each operation uses, as learned from its requests
+	private final ConcurrentMap<Method, String> endpoints = new ConcurrentHashMap<Method, String>();
+
+	private final EndpointRecorder endpointRecorder = new EndpointRecorder();
+
+	// operations that have been refused by a member authorized only for the application
+	private final Set<Method> userAuthorizedMethods = Collections.newSetFromMap(new ConcurrentHashMap<Method, Boolean>());
+
+	private final BlockOperations blockOperations;
+
+	private final DirectMessageOperations directMessageOperations;
+
+	private final FriendOperations friendOperations;
+
+	private final GeoOperations geoOperations;
+
+	private final ListOperations listOperations;
+
+	private final SearchOperations searchOperations;
+
+	private final TimelineOperations timelineOperations;
+
+	private final UserOperations userOperations;
+
+	public PooledTwitter(TwitterTemplate... members) {
+		this(Arrays.asList(members));
+	}
+
+	public PooledTwitter(List<TwitterTemplate> members) {
+		Assert.notEmpty(members, "At least one TwitterTemplate is required");
+		this.members = new ArrayList<Member>(members.size());
+		for (TwitterTemplate template : members) {
+			Assert.notNull(template, "TwitterTemplate may not be null");
+			RateLimitGovernor governor = rateLimitGovernorOf(template);
+			if (governor == null) {
+				governor = new RateLimitGovernor(Duration.ZERO);
+				template.setRateLimitGovernor(governor);
+			}
+			List<ClientHttpRequestInterceptor> interceptors = new ArrayList<ClientHttpRequestInterceptor>(template.getRestTemplate().getInterceptors());
+			// ahead of the governor, so that a request it refuses is still recorded
+			interceptors.add(0, endpointRecorder);
+			template.getRestTemplate().setInterceptors(interceptors);
+			this.members.add(new Member(template, governor));
+		}
+		int userMember = 0;
+		for (int i = 0; i < members.size(); i++) {
+			if (members.get(i).isAuthorized()) {
+				userMember = i;
+				break;
+			}
+		}
+		this.userMember = userMember;
+		Object[] blockTargets = new Object[members.size()];
+		Object[] directMessageTargets = new Object[members.size()];
+		Object[] friendTargets = new Object[members.size()];
+		Object[] geoTargets = new Object[members.size()];
+		Object[] listTargets = new Object[members.size()];
+		Object[] searchTargets = new Object[members.size()];
+		Object[] timelineTargets = new Object[members.size()];
+		Object[] userTargets = new Object[members.size()];
+		for (int i = 0; i < members.size(); i++) {
+			TwitterTemplate template = members.get(i);
+			blockTargets[i] = template.blockOperations();
+			directMessageTargets[i] = template.directMessageOperations();
+			friendTargets[i] = template.friendOperations();
+			geoTargets[i] = template.geoOperations();
+			listTargets[i] = template.listOperations();
+			searchTargets[i] = template.searchOperations();
+			timelineTargets[i] = template.timelineOperations();
+			userTargets[i] = template.userOperations();
+		}
+		blockOperations = pooled(BlockOperations.class, blockTargets);
+		directMessageOperations = pooled(DirectMessageOperations.class, directMessageTargets);
+		friendOperations = pooled(FriendOperations.class, friendTargets);
+		geoOperations = pooled(GeoOperations.class, geoTargets);
+		listOperations = pooled(ListOperations.class, listTargets);
+		searchOperations = pooled(SearchOperations.class, searchTargets);
+		timelineOperations = pooled(TimelineOperations.class, timelineTargets);
+		userOperations = pooled(UserOperations.class, userTargets);
+	}
+
+	public BlockOperations blockOperations() {
+		return blockOperations;
+	}
+
+	public DirectMessageOperations directMessageOperations() {
+		return directMessageOperations;
+	}
+
+	public FriendOperations friendOperations() {
+		return friendOperations;
+	}
+
+	public GeoOperations geoOperations() {
+		return geoOperations;
+	}
+
+	public ListOperations listOperations() {
+		return listOperations;
+	}
+
+	public SearchOperations searchOperations() {
+		return searchOperations;
+	}
+
+	public StreamingOperations streamingOperations() {
+		return members.get(0).template.streamingOperations();
+	}
+
+	public TimelineOperations timelineOperations() {
+		return timelineOperations;
+	}
+
+	public UserOperations userOperations() {
+		return userOperations;
+	}
+
+	public RestOperations restOperations() {
+		return members.get(0).template.restOperations();
+	}
+
+	/**
+	 * @return true if any member is authorized for a user
+	 */
+	public boolean isAuthorized() {
+		for (Member member : members) {
+			if (member.template.isAuthorized()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static RateLimitGovernor rateLimitGovernorOf(TwitterTemplate template) {
+		for (ClientHttpRequestInterceptor interceptor : template.getRestTemplate().getInterceptors()) {
+			if (interceptor instanceof RateLimitGovernor) {
+				return (RateLimitGovernor) interceptor;
+			}
+		}
+		return null;
+	}
+
+	private <T> T pooled(Class<T> operationsType, Object[] targets) {
+		return operationsType.cast(Proxy.newProxyInstance(operationsType.getClassLoader(), new Class<?>[] { operationsType }, new PooledOperations(operationsType, targets)));
+	}
+
+	/**
+	 * Picks the member with the most budget left for an operation's endpoint, taking turns among members with as much budget as each other.
+	 * @return the member's index, or -1 if no member that hasn't been tried has any budget left
+	 */
+	private int choose(Method method, boolean[] tried, boolean userOnly) {
+		String endpoint = endpoints.get(method);
+		int size = members.size();
+		int start = (rotation.getAndIncrement() & Integer.MAX_VALUE) % size;
+		int chosen = -1;
+		int chosenAvailable = 0;
+		for (int i = 0; i < size; i++) {
+			int index = (start + i) % size;
+			Member member = members.get(index);
+			if (tried[index] || (userOnly && !member.template.isAuthorized())) {
+				continue;
+			}
+			int available = endpoint != null ? member.governor.available(endpoint) : Integer.MAX_VALUE;
+			if (available > chosenAvailable) {
+				chosen = index;
+				chosenAvailable = available;
+			}
+		}
+		return chosen;
+	}
+
+	/**
+	 * Whether a call returns the same whoever makes it, so that any member may make it: whether it's one of {@link #SHARED_READS}.
+	 * Everything else acts for the authorized user or reads the authorized user's own timelines, friends, lists, messages or settings.
+	 */
+	static boolean isSharedRead(Method method) {
+		return SHARED_READS.contains(signature(method));
+	}
+
+	// e.g. "UserOperations.getUsers(long[])"
+	static String signature(Method method) {
+		StringBuilder signature = new StringBuilder(method.getDeclaringClass().getSimpleName()).append('.').append(method.getName()).append('(');
+		Class<?>[] parameterTypes = method.getParameterTypes();
+		for (int i = 0; i < parameterTypes.length; i++) {
+			if (i > 0) {
+				signature.append(", ");
+			}
+			signature.append(parameterTypes[i].getSimpleName());
+		}
+		return signature.append(')').toString();
+	}
+
+	// the reads that any member may make, since what they read is named by their arguments: a user, tweet, list, place or search query
+	static final Set<String> SHARED_READS = new HashSet<String>(Arrays.asList(
+			"FriendOperations.getFriendIds(long)",
+			"FriendOperations.getFriendIds(String)",
+			"FriendOperations.getFriendIdsInCursor(long, long)",
+			"FriendOperations.getFriendIdsInCursor(String, long)",
+			"FriendOperations.getFriendIdArrayInCursor(long, long)",
+			"FriendOperations.getFriendIdArrayInCursor(String, long)",
+			"FriendOperations.getFriends(long)",
+			"FriendOperations.getFriends(String)",
+			"FriendOperations.getFriendsInCursor(long, long)",
+			"FriendOperations.getFriendsInCursor(String, long)",
+			"FriendOperations.getFollowerIds(long)",
+			"FriendOperations.getFollowerIds(String)",
+			"FriendOperations.getFollowerIdsInCursor(long, long)",
+			"FriendOperations.getFollowerIdsInCursor(String, long)",
+			"FriendOperations.getFollowerIdArrayInCursor(long, long)",
+			"FriendOperations.getFollowerIdArrayInCursor(String, long)",
+			"FriendOperations.getFollowers(long)",
+			"FriendOperations.getFollowers(String)",
+			"FriendOperations.getFollowersInCursor(long, long)",
+			"FriendOperations.getFollowersInCursor(String, long)",
+			"FriendOperations.iterateAllFriendIds(long)",
+			"FriendOperations.iterateAllFriendIds(String)",
+			"FriendOperations.iterateAllFriends(long)",
+			"FriendOperations.iterateAllFriends(String)",
+			"FriendOperations.iterateAllFollowerIds(long)",
+			"FriendOperations.iterateAllFollowerIds(String)",
+			"FriendOperations.iterateAllFollowers(long)",
+			"FriendOperations.iterateAllFollowers(String)",
+			"FriendOperations.streamAllFriendIds(long)",
+			"FriendOperations.streamAllFriendIds(String)",
+			"FriendOperations.streamAllFriends(long)",
+			"FriendOperations.streamAllFriends(String)",
+			"FriendOperations.streamAllFollowerIds(long)",
+			"FriendOperations.streamAllFollowerIds(String)",
+			"FriendOperations.streamAllFollowers(long)",
+			"FriendOperations.streamAllFollowers(String)",
+			"GeoOperations.getPlace(String)",
+			"GeoOperations.reverseGeoCode(double, double)",
+			"GeoOperations.reverseGeoCode(double, double, PlaceType, String)",
+			"GeoOperations.search(double, double)",
+			"GeoOperations.search(double, double, PlaceType, String, String)",
+			"GeoOperations.findSimilarPlaces(double, double, String)",
+			"GeoOperations.findSimilarPlaces(double, double, String, String, String)",
+			"ListOperations.getLists(long)",
+			"ListOperations.getLists(String)",
+			"ListOperations.getList(long)",
+			"ListOperations.getList(String, String)",
+			"ListOperations.getListStatuses(long)",
+			"ListOperations.getListStatuses(long, int)",
+			"ListOperations.getListStatuses(long, int, long, long)",
+			"ListOperations.getListStatuses(String, String)",
+			"ListOperations.getListStatuses(String, String, int)",
+			"ListOperations.getListStatuses(String, String, int, long, long)",
+			"ListOperations.getListMembers(long)",
+			"ListOperations.getListMembers(String, String)",
+			"ListOperations.getListMembersInCursor(long, long)",
+			"ListOperations.getListMembersInCursor(String, String, long)",
+			"ListOperations.iterateListMembers(long)",
+			"ListOperations.iterateListMembers(String, String)",
+			"ListOperations.iterateAllListMembers(long)",
+			"ListOperations.iterateAllListMembers(String, String)",
+			"ListOperations.streamListMembers(long)",
+			"ListOperations.streamListMembers(String, String)",
+			"ListOperations.streamAllListMembers(long)",
+			"ListOperations.streamAllListMembers(String, String)",
+			"ListOperations.isMember(long, long)",
+			"ListOperations.isMember(String, String, String)",
+			"ListOperations.getListSubscribers(long)",
+			"ListOperations.getListSubscribers(String, String)",
+			"ListOperations.isSubscriber(long, long)",
+			"ListOperations.isSubscriber(String, String, String)",
+			"ListOperations.getMemberships(long)",
+			"ListOperations.getMemberships(String)",
+			"ListOperations.getMembershipsInCursor(long, long)",
+			"ListOperations.getMembershipsInCursor(String, long)",
+			"ListOperations.getSubscriptions(long)",
+			"ListOperations.getSubscriptions(String)",
+			"ListOperations.getSubscriptionsInCursor(long, long)",
+			"ListOperations.getSubscriptionsInCursor(String, long)",
+			"SearchOperations.search(String)",
+			"SearchOperations.search(String, int)",
+			"SearchOperations.search(String, int, long, long)",
+			"SearchOperations.search(SearchParameters)",
+			"SearchOperations.getLocalTrends(long)",
+			"SearchOperations.getLocalTrends(long, boolean)",
+			"TimelineOperations.getUserTimeline(long)",
+			"TimelineOperations.getUserTimeline(long, int)",
+			"TimelineOperations.getUserTimeline(long, int, long, long)",
+			"TimelineOperations.getUserTimeline(String)",
+			"TimelineOperations.getUserTimeline(String, int)",
+			"TimelineOperations.getUserTimeline(String, int, long, long)",
+			"TimelineOperations.iterateUserTimeline(long, int, long, long)",
+			"TimelineOperations.iterateUserTimeline(String, int, long, long)",
+			"TimelineOperations.streamUserTimeline(long, int, long, long)",
+			"TimelineOperations.streamUserTimeline(String, int, long, long)",
+			"TimelineOperations.getStatus(long)",
+			"TimelineOperations.getStatusOEmbed(String)",
+			"TimelineOperations.getStatusOEmbed(String, OEmbedOptions)",
+			"TimelineOperations.getRetweets(long)",
+			"TimelineOperations.getRetweets(long, int)",
+			"TimelineOperations.getFavorites(long)",
+			"TimelineOperations.getFavorites(long, int)",
+			"TimelineOperations.getFavorites(String)",
+			"TimelineOperations.getFavorites(String, int)",
+			"UserOperations.getUserProfile(long)",
+			"UserOperations.getUserProfile(String)",
+			"UserOperations.getUsers(long[])",
+			"UserOperations.getUsers(String[])",
+			"UserOperations.iterateUsers(long[])",
+			"UserOperations.iterateUsers(String[])",
+			"UserOperations.streamUsers(long[])",
+			"UserOperations.streamUsers(String[])",
+			"UserOperations.searchForUsers(String)",
+			"UserOperations.searchForUsers(String, int, int)",
+			"UserOperations.getSuggestions(String)"));
+
+	private static class Member {
+
+		private final TwitterTemplate template;
+
+		private final RateLimitGovernor governor;
+
+		Member(TwitterTemplate template, RateLimitGovernor governor) {
+			this.template = template;
+			this.governor = governor;
+		}
+
+	}
+
+	/**
+	 * Notes the endpoint that each pooled call sends its requests to, so that later calls of the same operation can be routed by their budgets for it.
+	 */
+	private class EndpointRecorder implements ClientHttpRequestInterceptor {
+
+		// the operation the thread is calling through the pool, only while the call is being made
+		private final ThreadLocal<Method> calls = new ThreadLocal<Method>();
+
+		void begin(Method method) {
+			calls.set(method);
+		}
+
+		void end() {
+			calls.remove();
+		}
+
+		public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+			Method method = calls.get();
+			if (method != null) {
+				endpoints.put(method, RateLimitGovernor.endpointOf(request.getURI().getPath()));
+			}
+			return execution.execute(request, body);
+		}
+
+	}
+
+	/**
+	 * Routes each call on an operations interface to the same operations of one of the members.
+	 */
+	private class PooledOperations implements InvocationHandler {
+
+		private final Class<?> operationsType;
+
+		// each member's operations, by member index
+		private final Object[] targets;
+
+		PooledOperations(Class<?> operationsType, Object[] targets) {
+			this.operationsType = operationsType;
+			this.targets = targets;
+		}
+
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if (method.getDeclaringClass() == Object.class) {
+				return invokeObjectMethod(proxy, method, args);
+			}
+			if (method.getReturnType() == operationsType) {
+				// e.g. TimelineOperations.withProjection(), which derives operations from each member's operations alike
+				Object[] derivedTargets = new Object[targets.length];
+				for (int i = 0; i < targets.length; i++) {
+					derivedTargets[i] = invokeTarget(targets[i], method, args);
+				}
+				return Proxy.newProxyInstance(operationsType.getClassLoader(), new Class<?>[] { operationsType }, new PooledOperations(operationsType, derivedTargets));
+			}
+			if (!isSharedRead(method)) {
+				// acts for the authorized user, so it may only be made by that user's member, and only once
+				return invokeTarget(targets[userMember], method, args);
+			}
+			boolean[] tried = new boolean[targets.length];
+			boolean userOnly = userAuthorizedMethods.contains(method);
+			RuntimeException refusal = null;
+			int index;
+			while ((index = choose(method, tried, userOnly)) >= 0) {
+				Member member = members.get(index);
+				tried[index] = true;
+				endpointRecorder.begin(method);
+				try {
+					return invokeTarget(targets[index], method, args);
+				} catch (MissingAuthorizationException e) {
+					if (member.template.isAuthorized()) {
+						throw e;
+					}
+					userAuthorizedMethods.add(method);
+					userOnly = true;
+					refusal = e;
+				} catch (RateLimitExceededException e) {
+					refusal = e;
+				} finally {
+					endpointRecorder.end();
+				}
+			}
+			if (refusal != null) {
+				throw refusal;
+			}
+			throw userOnly ? new MissingAuthorizationException("twitter") : new RateLimitExceededException("twitter");
+		}
+
+		private Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+			try {
+				return method.invoke(target, args);
+			} catch (InvocationTargetException e) {
+				throw e.getTargetException();
+			}
+		}
+
+		private Object invokeObjectMethod(Object proxy, Method method, Object[] args) {
+			String name = method.getName();
+			if (name.equals("equals")) {
+				return proxy == args[0];
+			}
+			if (name.equals("hashCode")) {
+				return System.identityHashCode(proxy);
+			}
+			return "Pooled " + operationsType.getSimpleName() + " over " + targets.length + " members";
+		}
+
+	}
+
+}
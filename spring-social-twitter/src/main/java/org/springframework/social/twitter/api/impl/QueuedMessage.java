@@ -0,0 +1,53 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+/**
+ * A line read from a stream, along with when it was read.
+ */
+class QueuedMessage {
+
+	private final String line;
+
+	private final long receivedAt;
+
+	private final long enqueuedNanos;
+
+	public QueuedMessage(String line) {
+		this.line = line;
+		this.receivedAt = System.currentTimeMillis();
+		this.enqueuedNanos = System.nanoTime();
+	}
+
+	public String getLine() {
+		return line;
+	}
+
+	/**
+	 * @return the wall-clock time the line was read, in milliseconds since the epoch
+	 */
+	public long getReceivedAt() {
+		return receivedAt;
+	}
+
+	/**
+	 * @return the {@link System#nanoTime()} at which the line was queued
+	 */
+	public long getEnqueuedNanos() {
+		return enqueuedNanos;
+	}
+
+}
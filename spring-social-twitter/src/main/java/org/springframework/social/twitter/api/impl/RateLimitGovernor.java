@@ -0,0 +1,273 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.social.RateLimitExceededException;
+import org.springframework.social.twitter.api.RateLimitStatus;
+import org.springframework.social.twitter.api.ResourceFamily;
+import org.springframework.util.Assert;
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * Keeps requests to Twitter's REST API within its rate limits, rather than finding out about them from a 429 response.
+ * Reads the <code>x-rate-limit-limit</code>, <code>x-rate-limit-remaining</code> and <code>x-rate-limit-reset</code> headers of every response
+ * to keep a budget for each endpoint, which is how Twitter applies its limits (and how {@link RateLimitStatus} reports them, grouped by {@link ResourceFamily}).
+ * A request to an endpoint whose budget is spent waits for the budget to reset, queued with any other requests waiting on the same endpoint.
+ * If the reset is further off than the governor's maximum wait, the request fails straight away with a {@link RateLimitExceededException} instead, without being sent.
+ * A request whose thread is interrupted while it waits fails with a {@link ResourceAccessException}, leaving the thread's interrupt status set.
+ * <p>
+ * Requests to an endpoint are let through freely until its first response says what its budget is,
+ * and a budget is assumed to be back to its full limit once its window has passed. Endpoints that don't report a limit are never held up.
+ * Install the governor with {@link TwitterTemplate#setRateLimitGovernor(RateLimitGovernor)}; a single governor may be shared by templates using the same credentials.
+ */
+public class RateLimitGovernor implements ClientHttpRequestInterceptor {
+
+	private final long maxWaitMillis;
+
+	private final Clock clock;
+
+	private final ConcurrentMap<String, Budget> budgets = new ConcurrentHashMap<String, Budget>();
+
+	/**
+	 * Creates a governor that waits as long as it takes for a budget to reset, which is at most one rate limit window (15 minutes).
+	 */
+	public RateLimitGovernor() {
+		this(MAX_WAIT);
+	}
+
+	/**
+	 * @param maxWait how long a request may wait for its endpoint's budget to reset before failing; {@link Duration#ZERO} to always fail fast
+	 */
+	public RateLimitGovernor(Duration maxWait) {
+		this(maxWait, Clock.systemUTC());
+	}
+
+	RateLimitGovernor(Duration maxWait, Clock clock) {
+		Assert.notNull(maxWait, "maxWait may not be null");
+		Assert.isTrue(!maxWait.isNegative(), "maxWait may not be negative");
+		this.maxWaitMillis = maxWait.toMillis();
+		this.clock = clock;
+	}
+
+	public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+		String endpoint = endpointOf(request.getURI().getPath());
+		Budget budget = budgets.get(endpoint);
+		if (budget != null) {
+			budget.acquire();
+		}
+		ClientHttpResponse response = execution.execute(request, body);
+		HttpHeaders headers = response.getHeaders();
+		try {
+			String limit = headers.getFirst(LIMIT_HEADER);
+			String remaining = headers.getFirst(REMAINING_HEADER);
+			String reset = headers.getFirst(RESET_HEADER);
+			if (limit != null && remaining != null && reset != null) {
+				if (budget == null) {
+					Budget newBudget = new Budget();
+					budget = budgets.putIfAbsent(endpoint, newBudget);
+					if (budget == null) {
+						budget = newBudget;
+					}
+				}
+				budget.update(Integer.parseInt(limit.trim()), Integer.parseInt(remaining.trim()), Long.parseLong(reset.trim()) * 1000);
+			}
+		} catch (NumberFormatException e) {
+			// a malformed header tells us nothing, so the budget stays as it was
+		}
+		return response;
+	}
+
+	/**
+	 * The budget of an endpoint, as last reported by Twitter less the requests made since.
+	 * @param endpoint the endpoint, as Twitter names it in {@link RateLimitStatus#getEndpoint()}, e.g. "/statuses/user_timeline" or "/statuses/show/:id"
+	 * @return the endpoint's rate limit status, or null if no response from the endpoint has reported one yet
+	 */
+	public RateLimitStatus getRateLimitStatus(String endpoint) {
+		Budget budget = budgets.get(endpoint);
+		return budget != null ? budget.toStatus(endpoint) : null;
+	}
+
+	/**
+	 * The budgets of every endpoint that has reported one, grouped by resource family in the same way as {@link org.springframework.social.twitter.api.UserOperations#getRateLimitStatus(ResourceFamily...)}.
+	 * @return the rate limit status of each endpoint, by resource family
+	 */
+	public Map<ResourceFamily, List<RateLimitStatus>> getRateLimitStatus() {
+		Map<ResourceFamily, List<RateLimitStatus>> statuses = new EnumMap<ResourceFamily, List<RateLimitStatus>>(ResourceFamily.class);
+		for (Map.Entry<String, Budget> entry : budgets.entrySet()) {
+			String endpoint = entry.getKey();
+			int familyEnd = endpoint.indexOf('/', 1);
+			ResourceFamily family = ResourceFamily.getResourceFamily(familyEnd > 0 ? endpoint.substring(1, familyEnd) : endpoint.substring(1));
+			if (family == null) {
+				continue;
+			}
+			List<RateLimitStatus> familyStatuses = statuses.get(family);
+			if (familyStatuses == null) {
+				familyStatuses = new ArrayList<RateLimitStatus>();
+				statuses.put(family, familyStatuses);
+			}
+			familyStatuses.add(entry.getValue().toStatus(endpoint));
+		}
+		return statuses;
+	}
+
+	/**
+	 * How many more requests may be made to an endpoint before its budget resets.
+	 * @return the number of requests, or {@link Integer#MAX_VALUE} if the endpoint hasn't reported a budget
+	 */
+	int available(String endpoint) {
+		Budget budget = budgets.get(endpoint);
+		return budget != null ? budget.available() : Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Names the endpoint a request path is for the way Twitter does, e.g. "/1.1/statuses/show/12345.json" is "/statuses/show/:id".
+	 */
+	static String endpointOf(String path) {
+		if (path == null) {
+			return "/";
+		}
+		if (path.startsWith(API_VERSION_PREFIX)) {
+			path = path.substring(API_VERSION_PREFIX.length() - 1);
+		}
+		if (path.endsWith(".json")) {
+			path = path.substring(0, path.length() - ".json".length());
+		}
+		StringBuilder endpoint = new StringBuilder(path.length());
+		int start = 0;
+		while (start < path.length()) {
+			int end = path.indexOf('/', start + 1);
+			if (end < 0) {
+				end = path.length();
+			}
+			String segment = path.substring(start, end);
+			endpoint.append(isId(segment) ? "/:id" : segment);
+			start = end;
+		}
+		return endpoint.toString();
+	}
+
+	// a segment such as "/12345"
+	private static boolean isId(String segment) {
+		if (segment.length() < 2) {
+			return false;
+		}
+		for (int i = 1; i < segment.length(); i++) {
+			if (!Character.isDigit(segment.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private class Budget {
+
+		private int limit;
+
+		private int remaining;
+
+		private long resetAtMillis;
+
+		// whether the window was started by us rather than reported by Twitter
+		private boolean windowAssumed;
+
+		/**
+		 * Takes one request from the budget, waiting for the budget to reset if it's spent.
+		 */
+		synchronized void acquire() {
+			while (true) {
+				long now = clock.millis();
+				if (now >= resetAtMillis + RESET_GRACE_MILLIS) {
+					// a new window, which the next response will tell us about
+					remaining = limit;
+					resetAtMillis = now + WINDOW_MILLIS;
+					windowAssumed = true;
+				}
+				if (remaining > 0) {
+					remaining--;
+					return;
+				}
+				long wait = resetAtMillis + RESET_GRACE_MILLIS - now;
+				if (wait > maxWaitMillis) {
+					throw new RateLimitExceededException("twitter");
+				}
+				try {
+					wait(wait);
+				} catch (InterruptedException e) {
+					// the request was given up on rather than refused, so it isn't reported as rate limited
+					Thread.currentThread().interrupt();
+					throw new ResourceAccessException("Interrupted while waiting for a rate limit to reset");
+				}
+			}
+		}
+
+		synchronized void update(int limit, int remaining, long resetAtMillis) {
+			this.limit = limit;
+			if (resetAtMillis + RESET_GRACE_MILLIS <= clock.millis()) {
+				return; // a late response from a window that's already over
+			}
+			if (resetAtMillis == this.resetAtMillis || windowAssumed) {
+				// requests made since this response was sent have already been taken from the budget
+				this.remaining = Math.min(this.remaining, remaining);
+				this.resetAtMillis = resetAtMillis;
+				windowAssumed = false;
+			} else if (resetAtMillis > this.resetAtMillis) {
+				this.remaining = remaining;
+				this.resetAtMillis = resetAtMillis;
+			}
+			notifyAll();
+		}
+
+		synchronized int available() {
+			return clock.millis() >= resetAtMillis + RESET_GRACE_MILLIS ? limit : remaining;
+		}
+
+		synchronized RateLimitStatus toStatus(String endpoint) {
+			return new RateLimitStatus(endpoint, limit, remaining, resetAtMillis / 1000);
+		}
+
+	}
+
+	private static final String LIMIT_HEADER = "x-rate-limit-limit";
+
+	private static final String REMAINING_HEADER = "x-rate-limit-remaining";
+
+	private static final String RESET_HEADER = "x-rate-limit-reset";
+
+	private static final String API_VERSION_PREFIX = "/1.1/";
+
+	private static final long WINDOW_MILLIS = 15 * 60 * 1000;
+
+	// allows for our clock being a little ahead of Twitter's
+	private static final long RESET_GRACE_MILLIS = 1000;
+
+	private static final Duration MAX_WAIT = Duration.ofMillis(WINDOW_MILLIS + RESET_GRACE_MILLIS);
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import java.util.function.Function;
+
+import org.springframework.social.twitter.api.CursoredList;
+import org.springframework.social.twitter.api.ReactiveFriendOperations;
+import org.springframework.social.twitter.api.TwitterProfile;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Implementation of {@link ReactiveFriendOperations}, providing a binding to Twitter's friends and followers REST resources.
+ */
+class ReactiveFriendTemplate extends AbstractReactiveTwitterOperations implements ReactiveFriendOperations {
+
+	public ReactiveFriendTemplate(WebClient webClient, boolean isAuthorizedForUser, boolean isAuthorizedForApp) {
+		super(webClient, isAuthorizedForUser, isAuthorizedForApp);
+	}
+
+	public Flux<Long> getFriendIds(long userId) {
+		return requireEitherUserOrAppAuthorization(ids("friends/ids.json", "user_id", String.valueOf(userId)));
+	}
+
+	public Flux<Long> getFriendIds(String screenName) {
+		return requireEitherUserOrAppAuthorization(ids("friends/ids.json", "screen_name", screenName));
+	}
+
+	public Flux<Long> getFollowerIds(long userId) {
+		return requireEitherUserOrAppAuthorization(ids("followers/ids.json", "user_id", String.valueOf(userId)));
+	}
+
+	public Flux<Long> getFollowerIds(String screenName) {
+		return requireEitherUserOrAppAuthorization(ids("followers/ids.json", "screen_name", screenName));
+	}
+
+	public Flux<TwitterProfile> getFriends(long userId) {
+		return requireEitherUserOrAppAuthorization(profiles("friends/list.json", "user_id", String.valueOf(userId)));
+	}
+
+	public Flux<TwitterProfile> getFriends(String screenName) {
+		return requireEitherUserOrAppAuthorization(profiles("friends/list.json", "screen_name", screenName));
+	}
+
+	public Flux<TwitterProfile> getFollowers(long userId) {
+		return requireEitherUserOrAppAuthorization(profiles("followers/list.json", "user_id", String.valueOf(userId)));
+	}
+
+	public Flux<TwitterProfile> getFollowers(String screenName) {
+		return requireEitherUserOrAppAuthorization(profiles("followers/list.json", "screen_name", screenName));
+	}
+
+	public Mono<CursoredList<Long>> getFriendIdsInCursor(long userId, long cursor) {
+		return requireEitherUserOrAppAuthorization(idPage("friends/ids.json", "user_id", String.valueOf(userId), cursor));
+	}
+
+	public Mono<CursoredList<Long>> getFriendIdsInCursor(String screenName, long cursor) {
+		return requireEitherUserOrAppAuthorization(idPage("friends/ids.json", "screen_name", screenName, cursor));
+	}
+
+	public Mono<CursoredList<Long>> getFollowerIdsInCursor(long userId, long cursor) {
+		return requireEitherUserOrAppAuthorization(idPage("followers/ids.json", "user_id", String.valueOf(userId), cursor));
+	}
+
+	public Mono<CursoredList<Long>> getFollowerIdsInCursor(String screenName, long cursor) {
+		return requireEitherUserOrAppAuthorization(idPage("followers/ids.json", "screen_name", screenName, cursor));
+	}
+
+	public Mono<CursoredList<TwitterProfile>> getFriendsInCursor(long userId, long cursor) {
+		return requireEitherUserOrAppAuthorization(profilePage("friends/list.json", "user_id", String.valueOf(userId), cursor));
+	}
+
+	public Mono<CursoredList<TwitterProfile>> getFriendsInCursor(String screenName, long cursor) {
+		return requireEitherUserOrAppAuthorization(profilePage("friends/list.json", "screen_name", screenName, cursor));
+	}
+
+	public Mono<CursoredList<TwitterProfile>> getFollowersInCursor(long userId, long cursor) {
+		return requireEitherUserOrAppAuthorization(profilePage("followers/list.json", "user_id", String.valueOf(userId), cursor));
+	}
+
+	public Mono<CursoredList<TwitterProfile>> getFollowersInCursor(String screenName, long cursor) {
+		return requireEitherUserOrAppAuthorization(profilePage("followers/list.json", "screen_name", screenName, cursor));
+	}
+
+	private Flux<Long> ids(final String path, final String userParameter, final String user) {
+		return cursored(new Function<Long, Mono<CursoredList<Long>>>() {
+			public Mono<CursoredList<Long>> apply(Long cursor) {
+				return idPage(path, userParameter, user, cursor);
+			}
+		}, -1);
+	}
+
+	private Flux<TwitterProfile> profiles(final String path, final String userParameter, final String user) {
+		return cursored(new Function<Long, Mono<CursoredList<TwitterProfile>>>() {
+			public Mono<CursoredList<TwitterProfile>> apply(Long cursor) {
+				return profilePage(path, userParameter, user, cursor);
+			}
+		}, -1);
+	}
+
+	private Mono<CursoredList<Long>> idPage(String path, String userParameter, String user, long cursor) {
+		return get(buildUri(path, cursorParameters(cursor, userParameter, user))).bodyToMono(CursoredLongList.class).map(new Function<CursoredLongList, CursoredList<Long>>() {
+			public CursoredList<Long> apply(CursoredLongList page) {
+				return page.getList();
+			}
+		});
+	}
+
+	private Mono<CursoredList<TwitterProfile>> profilePage(String path, String userParameter, String user, long cursor) {
+		return get(buildUri(path, cursorParameters(cursor, userParameter, user))).bodyToMono(CursoredTwitterProfileUsersList.class).map(new Function<CursoredTwitterProfileUsersList, CursoredList<TwitterProfile>>() {
+			public CursoredList<TwitterProfile> apply(CursoredTwitterProfileUsersList page) {
+				return page.getList();
+			}
+		});
+	}
+
+	private static MultiValueMap<String, String> cursorParameters(long cursor, String userParameter, String user) {
+		MultiValueMap<String, String> parameters = new LinkedMultiValueMap<String, String>();
+		parameters.set("cursor", String.valueOf(cursor));
+		parameters.set(userParameter, user);
+		return parameters;
+	}
+
+}
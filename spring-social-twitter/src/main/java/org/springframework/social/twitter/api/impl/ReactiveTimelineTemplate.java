@@ -0,0 +1,101 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.social.twitter.api.ReactiveTimelineOperations;
+import org.springframework.social.twitter.api.Tweet;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Implementation of {@link ReactiveTimelineOperations}, providing a binding to Twitter's tweet and timeline-oriented REST resources.
+ */
+class ReactiveTimelineTemplate extends AbstractReactiveTwitterOperations implements ReactiveTimelineOperations {
+
+	public ReactiveTimelineTemplate(WebClient webClient, boolean isAuthorizedForUser, boolean isAuthorizedForApp) {
+		super(webClient, isAuthorizedForUser, isAuthorizedForApp);
+	}
+
+	public Flux<Tweet> getHomeTimeline(int pageSize, long sinceId, long maxId) {
+		MultiValueMap<String, String> parameters = PagingUtils.buildPagingParametersWithCount(pageSize, sinceId, maxId);
+		parameters.set("include_entities", "true");
+		return requireUserAuthorization(get(buildUri("statuses/home_timeline.json", parameters)).bodyToFlux(Tweet.class));
+	}
+
+	public Flux<Tweet> getUserTimeline(String screenName, int pageSize, long sinceId, long maxId) {
+		return requireEitherUserOrAppAuthorization(getUserTimeline("screen_name", screenName, pageSize, sinceId, maxId));
+	}
+
+	public Flux<Tweet> getUserTimeline(long userId, int pageSize, long sinceId, long maxId) {
+		return requireEitherUserOrAppAuthorization(getUserTimeline("user_id", String.valueOf(userId), pageSize, sinceId, maxId));
+	}
+
+	public Flux<Tweet> getAllUserTimeline(String screenName, int pageSize) {
+		return requireEitherUserOrAppAuthorization(getUserTimelineFrom("screen_name", screenName, pageSize, 0));
+	}
+
+	public Flux<Tweet> getAllUserTimeline(long userId, int pageSize) {
+		return requireEitherUserOrAppAuthorization(getUserTimelineFrom("user_id", String.valueOf(userId), pageSize, 0));
+	}
+
+	public Flux<Tweet> getMentions(int pageSize, long sinceId, long maxId) {
+		MultiValueMap<String, String> parameters = PagingUtils.buildPagingParametersWithCount(pageSize, sinceId, maxId);
+		parameters.set("include_entities", "true");
+		return requireUserAuthorization(get(buildUri("statuses/mentions_timeline.json", parameters)).bodyToFlux(Tweet.class));
+	}
+
+	public Mono<Tweet> getStatus(long tweetId) {
+		return requireEitherUserOrAppAuthorization(get(buildUri("statuses/show/" + tweetId + ".json", "include_entities", "true")).bodyToMono(Tweet.class));
+	}
+
+	public Mono<Tweet> updateStatus(String status) {
+		MultiValueMap<String, String> data = new LinkedMultiValueMap<String, String>();
+		data.set("status", status);
+		return requireUserAuthorization(post(buildUri("statuses/update.json"), data).bodyToMono(Tweet.class));
+	}
+
+	public Mono<Void> deleteStatus(long tweetId) {
+		return requireUserAuthorization(post(buildUri("statuses/destroy/" + tweetId + ".json")).bodyToMono(Void.class));
+	}
+
+	private Flux<Tweet> getUserTimeline(String userParameter, String user, int pageSize, long sinceId, long maxId) {
+		MultiValueMap<String, String> parameters = PagingUtils.buildPagingParametersWithCount(pageSize, sinceId, maxId);
+		parameters.set(userParameter, user);
+		parameters.set("include_entities", "true");
+		return get(buildUri("statuses/user_timeline.json", parameters)).bodyToFlux(Tweet.class);
+	}
+
+	// pages back through the timeline by max_id, one page at a time, until a page comes back empty
+	private Flux<Tweet> getUserTimelineFrom(final String userParameter, final String user, final int pageSize, long maxId) {
+		return pages(getUserTimeline(userParameter, user, pageSize, 0, maxId).collectList(), new Function<List<Tweet>, Mono<List<Tweet>>>() {
+			public Mono<List<Tweet>> apply(List<Tweet> page) {
+				if (page.isEmpty()) {
+					return Mono.empty();
+				}
+				long nextMaxId = Long.parseLong(page.get(page.size() - 1).getId()) - 1;
+				return nextMaxId > 0 ? getUserTimeline(userParameter, user, pageSize, 0, nextMaxId).collectList() : Mono.<List<Tweet>>empty();
+			}
+		});
+	}
+
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import java.util.function.Consumer;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.codec.ClientCodecConfigurer;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.social.oauth2.OAuth2Template;
+import org.springframework.social.twitter.api.ReactiveFriendOperations;
+import org.springframework.social.twitter.api.ReactiveTimelineOperations;
+import org.springframework.social.twitter.api.ReactiveTwitter;
+import org.springframework.social.twitter.api.ReactiveUserOperations;
+import org.springframework.util.Assert;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart to {@link TwitterTemplate}, making requests through a {@link WebClient}
+ * so that many calls can be in flight without a thread waiting on each.
+ * Responses are read with the same Jackson mapping as the blocking binding, and error responses become the same exceptions.
+ * Its codecs share the blocking binding's ObjectMapper, which mustn't be reconfigured (see {@link TwitterTemplate}).
+ * <p>
+ * Requires spring-webflux (and so Reactor) on the classpath, along with a client connector such as Reactor Netty's.
+ */
+public class ReactiveTwitterTemplate implements ReactiveTwitter {
+
+	private final WebClient webClient;
+
+	private final boolean authorizedForUser;
+
+	private final boolean authorizedForApp;
+
+	private final ReactiveTimelineOperations timelineOperations;
+
+	private final ReactiveUserOperations userOperations;
+
+	private final ReactiveFriendOperations friendOperations;
+
+	/**
+	 * Create a new instance of ReactiveTwitterTemplate.
+	 * @param consumerKey the application's API key
+	 * @param consumerSecret the application's API secret
+	 * @param accessToken an access token acquired through OAuth authentication with Twitter
+	 * @param accessTokenSecret an access token secret acquired through OAuth authentication with Twitter
+	 */
+	public ReactiveTwitterTemplate(String consumerKey, String consumerSecret, String accessToken, String accessTokenSecret) {
+		this(WebClient.builder(), consumerKey, consumerSecret, accessToken, accessTokenSecret);
+	}
+
+	/**
+	 * Create a new instance of ReactiveTwitterTemplate, building its WebClient from the given builder.
+	 * @param webClientBuilder a builder for the WebClient, e.g. to choose the client connector
+	 * @param consumerKey the application's API key
+	 * @param consumerSecret the application's API secret
+	 * @param accessToken an access token acquired through OAuth authentication with Twitter
+	 * @param accessTokenSecret an access token secret acquired through OAuth authentication with Twitter
+	 */
+	public ReactiveTwitterTemplate(WebClient.Builder webClientBuilder, String consumerKey, String consumerSecret, String accessToken, String accessTokenSecret) {
+		Assert.notNull(webClientBuilder, "Constructor argument 'webClientBuilder' cannot be null.");
+		this.webClient = configure(webClientBuilder).filter(new OAuth1SigningFilter(consumerKey, consumerSecret, accessToken, accessTokenSecret)).build();
+		this.authorizedForUser = true;
+		this.authorizedForApp = false;
+		this.timelineOperations = new ReactiveTimelineTemplate(webClient, authorizedForUser, authorizedForApp);
+		this.userOperations = new ReactiveUserTemplate(webClient, authorizedForUser, authorizedForApp);
+		this.friendOperations = new ReactiveFriendTemplate(webClient, authorizedForUser, authorizedForApp);
+	}
+
+	/**
+	 * Create a new instance of ReactiveTwitterTemplate.
+	 * This instance is limited to only performing operations requiring client authorization.
+	 * The access token you use here must be obtained via OAuth 2 Client Credentials Grant.
+	 * @param clientToken an access token obtained through OAuth 2 client credentials grant with Twitter.
+	 */
+	public ReactiveTwitterTemplate(String clientToken) {
+		this(WebClient.builder(), clientToken);
+	}
+
+	/**
+	 * Create a new instance of ReactiveTwitterTemplate, building its WebClient from the given builder.
+	 * This instance is limited to only performing operations requiring client authorization.
+	 * @param webClientBuilder a builder for the WebClient, e.g. to choose the client connector
+	 * @param clientToken an access token obtained through OAuth 2 client credentials grant with Twitter.
+	 */
+	public ReactiveTwitterTemplate(WebClient.Builder webClientBuilder, String clientToken) {
+		Assert.notNull(webClientBuilder, "Constructor argument 'webClientBuilder' cannot be null.");
+		Assert.notNull(clientToken, "Constructor argument 'clientToken' cannot be null.");
+		this.webClient = configure(webClientBuilder).filter(bearerTokenFilter(clientToken)).build();
+		this.authorizedForUser = false;
+		this.authorizedForApp = true;
+		this.timelineOperations = new ReactiveTimelineTemplate(webClient, authorizedForUser, authorizedForApp);
+		this.userOperations = new ReactiveUserTemplate(webClient, authorizedForUser, authorizedForApp);
+		this.friendOperations = new ReactiveFriendTemplate(webClient, authorizedForUser, authorizedForApp);
+	}
+
+	/**
+	 * Create a new instance of ReactiveTwitterTemplate.
+	 * This instance is limited to only performing operations requiring client authorization.
+	 * The client credentials given here are used to obtain a client access token via OAuth 2 Client Credentials Grant,
+	 * which blocks while the token is obtained.
+	 * @param consumerKey the application's API key
+	 * @param consumerSecret the application's API secret
+	 */
+	public ReactiveTwitterTemplate(String consumerKey, String consumerSecret) {
+		this(exchangeCredentialsForClientToken(consumerKey, consumerSecret));
+	}
+
+	public ReactiveTimelineOperations timelineOperations() {
+		return timelineOperations;
+	}
+
+	public ReactiveUserOperations userOperations() {
+		return userOperations;
+	}
+
+	public ReactiveFriendOperations friendOperations() {
+		return friendOperations;
+	}
+
+	public WebClient webClient() {
+		return webClient;
+	}
+
+	public boolean isAuthorized() {
+		return authorizedForUser;
+	}
+
+	public boolean isAuthorizedForApp() {
+		return authorizedForApp;
+	}
+
+	// private helpers
+
+	// reads and writes JSON with the blocking binding's shared mapper, so responses map to the same model objects with the deserializers already built
+	private static WebClient.Builder configure(WebClient.Builder webClientBuilder) {
+		ExchangeStrategies strategies = ExchangeStrategies.builder().codecs(new Consumer<ClientCodecConfigurer>() {
+			public void accept(ClientCodecConfigurer configurer) {
+				configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(TwitterObjectMapper.get()));
+				configurer.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(TwitterObjectMapper.get()));
+			}
+		}).build();
+		return webClientBuilder.exchangeStrategies(strategies);
+	}
+
+	private static ExchangeFilterFunction bearerTokenFilter(final String clientToken) {
+		return new ExchangeFilterFunction() {
+			public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+				return next.exchange(ClientRequest.from(request).header(HttpHeaders.AUTHORIZATION, "Bearer " + clientToken).build());
+			}
+		};
+	}
+
+	private static String exchangeCredentialsForClientToken(String consumerKey, String consumerSecret) {
+		OAuth2Template oauth2 = new OAuth2Template(consumerKey, consumerSecret, "", "https://api.twitter.com/oauth2/token");
+		return oauth2.authenticateClient().getAccessToken();
+	}
+
+}
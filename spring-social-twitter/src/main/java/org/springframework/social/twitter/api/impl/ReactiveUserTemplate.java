@@ -0,0 +1,54 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import org.springframework.social.twitter.api.ReactiveUserOperations;
+import org.springframework.social.twitter.api.TwitterProfile;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Implementation of {@link ReactiveUserOperations}, providing a binding to Twitter's user-oriented REST resources.
+ */
+class ReactiveUserTemplate extends AbstractReactiveTwitterOperations implements ReactiveUserOperations {
+
+	public ReactiveUserTemplate(WebClient webClient, boolean isAuthorizedForUser, boolean isAuthorizedForApp) {
+		super(webClient, isAuthorizedForUser, isAuthorizedForApp);
+	}
+
+	public Mono<TwitterProfile> getUserProfile() {
+		return requireUserAuthorization(get(buildUri("account/verify_credentials.json")).bodyToMono(TwitterProfile.class));
+	}
+
+	public Mono<TwitterProfile> getUserProfile(String screenName) {
+		return requireEitherUserOrAppAuthorization(get(buildUri("users/show.json", "screen_name", screenName)).bodyToMono(TwitterProfile.class));
+	}
+
+	public Mono<TwitterProfile> getUserProfile(long userId) {
+		return requireEitherUserOrAppAuthorization(get(buildUri("users/show.json", "user_id", String.valueOf(userId))).bodyToMono(TwitterProfile.class));
+	}
+
+	public Flux<TwitterProfile> getUsers(long... userIds) {
+		return requireEitherUserOrAppAuthorization(get(buildUri("users/lookup.json", "user_id", ArrayUtils.join(userIds))).bodyToFlux(TwitterProfile.class));
+	}
+
+	public Flux<TwitterProfile> getUsers(String... screenNames) {
+		return requireEitherUserOrAppAuthorization(get(buildUri("users/lookup.json", "screen_name", ArrayUtils.join(screenNames))).bodyToFlux(TwitterProfile.class));
+	}
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.util.Assert;
+
+/**
+ * A token bucket limiting how many stream reconnects may happen within a period of time.
+ * Streams that share a budget spread their reconnects out once the budget is used up, rather than all reconnecting at once.
+ * Reservations beyond the budget are handed out as increasing delays, so waiting callers are served in order.
+ * @see JitteredReconnectPolicy
+ */
+public class ReconnectBudget {
+
+	private static final ReconnectBudget SHARED = new ReconnectBudget(20, 1, TimeUnit.MINUTES);
+
+	private final double capacity;
+
+	private final double millisPerPermit;
+
+	private double permits;
+
+	private long lastRefill;
+
+	/**
+	 * Creates a budget allowing a burst of up to <code>permits</code> reconnects, refilled evenly over the given period.
+	 * @param permits the number of reconnects allowed per period
+	 * @param period the length of the period
+	 * @param unit the unit of the period
+	 */
+	public ReconnectBudget(int permits, long period, TimeUnit unit) {
+		Assert.isTrue(permits > 0, "permits must be greater than 0");
+		Assert.isTrue(period > 0, "period must be greater than 0");
+		this.capacity = permits;
+		this.millisPerPermit = (double) unit.toMillis(period) / permits;
+		this.permits = permits;
+		this.lastRefill = System.currentTimeMillis();
+	}
+
+	/**
+	 * @return the budget shared by all streams in the JVM that don't configure their own; allows 20 reconnects per minute
+	 */
+	public static ReconnectBudget shared() {
+		return SHARED;
+	}
+
+	/**
+	 * @return a budget that never delays a reconnect
+	 */
+	public static ReconnectBudget unlimited() {
+		return new ReconnectBudget(Integer.MAX_VALUE, 1, TimeUnit.MILLISECONDS) {
+			@Override
+			public long reserve() {
+				return 0;
+			}
+		};
+	}
+
+	/**
+	 * Reserves a reconnect from the budget.
+	 * @return the number of milliseconds the caller must wait before the reserved reconnect is within budget
+	 */
+	public synchronized long reserve() {
+		long now = System.currentTimeMillis();
+		permits = Math.min(capacity, permits + (now - lastRefill) / millisPerPermit);
+		lastRefill = now;
+		permits -= 1;
+		if (permits >= 0) {
+			return 0;
+		}
+		return (long) Math.ceil(-permits * millisPerPermit);
+	}
+
+}
@@ -24,6 +24,7 @@ import org.springframework.social.twitter.api.SearchOperations;
 import org.springframework.social.twitter.api.SearchParameters;
 import org.springframework.social.twitter.api.SearchResults;
 import org.springframework.social.twitter.api.Trends;
+import org.springframework.social.twitter.api.TweetProjection;
 import org.springframework.util.Assert;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
@@ -37,9 +38,21 @@ class SearchTemplate extends AbstractTwitterOperations implements SearchOperatio
 
 	private final RestTemplate restTemplate;
 
+	private final TweetProjection projection;
+
 	public SearchTemplate(RestTemplate restTemplate, boolean isAuthorizedForUser, boolean isAuthorizedForApp) {
+		this(restTemplate, isAuthorizedForUser, isAuthorizedForApp, null);
+	}
+
+	private SearchTemplate(RestTemplate restTemplate, boolean isAuthorizedForUser, boolean isAuthorizedForApp, TweetProjection projection) {
 		super(isAuthorizedForUser, isAuthorizedForApp);
 		this.restTemplate = restTemplate;
+		this.projection = projection;
+	}
+
+	public SearchOperations withProjection(TweetProjection projection) {
+		Assert.notNull(projection, "TweetProjection may not be null");
+		return new SearchTemplate(restTemplate, isUserAuthorized(), isAppAuthorized(), projection);
 	}
 
 	public SearchResults search(String query) {
@@ -63,7 +76,7 @@ class SearchTemplate extends AbstractTwitterOperations implements SearchOperatio
 		requireEitherUserOrAppAuthorization();
 		Assert.notNull(searchParameters, "Search parameters must not be null");
 		MultiValueMap<String, String> parameters = buildQueryParametersFromSearchParameters(searchParameters);
-		return restTemplate.getForObject(buildUri("search/tweets.json", parameters),SearchResults.class);
+		return TweetProjectionResponseExtractor.getForObject(restTemplate, buildUri("search/tweets.json", parameters), SearchResults.class, projection);
 	}
 
 	public List<SavedSearch> getSavedSearches() {
@@ -26,20 +26,19 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 
 class SimilarPlacesDeserializer extends JsonDeserializer<SimilarPlacesResponse> {
 	@Override
 	public SimilarPlacesResponse deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException, JsonProcessingException {
-		ObjectMapper mapper = new ObjectMapper();
-		mapper.registerModule(new TwitterModule());
-		jp.setCodec(mapper);				
-		JsonNode node = jp.readValueAs(JsonNode.class);
+		JsonNode node = jp.readValueAsTree();
 		JsonNode resultNode = node.get("result");
 		String token = resultNode.get("token").textValue();
 		JsonNode placesNode = resultNode.get("places");
 		@SuppressWarnings("unchecked")
-		List<Place> places = (List<Place>) mapper.readerFor(new TypeReference<List<Place>>() {}).readValue(placesNode);
+		List<Place> places = (List<Place>) PLACES_READER.readValue(placesNode);
 		return new SimilarPlacesResponse(places, token);
 	}
+
+	private static final ObjectReader PLACES_READER = TwitterObjectMapper.get().readerFor(new TypeReference<List<Place>>() {});
 }
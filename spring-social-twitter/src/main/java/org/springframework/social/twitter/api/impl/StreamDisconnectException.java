@@ -0,0 +1,39 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import org.springframework.social.twitter.api.StreamDisconnectEvent;
+import org.springframework.social.twitter.api.StreamingException;
+
+/**
+ * Thrown by a {@link StreamReader} when Twitter announces that it is closing the connection.
+ * Carries the disconnect message so that the consumer can decide whether and how to reconnect.
+ */
+@SuppressWarnings("serial")
+class StreamDisconnectException extends StreamingException {
+
+	private final StreamDisconnectEvent disconnectEvent;
+
+	public StreamDisconnectException(StreamDisconnectEvent disconnectEvent) {
+		super("Twitter disconnected the stream (code " + disconnectEvent.getCode() + "): " + disconnectEvent.getReason(), null);
+		this.disconnectEvent = disconnectEvent;
+	}
+
+	public StreamDisconnectEvent getDisconnectEvent() {
+		return disconnectEvent;
+	}
+
+}
@@ -16,112 +16,289 @@
 package org.springframework.social.twitter.api.impl;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
-import org.springframework.social.twitter.api.StreamDeleteEvent;
+import org.springframework.social.twitter.api.LazyTweet;
+import org.springframework.social.twitter.api.StreamDrainReport;
 import org.springframework.social.twitter.api.StreamListener;
-import org.springframework.social.twitter.api.StreamWarningEvent;
+import org.springframework.social.twitter.api.StreamMetrics;
 import org.springframework.social.twitter.api.Tweet;
+import org.springframework.social.twitter.api.TweetFilter;
+import org.springframework.social.twitter.api.TweetProjection;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 
 class StreamDispatcher implements Runnable {
 
-	private final List<StreamListener> listeners;
+	private final List<ListenerLane> lanes;
+
+	private final Map<StreamMessageType, List<ListenerLane>> lanesByType;
+
+	private final Map<StreamMessageType, ObjectReader> readers;
 
-	private ObjectMapper objectMapper;
-	
 	private AtomicBoolean active;
 
-	private final Queue<String> queue;
-	
-	private final ExecutorService pool;
+	private final Queue<QueuedMessage> queue;
+
+	private final Queue<QueuedMessage> controlQueue;
+
+	private final String streamName;
+
+	private final StreamMetrics metrics;
+
+	private final TweetFilterScanner filterScanner;
+
+	// messages taken from the queue whose listener callbacks haven't all completed yet
+	private final AtomicInteger inFlight;
+
+	// messages whose listener callbacks have all completed
+	private final AtomicLong delivered;
 
-	public StreamDispatcher(Queue<String> queue, List<StreamListener> listeners) {
+	public StreamDispatcher(Queue<QueuedMessage> queue, List<StreamListener> listeners) {
+		this(queue, new ConcurrentLinkedQueue<QueuedMessage>(), listeners, "stream", NoOpStreamMetrics.INSTANCE, new ListenerIsolationPolicy(), null, null, null);
+	}
+
+	/**
+	 * @param queue messages to dispatch
+	 * @param controlQueue control messages, dispatched ahead of anything waiting in the main queue
+	 * @param listeners the listeners to dispatch to
+	 * @param streamName the stream's name, for metrics
+	 * @param metrics where to record metrics
+	 * @param isolationPolicy how to protect listeners from each other
+	 * @param profileCache a cache for the profiles that come with tweets, or null not to cache them
+	 * @param projection the parts of each tweet to deserialize, or null to deserialize tweets whole
+	 * @param filter a filter that tweets must pass to be deserialized and delivered, or null to deliver every tweet
+	 */
+	public StreamDispatcher(Queue<QueuedMessage> queue, Queue<QueuedMessage> controlQueue, List<StreamListener> listeners, String streamName, StreamMetrics metrics, ListenerIsolationPolicy isolationPolicy, TwitterProfileCache profileCache, TweetProjection projection, TweetFilter filter) {
 		this.queue = queue;
-		this.listeners = listeners;
-		pool = Executors.newCachedThreadPool();
-		objectMapper = new ObjectMapper();
-		objectMapper.addMixIn(Tweet.class, TweetMixin.class);
-		objectMapper.addMixIn(StreamDeleteEvent.class, StreamDeleteEventMixin.class);
-		objectMapper.addMixIn(StreamWarningEvent.class, StreamWarningEventMixin.class);
+		this.controlQueue = controlQueue;
+		this.streamName = streamName;
+		this.metrics = metrics;
+		lanes = new ArrayList<ListenerLane>(listeners.size());
+		for (StreamListener listener : listeners) {
+			lanes.add(new ListenerLane(listener, streamName, metrics, isolationPolicy));
+		}
+		lanesByType = new EnumMap<StreamMessageType, List<ListenerLane>>(StreamMessageType.class);
+		for (StreamMessageType type : StreamMessageType.values()) {
+			List<ListenerLane> typeLanes = new ArrayList<ListenerLane>();
+			for (ListenerLane lane : lanes) {
+				if (type.isListenedToBy(lane.getListener())) {
+					typeLanes.add(lane);
+				}
+			}
+			lanesByType.put(type, typeLanes);
+		}
+		// the shared mapper's readers, so that the deserializers are built once for every stream rather than once per stream
+		readers = new EnumMap<StreamMessageType, ObjectReader>(StreamMessageType.class);
+		for (StreamMessageType type : StreamMessageType.values()) {
+			if (type == StreamMessageType.LAZY_TWEET) {
+				continue;
+			}
+			ObjectReader reader = TwitterObjectMapper.readerFor(type.getMessageType());
+			if (profileCache != null) {
+				reader = reader.withAttribute(TwitterProfileCache.class, profileCache);
+			}
+			if (projection != null) {
+				reader = reader.withAttribute(TweetProjection.class, projection);
+			}
+			readers.put(type, reader);
+		}
+		filterScanner = filter != null ? new TweetFilterScanner(filter) : null;
 		active = new AtomicBoolean(true);
+		inFlight = new AtomicInteger();
+		delivered = new AtomicLong();
 	}
 
 	public void run() {
 		while(active.get()) {
-			String line = queue.poll();
-			if(line == null || line.length() == 0) return;
-			
-			// TODO: handle scrub_geo, status_withheld, user_withheld, disconnect, friends, events, 
-			
-			try {
-				if (line.contains("in_reply_to_status_id_str")) { // TODO: This is kinda hacky
-					handleTweet(line);
-				} else if (line.startsWith("{\"limit")) {
-					handleLimit(line);
-				} else if (line.startsWith("{\"delete")) {
-					handleDelete(line);
-				} else if (line.startsWith("{\"warning")) {
-					handleWarning(line);
-				}
-			} catch (IOException e) {
-				// TODO: Should only happen if Jackson doesn't know how to map the line
-			}
+			QueuedMessage message = nextMessage();
+			if(message == null) return;
+			dispatch(message);
 		}
 	}
-	
+
+	/**
+	 * Stops dispatching messages from the queue. Messages already handed to listeners are still delivered.
+	 */
 	public void stop() {
 		active.set(false);
-		pool.shutdown();
 	}
-	
-	private void handleDelete(String line) throws IOException {
-		final StreamDeleteEvent deleteEvent = objectMapper.readValue(line, StreamDeleteEvent.class);
-		for (final StreamListener listener : listeners) {
-			pool.submit((new Runnable() {
-				public void run() {
-					listener.onDelete(deleteEvent);
-				}
-			}));
+
+	/**
+	 * Dispatches whatever is left in the queue and lets the listeners work through their backlogs on their own threads,
+	 * without waiting for them or interrupting them, e.g. when the connection is dropped and the stream reconnects.
+	 * Should only be called after {@link #stop()}, once no other thread is dispatching.
+	 */
+	public void finish() {
+		QueuedMessage message;
+		while ((message = nextMessage()) != null) {
+			dispatch(message);
+		}
+		for (ListenerLane lane : lanes) {
+			lane.shutdown();
 		}
 	}
 
-	private void handleLimit(String line) throws IOException {
-		final TrackLimitEvent limitEvent = objectMapper.readValue(line, TrackLimitEvent.class);
-		for (final StreamListener listener : listeners) {
-			pool.submit((new Runnable() {
-				public void run() {
-					listener.onLimit(limitEvent.getNumberOfLimitedTweets());
-				}
-			}));
+	/**
+	 * Dispatches whatever is left in the queue and waits for listener callbacks to complete, until the deadline.
+	 * Anything not delivered by then is discarded and the listener threads are stopped.
+	 * Should only be called after {@link #stop()}, once no other thread is dispatching.
+	 * @param deadline the deadline, in terms of {@link System#nanoTime()}
+	 */
+	public StreamDrainReport drain(long deadline) {
+		long deliveredBefore = delivered.get();
+		QueuedMessage message;
+		while (System.nanoTime() < deadline && (message = nextMessage()) != null) {
+			dispatch(message);
 		}
+		int discarded = queue.size() + controlQueue.size();
+		queue.clear();
+		controlQueue.clear();
+		for (ListenerLane lane : lanes) {
+			lane.shutdown();
+		}
+		try {
+			for (ListenerLane lane : lanes) {
+				lane.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		// take the counts before interrupting stragglers so that interrupted callbacks aren't reported as delivered
+		StreamDrainReport report = new StreamDrainReport(delivered.get() - deliveredBefore, discarded + inFlight.get());
+		for (ListenerLane lane : lanes) {
+			lane.shutdownNow();
+		}
+		return report;
 	}
 
-	private void handleTweet(String line) throws IOException {
-		final Tweet tweet = objectMapper.readValue(line, Tweet.class);
-		for (final StreamListener listener : listeners) {
-			pool.submit((new Runnable() {
-				public void run() {
-					listener.onTweet(tweet);
-				}
-			}));
+	// checked before every message so that a control message never waits behind more than the message being dispatched
+	private QueuedMessage nextMessage() {
+		QueuedMessage message = controlQueue.poll();
+		return message != null ? message : queue.poll();
+	}
+
+	/**
+	 * Reads a single message of the given type, e.g. so that a reader can act on a disconnect message itself.
+	 */
+	Object read(StreamMessageType type, String line) throws IOException {
+		return readers.get(type).readValue(line);
+	}
+
+	private void dispatch(QueuedMessage queuedMessage) {
+		long dispatchStart = System.nanoTime();
+		metrics.recordQueueTime(streamName, dispatchStart - queuedMessage.getEnqueuedNanos());
+		String line = queuedMessage.getLine();
+		StreamMessageType type = StreamMessageType.classify(line);
+		if (type == null) {
+			return;
 		}
+		List<ListenerLane> typeLanes = lanesByType.get(type);
+		List<ListenerLane> lazyLanes = type == StreamMessageType.TWEET ? lanesByType.get(StreamMessageType.LAZY_TWEET) : Collections.<ListenerLane>emptyList();
+		if (typeLanes.isEmpty() && lazyLanes.isEmpty()) {
+			return; // nobody wants it, so don't bother deserializing it
+		}
+		if (type == StreamMessageType.TWEET && filterScanner != null) {
+			long filterStart = System.nanoTime();
+			boolean accepted = filterScanner.accepts(line);
+			metrics.recordFilterEvaluation(streamName, accepted, System.nanoTime() - filterStart);
+			if (!accepted) {
+				return;
+			}
+		}
+		// only deserialize the message whole if some listener wants it that way
+		Object message = null;
+		LazyTweet lazyTweet = null;
+		try {
+			if (!typeLanes.isEmpty()) {
+				message = read(type, line);
+			}
+			if (!lazyLanes.isEmpty()) {
+				lazyTweet = new LazyTweetImpl(line);
+			}
+		} catch (IOException e) {
+			// TODO: Should only happen if Jackson doesn't know how to map the line
+			return;
+		}
+		metrics.recordDeserializationTime(streamName, System.nanoTime() - dispatchStart);
+		long createdAt = message instanceof Tweet ? timestampOf((Tweet) message) : lazyTweet != null ? timestampOf(lazyTweet) : 0;
+		if (createdAt > 0) {
+			metrics.recordLag(streamName, queuedMessage.getReceivedAt() - createdAt);
+		}
+		inFlight.incrementAndGet();
+		deliver(type, message, typeLanes, lazyTweet, lazyLanes, line);
 	}
-	
-	private void handleWarning(String line) throws IOException {
-		final StreamWarningEvent warningEvent = objectMapper.readValue(line, StreamWarningEvent.class);
-		for (final StreamListener listener : listeners) {
-			pool.submit((new Runnable() {
-				public void run() {
-					listener.onWarning(warningEvent);
+
+	/**
+	 * Determines when a tweet was created, to the millisecond, from the timestamp embedded in its snowflake ID.
+	 * Falls back to the tweet's created_at (which only has second precision) for tweets that predate snowflake IDs.
+	 * @return the creation time in milliseconds since the epoch, or 0 if it can't be determined
+	 */
+	static long timestampOf(Tweet tweet) {
+		long timestamp = snowflakeTimestampOf(tweet.getId());
+		if (timestamp > 0) {
+			return timestamp;
+		}
+		return tweet.getCreatedAt() != null ? tweet.getCreatedAt().getTime() : 0;
+	}
+
+	static long timestampOf(LazyTweet tweet) {
+		long timestamp = snowflakeTimestampOf(tweet.getId());
+		if (timestamp > 0) {
+			return timestamp;
+		}
+		return tweet.getCreatedAt() != null ? tweet.getCreatedAt().getTime() : 0;
+	}
+
+	private static long snowflakeTimestampOf(String tweetId) {
+		try {
+			long id = Long.parseLong(tweetId);
+			if (id >= FIRST_SNOWFLAKE_ID) {
+				return (id >> SNOWFLAKE_TIMESTAMP_SHIFT) + SNOWFLAKE_EPOCH;
+			}
+		} catch (NumberFormatException e) {}
+		return 0;
+	}
+
+	// the message counts as delivered once every lane, whichever form it got the message in, is done with it
+	private void deliver(StreamMessageType type, Object message, List<ListenerLane> typeLanes, LazyTweet lazyTweet, List<ListenerLane> lazyLanes, String line) {
+		final AtomicInteger pendingLanes = new AtomicInteger(typeLanes.size() + lazyLanes.size());
+		Runnable onDone = new Runnable() {
+			public void run() {
+				if (pendingLanes.decrementAndGet() == 0) {
+					inFlight.decrementAndGet();
+					delivered.incrementAndGet();
+					metrics.messageDelivered(streamName);
 				}
-			}));
+			}
+		};
+		for (ListenerLane lane : typeLanes) {
+			lane.submit(type, message, line, onDone);
 		}
+		for (ListenerLane lane : lazyLanes) {
+			lane.submit(StreamMessageType.LAZY_TWEET, lazyTweet, line, onDone);
+		}
+	}
+
+	List<ListenerLane> getLanes() {
+		return lanes;
 	}
-	
+
+	// Twitter's snowflake IDs carry a millisecond timestamp, relative to this epoch, above their low 22 bits
+	private static final long SNOWFLAKE_EPOCH = 1288834974657L;
+
+	private static final int SNOWFLAKE_TIMESTAMP_SHIFT = 22;
+
+	private static final long FIRST_SNOWFLAKE_ID = 29700859247L;
+
 }
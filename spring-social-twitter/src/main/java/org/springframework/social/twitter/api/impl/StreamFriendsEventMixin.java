@@ -0,0 +1,51 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.social.twitter.api.StreamFriendsEvent;
+import org.springframework.social.twitter.api.impl.StreamFriendsEventMixin.StreamFriendsEventDeserializer;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonDeserialize(using = StreamFriendsEventDeserializer.class)
+abstract class StreamFriendsEventMixin extends TwitterObjectMixin {
+
+	static final class StreamFriendsEventDeserializer extends JsonDeserializer<StreamFriendsEvent> {
+		@Override
+		public StreamFriendsEvent deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException, JsonProcessingException {
+			JsonNode node = jp.readValueAs(JsonNode.class);
+			// user streams opened with stringify_friend_ids=true send "friends_str" instead of "friends"
+			JsonNode friendsNode = node.has("friends") ? node.get("friends") : node.path("friends_str");
+			List<Long> friendIds = new ArrayList<Long>(friendsNode.size());
+			for (JsonNode friendNode : friendsNode) {
+				friendIds.add(friendNode.asLong());
+			}
+			return new StreamFriendsEvent(friendIds);
+		}
+	}
+
+}
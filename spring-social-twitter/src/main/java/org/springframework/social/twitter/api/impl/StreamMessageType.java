@@ -0,0 +1,240 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.social.twitter.api.LazyTweet;
+import org.springframework.social.twitter.api.LazyTweetListener;
+import org.springframework.social.twitter.api.StreamComplianceListener;
+import org.springframework.social.twitter.api.StreamDeleteEvent;
+import org.springframework.social.twitter.api.StreamDisconnectEvent;
+import org.springframework.social.twitter.api.StreamDisconnectListener;
+import org.springframework.social.twitter.api.StreamFriendsEvent;
+import org.springframework.social.twitter.api.StreamListener;
+import org.springframework.social.twitter.api.StreamScrubGeoEvent;
+import org.springframework.social.twitter.api.StreamStatusWithheldEvent;
+import org.springframework.social.twitter.api.StreamUserEvent;
+import org.springframework.social.twitter.api.StreamUserWithheldEvent;
+import org.springframework.social.twitter.api.StreamWarningEvent;
+import org.springframework.social.twitter.api.Tweet;
+import org.springframework.social.twitter.api.UserStreamListener;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Registry of the message types that may arrive on a stream. Each type knows the top-level key(s) that identify it,
+ * the model it is deserialized to and the listener interface that receives it.
+ * @see StreamDispatcher
+ */
+enum StreamMessageType {
+
+	TWEET(Tweet.class, StreamListener.class, "in_reply_to_status_id_str", "text") {
+		@Override
+		public boolean isListenedToBy(Object listener) {
+			return super.isListenedToBy(listener) && !(listener instanceof LazyTweetListener);
+		}
+
+		void deliver(Object listener, Object message) {
+			((StreamListener) listener).onTweet((Tweet) message);
+		}
+	},
+
+	/**
+	 * Tweets for listeners that read them lazily. Never the result of {@link #classify(String)}: the dispatcher delivers a tweet as this type
+	 * alongside {@link #TWEET}, to whichever listeners want it lazily.
+	 */
+	LAZY_TWEET(LazyTweet.class, LazyTweetListener.class) {
+		void deliver(Object listener, Object message) {
+			((LazyTweetListener) listener).onLazyTweet((LazyTweet) message);
+		}
+	},
+
+	DELETE(StreamDeleteEvent.class, StreamListener.class, "delete") {
+		void deliver(Object listener, Object message) {
+			((StreamListener) listener).onDelete((StreamDeleteEvent) message);
+		}
+	},
+
+	LIMIT(TrackLimitEvent.class, StreamListener.class, true, "limit") {
+		void deliver(Object listener, Object message) {
+			((StreamListener) listener).onLimit(((TrackLimitEvent) message).getNumberOfLimitedTweets());
+		}
+	},
+
+	WARNING(StreamWarningEvent.class, StreamListener.class, true, "warning") {
+		void deliver(Object listener, Object message) {
+			((StreamListener) listener).onWarning((StreamWarningEvent) message);
+		}
+	},
+
+	SCRUB_GEO(StreamScrubGeoEvent.class, StreamComplianceListener.class, "scrub_geo") {
+		void deliver(Object listener, Object message) {
+			((StreamComplianceListener) listener).onScrubGeo((StreamScrubGeoEvent) message);
+		}
+	},
+
+	STATUS_WITHHELD(StreamStatusWithheldEvent.class, StreamComplianceListener.class, "status_withheld") {
+		void deliver(Object listener, Object message) {
+			((StreamComplianceListener) listener).onStatusWithheld((StreamStatusWithheldEvent) message);
+		}
+	},
+
+	USER_WITHHELD(StreamUserWithheldEvent.class, StreamComplianceListener.class, "user_withheld") {
+		void deliver(Object listener, Object message) {
+			((StreamComplianceListener) listener).onUserWithheld((StreamUserWithheldEvent) message);
+		}
+	},
+
+	DISCONNECT(StreamDisconnectEvent.class, StreamDisconnectListener.class, true, "disconnect") {
+		void deliver(Object listener, Object message) {
+			((StreamDisconnectListener) listener).onDisconnect((StreamDisconnectEvent) message);
+		}
+	},
+
+	FRIENDS(StreamFriendsEvent.class, UserStreamListener.class, "friends", "friends_str") {
+		void deliver(Object listener, Object message) {
+			((UserStreamListener) listener).onFriends((StreamFriendsEvent) message);
+		}
+	},
+
+	USER_EVENT(StreamUserEvent.class, UserStreamListener.class, "event") {
+		void deliver(Object listener, Object message) {
+			((UserStreamListener) listener).onUserEvent((StreamUserEvent) message);
+		}
+	};
+
+	private final Class<?> messageType;
+
+	private final Class<?> listenerType;
+
+	private final boolean control;
+
+	private final String[] keys;
+
+	private StreamMessageType(Class<?> messageType, Class<?> listenerType, String... keys) {
+		this(messageType, listenerType, false, keys);
+	}
+
+	private StreamMessageType(Class<?> messageType, Class<?> listenerType, boolean control, String... keys) {
+		this.messageType = messageType;
+		this.listenerType = listenerType;
+		this.control = control;
+		this.keys = keys;
+	}
+
+	/**
+	 * @return the model class that messages of this type are deserialized to
+	 */
+	public Class<?> getMessageType() {
+		return messageType;
+	}
+
+	/**
+	 * @return true if messages of this type are notices about the stream itself, which listeners should see ahead of queued content
+	 */
+	public boolean isControl() {
+		return control;
+	}
+
+	/**
+	 * @return true if the given listener wants messages of this type
+	 */
+	public boolean isListenedToBy(Object listener) {
+		return listenerType.isInstance(listener);
+	}
+
+	/**
+	 * Hands a deserialized message to a listener for which {@link #isListenedToBy(Object)} is true.
+	 */
+	abstract void deliver(Object listener, Object message);
+
+	/**
+	 * Determines a message's type from its top-level keys without deserializing it.
+	 * Scanning stops at the first identifying key, and nested objects are skipped over rather than read.
+	 * @param line a single message from the stream
+	 * @return the message's type, or null if it isn't a recognized message
+	 */
+	public static StreamMessageType classify(String line) {
+		try {
+			JsonParser parser = jsonFactory.createParser(line);
+			try {
+				if (parser.nextToken() != JsonToken.START_OBJECT) {
+					return null;
+				}
+				while (parser.nextToken() == JsonToken.FIELD_NAME) {
+					StreamMessageType type = typesByKey.get(parser.getCurrentName());
+					if (type != null) {
+						return type;
+					}
+					parser.nextToken();
+					parser.skipChildren();
+				}
+			} finally {
+				parser.close();
+			}
+		} catch (IOException e) {
+			// not JSON; nothing a listener can do with it
+		}
+		return null;
+	}
+
+	/**
+	 * Determines whether a line is a control message by its prefix alone, cheaply enough to do as each line is read.
+	 * Control messages are single-key envelopes, so their identifying key is always the first thing on the line.
+	 * @param line a single message from the stream
+	 * @return true if the line is a control message
+	 */
+	public static boolean isControlMessage(String line) {
+		if (!line.startsWith("{\"")) {
+			return false;
+		}
+		for (String prefix : controlPrefixes) {
+			if (line.startsWith(prefix)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String prefixFor(String key) {
+		return "{\"" + key + "\"";
+	}
+
+	private static final JsonFactory jsonFactory = new JsonFactory();
+
+	private static final List<String> controlPrefixes = new ArrayList<String>();
+
+	private static final Map<String, StreamMessageType> typesByKey = new HashMap<String, StreamMessageType>();
+
+	static {
+		for (StreamMessageType type : values()) {
+			for (String key : type.keys) {
+				typesByKey.put(key, type);
+				if (type.control) {
+					controlPrefixes.add(prefixFor(key));
+				}
+			}
+		}
+	}
+
+}
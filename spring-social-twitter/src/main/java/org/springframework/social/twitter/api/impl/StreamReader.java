@@ -15,10 +15,16 @@
  */
 package org.springframework.social.twitter.api.impl;
 
+import java.time.Duration;
+
+import org.springframework.social.twitter.api.StreamDrainReport;
+
 interface StreamReader {
 
 	void next();
 
 	void close();
 
+	StreamDrainReport close(Duration drainTimeout);
+
 }
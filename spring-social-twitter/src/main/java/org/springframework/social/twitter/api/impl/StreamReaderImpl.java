@@ -19,6 +19,7 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.time.Duration;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -27,7 +28,12 @@ import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.springframework.social.twitter.api.StreamDisconnectEvent;
+import org.springframework.social.twitter.api.StreamDrainReport;
 import org.springframework.social.twitter.api.StreamListener;
+import org.springframework.social.twitter.api.StreamMetrics;
+import org.springframework.social.twitter.api.TweetFilter;
+import org.springframework.social.twitter.api.TweetProjection;
 import org.springframework.social.twitter.api.StreamingException;
 
 class StreamReaderImpl implements StreamReader {
@@ -38,7 +44,14 @@ class StreamReaderImpl implements StreamReader {
 
 	private final BufferedReader reader;
 	
-	private final Queue<String> queue;
+	private final Queue<QueuedMessage> queue;
+
+	// limit, warning and disconnect notices, which are dispatched ahead of anything in the main queue
+	private final Queue<QueuedMessage> controlQueue;
+
+	private final String streamName;
+
+	private final StreamMetrics metrics;
 
 	private final StreamDispatcher dispatcher;
 
@@ -47,10 +60,17 @@ class StreamReaderImpl implements StreamReader {
 	private final ScheduledThreadPoolExecutor executor;
 	
 	public StreamReaderImpl(InputStream inputStream, List<StreamListener> listeners) {
+		this(inputStream, listeners, "stream", NoOpStreamMetrics.INSTANCE, new ListenerIsolationPolicy(), null, null, null);
+	}
+
+	public StreamReaderImpl(InputStream inputStream, List<StreamListener> listeners, String streamName, StreamMetrics metrics, ListenerIsolationPolicy isolationPolicy, TwitterProfileCache profileCache, TweetProjection projection, TweetFilter filter) {
 		this.inputStream = inputStream;
+		this.streamName = streamName;
+		this.metrics = metrics;
 		this.reader = new BufferedReader(new InputStreamReader(inputStream));
-		queue = new ConcurrentLinkedQueue<String>();
-		dispatcher = new StreamDispatcher(queue, listeners);
+		queue = new ConcurrentLinkedQueue<QueuedMessage>();
+		controlQueue = new ConcurrentLinkedQueue<QueuedMessage>();
+		dispatcher = new StreamDispatcher(queue, controlQueue, listeners, streamName, metrics, isolationPolicy, profileCache, projection, filter);
 		executor = new ScheduledThreadPoolExecutor(10);
 		future = executor.scheduleAtFixedRate(dispatcher, 0, 10, TimeUnit.MILLISECONDS);
 		open = new AtomicBoolean(true);
@@ -61,24 +81,83 @@ class StreamReaderImpl implements StreamReader {
 			String line = reader.readLine();
 			if(line == null) {
 				throw new IOException("Stream closed");
-			}			
-			queue.add(line);
-		} catch (IOException e) {
-			if(open.get()) {
-				close();
-				throw new StreamingException("The Stream is closed", e);
 			}
+			if (line.length() == 0) {
+				return; // keep-alive newline
+			}
+			metrics.messageReceived(streamName);
+			if (!StreamMessageType.isControlMessage(line)) {
+				queue.add(new QueuedMessage(line));
+				return;
+			}
+			controlQueue.add(new QueuedMessage(line));
+			if (line.startsWith(DISCONNECT_PREFIX)) {
+				disconnected(line);
+			}
+		} catch (IOException e) {
+			// also thrown if the stream was closed underneath us (e.g., after a stall) so that the consumer reconnects
+			close();
+			throw new StreamingException("The Stream is closed", e);
 		}
 	}
 
+	/**
+	 * Stops reading. Messages already read are still handed to the listeners, which work through them on their own threads;
+	 * nothing is discarded and no listener is interrupted. This is how the reader is closed when the stream reconnects.
+	 */
 	public void close() {
+		if (!open.compareAndSet(true, false)) {
+			return;
+		}
+		closeInputStream();
+		stopScheduledDispatch(System.nanoTime() + DISPATCH_PASS_TIMEOUT.toNanos());
+		dispatcher.finish();
+	}
+
+	// Twitter is about to drop the connection; let listeners see why, then tell the consumer so that it can decide how to reconnect
+	private void disconnected(String line) throws IOException {
+		StreamDisconnectEvent disconnectEvent = (StreamDisconnectEvent) dispatcher.read(StreamMessageType.DISCONNECT, line);
+		close();
+		throw new StreamDisconnectException(disconnectEvent);
+	}
+
+	/**
+	 * Stops reading and delivers what has been read until the deadline, then discards the rest and stops the listener threads.
+	 */
+	public StreamDrainReport close(Duration drainTimeout) {
+		if (!open.compareAndSet(true, false)) {
+			return new StreamDrainReport(0, 0);
+		}
+		long deadline = System.nanoTime() + drainTimeout.toNanos();
+		closeInputStream();
+		stopScheduledDispatch(deadline);
+		return dispatcher.drain(deadline);
+	}
+
+	private void closeInputStream() {
 		try {
-			open.set(false);
-			future.cancel(true);
-			executor.shutdown();
-			dispatcher.stop();
 			inputStream.close();
 		} catch(IOException ignore) {}
 	}
 
+	// stops the scheduled dispatcher and waits for any pass in progress, so that what's left can be dispatched from this thread
+	private void stopScheduledDispatch(long deadline) {
+		dispatcher.stop();
+		future.cancel(false);
+		executor.shutdown();
+		try {
+			if (!executor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+				executor.shutdownNow();
+			}
+		} catch (InterruptedException e) {
+			executor.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static final String DISCONNECT_PREFIX = "{\"disconnect\"";
+
+	// a dispatch pass only hands messages to the listener lanes, so it shouldn't take anywhere near this long
+	private static final Duration DISPATCH_PASS_TIMEOUT = Duration.ofSeconds(1);
+
 }
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import java.io.IOException;
+
+import org.springframework.social.twitter.api.StreamUserEvent;
+import org.springframework.social.twitter.api.Tweet;
+import org.springframework.social.twitter.api.TwitterProfile;
+import org.springframework.social.twitter.api.UserList;
+import org.springframework.social.twitter.api.impl.StreamUserEventMixin.StreamUserEventDeserializer;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonDeserialize(using = StreamUserEventDeserializer.class)
+abstract class StreamUserEventMixin extends TwitterObjectMixin {
+
+	static final class StreamUserEventDeserializer extends JsonDeserializer<StreamUserEvent> {
+		@Override
+		public StreamUserEvent deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException, JsonProcessingException {
+			ObjectCodec codec = jp.getCodec();
+			JsonNode eventNode = jp.readValueAs(JsonNode.class);
+			String eventType = eventNode.get("event").asText();
+			TwitterProfile source = toValue(codec, eventNode.get("source"), TwitterProfile.class);
+			TwitterProfile target = toValue(codec, eventNode.get("target"), TwitterProfile.class);
+			// the target object is a list for list events and a tweet for tweet events; other events don't have one
+			JsonNode targetObjectNode = eventNode.get("target_object");
+			Tweet targetTweet = null;
+			UserList targetList = null;
+			if (eventType.startsWith("list_")) {
+				targetList = toValue(codec, targetObjectNode, UserList.class);
+			} else if (targetObjectNode != null && targetObjectNode.has("text")) {
+				targetTweet = toValue(codec, targetObjectNode, Tweet.class);
+			}
+			return new StreamUserEvent(eventType, TimelineDateParser.toDate(eventNode.path("created_at").asText()), source, target, targetTweet, targetList);
+		}
+
+		private <T> T toValue(ObjectCodec codec, JsonNode node, Class<T> type) throws IOException {
+			if (node == null || node.isNull()) {
+				return null;
+			}
+			return codec.treeToValue(node, type);
+		}
+	}
+
+}
@@ -30,9 +30,13 @@ import org.springframework.http.client.ClientHttpRequest;
 import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.social.twitter.api.FilterStreamParameters;
+import org.springframework.social.twitter.api.ReconnectPolicy;
 import org.springframework.social.twitter.api.Stream;
 import org.springframework.social.twitter.api.StreamListener;
+import org.springframework.social.twitter.api.StreamMetrics;
 import org.springframework.social.twitter.api.StreamingOperations;
+import org.springframework.social.twitter.api.TweetFilter;
+import org.springframework.social.twitter.api.TweetProjection;
 import org.springframework.social.twitter.api.UserStreamParameters;
 import org.springframework.util.Assert;
 import org.springframework.util.LinkedMultiValueMap;
@@ -45,17 +49,72 @@ import org.springframework.web.client.RestTemplate;
 class StreamingTemplate extends AbstractTwitterOperations implements StreamingOperations {
 	
 	private final RestTemplate restTemplate;
+
+	private ReconnectPolicy reconnectPolicy = new JitteredReconnectPolicy();
+
+	private StreamMetrics metrics = NoOpStreamMetrics.INSTANCE;
+
+	private ListenerIsolationPolicy isolationPolicy = new ListenerIsolationPolicy();
+
+	private TwitterProfileCache profileCache;
+
+	// the template whose settings streams are opened with, which a projected or filtered view shares with the template it came from
+	private final StreamingTemplate settings;
+
+	private final TweetProjection projection;
+
+	private final TweetFilter filter;
 					
 	public StreamingTemplate(RestTemplate restTemplate, boolean isAuthorizedForUser, boolean isAuthorizedForApp) {
 		super(isAuthorizedForUser, isAuthorizedForApp);
 		this.restTemplate = restTemplate;
+		this.settings = this;
+		this.projection = null;
+		this.filter = null;
+	}
+
+	private StreamingTemplate(StreamingTemplate settings, TweetProjection projection, TweetFilter filter) {
+		super(settings.isUserAuthorized(), settings.isAppAuthorized());
+		this.restTemplate = settings.restTemplate;
+		this.settings = settings;
+		this.projection = projection;
+		this.filter = filter;
+	}
+
+	public void setReconnectPolicy(ReconnectPolicy reconnectPolicy) {
+		Assert.notNull(reconnectPolicy, "ReconnectPolicy may not be null");
+		this.reconnectPolicy = reconnectPolicy;
+	}
+
+	public void setMetrics(StreamMetrics metrics) {
+		Assert.notNull(metrics, "StreamMetrics may not be null");
+		this.metrics = metrics;
+	}
+
+	public void setListenerIsolationPolicy(ListenerIsolationPolicy isolationPolicy) {
+		Assert.notNull(isolationPolicy, "ListenerIsolationPolicy may not be null");
+		this.isolationPolicy = isolationPolicy;
+	}
+
+	public void setProfileCache(TwitterProfileCache profileCache) {
+		this.profileCache = profileCache;
+	}
+
+	public StreamingOperations withProjection(TweetProjection projection) {
+		Assert.notNull(projection, "TweetProjection may not be null");
+		return new StreamingTemplate(settings, projection, filter);
+	}
+
+	public StreamingOperations withFilter(TweetFilter filter) {
+		Assert.notNull(filter, "TweetFilter may not be null");
+		return new StreamingTemplate(settings, projection, this.filter != null ? this.filter.and(filter) : filter);
 	}
 
 	public Stream firehose(final List<StreamListener> listeners) {
 		Assert.notEmpty(listeners, "Listeners collection may not be null or empty");
-		Stream stream = new ThreadedStreamConsumer() {
+		Stream stream = new ThreadedStreamConsumer(listeners, settings.reconnectPolicy) {
 			protected StreamReader getStreamReader() throws StreamCreationException {
-				return createStream(HttpMethod.GET, FIREHOSE_STREAM_URL, EMPTY_BODY, listeners);
+				return createStream("firehose", HttpMethod.GET, FIREHOSE_STREAM_URL, EMPTY_BODY, listeners);
 			}
 		};
 		stream.open();
@@ -65,11 +124,11 @@ class StreamingTemplate extends AbstractTwitterOperations implements StreamingOp
 	public Stream firehose(final int backfill, final List<StreamListener> listeners) {
 		Assert.isTrue(Math.abs(backfill) >= -1 && Math.abs(backfill) <= 150000, "'backfill' must be a value between 1 to 150000 or -1 to -150000");
 		Assert.notEmpty(listeners, "Listeners collection may not be null or empty");
-		Stream stream = new ThreadedStreamConsumer() {
+		Stream stream = new ThreadedStreamConsumer(listeners, settings.reconnectPolicy) {
 			protected StreamReader getStreamReader() throws StreamCreationException {				
 				MultiValueMap<String, String> parameters = new LinkedMultiValueMap<String, String>(1);
 				parameters.set("count", String.valueOf(backfill));
-				return createStream(HttpMethod.GET, FIREHOSE_STREAM_URL, parameters, listeners);
+				return createStream("firehose", HttpMethod.GET, FIREHOSE_STREAM_URL, parameters, listeners);
 			}
 		};
 		stream.open();
@@ -78,9 +137,9 @@ class StreamingTemplate extends AbstractTwitterOperations implements StreamingOp
 	
 	public Stream sample(final List<StreamListener> listeners) {
 		Assert.notEmpty(listeners, "Listeners collection may not be null or empty");
-		Stream stream = new ThreadedStreamConsumer() {
+		Stream stream = new ThreadedStreamConsumer(listeners, settings.reconnectPolicy) {
 			protected StreamReader getStreamReader() throws StreamCreationException {
-				return createStream(HttpMethod.GET, SAMPLE_STREAM_URL, EMPTY_BODY, listeners);
+				return createStream("sample", HttpMethod.GET, SAMPLE_STREAM_URL, EMPTY_BODY, listeners);
 			}
 		};
 		stream.open();
@@ -95,9 +154,9 @@ class StreamingTemplate extends AbstractTwitterOperations implements StreamingOp
 		Assert.notNull(parameters, "StreamFilter may not be null");
 		Assert.isTrue(parameters.isValid(), "At least one of follow, track, or location must be specified in StreamFilter");
 		Assert.notEmpty(listeners, "Listeners collection may not be null or empty");
-		Stream stream = new ThreadedStreamConsumer() {
+		Stream stream = new ThreadedStreamConsumer(listeners, settings.reconnectPolicy) {
 			protected StreamReader getStreamReader() throws StreamCreationException {
-				return createStream(HttpMethod.POST, FILTERED_STREAM_URL, parameters.toParameterMap(), listeners);
+				return createStream("filter", HttpMethod.POST, FILTERED_STREAM_URL, parameters.toParameterMap(), listeners);
 			}
 		};
 		stream.open();
@@ -111,22 +170,22 @@ class StreamingTemplate extends AbstractTwitterOperations implements StreamingOp
 	public Stream user(final UserStreamParameters parameters, final List<StreamListener> listeners) {
 		Assert.notNull(parameters, "StreamFilter may not be null");
 		Assert.notEmpty(listeners, "Listeners collection may not be null or empty");
-		Stream stream = new ThreadedStreamConsumer() {
+		Stream stream = new ThreadedStreamConsumer(listeners, settings.reconnectPolicy) {
 			protected StreamReader getStreamReader() throws StreamCreationException {
-				return createStream(HttpMethod.POST, USER_STREAM_URL, parameters.toParameterMap(), listeners);
+				return createStream("user", HttpMethod.POST, USER_STREAM_URL, parameters.toParameterMap(), listeners);
 			}
 		};
 		stream.open();
 		return stream;
 	}
 	
-	private StreamReader createStream(HttpMethod method, String streamUrl, MultiValueMap<String, String> body, List<StreamListener> listeners) throws StreamCreationException {
+	private StreamReader createStream(String streamName, HttpMethod method, String streamUrl, MultiValueMap<String, String> body, List<StreamListener> listeners) throws StreamCreationException {
 		try {
 			ClientHttpResponse response = executeRequest(method, streamUrl, body);
 			if (response.getStatusCode().value() > 200) {
 				throw new StreamCreationException("Unable to create stream", response.getStatusCode());
 			}
-			return new StreamReaderImpl(response.getBody(), listeners);
+			return new StreamReaderImpl(response.getBody(), listeners, streamName, settings.metrics, settings.isolationPolicy, settings.profileCache, projection, filter);
 		} catch (IOException e) {
 			throw new StreamCreationException("Unable to create stream.", e);
 		}
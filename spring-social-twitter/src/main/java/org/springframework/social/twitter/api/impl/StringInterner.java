@@ -0,0 +1,105 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+/**
+ * A bounded pool of canonical strings, for fields whose values repeat across tweets and profiles (e.g. source, language, colors, screen names).
+ * Deserializing the same value again yields the instance already in the pool, so tweets held in memory share one copy.
+ * <p>
+ * Unlike {@link String#intern()}, the pool is small and fixed-size, and costs no more than an array read and a comparison on a hit.
+ * It's a direct-mapped cache: a value replaces whatever was in its slot, so values that keep coming back stay, and those that don't are soon gone.
+ * Strings are immutable, so the slots are read and written without synchronization; a lost race just means a missed chance to share.
+ */
+final class StringInterner {
+
+	/**
+	 * The pool used by the deserializers in {@link TwitterModule}.
+	 */
+	static final StringInterner SHARED = new StringInterner(8192, 256);
+
+	private final String[] pool;
+
+	private final int mask;
+
+	private final int maxLength;
+
+	/**
+	 * @param capacity the number of strings to hold, rounded up to a power of two
+	 * @param maxLength the longest string worth pooling; longer ones are passed through
+	 */
+	StringInterner(int capacity, int maxLength) {
+		int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+		this.pool = new String[size];
+		this.mask = size - 1;
+		this.maxLength = maxLength;
+	}
+
+	/**
+	 * @return the pooled string equal to the given one, which is pooled if there isn't one yet
+	 */
+	String intern(String value) {
+		if (value == null || value.length() > maxLength) {
+			return value;
+		}
+		int slot = slot(value.hashCode());
+		String pooled = pool[slot];
+		if (value.equals(pooled)) {
+			return pooled;
+		}
+		pool[slot] = value;
+		return value;
+	}
+
+	/**
+	 * Interns a string given as a range of characters, e.g. a {@link com.fasterxml.jackson.core.JsonParser}'s text buffer.
+	 * A new string is only created if the pool doesn't already hold one with these characters.
+	 */
+	String intern(char[] chars, int offset, int length) {
+		if (length > maxLength) {
+			return new String(chars, offset, length);
+		}
+		int hash = 0;
+		for (int i = offset, end = offset + length; i < end; i++) {
+			hash = 31 * hash + chars[i];
+		}
+		int slot = slot(hash);
+		String pooled = pool[slot];
+		if (pooled != null && matches(pooled, chars, offset, length)) {
+			return pooled;
+		}
+		String value = new String(chars, offset, length);
+		pool[slot] = value;
+		return value;
+	}
+
+	// spreads String.hashCode()'s high bits into the low ones used for the slot
+	private int slot(int hash) {
+		return (hash ^ (hash >>> 16)) & mask;
+	}
+
+	private static boolean matches(String pooled, char[] chars, int offset, int length) {
+		if (pooled.length() != length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (pooled.charAt(i) != chars[offset + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
@@ -15,71 +15,152 @@
  */
 package org.springframework.social.twitter.api.impl;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.social.twitter.api.ReconnectPolicy;
+import org.springframework.social.twitter.api.ReconnectReason;
 import org.springframework.social.twitter.api.Stream;
+import org.springframework.social.twitter.api.StreamDisconnectEvent;
+import org.springframework.social.twitter.api.StreamDrainReport;
+import org.springframework.social.twitter.api.StreamListener;
+import org.springframework.social.twitter.api.StreamState;
+import org.springframework.social.twitter.api.StreamStateEvent;
+import org.springframework.social.twitter.api.StreamStateListener;
 import org.springframework.social.twitter.api.StreamingException;
+import org.springframework.util.Assert;
 
-abstract class ThreadedStreamConsumer extends Thread implements Stream {
-		
-	private AtomicBoolean open;
+abstract class ThreadedStreamConsumer implements Stream, Runnable {
 
-	private StreamReader streamReader;
+	private static final Log logger = LogFactory.getLog(ThreadedStreamConsumer.class);
 
-	public ThreadedStreamConsumer() {
-		this.open = new AtomicBoolean(true);		
+	private final AtomicBoolean open;
+
+	private final AtomicReference<StreamState> state;
+
+	private volatile long stateTimestamp;
+
+	private final List<StreamStateListener> stateListeners;
+
+	private volatile StreamReader streamReader;
+
+	private volatile Thread consumerThread;
+
+	private volatile long lastActivity;
+
+	private ScheduledFuture<?> stallCheck;
+
+	private final ReconnectPolicy reconnectPolicy;
+
+	private ReconnectReason lastReconnectReason;
+
+	private int reconnectAttempts;
+
+	private long lastReconnectDelay;
+
+	public ThreadedStreamConsumer(List<StreamListener> listeners, ReconnectPolicy reconnectPolicy) {
+		this.open = new AtomicBoolean(true);
+		this.state = new AtomicReference<StreamState>(StreamState.CONNECTING);
+		this.stateTimestamp = System.currentTimeMillis();
+		this.reconnectPolicy = reconnectPolicy;
+		this.stateListeners = new ArrayList<StreamStateListener>();
+		for (StreamListener listener : listeners) {
+			if (listener instanceof StreamStateListener) {
+				stateListeners.add((StreamStateListener) listener);
+			}
+		}
 	}
-	
-	@Override
+
 	public void run() {
-		long timeToSleep = 250;
+		Throwable reconnectCause = null;
 		streamReader = null;
-		
+
 		while(open.get()) {
 			try {
 				if(streamReader == null) {
+					transitionTo(StreamState.CONNECTING, reconnectCause);
 					streamReader = getStreamReader();
-					timeToSleep = MIN_WAIT;
+					if (!open.get()) {
+						// closed while the connection was being established
+						streamReader.close();
+						break;
+					}
+					lastReconnectReason = null;
+					reconnectAttempts = 0;
+					lastReconnectDelay = 0;
+					lastActivity = System.currentTimeMillis();
+					transitionTo(StreamState.CONNECTED, null);
 				}
 				streamReader.next();
-			} catch (StreamingException e) {
-				// if a valid connection drops, reconnect immediately
+				lastActivity = System.currentTimeMillis();
+			} catch (StreamDisconnectException e) {
 				streamReader = null;
-			} catch (StreamCreationException e) {
-				if(e.getHttpStatus() != null) {
-					// Back off exponentially
-					if(timeToSleep == MIN_WAIT) {
-						timeToSleep = 5000;
-					}
-					sleepBeforeRetry(timeToSleep);
-					timeToSleep = timeToSleep * 2;				
-					// TODO: Should eventually fail...repeated tries could cause ban
-					if(timeToSleep > HTTP_ERROR_SLEEP_MAX) {
-						close();
-					}
+				reconnectCause = e;
+				StreamDisconnectEvent disconnectEvent = e.getDisconnectEvent();
+				if (disconnectEvent.isFatal()) {
+					close(e);
 				} else {
-					if(open.get()) {
-						// Back off linearly
-						if(timeToSleep == MIN_WAIT) {
-							timeToSleep = 250;
-						}
-						sleepBeforeRetry(timeToSleep);
-						timeToSleep = Math.min(timeToSleep + 250, NETWORK_ERROR_SLEEP_MAX);
-					}
+					backOff(reconnectReasonFor(disconnectEvent), e);
 				}
+			} catch (StreamingException e) {
+				streamReader = null;
+				reconnectCause = e;
+				backOff(ReconnectReason.CONNECTION_DROPPED, e);
+			} catch (StreamCreationException e) {
+				reconnectCause = e;
+				backOff(reconnectReasonFor(e), e);
 			}
-		}		
+		}
 	}
-	
+
 	public void open() {
-		this.start();
+		consumerThread = new Thread(this, "twitter-stream-consumer");
+		consumerThread.start();
+		synchronized (this) {
+			if (open.get()) {
+				stallCheck = stallMonitor.scheduleWithFixedDelay(new Runnable() {
+					public void run() {
+						checkForStall(System.currentTimeMillis());
+					}
+				}, STALL_CHECK_INTERVAL, STALL_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+			}
+		}
 	}
 
 	public void close() {
-		open.set(false);
-		if(streamReader != null) {
-			streamReader.close();
+		close((Throwable) null);
+	}
+
+	public StreamDrainReport close(Duration drainTimeout) {
+		Assert.notNull(drainTimeout, "drainTimeout may not be null");
+		StreamDrainReport report = new StreamDrainReport(0, 0);
+		if (stop()) {
+			StreamReader currentReader = streamReader;
+			if (currentReader != null) {
+				report = currentReader.close(drainTimeout);
+			}
+			transitionTo(StreamState.CLOSED, null);
 		}
+		return report;
+	}
+
+	public StreamState getState() {
+		return state.get();
+	}
+
+	public long getStateTimestamp() {
+		return stateTimestamp;
 	}
 
 	// subclass hook
@@ -88,13 +169,135 @@ abstract class ThreadedStreamConsumer extends Thread implements Stream {
 	protected void sleepBeforeRetry(long timeToSleep) {
 		try {
 			Thread.sleep(timeToSleep);
-		} catch (InterruptedException e1) {}
+		} catch (InterruptedException e) {
+			// closed while backing off, or otherwise told to stop
+			Thread.currentThread().interrupt();
+			close(e);
+		}
+	}
+
+	/**
+	 * Drops the current connection if nothing has been read from it within the stall timeout.
+	 * The consumer thread then reconnects as it would after any other dropped connection.
+	 */
+	void checkForStall(long now) {
+		StreamReader currentReader = streamReader;
+		if (currentReader != null && state.get() == StreamState.CONNECTED && now - lastActivity > STALL_TIMEOUT) {
+			if (transitionTo(StreamState.STALLED, null)) {
+				currentReader.close();
+			}
+		}
+	}
+
+	private void backOff(ReconnectReason reason, Throwable cause) {
+		if (!open.get()) {
+			return;
+		}
+		// attempts count up until the stream connects, whatever their reasons, so that alternating failures can't keep the backoff at its first step;
+		// only the delay starts afresh for a new reason, since it was chosen from another reason's range
+		if (reason != lastReconnectReason) {
+			lastReconnectReason = reason;
+			lastReconnectDelay = 0;
+		}
+		reconnectAttempts++;
+		long delay = reconnectPolicy.getReconnectDelay(reason, reconnectAttempts, lastReconnectDelay);
+		if (delay < 0) {
+			close(cause);
+			return;
+		}
+		lastReconnectDelay = delay;
+		if (delay > 0) {
+			transitionTo(StreamState.BACKING_OFF, cause);
+			sleepBeforeRetry(delay);
+		}
+	}
+
+	private ReconnectReason reconnectReasonFor(StreamCreationException e) {
+		HttpStatus httpStatus = e.getHttpStatus();
+		if (httpStatus == null) {
+			return ReconnectReason.NETWORK_ERROR;
+		}
+		if (httpStatus.value() == ENHANCE_YOUR_CALM || httpStatus.value() == TOO_MANY_REQUESTS) {
+			return ReconnectReason.RATE_LIMITED;
+		}
+		if (httpStatus.is5xxServerError()) {
+			return ReconnectReason.SERVER_ERROR;
+		}
+		return ReconnectReason.HTTP_ERROR;
+	}
+
+	private ReconnectReason reconnectReasonFor(StreamDisconnectEvent disconnectEvent) {
+		switch (disconnectEvent.getCode()) {
+			case StreamDisconnectEvent.SHUTDOWN:
+			case StreamDisconnectEvent.STREAM_EXCEPTION:
+			case StreamDisconnectEvent.BROKER_STALL:
+			case StreamDisconnectEvent.SHED_LOAD:
+				// trouble on Twitter's end; give it time to recover
+				return ReconnectReason.SERVER_ERROR;
+			default:
+				return ReconnectReason.CONNECTION_DROPPED;
+		}
+	}
+
+	private void close(Throwable cause) {
+		stop();
+		StreamReader currentReader = streamReader;
+		if(currentReader != null) {
+			currentReader.close();
+		}
+		transitionTo(StreamState.CLOSED, cause);
+	}
+
+	private boolean stop() {
+		boolean wasOpen = open.getAndSet(false);
+		synchronized (this) {
+			if (stallCheck != null) {
+				stallCheck.cancel(false);
+			}
+		}
+		// wake the consumer thread if it's backing off, so that it doesn't sleep on and then reconnect
+		Thread thread = consumerThread;
+		if (wasOpen && thread != null && thread != Thread.currentThread()) {
+			thread.interrupt();
+		}
+		return wasOpen;
 	}
 
-	static final long HTTP_ERROR_SLEEP_MAX = 320000;
+	private boolean transitionTo(StreamState newState, Throwable cause) {
+		StreamState previousState;
+		do {
+			previousState = state.get();
+			if (previousState == newState || previousState == StreamState.CLOSED) {
+				return false;
+			}
+		} while (!state.compareAndSet(previousState, newState));
+		long timestamp = System.currentTimeMillis();
+		stateTimestamp = timestamp;
+		StreamStateEvent event = new StreamStateEvent(this, previousState, newState, timestamp, cause);
+		for (StreamStateListener stateListener : stateListeners) {
+			try {
+				stateListener.onStateChange(event);
+			} catch (RuntimeException e) {
+				logger.warn("StreamStateListener threw an exception while handling " + event, e);
+			}
+		}
+		return true;
+	}
 
-	static final long NETWORK_ERROR_SLEEP_MAX = 16000;
+	static final long STALL_TIMEOUT = 90000;
 
-	private static final long MIN_WAIT = 250;
+	private static final long STALL_CHECK_INTERVAL = 5000;
+
+	private static final int ENHANCE_YOUR_CALM = 420;
+
+	private static final int TOO_MANY_REQUESTS = 429;
+
+	private static final ScheduledExecutorService stallMonitor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "twitter-stream-stall-monitor");
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
 
 }
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Parses the timestamps that Twitter uses throughout its API, e.g. "Tue Jul 13 17:38:21 +0000 2010" (that is, "EEE MMM dd HH:mm:ss ZZZZZ yyyy").
+ * Values in that fixed-width layout are parsed by hand, straight from a String, char range or byte range, without allocating.
+ * Because the tweets in a burst tend to share timestamps, the most recently parsed values are cached by their text.
+ * Anything that doesn't fit the layout exactly is handed to a {@link SimpleDateFormat}, so the results are the same as they've always been.
+ * Safe for use by multiple threads.
+ */
+final class TimelineDateParser {
+
+	private TimelineDateParser() {
+	}
+
+	/**
+	 * Reads the parser's current value as a timestamp.
+	 * Skips the value if it's an object or array.
+	 * @return the timestamp, or null if the value isn't one
+	 */
+	static Date toDate(JsonParser jp) throws IOException {
+		JsonToken token = jp.getCurrentToken();
+		if (token == JsonToken.VALUE_STRING) {
+			return toDate(jp.getTextCharacters(), jp.getTextOffset(), jp.getTextLength());
+		}
+		if (token != null && token.isScalarValue()) {
+			return toDate(jp.getText());
+		}
+		jp.skipChildren();
+		return null;
+	}
+
+	/**
+	 * @return the timestamp, or null if the text isn't one
+	 */
+	static Date toDate(String text) {
+		if (text == null) {
+			return null;
+		}
+		try {
+			return new Date(parse(text, 0, text.length()));
+		} catch (ParseException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return the timestamp, or null if the characters aren't one
+	 */
+	static Date toDate(char[] text, int offset, int length) {
+		try {
+			return new Date(parse(text, offset, length));
+		} catch (ParseException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Parses a timestamp from the given characters.
+	 * @return milliseconds since the epoch
+	 * @throws ParseException if the characters aren't a timestamp
+	 */
+	static long parse(CharSequence text, int offset, int length) throws ParseException {
+		return parseFrom(text, offset, length);
+	}
+
+	/**
+	 * Parses a timestamp from the given characters.
+	 * @return milliseconds since the epoch
+	 * @throws ParseException if the characters aren't a timestamp
+	 */
+	static long parse(char[] text, int offset, int length) throws ParseException {
+		return parseFrom(text, offset, length);
+	}
+
+	/**
+	 * Parses a timestamp from the given bytes, which must be ASCII or UTF-8.
+	 * @return milliseconds since the epoch
+	 * @throws ParseException if the bytes aren't a timestamp
+	 */
+	static long parse(byte[] text, int offset, int length) throws ParseException {
+		return parseFrom(text, offset, length);
+	}
+
+	// text is a CharSequence, char[] or byte[]
+	private static long parseFrom(Object text, int offset, int length) throws ParseException {
+		if (length == LENGTH) {
+			int minute = digit(text, offset, 14) * 10 + digit(text, offset, 15);
+			int second = digit(text, offset, 17) * 10 + digit(text, offset, 18);
+			int slot = (minute * 60 + second) & (CACHE_SIZE - 1);
+			CachedTimestamp cached = cache[slot];
+			if (cached != null && cached.matches(text, offset)) {
+				return cached.millis;
+			}
+			long millis = parseFixedWidth(text, offset);
+			if (millis != NOT_FIXED_WIDTH) {
+				cache[slot] = new CachedTimestamp(text, offset, millis);
+				return millis;
+			}
+		}
+		return FALLBACK_FORMAT.get().parse(toString(text, offset, length)).getTime();
+	}
+
+	private static long parseFixedWidth(Object text, int offset) {
+		if (dayOfWeek(text, offset) < 0
+				|| charAt(text, offset + 3) != ' ' || charAt(text, offset + 7) != ' ' || charAt(text, offset + 10) != ' '
+				|| charAt(text, offset + 13) != ':' || charAt(text, offset + 16) != ':' || charAt(text, offset + 19) != ' '
+				|| charAt(text, offset + 25) != ' ') {
+			return NOT_FIXED_WIDTH;
+		}
+		int month = month(text, offset + 4);
+		int day = number(text, offset + 8, 2);
+		int hour = number(text, offset + 11, 2);
+		int minute = number(text, offset + 14, 2);
+		int second = number(text, offset + 17, 2);
+		int offsetHours = number(text, offset + 21, 2);
+		int offsetMinutes = number(text, offset + 23, 2);
+		int year = number(text, offset + 26, 4);
+		char sign = charAt(text, offset + 20);
+		// out-of-range fields are left to SimpleDateFormat, which rolls them over rather than rejecting them
+		if (month < 0 || year < 1970 || day < 1 || day > daysInMonth(year, month) || hour < 0 || hour > 23
+				|| minute < 0 || minute > 59 || second < 0 || second > 59
+				|| (sign != '+' && sign != '-') || offsetHours < 0 || offsetHours > 23 || offsetMinutes < 0 || offsetMinutes > 59) {
+			return NOT_FIXED_WIDTH;
+		}
+		long seconds = daysSinceEpoch(year, month, day) * 86400L + hour * 3600 + minute * 60 + second;
+		int offsetSeconds = offsetHours * 3600 + offsetMinutes * 60;
+		seconds -= sign == '+' ? offsetSeconds : -offsetSeconds;
+		return seconds * 1000;
+	}
+
+	// Howard Hinnant's days_from_civil, for the proleptic Gregorian calendar
+	private static long daysSinceEpoch(int year, int month, int day) {
+		int y = month <= 2 ? year - 1 : year;
+		int era = y / 400;
+		int yearOfEra = y - era * 400;
+		int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+		int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+		return era * 146097L + dayOfEra - 719468;
+	}
+
+	private static int daysInMonth(int year, int month) {
+		if (month == 2) {
+			return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0 ? 29 : 28;
+		}
+		return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+	}
+
+	private static int dayOfWeek(Object text, int offset) {
+		return indexOf(DAYS, threeLetters(text, offset));
+	}
+
+	// 1-based, or -1 if it's not a month
+	private static int month(Object text, int offset) {
+		int index = indexOf(MONTHS, threeLetters(text, offset));
+		return index < 0 ? -1 : index + 1;
+	}
+
+	private static int indexOf(int[] names, int name) {
+		for (int i = 0; i < names.length; i++) {
+			if (names[i] == name) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	// three characters, lower-cased and packed into an int, since SimpleDateFormat matches names without regard to case
+	private static int threeLetters(Object text, int offset) {
+		return (lower(charAt(text, offset)) << 16) | (lower(charAt(text, offset + 1)) << 8) | lower(charAt(text, offset + 2));
+	}
+
+	private static int lower(char c) {
+		return (c >= 'A' && c <= 'Z') ? c + ('a' - 'A') : (c < 0x80 ? c : 0);
+	}
+
+	private static int pack(String name) {
+		return (name.charAt(0) << 16) | (name.charAt(1) << 8) | name.charAt(2);
+	}
+
+	// the decimal value of the digits, or -1 if they aren't all digits
+	private static int number(Object text, int offset, int digits) {
+		int value = 0;
+		for (int i = 0; i < digits; i++) {
+			char c = charAt(text, offset + i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			value = value * 10 + (c - '0');
+		}
+		return value;
+	}
+
+	// a single digit's value for picking a cache slot; anything else just makes for a poor choice of slot
+	private static int digit(Object text, int offset, int index) {
+		return charAt(text, offset + index) & 0xf;
+	}
+
+	private static char charAt(Object text, int index) {
+		if (text instanceof char[]) {
+			return ((char[]) text)[index];
+		}
+		if (text instanceof byte[]) {
+			return (char) (((byte[]) text)[index] & 0xff);
+		}
+		return ((CharSequence) text).charAt(index);
+	}
+
+	private static String toString(Object text, int offset, int length) {
+		if (text instanceof char[]) {
+			return new String((char[]) text, offset, length);
+		}
+		if (text instanceof byte[]) {
+			return new String((byte[]) text, offset, length, StandardCharsets.UTF_8);
+		}
+		return ((CharSequence) text).subSequence(offset, offset + length).toString();
+	}
+
+	private static final class CachedTimestamp {
+
+		private final char[] text;
+
+		private final long millis;
+
+		CachedTimestamp(Object text, int offset, long millis) {
+			this.text = new char[LENGTH];
+			for (int i = 0; i < LENGTH; i++) {
+				this.text[i] = charAt(text, offset + i);
+			}
+			this.millis = millis;
+		}
+
+		boolean matches(Object text, int offset) {
+			for (int i = LENGTH - 1; i >= 0; i--) {
+				if (this.text[i] != charAt(text, offset + i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+	}
+
+	private static final int LENGTH = "EEE MMM dd HH:mm:ss +ZZZZ yyyy".length();
+
+	private static final long NOT_FIXED_WIDTH = Long.MIN_VALUE;
+
+	private static final int[] DAYS = { pack("sun"), pack("mon"), pack("tue"), pack("wed"), pack("thu"), pack("fri"), pack("sat") };
+
+	private static final int[] MONTHS = { pack("jan"), pack("feb"), pack("mar"), pack("apr"), pack("may"), pack("jun"),
+			pack("jul"), pack("aug"), pack("sep"), pack("oct"), pack("nov"), pack("dec") };
+
+	private static final int CACHE_SIZE = 64;
+
+	// direct-mapped by minute and second; entries are immutable, so unsynchronized reads and writes are safe
+	private static final CachedTimestamp[] cache = new CachedTimestamp[CACHE_SIZE];
+
+	private static final ThreadLocal<DateFormat> FALLBACK_FORMAT = new ThreadLocal<DateFormat>() {
+		protected DateFormat initialValue() {
+			return new SimpleDateFormat("EEE MMM dd HH:mm:ss ZZZZZ yyyy", Locale.ENGLISH);
+		}
+	};
+
+}
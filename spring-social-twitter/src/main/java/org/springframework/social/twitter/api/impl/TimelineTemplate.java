@@ -15,15 +15,19 @@
  */
 package org.springframework.social.twitter.api.impl;
 
+import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.core.io.Resource;
+import org.springframework.social.twitter.api.CloseableIterator;
 import org.springframework.social.twitter.api.OEmbedOptions;
 import org.springframework.social.twitter.api.OEmbedTweet;
 import org.springframework.social.twitter.api.TimelineOperations;
 import org.springframework.social.twitter.api.Tweet;
 import org.springframework.social.twitter.api.TweetData;
+import org.springframework.social.twitter.api.TweetProjection;
+import org.springframework.util.Assert;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestTemplate;
@@ -39,9 +43,21 @@ class TimelineTemplate extends AbstractTwitterOperations implements TimelineOper
 	
 	private final RestTemplate restTemplate;
 
+	private final TweetProjection projection;
+
 	public TimelineTemplate(RestTemplate restTemplate, boolean isAuthorizedForUser, boolean isAuthorizedForApp) {
+		this(restTemplate, isAuthorizedForUser, isAuthorizedForApp, null);
+	}
+
+	private TimelineTemplate(RestTemplate restTemplate, boolean isAuthorizedForUser, boolean isAuthorizedForApp, TweetProjection projection) {
 		super(isAuthorizedForUser, isAuthorizedForApp);
 		this.restTemplate = restTemplate;
+		this.projection = projection;
+	}
+
+	public TimelineOperations withProjection(TweetProjection projection) {
+		Assert.notNull(projection, "TweetProjection may not be null");
+		return new TimelineTemplate(restTemplate, isUserAuthorized(), isAppAuthorized(), projection);
 	}
 
 	public List<Tweet> getHomeTimeline() {
@@ -56,7 +72,7 @@ class TimelineTemplate extends AbstractTwitterOperations implements TimelineOper
 		requireUserAuthorization();
 		MultiValueMap<String, String> parameters = PagingUtils.buildPagingParametersWithCount(pageSize, sinceId, maxId);
 		parameters.set("include_entities", "true");
-		return restTemplate.getForObject(buildUri("statuses/home_timeline.json", parameters), TweetList.class);
+		return getForObject(buildUri("statuses/home_timeline.json", parameters), TweetList.class);
 	}
 	
 	public List<Tweet> getUserTimeline() {
@@ -71,7 +87,7 @@ class TimelineTemplate extends AbstractTwitterOperations implements TimelineOper
 		requireUserAuthorization();
 		MultiValueMap<String, String> parameters = PagingUtils.buildPagingParametersWithCount(pageSize, sinceId, maxId);
 		parameters.set("include_entities", "true");
-		return restTemplate.getForObject(buildUri("statuses/user_timeline.json", parameters), TweetList.class);
+		return getForObject(buildUri("statuses/user_timeline.json", parameters), TweetList.class);
 	}
 
 	public List<Tweet> getUserTimeline(String screenName) {
@@ -87,7 +103,7 @@ class TimelineTemplate extends AbstractTwitterOperations implements TimelineOper
 		MultiValueMap<String, String> parameters = PagingUtils.buildPagingParametersWithCount(pageSize, sinceId, maxId);
 		parameters.set("screen_name", screenName);
 		parameters.set("include_entities", "true");
-		return restTemplate.getForObject(buildUri("statuses/user_timeline.json", parameters), TweetList.class);
+		return getForObject(buildUri("statuses/user_timeline.json", parameters), TweetList.class);
 	}
 
 	public List<Tweet> getUserTimeline(long userId) {
@@ -103,7 +119,31 @@ class TimelineTemplate extends AbstractTwitterOperations implements TimelineOper
 		MultiValueMap<String, String> parameters = PagingUtils.buildPagingParametersWithCount(pageSize, sinceId, maxId);
 		parameters.set("user_id", String.valueOf(userId));
 		parameters.set("include_entities", "true");
-		return restTemplate.getForObject(buildUri("statuses/user_timeline.json", parameters), TweetList.class);
+		return getForObject(buildUri("statuses/user_timeline.json", parameters), TweetList.class);
+	}
+
+	public CloseableIterator<Tweet> iterateUserTimeline(int pageSize, long sinceId, long maxId) {
+		return openUserTimeline(pageSize, sinceId, maxId);
+	}
+
+	public CloseableIterator<Tweet> iterateUserTimeline(String screenName, int pageSize, long sinceId, long maxId) {
+		return openUserTimeline(screenName, pageSize, sinceId, maxId);
+	}
+
+	public CloseableIterator<Tweet> iterateUserTimeline(long userId, int pageSize, long sinceId, long maxId) {
+		return openUserTimeline(userId, pageSize, sinceId, maxId);
+	}
+
+	public java.util.stream.Stream<Tweet> streamUserTimeline(int pageSize, long sinceId, long maxId) {
+		return openUserTimeline(pageSize, sinceId, maxId).stream();
+	}
+
+	public java.util.stream.Stream<Tweet> streamUserTimeline(String screenName, int pageSize, long sinceId, long maxId) {
+		return openUserTimeline(screenName, pageSize, sinceId, maxId).stream();
+	}
+
+	public java.util.stream.Stream<Tweet> streamUserTimeline(long userId, int pageSize, long sinceId, long maxId) {
+		return openUserTimeline(userId, pageSize, sinceId, maxId).stream();
 	}
 
 	public List<Tweet> getMentions() {
@@ -118,7 +158,7 @@ class TimelineTemplate extends AbstractTwitterOperations implements TimelineOper
 		requireUserAuthorization();
 		MultiValueMap<String, String> parameters = PagingUtils.buildPagingParametersWithCount(pageSize, sinceId, maxId);
 		parameters.set("include_entities", "true");
-		return restTemplate.getForObject(buildUri("statuses/mentions_timeline.json", parameters), TweetList.class);
+		return getForObject(buildUri("statuses/mentions_timeline.json", parameters), TweetList.class);
 	}
 	
 	public List<Tweet> getRetweetsOfMe() {
@@ -133,14 +173,14 @@ class TimelineTemplate extends AbstractTwitterOperations implements TimelineOper
 		requireUserAuthorization();
 		MultiValueMap<String, String> parameters = PagingUtils.buildPagingParametersWithCount(page, pageSize, sinceId, maxId);
 		parameters.set("include_entities", "true");
-		return restTemplate.getForObject(buildUri("statuses/retweets_of_me.json", parameters), TweetList.class);
+		return getForObject(buildUri("statuses/retweets_of_me.json", parameters), TweetList.class);
 	}
 
 	public Tweet getStatus(long tweetId) {
 		requireEitherUserOrAppAuthorization();
 		MultiValueMap<String, String> parameters = new LinkedMultiValueMap<String, String>();
 		parameters.set("include_entities", "true");
-		return restTemplate.getForObject(buildUri("statuses/show/" + tweetId + ".json", parameters), Tweet.class);
+		return getForObject(buildUri("statuses/show/" + tweetId + ".json", parameters), Tweet.class);
 	}
 	
 	public OEmbedTweet getStatusOEmbed(String tweetId) {
@@ -195,7 +235,7 @@ class TimelineTemplate extends AbstractTwitterOperations implements TimelineOper
 		MultiValueMap<String, String> parameters = new LinkedMultiValueMap<String, String>();
 		parameters.set("count", String.valueOf(count));
 		parameters.set("include_entities", "true");
-		return restTemplate.getForObject(buildUri("statuses/retweets/" + tweetId + ".json", parameters), TweetList.class);
+		return getForObject(buildUri("statuses/retweets/" + tweetId + ".json", parameters), TweetList.class);
 	}
 
 	public List<Tweet> getFavorites() {
@@ -207,7 +247,7 @@ class TimelineTemplate extends AbstractTwitterOperations implements TimelineOper
 		// Note: The documentation for /favorites.json doesn't list the count parameter, but it works anyway.
 		MultiValueMap<String, String> parameters = PagingUtils.buildPagingParametersWithCount(pageSize, 0, 0);
 		parameters.set("include_entities", "true");
-		return restTemplate.getForObject(buildUri("favorites/list.json", parameters), TweetList.class);
+		return getForObject(buildUri("favorites/list.json", parameters), TweetList.class);
 	}
 
 	public List<Tweet> getFavorites(long userId) {
@@ -219,7 +259,7 @@ class TimelineTemplate extends AbstractTwitterOperations implements TimelineOper
 		MultiValueMap<String, String> parameters = PagingUtils.buildPagingParametersWithCount(pageSize, 0, 0);
 		parameters.set("user_id", String.valueOf(userId));
 		parameters.set("include_entities", "true");
-		return restTemplate.getForObject(buildUri("favorites/list.json", parameters), TweetList.class);
+		return getForObject(buildUri("favorites/list.json", parameters), TweetList.class);
 	}
 	
 	public List<Tweet> getFavorites(String screenName) {
@@ -231,7 +271,7 @@ class TimelineTemplate extends AbstractTwitterOperations implements TimelineOper
 		MultiValueMap<String, String> parameters = PagingUtils.buildPagingParametersWithCount(pageSize, 0, 0);
 		parameters.set("screen_name", screenName);
 		parameters.set("include_entities", "true");
-		return restTemplate.getForObject(buildUri("favorites/list.json", parameters), TweetList.class);
+		return getForObject(buildUri("favorites/list.json", parameters), TweetList.class);
 	}
 	
 	public void addToFavorites(long tweetId) {
@@ -248,6 +288,37 @@ class TimelineTemplate extends AbstractTwitterOperations implements TimelineOper
 		restTemplate.postForObject(buildUri("favorites/destroy.json"), data, String.class);
 	}
 
+	private <T> T getForObject(URI uri, Class<T> responseType) {
+		return TweetProjectionResponseExtractor.getForObject(restTemplate, uri, responseType, projection);
+	}
+
+	private JsonArrayIterator<Tweet> openUserTimeline(int pageSize, long sinceId, long maxId) {
+		requireUserAuthorization();
+		MultiValueMap<String, String> parameters = PagingUtils.buildPagingParametersWithCount(pageSize, sinceId, maxId);
+		parameters.set("include_entities", "true");
+		return openTweets(buildUri("statuses/user_timeline.json", parameters));
+	}
+
+	private JsonArrayIterator<Tweet> openUserTimeline(String screenName, int pageSize, long sinceId, long maxId) {
+		requireEitherUserOrAppAuthorization();
+		MultiValueMap<String, String> parameters = PagingUtils.buildPagingParametersWithCount(pageSize, sinceId, maxId);
+		parameters.set("screen_name", screenName);
+		parameters.set("include_entities", "true");
+		return openTweets(buildUri("statuses/user_timeline.json", parameters));
+	}
+
+	private JsonArrayIterator<Tweet> openUserTimeline(long userId, int pageSize, long sinceId, long maxId) {
+		requireEitherUserOrAppAuthorization();
+		MultiValueMap<String, String> parameters = PagingUtils.buildPagingParametersWithCount(pageSize, sinceId, maxId);
+		parameters.set("user_id", String.valueOf(userId));
+		parameters.set("include_entities", "true");
+		return openTweets(buildUri("statuses/user_timeline.json", parameters));
+	}
+
+	private JsonArrayIterator<Tweet> openTweets(URI uri) {
+		return JsonArrayIterator.open(restTemplate, uri, Tweet.class, null, projection);
+	}
+
 	@SuppressWarnings("serial")
 	private static class TweetList extends ArrayList<Tweet> {}
 	
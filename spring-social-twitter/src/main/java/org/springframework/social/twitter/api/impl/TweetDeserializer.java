@@ -16,143 +16,334 @@
 package org.springframework.social.twitter.api.impl;
 
 import java.io.IOException;
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.Locale;
-import java.util.regex.MatchResult;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.List;
 
 import org.springframework.social.twitter.api.Entities;
-import org.springframework.social.twitter.api.TickerSymbolEntity;
+import org.springframework.social.twitter.api.HashTagEntity;
+import org.springframework.social.twitter.api.MediaEntity;
+import org.springframework.social.twitter.api.MentionEntity;
 import org.springframework.social.twitter.api.Tweet;
+import org.springframework.social.twitter.api.TweetProjection;
+import org.springframework.social.twitter.api.TweetProjection.Field;
 import org.springframework.social.twitter.api.TwitterProfile;
+import org.springframework.social.twitter.api.UrlEntity;
 
 import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 
 /**
  * Custom Jackson deserializer for tweets. Tweets can't be simply mapped like other Twitter model objects because the JSON structure
  * varies between the search API and the timeline API. This deserializer determine which structure is in play and creates a tweet from it.
+ * The tweet is built in a single pass over the parser's tokens rather than from an intermediate tree, with the author's profile and
+ * the entities read by shared readers whose deserializers are resolved once, up front.
+ * If the deserialization context carries a {@link TweetProjection}, only the projected parts of the tweet are read and the rest are skipped.
  * @author Craig Walls
  */
 class TweetDeserializer extends JsonDeserializer<Tweet> {
 
 	@Override
 	public Tweet deserialize(final JsonParser jp, final DeserializationContext ctx) throws IOException {
-		final JsonNode node = jp.readValueAs(JsonNode.class);
-		if (null == node || node.isMissingNode() || node.isNull()) {
-			return null;
-		}
-		final Tweet tweet = this.deserialize(node);
-		jp.skipChildren();
-		return tweet;
+		Object projection = ctx != null ? ctx.getAttribute(TweetProjection.class) : null;
+		return deserialize(jp, ctx, projection instanceof TweetProjection && !TweetProjection.ALL.equals(projection) ? (TweetProjection) projection : null);
 	}
 
-
-	public Tweet deserialize(JsonNode node) throws IOException, JsonProcessingException {
-		final String id = node.path("id").asText();
-		final String text = node.path("text").asText();
-		if (id == null  || text == null || text.isEmpty()) {
+	// a null projection means the whole tweet
+	private Tweet deserialize(final JsonParser jp, final DeserializationContext ctx, final TweetProjection projection) throws IOException {
+		JsonToken token = jp.getCurrentToken();
+		if (token == JsonToken.START_OBJECT) {
+			token = jp.nextToken();
+		}
+		String id = "";
+		String text = "";
+		Date createdAt = null;
+		String source = "";
+		boolean hasToUserId = false;
+		Long inReplyToUserId = null;
+		String languageCode = null;
+		Long inReplyToStatusId = null;
+		String inReplyToScreenName = "";
+		Integer retweetCount = null;
+		boolean retweeted = false;
+		Tweet retweetedStatus = null;
+		boolean favorited = false;
+		Integer favoriteCount = null;
+		Entities entities = null;
+		TwitterProfile user = null;
+		long fromId = 0;
+		String fromScreenName = null;
+		for (; token == JsonToken.FIELD_NAME; token = jp.nextToken()) {
+			String fieldName = jp.getCurrentName();
+			JsonToken valueToken = jp.nextToken();
+			if (projection != null && !isProjected(fieldName, projection)) {
+				jp.skipChildren();
+				continue;
+			}
+			boolean isNull = valueToken == JsonToken.VALUE_NULL;
+			switch (fieldName) {
+				case "id":
+					id = asText(jp, valueToken);
+					break;
+				case "text":
+					text = asText(jp, valueToken);
+					break;
+				case "created_at":
+					createdAt = TimelineDateParser.toDate(jp);
+					break;
+				case "source":
+					source = asInternedText(jp, valueToken);
+					break;
+				case "in_reply_to_user_id":
+					// a null in_reply_to_user_id has always been reported as a toUserId of 0, but an inReplyToUserId of null
+					hasToUserId = true;
+					inReplyToUserId = isNull ? null : jp.getValueAsLong();
+					break;
+				case "lang":
+					languageCode = isNull ? null : asInternedText(jp, valueToken);
+					break;
+				case "in_reply_to_status_id":
+					inReplyToStatusId = isNull ? null : jp.getValueAsLong();
+					break;
+				case "in_reply_to_screen_name":
+					inReplyToScreenName = asInternedText(jp, valueToken);
+					break;
+				case "retweet_count":
+					retweetCount = isNull ? null : jp.getValueAsInt();
+					break;
+				case "retweeted":
+					retweeted = jp.getValueAsBoolean();
+					break;
+				case "retweeted_status":
+					retweetedStatus = valueToken == JsonToken.START_OBJECT ? deserialize(jp, ctx, projection) : null;
+					break;
+				case "favorited":
+					favorited = jp.getValueAsBoolean();
+					break;
+				case "favorite_count":
+					favoriteCount = isNull ? null : jp.getValueAsInt();
+					break;
+				case "entities":
+					if (valueToken != JsonToken.START_OBJECT) {
+						jp.skipChildren();
+					} else if (projection == null) {
+						entities = ENTITIES_READER.readValue(jp);
+					} else {
+						entities = readEntities(jp, projection);
+					}
+					break;
+				case "user":
+					if (valueToken != JsonToken.START_OBJECT) {
+						jp.skipChildren();
+					} else if (projection == null || projection.includes(Field.USER)) {
+						user = readProfile(jp, ctx);
+					} else {
+						// just the author's ID and screen name, skipping the rest of the profile
+						for (JsonToken userToken = jp.nextToken(); userToken == JsonToken.FIELD_NAME; userToken = jp.nextToken()) {
+							String userFieldName = jp.getCurrentName();
+							JsonToken userValueToken = jp.nextToken();
+							if (userFieldName.equals("id") && userValueToken != JsonToken.VALUE_NULL) {
+								fromId = jp.getValueAsLong();
+							} else if (userFieldName.equals("screen_name") && userValueToken != JsonToken.VALUE_NULL) {
+								fromScreenName = asInternedText(jp, userValueToken);
+							} else {
+								jp.skipChildren();
+							}
+						}
+					}
+					break;
+				default:
+					jp.skipChildren();
+			}
+		}
+		if (projection != null) {
+			return projectedTweet(projection, id, text, createdAt, source, hasToUserId, inReplyToUserId, languageCode, inReplyToStatusId,
+					inReplyToScreenName, retweetCount, retweeted, retweetedStatus, favorited, favoriteCount, entities, user, fromId, fromScreenName);
+		}
+		if (text.isEmpty()) {
 			return null;
 		}
-		JsonNode fromUserNode = node.get("user");
-		String dateFormat = TIMELINE_DATE_FORMAT;
-		String fromScreenName = fromUserNode.get("screen_name").asText();
-		long fromId = fromUserNode.get("id").asLong();
-		String fromImageUrl = fromUserNode.get("profile_image_url").asText(); 
-		Date createdAt = toDate(node.get("created_at").asText(), new SimpleDateFormat(dateFormat, Locale.ENGLISH));
-		String source = node.get("source").asText();
-		JsonNode toUserIdNode = node.get("in_reply_to_user_id");
-		Long toUserId = toUserIdNode != null ? toUserIdNode.asLong() : null;
-		JsonNode languageCodeNode = node.get("lang");
-		String languageCode = languageCodeNode != null && !languageCodeNode.isNull() ? languageCodeNode.asText() : null;
+		fromScreenName = user != null ? user.getScreenName() : null;
+		fromId = user != null ? user.getId() : 0;
+		String fromImageUrl = user != null ? user.getProfileImageUrl() : null;
+		Long toUserId = hasToUserId ? (inReplyToUserId != null ? inReplyToUserId : Long.valueOf(0)) : null;
 		Tweet tweet = new Tweet(id, text, createdAt, fromScreenName, fromImageUrl, toUserId, fromId, languageCode, source);
-		JsonNode inReplyToStatusIdNode = node.get("in_reply_to_status_id");
-		Long inReplyToStatusId = inReplyToStatusIdNode != null && !inReplyToStatusIdNode.isNull() ? inReplyToStatusIdNode.asLong() : null;
 		tweet.setInReplyToStatusId(inReplyToStatusId);
-		JsonNode inReplyToUserIdNode = node.get("in_reply_to_user_id");
-		Long inReplyUsersId = inReplyToUserIdNode != null && !inReplyToUserIdNode.isNull() ? inReplyToUserIdNode.asLong() : null;
-		tweet.setInReplyToUserId(inReplyUsersId);
-		tweet.setInReplyToScreenName(node.path("in_reply_to_screen_name").asText());
-		JsonNode retweetCountNode = node.get("retweet_count");
-		Integer retweetCount = retweetCountNode != null && !retweetCountNode.isNull() ? retweetCountNode.asInt() : null;
+		tweet.setInReplyToUserId(inReplyToUserId);
+		tweet.setInReplyToScreenName(inReplyToScreenName);
 		tweet.setRetweetCount(retweetCount);
-		JsonNode retweetedNode = node.get("retweeted");
-		JsonNode retweetedStatusNode = node.get("retweeted_status");
-		boolean retweeted = retweetedNode != null && !retweetedNode.isNull() ? retweetedNode.asBoolean() : false;
 		tweet.setRetweeted(retweeted);
-		Tweet retweetedStatus = retweetedStatusNode != null ? this.deserialize(retweetedStatusNode) : null;
 		tweet.setRetweetedStatus(retweetedStatus);
-		JsonNode favoritedNode = node.get("favorited");
-		boolean favorited = favoritedNode != null && !favoritedNode.isNull() ? favoritedNode.asBoolean() : false;
 		tweet.setFavorited(favorited);
-		JsonNode favoriteCountNode = node.get("favorite_count");
-		Integer favoriteCount = favoriteCountNode != null && !favoriteCountNode.isNull() ? favoriteCountNode.asInt() : null;
 		tweet.setFavoriteCount(favoriteCount);
-		Entities entities = toEntities(node.get("entities"), text);
+		if (entities != null) {
+			entities = TweetEntityExtractor.addTickerSymbols(text, entities);
+		} else {
+			entities = TweetEntityExtractor.extractEntities(text);
+		}
 		tweet.setEntities(entities);
-		TwitterProfile user = toProfile(fromUserNode);
 		tweet.setUser(user);
 		return tweet;
 	}
 
-	private ObjectMapper createMapper() {
-		final ObjectMapper mapper = new ObjectMapper();
-		mapper.registerModule(new TwitterModule());
-		return mapper;
-	}
-	
-	private Date toDate(String dateString, DateFormat dateFormat) {
-		if (dateString == null) {
+	// the projected counterpart of the end of deserialize(), leaving whatever wasn't projected null
+	private Tweet projectedTweet(TweetProjection projection, String id, String text, Date createdAt, String source, boolean hasToUserId, Long inReplyToUserId,
+			String languageCode, Long inReplyToStatusId, String inReplyToScreenName, Integer retweetCount, boolean retweeted, Tweet retweetedStatus,
+			boolean favorited, Integer favoriteCount, Entities entities, TwitterProfile user, long fromId, String fromScreenName) {
+		boolean includesText = projection.includes(Field.TEXT);
+		if (includesText && text.isEmpty()) {
 			return null;
 		}
-	
-		try {
-			return dateFormat.parse(dateString);
-		} catch (ParseException e) {
-			return null;
+		if (user != null) {
+			fromId = user.getId();
+			fromScreenName = user.getScreenName();
+		}
+		boolean includesReply = projection.includes(Field.IN_REPLY_TO);
+		Long toUserId = includesReply && hasToUserId ? (inReplyToUserId != null ? inReplyToUserId : Long.valueOf(0)) : null;
+		Tweet tweet = new Tweet(
+				projection.includes(Field.ID) ? id : null,
+				includesText ? text : null,
+				createdAt,
+				projection.includes(Field.USER_SCREEN_NAME) || user != null ? fromScreenName : null,
+				user != null ? user.getProfileImageUrl() : null,
+				toUserId,
+				projection.includes(Field.USER_ID) || user != null ? fromId : 0,
+				languageCode,
+				projection.includes(Field.SOURCE) ? source : null);
+		tweet.setInReplyToStatusId(inReplyToStatusId);
+		tweet.setInReplyToUserId(inReplyToUserId);
+		tweet.setInReplyToScreenName(includesReply ? inReplyToScreenName : null);
+		tweet.setRetweetCount(retweetCount);
+		tweet.setRetweeted(retweeted);
+		tweet.setRetweetedStatus(retweetedStatus);
+		tweet.setFavorited(favorited);
+		tweet.setFavoriteCount(favoriteCount);
+		if (includesAnyEntities(projection)) {
+			if (entities == null) {
+				entities = projectedEntities(TweetEntityExtractor.extractEntities(text), projection);
+			} else if (projection.includes(Field.TICKER_SYMBOLS)) {
+				entities = TweetEntityExtractor.addTickerSymbols(text, entities);
+			}
+			tweet.setEntities(entities);
 		}
+		tweet.setUser(user);
+		return tweet;
 	}
 
-	// passing in text to fetch ticker symbol pseudo-entities
-	private Entities toEntities(final JsonNode node, String text) throws IOException {
-		if (null == node || node.isNull() || node.isMissingNode()) {
-			return null;
+	// whether a tweet's field is needed for the given projection; text is also needed to find any entities that Twitter doesn't report
+	private static boolean isProjected(String fieldName, TweetProjection projection) {
+		switch (fieldName) {
+			case "id":
+				return projection.includes(Field.ID);
+			case "text":
+				return projection.includes(Field.TEXT) || includesAnyEntities(projection);
+			case "created_at":
+				return projection.includes(Field.CREATED_AT);
+			case "source":
+				return projection.includes(Field.SOURCE);
+			case "lang":
+				return projection.includes(Field.LANGUAGE);
+			case "in_reply_to_user_id":
+			case "in_reply_to_status_id":
+			case "in_reply_to_screen_name":
+				return projection.includes(Field.IN_REPLY_TO);
+			case "retweet_count":
+				return projection.includes(Field.RETWEET_COUNT);
+			case "retweeted":
+				return projection.includes(Field.RETWEETED);
+			case "retweeted_status":
+				return projection.includes(Field.RETWEETED_STATUS);
+			case "favorited":
+				return projection.includes(Field.FAVORITED);
+			case "favorite_count":
+				return projection.includes(Field.FAVORITE_COUNT);
+			case "entities":
+				return includesAnyEntities(projection);
+			case "user":
+				return projection.includes(Field.USER) || projection.includes(Field.USER_ID) || projection.includes(Field.USER_SCREEN_NAME);
+			default:
+				return false;
 		}
-		final ObjectMapper mapper = this.createMapper();
-		Entities entities = mapper.readerFor(Entities.class).readValue(node);
-		extractTickerSymbolEntitiesFromText(text, entities);
-		return entities;
 	}
 
-	private void extractTickerSymbolEntitiesFromText(String text, Entities entities) {
-		Pattern pattern = Pattern.compile("\\$[A-Za-z]+");
-		Matcher matcher = pattern.matcher(text);
-		while (matcher.find()) {
-			MatchResult matchResult = matcher.toMatchResult();
-			String tickerSymbol = matchResult.group().substring(1);
-			String url = "https://twitter.com/search?q=%24" + tickerSymbol + "&src=ctag";
-			entities.getTickerSymbols().add(new TickerSymbolEntity(tickerSymbol, url, new int[] {matchResult.start(), matchResult.end()}));
+	private static boolean includesAnyEntities(TweetProjection projection) {
+		return projection.includes(Field.HASHTAGS) || projection.includes(Field.MENTIONS) || projection.includes(Field.URLS)
+				|| projection.includes(Field.MEDIA) || projection.includes(Field.TICKER_SYMBOLS);
+	}
+
+	// reads only the kinds of entity that are projected, skipping the others
+	private Entities readEntities(JsonParser jp, TweetProjection projection) throws IOException {
+		List<UrlEntity> urls = null;
+		List<HashTagEntity> tags = null;
+		List<MentionEntity> mentions = null;
+		List<MediaEntity> media = null;
+		for (JsonToken token = jp.nextToken(); token == JsonToken.FIELD_NAME; token = jp.nextToken()) {
+			String fieldName = jp.getCurrentName();
+			JsonToken valueToken = jp.nextToken();
+			if (valueToken != JsonToken.START_ARRAY) {
+				jp.skipChildren();
+			} else if (fieldName.equals("hashtags") && projection.includes(Field.HASHTAGS)) {
+				tags = HASHTAGS_READER.readValue(jp);
+			} else if (fieldName.equals("user_mentions") && projection.includes(Field.MENTIONS)) {
+				mentions = MENTIONS_READER.readValue(jp);
+			} else if (fieldName.equals("urls") && projection.includes(Field.URLS)) {
+				urls = URLS_READER.readValue(jp);
+			} else if (fieldName.equals("media") && projection.includes(Field.MEDIA)) {
+				media = MEDIA_READER.readValue(jp);
+			} else {
+				jp.skipChildren();
+			}
 		}
+		return new Entities(urls, tags, mentions, media);
 	}
 
+	private static Entities projectedEntities(Entities entities, TweetProjection projection) {
+		return new Entities(
+				projection.includes(Field.URLS) ? entities.getUrls() : null,
+				projection.includes(Field.HASHTAGS) ? entities.getHashTags() : null,
+				projection.includes(Field.MENTIONS) ? entities.getMentions() : null,
+				projection.includes(Field.MEDIA) ? entities.getMedia() : null,
+				projection.includes(Field.TICKER_SYMBOLS) ? entities.getTickerSymbols() : null);
+	}
 
-	private TwitterProfile toProfile(final JsonNode node) throws IOException {
-		if (null == node || node.isNull() || node.isMissingNode()) {
-			return null;
+	private TwitterProfile readProfile(JsonParser jp, DeserializationContext ctx) throws IOException {
+		Object profileCache = ctx != null ? ctx.getAttribute(TwitterProfileCache.class) : null;
+		if (profileCache instanceof TwitterProfileCache) {
+			return ((TwitterProfileCache) profileCache).read(jp, ctx, PROFILE_READER);
+		}
+		return PROFILE_READER.readValue(jp);
+	}
+
+	// values that repeat from tweet to tweet are pooled, so that tweets held in memory share them
+	private String asInternedText(JsonParser jp, JsonToken valueToken) throws IOException {
+		if (valueToken == JsonToken.VALUE_STRING) {
+			return InternedStringDeserializer.intern(jp);
 		}
-		final ObjectMapper mapper = this.createMapper();
-		return mapper.readerFor(TwitterProfile.class).readValue(node);
+		return StringInterner.SHARED.intern(asText(jp, valueToken));
+	}
+
+	// mirrors JsonNode.asText(): scalars as text (including "null"), containers as an empty string
+	private String asText(JsonParser jp, JsonToken valueToken) throws IOException {
+		if (valueToken.isScalarValue()) {
+			return jp.getText();
+		}
+		jp.skipChildren();
+		return "";
 	}
 
+	private static final ObjectReader ENTITIES_READER = TwitterObjectMapper.readerFor(Entities.class);
+
+	private static final ObjectReader PROFILE_READER = TwitterObjectMapper.readerFor(TwitterProfile.class);
+
+	private static final ObjectReader HASHTAGS_READER = TwitterObjectMapper.get().readerFor(new TypeReference<List<HashTagEntity>>() {});
+
+	private static final ObjectReader MENTIONS_READER = TwitterObjectMapper.get().readerFor(new TypeReference<List<MentionEntity>>() {});
+
+	private static final ObjectReader URLS_READER = TwitterObjectMapper.get().readerFor(new TypeReference<List<UrlEntity>>() {});
 
-	private static final String TIMELINE_DATE_FORMAT = "EEE MMM dd HH:mm:ss ZZZZZ yyyy";
+	private static final ObjectReader MEDIA_READER = TwitterObjectMapper.get().readerFor(new TypeReference<List<MediaEntity>>() {});
 
 }
@@ -0,0 +1,339 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.social.twitter.api.Entities;
+import org.springframework.social.twitter.api.HashTagEntity;
+import org.springframework.social.twitter.api.MentionEntity;
+import org.springframework.social.twitter.api.TickerSymbolEntity;
+import org.springframework.social.twitter.api.UrlEntity;
+
+/**
+ * Extracts entities from a tweet's text in a single pass, following the rules of Twitter's twitter-text library.
+ * Used for ticker symbols, which Twitter doesn't report as entities, and for tweets that come without entities (e.g., searches with include_entities=false).
+ * Indices are in code points, as they are in the entities Twitter reports, so a character outside the Basic Multilingual Plane counts once.
+ * Nothing is allocated beyond the entities themselves and the lists that hold them.
+ */
+final class TweetEntityExtractor {
+
+	private TweetEntityExtractor() {
+	}
+
+	/**
+	 * Extracts the URLs, hashtags, mentions and ticker symbols in the text.
+	 * URLs are only recognized with an http:// or https:// scheme. Extracted mentions have no user ID or name.
+	 */
+	static Entities extractEntities(String text) {
+		return scan(text, true);
+	}
+
+	/**
+	 * Adds the ticker symbols (e.g. "$VMW") in the text to the given entities.
+	 * @return the given entities if the text has no ticker symbols, otherwise a copy with the ticker symbols added
+	 */
+	static Entities addTickerSymbols(String text, Entities entities) {
+		Entities tickerSymbols = scan(text, false);
+		if (tickerSymbols == null) {
+			return entities;
+		}
+		return new Entities(entities.getUrls(), entities.getHashTags(), entities.getMentions(), entities.getMedia(), tickerSymbols.getTickerSymbols());
+	}
+
+	// extracts ticker symbols alone unless all is set; returns null if ticker symbols alone were asked for and there were none
+	private static Entities scan(String text, boolean all) {
+		List<UrlEntity> urls = null;
+		List<HashTagEntity> hashTags = null;
+		List<MentionEntity> mentions = null;
+		List<TickerSymbolEntity> tickerSymbols = null;
+		int length = text.length();
+		int codePoint = 0; // the code point index of text.charAt(i)
+		for (int i = 0; i < length; ) {
+			char c = text.charAt(i);
+			int end = -1;
+			if (c == '$') {
+				end = tickerSymbolEnd(text, i);
+				if (end > 0) {
+					if (tickerSymbols == null) {
+						tickerSymbols = new ArrayList<TickerSymbolEntity>();
+					}
+					String tickerSymbol = text.substring(i + 1, end);
+					tickerSymbols.add(new TickerSymbolEntity(tickerSymbol, TICKER_SYMBOL_URL + tickerSymbol + "&src=ctag", indices(codePoint, end - i)));
+				}
+			} else if (all && (c == '#' || c == '\uff03')) {
+				end = hashTagEnd(text, i);
+				if (end > 0) {
+					if (hashTags == null) {
+						hashTags = new ArrayList<HashTagEntity>();
+					}
+					hashTags.add(new HashTagEntity(text.substring(i + 1, end), indices(codePoint, text.codePointCount(i, end))));
+				}
+			} else if (all && (c == '@' || c == '\uff20')) {
+				end = mentionEnd(text, i);
+				if (end > 0) {
+					if (mentions == null) {
+						mentions = new ArrayList<MentionEntity>();
+					}
+					mentions.add(new MentionEntity(0, text.substring(i + 1, end), null, indices(codePoint, end - i)));
+				}
+			} else if (all && (c == 'h' || c == 'H')) {
+				end = urlEnd(text, i);
+				if (end > 0) {
+					if (urls == null) {
+						urls = new ArrayList<UrlEntity>();
+					}
+					String url = text.substring(i, end);
+					urls.add(new UrlEntity(url.substring(url.indexOf("://") + 3), url, url, indices(codePoint, text.codePointCount(i, end))));
+				}
+			}
+			if (end > 0) {
+				codePoint += text.codePointCount(i, end);
+				i = end;
+			} else {
+				i += Character.charCount(text.codePointAt(i));
+				codePoint++;
+			}
+		}
+		if (!all && tickerSymbols == null) {
+			return null;
+		}
+		return new Entities(urls, hashTags, mentions, null, tickerSymbols);
+	}
+
+	private static int[] indices(int start, int codePoints) {
+		return new int[] { start, start + codePoints };
+	}
+
+	// $ followed by 1-6 letters, optionally followed by . or _ and 1-2 more letters (e.g. $BRK.A), preceded by whitespace and followed by whitespace or punctuation
+	private static int tickerSymbolEnd(String text, int start) {
+		if (start > 0 && !isSpace(text.codePointBefore(start))) {
+			return -1;
+		}
+		int end = asciiLettersEnd(text, start + 1, 6);
+		if (end == start + 1) {
+			return -1;
+		}
+		if (end + 1 < text.length() && (text.charAt(end) == '.' || text.charAt(end) == '_')) {
+			int suffixEnd = asciiLettersEnd(text, end + 1, 2);
+			if (suffixEnd > end + 1) {
+				end = suffixEnd;
+			}
+		}
+		if (end < text.length()) {
+			char next = text.charAt(end);
+			if (!isSpace(next) && !isAsciiPunctuation(next)) {
+				return -1;
+			}
+		}
+		return end;
+	}
+
+	private static int asciiLettersEnd(String text, int start, int maxLength) {
+		int end = start;
+		while (end < text.length() && end - start < maxLength && isAsciiLetter(text.charAt(end))) {
+			end++;
+		}
+		return end;
+	}
+
+	// # followed by letters, marks, digits and underscores, at least one of them a letter or mark
+	private static int hashTagEnd(String text, int start) {
+		if (start > 0) {
+			int previous = text.codePointBefore(start);
+			if (previous != '\ufe0e' && previous != '\ufe0f' && (isHashTagCharacter(previous) || previous == '&')) {
+				return -1;
+			}
+		}
+		int end = start + 1;
+		if (end < text.length() && (text.charAt(end) == '\ufe0f' || text.charAt(end) == '\u20e3')) {
+			return -1; // a keycap emoji: # followed by U+FE0F and U+20E3
+		}
+		boolean hasLetter = false;
+		while (end < text.length()) {
+			int codePoint = text.codePointAt(end);
+			if (!isHashTagCharacter(codePoint)) {
+				break;
+			}
+			hasLetter |= isLetterOrMark(codePoint);
+			end += Character.charCount(codePoint);
+		}
+		if (!hasLetter || startsWithHashOrScheme(text, end)) {
+			return -1;
+		}
+		return end;
+	}
+
+	private static boolean startsWithHashOrScheme(String text, int index) {
+		if (index >= text.length()) {
+			return false;
+		}
+		char c = text.charAt(index);
+		return c == '#' || c == '\uff03' || text.startsWith("://", index);
+	}
+
+	// @ followed by 1-20 letters, digits and underscores, that isn't part of an email address, a longer name or a list (@user/list)
+	private static int mentionEnd(String text, int start) {
+		if (start > 0 && !isValidBeforeMention(text, start)) {
+			return -1;
+		}
+		int end = start + 1;
+		while (end < text.length() && end - start <= 20 && isScreenNameCharacter(text.charAt(end))) {
+			end++;
+		}
+		if (end == start + 1) {
+			return -1;
+		}
+		if (end < text.length()) {
+			int next = text.codePointAt(end);
+			if (next == '@' || next == '\uff20' || isLatinLetter(next) || text.startsWith("://", end)) {
+				return -1;
+			}
+			if (next == '/' && end + 1 < text.length() && isAsciiLetter(text.charAt(end + 1))) {
+				return -1;
+			}
+		}
+		return end;
+	}
+
+	private static boolean isValidBeforeMention(String text, int start) {
+		char previous = text.charAt(start - 1);
+		if (!isScreenNameCharacter(previous) && "!#$%&*@\uff20".indexOf(previous) < 0) {
+			return true;
+		}
+		// retweets are often written "RT@user"
+		return start >= 2 && text.regionMatches(true, start - 2, "rt", 0, 2)
+				&& (start == 2 || "+~.-".indexOf(text.charAt(start - 3)) < 0 && !isScreenNameCharacter(text.charAt(start - 3)));
+	}
+
+	// http:// or https://, a domain with at least one dot, then an optional port, path, query and fragment
+	private static int urlEnd(String text, int start) {
+		int hostStart;
+		if (text.regionMatches(true, start, "http://", 0, 7)) {
+			hostStart = start + 7;
+		} else if (text.regionMatches(true, start, "https://", 0, 8)) {
+			hostStart = start + 8;
+		} else {
+			return -1;
+		}
+		if (start > 0) {
+			int previous = text.codePointBefore(start);
+			if (isAsciiLetter(previous) || isAsciiDigit(previous) || "@\uff20$#\uff03".indexOf(previous) >= 0) {
+				return -1;
+			}
+		}
+		int hostEnd = hostStart;
+		boolean hasDot = false;
+		while (hostEnd < text.length()) {
+			int codePoint = text.codePointAt(hostEnd);
+			if (codePoint == '.') {
+				if (hostEnd == hostStart || text.charAt(hostEnd - 1) == '.') {
+					return -1;
+				}
+				hasDot = true;
+			} else if (!isAsciiLetter(codePoint) && !isAsciiDigit(codePoint) && codePoint != '-' && codePoint != '_'
+					&& !(codePoint > 0x7f && Character.isLetterOrDigit(codePoint))) {
+				break;
+			}
+			hostEnd += Character.charCount(codePoint);
+		}
+		if (!hasDot || text.charAt(hostEnd - 1) == '.' || text.charAt(hostStart) == '-') {
+			return -1;
+		}
+		int end = hostEnd;
+		while (end < text.length() && isUrlCharacter(text.codePointAt(end))) {
+			end += Character.charCount(text.codePointAt(end));
+		}
+		// trailing punctuation belongs to the sentence, not the URL, as does a closing parenthesis that wasn't opened in the URL
+		while (end > hostEnd) {
+			char last = text.charAt(end - 1);
+			if (last == ')' ? !isBalanced(text, hostEnd, end) : !isUrlEndingCharacter(last)) {
+				end--;
+			} else {
+				break;
+			}
+		}
+		return end;
+	}
+
+	private static boolean isBalanced(String text, int start, int end) {
+		int depth = 0;
+		for (int i = start; i < end; i++) {
+			char c = text.charAt(i);
+			if (c == '(') {
+				depth++;
+			} else if (c == ')' && --depth < 0) {
+				return false;
+			}
+		}
+		return depth == 0;
+	}
+
+	private static boolean isUrlCharacter(int codePoint) {
+		return isAsciiLetter(codePoint) || isAsciiDigit(codePoint) || URL_PUNCTUATION.indexOf(codePoint) >= 0
+				|| codePoint == '\u2013' || isLatinLetter(codePoint) || Character.UnicodeBlock.of(codePoint) == Character.UnicodeBlock.CYRILLIC;
+	}
+
+	private static boolean isUrlEndingCharacter(int codePoint) {
+		return isAsciiLetter(codePoint) || isAsciiDigit(codePoint) || "=_#/+-".indexOf(codePoint) >= 0
+				|| isLatinLetter(codePoint) || Character.UnicodeBlock.of(codePoint) == Character.UnicodeBlock.CYRILLIC;
+	}
+
+	private static boolean isHashTagCharacter(int codePoint) {
+		return isLetterOrMark(codePoint) || Character.isDigit(codePoint) || codePoint == '_' || HASHTAG_SPECIAL_CHARACTERS.indexOf(codePoint) >= 0;
+	}
+
+	private static boolean isLetterOrMark(int codePoint) {
+		if (Character.isLetter(codePoint)) {
+			return true;
+		}
+		int type = Character.getType(codePoint);
+		return type == Character.NON_SPACING_MARK || type == Character.ENCLOSING_MARK || type == Character.COMBINING_SPACING_MARK;
+	}
+
+	private static boolean isScreenNameCharacter(int c) {
+		return isAsciiLetter(c) || isAsciiDigit(c) || c == '_';
+	}
+
+	private static boolean isLatinLetter(int codePoint) {
+		return Character.isLetter(codePoint) && Character.UnicodeScript.of(codePoint) == Character.UnicodeScript.LATIN;
+	}
+
+	private static boolean isAsciiLetter(int c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+	}
+
+	private static boolean isAsciiDigit(int c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static boolean isAsciiPunctuation(int c) {
+		return c < 0x7f && c > ' ' && !isAsciiLetter(c) && !isAsciiDigit(c);
+	}
+
+	private static boolean isSpace(int codePoint) {
+		return Character.isWhitespace(codePoint) || Character.isSpaceChar(codePoint);
+	}
+
+	private static final String TICKER_SYMBOL_URL = "https://twitter.com/search?q=%24";
+
+	private static final String URL_PUNCTUATION = "!*';:=+,.$/%#[]-_~|&@?()";
+
+	// characters twitter-text allows in hashtags besides letters, marks, digits and underscores
+	private static final String HASHTAG_SPECIAL_CHARACTERS = "\u200c\u200d\ua67e\u05be\u05f3\u05f4\uff5e\u301c\u309b\u309c\u30a0\u30fb\u3003\u0f0b\u0f0c\u00b7";
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.social.twitter.api.TweetFilter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Evaluates a {@link TweetFilter} against a tweet's raw JSON.
+ * Only the values at the filter's paths are read: the tokens are scanned once, subtrees that no path leads into are skipped,
+ * and scanning stops as soon as every path has been found.
+ */
+class TweetFilterScanner {
+
+	private final TweetFilter filter;
+
+	private final PathNode root;
+
+	private final int pathCount;
+
+	TweetFilterScanner(TweetFilter filter) {
+		this.filter = filter;
+		this.root = new PathNode();
+		for (String path : filter.getPaths()) {
+			PathNode node = root;
+			for (String name : path.split("\\.")) {
+				PathNode child = node.children.get(name);
+				if (child == null) {
+					child = new PathNode();
+					node.children.put(name, child);
+				}
+				node = child;
+			}
+			node.path = path;
+		}
+		this.pathCount = filter.getPaths().size();
+	}
+
+	/**
+	 * @param line a tweet from the stream
+	 * @return true if the filter accepts the tweet; a line that isn't a JSON object is accepted, leaving it to deserialization to deal with
+	 */
+	boolean accepts(String line) {
+		Map<String, String> values = new HashMap<String, String>();
+		try {
+			JsonParser parser = jsonFactory.createParser(line);
+			try {
+				if (parser.nextToken() != JsonToken.START_OBJECT) {
+					return true;
+				}
+				scan(parser, root, values);
+			} finally {
+				parser.close();
+			}
+		} catch (IOException e) {
+			return true;
+		}
+		return filter.matches(values);
+	}
+
+	// reads the object that the parser is at the start of; returns false once every path has been found, to stop scanning
+	private boolean scan(JsonParser parser, PathNode node, Map<String, String> values) throws IOException {
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			PathNode child = node.children.get(parser.getCurrentName());
+			JsonToken token = parser.nextToken();
+			if (child == null || token == JsonToken.VALUE_NULL) {
+				parser.skipChildren();
+				continue;
+			}
+			if (child.path != null) {
+				values.put(child.path, token.isScalarValue() ? parser.getText() : null);
+				if (values.size() == pathCount) {
+					return false;
+				}
+			}
+			if (token == JsonToken.START_OBJECT && !child.children.isEmpty()) {
+				if (!scan(parser, child, values)) {
+					return false;
+				}
+			} else {
+				parser.skipChildren();
+			}
+		}
+		return true;
+	}
+
+	private static class PathNode {
+
+		private String path;
+
+		private final Map<String, PathNode> children = new HashMap<String, PathNode>();
+
+	}
+
+	private static final JsonFactory jsonFactory = new JsonFactory();
+
+}
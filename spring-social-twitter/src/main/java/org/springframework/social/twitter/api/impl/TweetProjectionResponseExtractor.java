@@ -0,0 +1,78 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collections;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.social.twitter.api.TweetProjection;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * Reads a response containing tweets with a {@link TweetProjection}, which the RestTemplate's message converters have no way of passing to {@link TweetDeserializer}.
+ * Reads with the ObjectMapper of the RestTemplate's JSON message converter, so that responses are otherwise read just as they would be by the converter.
+ */
+class TweetProjectionResponseExtractor<T> implements ResponseExtractor<T> {
+
+	private final ObjectReader reader;
+
+	private TweetProjectionResponseExtractor(ObjectMapper objectMapper, Class<T> responseType, TweetProjection projection) {
+		this.reader = objectMapper.readerFor(responseType).withAttribute(TweetProjection.class, projection);
+	}
+
+	public T extractData(ClientHttpResponse response) throws IOException {
+		return reader.readValue(response.getBody());
+	}
+
+	/**
+	 * Retrieves a resource, deserializing the tweets in it with the given projection, or whole if the projection is null.
+	 */
+	static <T> T getForObject(RestTemplate restTemplate, URI uri, Class<T> responseType, TweetProjection projection) {
+		if (projection == null) {
+			return restTemplate.getForObject(uri, responseType);
+		}
+		return restTemplate.execute(uri, HttpMethod.GET, ACCEPT_JSON,
+				new TweetProjectionResponseExtractor<T>(objectMapperOf(restTemplate), responseType, projection));
+	}
+
+	static ObjectMapper objectMapperOf(RestTemplate restTemplate) {
+		for (HttpMessageConverter<?> converter : restTemplate.getMessageConverters()) {
+			if (converter instanceof MappingJackson2HttpMessageConverter) {
+				return ((MappingJackson2HttpMessageConverter) converter).getObjectMapper();
+			}
+		}
+		return TwitterObjectMapper.get();
+	}
+
+	private static final RequestCallback ACCEPT_JSON = new RequestCallback() {
+		public void doWithRequest(ClientHttpRequest request) throws IOException {
+			request.getHeaders().setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+		}
+	};
+
+}
@@ -0,0 +1,905 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.social.twitter.api.Entities;
+import org.springframework.social.twitter.api.HashTagEntity;
+import org.springframework.social.twitter.api.MediaEntity;
+import org.springframework.social.twitter.api.MentionEntity;
+import org.springframework.social.twitter.api.TickerSymbolEntity;
+import org.springframework.social.twitter.api.Tweet;
+import org.springframework.social.twitter.api.TwitterProfile;
+import org.springframework.social.twitter.api.UrlEntity;
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * A compact binary format for {@link Tweet}s and {@link TwitterProfile}s, for caching them or passing them between JVMs
+ * in a fraction of the space, and time, that Java serialization or JSON takes.
+ * <p>
+ * Numbers are written as varints and absent values as a bit in a field mask. Strings that tend to repeat, such as screen names,
+ * languages, sources, profile colors and image URLs, are written the first time they're seen and referred to by index after that,
+ * for as long as the same {@link Encoder} is used. Records written by an {@link Encoder} must therefore be read, in order, by a single {@link Decoder}.
+ * Every encoding starts with a format version, so that a decoder can refuse what it doesn't understand.
+ * <p>
+ * Like Java serialization, the format doesn't carry the unmapped JSON fields of {@link org.springframework.social.twitter.api.TwitterObject#getExtraData()}.
+ */
+public final class TwitterBinaryCodec {
+
+	/**
+	 * The version of the format that this codec writes, and the newest that it reads.
+	 */
+	public static final int VERSION = 1;
+
+	private TwitterBinaryCodec() {}
+
+	/**
+	 * @return the tweet, on its own, in binary form
+	 */
+	public static byte[] encode(Tweet tweet) {
+		Encoder encoder = new Encoder();
+		try {
+			encoder.writeTweet(tweet);
+		} catch (IOException e) {
+			throw new IllegalStateException("Encoding to a byte array failed", e); // can't happen
+		}
+		return encoder.toByteArray();
+	}
+
+	/**
+	 * @return the profile, on its own, in binary form
+	 */
+	public static byte[] encode(TwitterProfile profile) {
+		Encoder encoder = new Encoder();
+		try {
+			encoder.writeProfile(profile);
+		} catch (IOException e) {
+			throw new IllegalStateException("Encoding to a byte array failed", e); // can't happen
+		}
+		return encoder.toByteArray();
+	}
+
+	/**
+	 * @return the tweet encoded by {@link #encode(Tweet)}
+	 * @throws IOException if the bytes aren't an encoded tweet
+	 */
+	public static Tweet decodeTweet(byte[] bytes) throws IOException {
+		return new Decoder(ByteBuffer.wrap(bytes)).readTweet();
+	}
+
+	/**
+	 * @return the profile encoded by {@link #encode(TwitterProfile)}
+	 * @throws IOException if the bytes aren't an encoded profile
+	 */
+	public static TwitterProfile decodeProfile(byte[] bytes) throws IOException {
+		return new Decoder(ByteBuffer.wrap(bytes)).readProfile();
+	}
+
+	/**
+	 * Writes tweets and profiles, one record at a time, to an {@link OutputStream} or a {@link ByteBuffer}.
+	 * Strings are pooled across records, so an encoder is cheapest when it's kept for a whole stream of records. Not thread-safe.
+	 */
+	public static final class Encoder {
+
+		private final OutputStream out;
+
+		private final ByteBuffer buffer;
+
+		private boolean includeProfiles = true;
+
+		private boolean versionWritten;
+
+		// the record being written; records are only handed on once they're complete
+		private byte[] bytes = new byte[512];
+
+		private int position;
+
+		private final Map<String, Integer> dictionary = new HashMap<String, Integer>();
+
+		private final List<String> entries = new ArrayList<String>();
+
+		// keeps what it encodes, for toByteArray()
+		private Encoder() {
+			this.out = null;
+			this.buffer = null;
+		}
+
+		/**
+		 * @param out where to write each record as it's completed
+		 */
+		public Encoder(OutputStream out) {
+			Assert.notNull(out, "out may not be null");
+			this.out = out;
+			this.buffer = null;
+		}
+
+		/**
+		 * @param buffer where to put each record as it's completed.
+		 * A record that doesn't fit in what remains of the buffer causes a {@link BufferOverflowException}, leaving the buffer and encoder as they were,
+		 * so that the record can be written again once the buffer has been drained.
+		 */
+		public Encoder(ByteBuffer buffer) {
+			Assert.notNull(buffer, "buffer may not be null");
+			this.out = null;
+			this.buffer = buffer;
+		}
+
+		/**
+		 * Sets whether tweets are written with their authors' full profiles. Defaults to true.
+		 * Without them, a tweet still carries its author's ID, screen name and profile image URL.
+		 * @param includeProfiles whether to write profiles along with tweets
+		 */
+		public void setIncludeProfiles(boolean includeProfiles) {
+			this.includeProfiles = includeProfiles;
+		}
+
+		public void writeTweet(Tweet tweet) throws IOException {
+			Assert.notNull(tweet, "tweet may not be null");
+			int entryCount = entries.size();
+			boolean written = false;
+			try {
+				startRecord(TWEET_RECORD);
+				writeTweetFields(tweet);
+				endRecord();
+				written = true;
+			} finally {
+				if (!written) {
+					forgetEntries(entryCount);
+				}
+			}
+		}
+
+		public void writeProfile(TwitterProfile profile) throws IOException {
+			Assert.notNull(profile, "profile may not be null");
+			int entryCount = entries.size();
+			boolean written = false;
+			try {
+				startRecord(PROFILE_RECORD);
+				writeProfileFields(profile);
+				endRecord();
+				written = true;
+			} finally {
+				if (!written) {
+					forgetEntries(entryCount);
+				}
+			}
+		}
+
+		private void startRecord(int recordType) {
+			position = 0;
+			if (!versionWritten) {
+				writeByte(MAGIC);
+				writeVarInt(VERSION);
+			}
+			writeByte(recordType);
+		}
+
+		private void endRecord() throws IOException {
+			if (out != null) {
+				out.write(bytes, 0, position);
+			} else if (buffer != null) {
+				if (buffer.remaining() < position) {
+					throw new BufferOverflowException();
+				}
+				buffer.put(bytes, 0, position);
+			}
+			versionWritten = true;
+		}
+
+		// forgets what a record that failed to be written added to the dictionary, since the decoder will never see it
+		private void forgetEntries(int entryCount) {
+			for (int i = entries.size() - 1; i >= entryCount; i--) {
+				dictionary.remove(entries.remove(i));
+			}
+		}
+
+		private byte[] toByteArray() {
+			return Arrays.copyOf(bytes, position);
+		}
+
+		private void writeTweetFields(Tweet tweet) {
+			long numericId = numericId(tweet.getId());
+			boolean writeProfile = includeProfiles && tweet.getUser() != null;
+			int fields = (numericId >= 0 ? TWEET_NUMERIC_ID : 0)
+					| (tweet.getCreatedAt() != null ? TWEET_CREATED_AT : 0)
+					| (tweet.getToUserId() != null ? TWEET_TO_USER_ID : 0)
+					| (tweet.getInReplyToStatusId() != null ? TWEET_IN_REPLY_TO_STATUS_ID : 0)
+					| (tweet.getInReplyToUserId() != null ? TWEET_IN_REPLY_TO_USER_ID : 0)
+					| (tweet.getRetweetCount() != null ? TWEET_RETWEET_COUNT : 0)
+					| (tweet.getFavoriteCount() != null ? TWEET_FAVORITE_COUNT : 0)
+					| (tweet.isRetweeted() ? TWEET_RETWEETED : 0)
+					| (tweet.isFavorited() ? TWEET_FAVORITED : 0)
+					| (tweet.getEntities() != null ? TWEET_ENTITIES : 0)
+					| (writeProfile ? TWEET_USER : 0)
+					| (tweet.getRetweetedStatus() != null ? TWEET_RETWEETED_STATUS : 0);
+			writeVarInt(fields);
+			if (numericId >= 0) {
+				writeVarLong(numericId);
+			} else {
+				writeLiteral(tweet.getId());
+			}
+			writeLiteral(tweet.getText());
+			if (tweet.getCreatedAt() != null) {
+				writeSignedVarLong(tweet.getCreatedAt().getTime());
+			}
+			writePooled(tweet.getFromUser());
+			writePooled(tweet.getProfileImageUrl());
+			writeSignedVarLong(tweet.getFromUserId());
+			if (tweet.getToUserId() != null) {
+				writeSignedVarLong(tweet.getToUserId());
+			}
+			if (tweet.getInReplyToStatusId() != null) {
+				writeSignedVarLong(tweet.getInReplyToStatusId());
+			}
+			if (tweet.getInReplyToUserId() != null) {
+				writeSignedVarLong(tweet.getInReplyToUserId());
+			}
+			writePooled(tweet.getInReplyToScreenName());
+			writePooled(tweet.getLanguageCode());
+			writePooled(tweet.getSource());
+			if (tweet.getRetweetCount() != null) {
+				writeSignedVarLong(tweet.getRetweetCount());
+			}
+			if (tweet.getFavoriteCount() != null) {
+				writeSignedVarLong(tweet.getFavoriteCount());
+			}
+			if (tweet.getEntities() != null) {
+				writeEntities(tweet.getEntities());
+			}
+			if (writeProfile) {
+				writeProfileFields(tweet.getUser());
+			}
+			if (tweet.getRetweetedStatus() != null) {
+				writeTweetFields(tweet.getRetweetedStatus());
+			}
+		}
+
+		private void writeEntities(Entities entities) {
+			writeVarInt(entities.getUrls().size());
+			for (UrlEntity url : entities.getUrls()) {
+				writeLiteral(url.getDisplayUrl());
+				writeLiteral(url.getExpandedUrl());
+				writeLiteral(url.getUrl());
+				writeIndices(url.getIndices());
+			}
+			writeVarInt(entities.getHashTags().size());
+			for (HashTagEntity hashTag : entities.getHashTags()) {
+				writePooled(hashTag.getText());
+				writeIndices(hashTag.getIndices());
+			}
+			writeVarInt(entities.getMentions().size());
+			for (MentionEntity mention : entities.getMentions()) {
+				writeSignedVarLong(mention.getId());
+				writePooled(mention.getScreenName());
+				writePooled(mention.getName());
+				writeIndices(mention.getIndices());
+			}
+			writeVarInt(entities.getMedia().size());
+			for (MediaEntity media : entities.getMedia()) {
+				writeSignedVarLong(media.getId());
+				writeLiteral(media.getMediaUrl());
+				writeLiteral(media.getMediaSecureUrl());
+				writeLiteral(media.getUrl());
+				writeLiteral(media.getDisplayUrl());
+				writeLiteral(media.getExpandedUrl());
+				writePooled(media.getType());
+				writeIndices(media.getIndices());
+			}
+			writeVarInt(entities.getTickerSymbols().size());
+			for (TickerSymbolEntity tickerSymbol : entities.getTickerSymbols()) {
+				writePooled(tickerSymbol.getTickerSymbol());
+				writeLiteral(tickerSymbol.getUrl());
+				writeIndices(tickerSymbol.getIndices());
+			}
+		}
+
+		// an entity without indices is written as 0; otherwise as its begin index plus one, then its length
+		private void writeIndices(int[] indices) {
+			if (indices == null || indices.length < 2) {
+				writeVarInt(0);
+			} else {
+				writeVarInt(indices[0] + 1);
+				writeSignedVarLong(indices[1] - indices[0]);
+			}
+		}
+
+		private void writeProfileFields(TwitterProfile profile) {
+			boolean customIdStr = profile.getIdStr() == null || !profile.getIdStr().equals(Long.toString(profile.getId()));
+			int fields = (profile.getCreatedDate() != null ? PROFILE_CREATED_DATE : 0)
+					| (customIdStr ? PROFILE_CUSTOM_ID_STR : 0)
+					| (profile.isFollowing() ? PROFILE_FOLLOWING : 0)
+					| (profile.isFollowRequestSent() ? PROFILE_FOLLOW_REQUEST_SENT : 0)
+					| (profile.isProtected() ? PROFILE_PROTECTED : 0)
+					| (profile.isNotificationsEnabled() ? PROFILE_NOTIFICATIONS_ENABLED : 0)
+					| (profile.isVerified() ? PROFILE_VERIFIED : 0)
+					| (profile.isGeoEnabled() ? PROFILE_GEO_ENABLED : 0)
+					| (profile.isContributorsEnabled() ? PROFILE_CONTRIBUTORS_ENABLED : 0)
+					| (profile.isTranslator() ? PROFILE_TRANSLATOR : 0)
+					| (profile.useBackgroundImage() ? PROFILE_USE_BACKGROUND_IMAGE : 0)
+					| (profile.isBackgroundImageTiled() ? PROFILE_BACKGROUND_IMAGE_TILED : 0)
+					| (profile.showAllInlineMedia() ? PROFILE_SHOW_ALL_INLINE_MEDIA : 0);
+			writeVarInt(fields);
+			writeSignedVarLong(profile.getId());
+			if (customIdStr) {
+				writeLiteral(profile.getIdStr());
+			}
+			writePooled(profile.getScreenName());
+			writePooled(profile.getName());
+			writePooled(profile.getUrl());
+			writePooled(profile.getProfileImageUrl());
+			writePooled(profile.getDescription());
+			writePooled(profile.getLocation());
+			if (profile.getCreatedDate() != null) {
+				writeSignedVarLong(profile.getCreatedDate().getTime());
+			}
+			writePooled(profile.getLanguage());
+			writeSignedVarLong(profile.getStatusesCount());
+			writeSignedVarLong(profile.getFriendsCount());
+			writeSignedVarLong(profile.getFollowersCount());
+			writeSignedVarLong(profile.getFavoritesCount());
+			writeSignedVarLong(profile.getListedCount());
+			writePooled(profile.getTimeZone());
+			writeSignedVarLong(profile.getUtcOffset());
+			writePooled(profile.getSidebarBorderColor());
+			writePooled(profile.getSidebarFillColor());
+			writePooled(profile.getBackgroundColor());
+			writePooled(profile.getBackgroundImageUrl());
+			writePooled(profile.getTextColor());
+			writePooled(profile.getLinkColor());
+			writePooled(profile.getProfileBannerUrl());
+		}
+
+		// the ID as a number, if writing it as one loses nothing, or else -1
+		private static long numericId(String id) {
+			if (id == null || id.isEmpty() || id.length() > 18 || (id.charAt(0) == '0' && id.length() > 1)) {
+				return -1;
+			}
+			long numericId = 0;
+			for (int i = 0; i < id.length(); i++) {
+				char c = id.charAt(i);
+				if (c < '0' || c > '9') {
+					return -1;
+				}
+				numericId = numericId * 10 + (c - '0');
+			}
+			return numericId;
+		}
+
+		private void writePooled(String value) {
+			if (value == null) {
+				writeVarInt(NULL_STRING);
+				return;
+			}
+			Integer index = dictionary.get(value);
+			if (index != null) {
+				writeVarInt(FIRST_POOLED_STRING + index);
+			} else if (entries.size() < MAX_DICTIONARY_SIZE) {
+				dictionary.put(value, entries.size());
+				entries.add(value);
+				writeVarInt(NEW_POOLED_STRING);
+				writeUtf8(value);
+			} else {
+				writeVarInt(LITERAL_STRING);
+				writeUtf8(value);
+			}
+		}
+
+		private void writeLiteral(String value) {
+			if (value == null) {
+				writeVarInt(NULL_STRING);
+			} else {
+				writeVarInt(LITERAL_STRING);
+				writeUtf8(value);
+			}
+		}
+
+		// encodes straight into the record, since String.getBytes() would size its buffer for three bytes a character
+		private void writeUtf8(String value) {
+			int length = value.length();
+			int utf8Length = length;
+			for (int i = 0; i < length; i++) {
+				char c = value.charAt(i);
+				if (Character.isSurrogate(c)) {
+					// a pair takes four bytes for its two chars, whereas an unpaired surrogate takes the one byte it's already counted as
+					if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+						utf8Length += 2;
+						i++;
+					}
+				} else if (c >= 0x800) {
+					utf8Length += 2;
+				} else if (c >= 0x80) {
+					utf8Length++;
+				}
+			}
+			writeVarInt(utf8Length);
+			ensureCapacity(utf8Length);
+			for (int i = 0; i < length; i++) {
+				char c = value.charAt(i);
+				if (c < 0x80) {
+					bytes[position++] = (byte) c;
+				} else if (c < 0x800) {
+					bytes[position++] = (byte) (0xc0 | c >> 6);
+					bytes[position++] = (byte) (0x80 | c & 0x3f);
+				} else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+					int codePoint = Character.toCodePoint(c, value.charAt(++i));
+					bytes[position++] = (byte) (0xf0 | codePoint >> 18);
+					bytes[position++] = (byte) (0x80 | codePoint >> 12 & 0x3f);
+					bytes[position++] = (byte) (0x80 | codePoint >> 6 & 0x3f);
+					bytes[position++] = (byte) (0x80 | codePoint & 0x3f);
+				} else if (Character.isSurrogate(c)) {
+					// an unpaired surrogate is written as '?', as String.getBytes() would
+					bytes[position++] = (byte) '?';
+				} else {
+					bytes[position++] = (byte) (0xe0 | c >> 12);
+					bytes[position++] = (byte) (0x80 | c >> 6 & 0x3f);
+					bytes[position++] = (byte) (0x80 | c & 0x3f);
+				}
+			}
+		}
+
+		private void writeSignedVarLong(long value) {
+			writeVarLong((value << 1) ^ (value >> 63));
+		}
+
+		private void writeVarInt(int value) {
+			writeVarLong(value & 0xffffffffL);
+		}
+
+		private void writeVarLong(long value) {
+			ensureCapacity(10);
+			while ((value & ~0x7fL) != 0) {
+				bytes[position++] = (byte) ((value & 0x7f) | 0x80);
+				value >>>= 7;
+			}
+			bytes[position++] = (byte) value;
+		}
+
+		private void writeByte(int value) {
+			ensureCapacity(1);
+			bytes[position++] = (byte) value;
+		}
+
+		private void ensureCapacity(int length) {
+			if (position + length > bytes.length) {
+				bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, position + length));
+			}
+		}
+
+	}
+
+	/**
+	 * Reads the records written by an {@link Encoder}, in the order they were written, from an {@link InputStream} or a {@link ByteBuffer}.
+	 * Reading from an unbuffered stream reads it a byte at a time, so wrap such streams in a {@link java.io.BufferedInputStream}. Not thread-safe.
+	 */
+	public static final class Decoder {
+
+		private final InputStream in;
+
+		private final ByteBuffer buffer;
+
+		private boolean versionRead;
+
+		private byte[] scratch;
+
+		private final List<String> dictionary = new ArrayList<String>();
+
+		public Decoder(InputStream in) {
+			Assert.notNull(in, "in may not be null");
+			this.in = in;
+			this.buffer = null;
+		}
+
+		public Decoder(ByteBuffer buffer) {
+			Assert.notNull(buffer, "buffer may not be null");
+			this.in = null;
+			this.buffer = buffer;
+		}
+
+		/**
+		 * @return the next tweet, or null if there are no more records
+		 * @throws IOException if the next record isn't a tweet, or can't be read
+		 */
+		public Tweet readTweet() throws IOException {
+			if (!startRecord(TWEET_RECORD)) {
+				return null;
+			}
+			return readTweetFields();
+		}
+
+		/**
+		 * @return the next profile, or null if there are no more records
+		 * @throws IOException if the next record isn't a profile, or can't be read
+		 */
+		public TwitterProfile readProfile() throws IOException {
+			if (!startRecord(PROFILE_RECORD)) {
+				return null;
+			}
+			return readProfileFields();
+		}
+
+		private boolean startRecord(int expectedType) throws IOException {
+			int recordType = in != null ? in.read() : buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+			if (recordType < 0) {
+				return false;
+			}
+			if (!versionRead) {
+				if (recordType != MAGIC) {
+					throw new IOException("Not in Twitter's binary format");
+				}
+				int version = readVarInt();
+				if (version > VERSION) {
+					throw new IOException("Version " + version + " of Twitter's binary format isn't supported; only up to version " + VERSION + " is");
+				}
+				versionRead = true;
+				recordType = readByte();
+			}
+			if (recordType != expectedType) {
+				throw new IOException("Expected a " + recordName(expectedType) + " but found a " + recordName(recordType));
+			}
+			return true;
+		}
+
+		private Tweet readTweetFields() throws IOException {
+			int fields = readVarInt();
+			String id = (fields & TWEET_NUMERIC_ID) != 0 ? Long.toString(readVarLong()) : readString();
+			String text = readString();
+			Date createdAt = (fields & TWEET_CREATED_AT) != 0 ? new Date(readSignedVarLong()) : null;
+			String fromUser = readString();
+			String profileImageUrl = readString();
+			long fromUserId = readSignedVarLong();
+			Long toUserId = (fields & TWEET_TO_USER_ID) != 0 ? readSignedVarLong() : null;
+			Tweet tweet = new Tweet(id, text, createdAt, fromUser, profileImageUrl, toUserId, fromUserId, null, null);
+			if ((fields & TWEET_IN_REPLY_TO_STATUS_ID) != 0) {
+				tweet.setInReplyToStatusId(readSignedVarLong());
+			}
+			if ((fields & TWEET_IN_REPLY_TO_USER_ID) != 0) {
+				tweet.setInReplyToUserId(readSignedVarLong());
+			}
+			tweet.setInReplyToScreenName(readString());
+			tweet.setLanguageCode(readString());
+			tweet.setSource(readString());
+			if ((fields & TWEET_RETWEET_COUNT) != 0) {
+				tweet.setRetweetCount((int) readSignedVarLong());
+			}
+			if ((fields & TWEET_FAVORITE_COUNT) != 0) {
+				tweet.setFavoriteCount((int) readSignedVarLong());
+			}
+			tweet.setRetweeted((fields & TWEET_RETWEETED) != 0);
+			tweet.setFavorited((fields & TWEET_FAVORITED) != 0);
+			if ((fields & TWEET_ENTITIES) != 0) {
+				tweet.setEntities(readEntities());
+			}
+			if ((fields & TWEET_USER) != 0) {
+				tweet.setUser(readProfileFields());
+			}
+			if ((fields & TWEET_RETWEETED_STATUS) != 0) {
+				tweet.setRetweetedStatus(readTweetFields());
+			}
+			return tweet;
+		}
+
+		private Entities readEntities() throws IOException {
+			int urlCount = readCount();
+			List<UrlEntity> urls = new ArrayList<UrlEntity>(Math.min(urlCount, MAX_PRESIZED_COUNT));
+			for (int i = 0; i < urlCount; i++) {
+				urls.add(new UrlEntity(readString(), readString(), readString(), readIndices()));
+			}
+			int hashTagCount = readCount();
+			List<HashTagEntity> hashTags = new ArrayList<HashTagEntity>(Math.min(hashTagCount, MAX_PRESIZED_COUNT));
+			for (int i = 0; i < hashTagCount; i++) {
+				hashTags.add(new HashTagEntity(readString(), readIndices()));
+			}
+			int mentionCount = readCount();
+			List<MentionEntity> mentions = new ArrayList<MentionEntity>(Math.min(mentionCount, MAX_PRESIZED_COUNT));
+			for (int i = 0; i < mentionCount; i++) {
+				mentions.add(new MentionEntity(readSignedVarLong(), readString(), readString(), readIndices()));
+			}
+			int mediaCount = readCount();
+			List<MediaEntity> media = new ArrayList<MediaEntity>(Math.min(mediaCount, MAX_PRESIZED_COUNT));
+			for (int i = 0; i < mediaCount; i++) {
+				media.add(new MediaEntity(readSignedVarLong(), readString(), readString(), readString(), readString(), readString(), readString(), readIndices()));
+			}
+			int tickerSymbolCount = readCount();
+			List<TickerSymbolEntity> tickerSymbols = new ArrayList<TickerSymbolEntity>(Math.min(tickerSymbolCount, MAX_PRESIZED_COUNT));
+			for (int i = 0; i < tickerSymbolCount; i++) {
+				tickerSymbols.add(new TickerSymbolEntity(readString(), readString(), readIndices()));
+			}
+			return new Entities(urls, hashTags, mentions, media, tickerSymbols);
+		}
+
+		private int[] readIndices() throws IOException {
+			int begin = readVarInt() - 1;
+			if (begin < 0) {
+				return null;
+			}
+			return new int[] { begin, begin + (int) readSignedVarLong() };
+		}
+
+		private TwitterProfile readProfileFields() throws IOException {
+			int fields = readVarInt();
+			long id = readSignedVarLong();
+			String idStr = (fields & PROFILE_CUSTOM_ID_STR) != 0 ? readString() : Long.toString(id);
+			String screenName = readString();
+			String name = readString();
+			String url = readString();
+			String profileImageUrl = readString();
+			String description = readString();
+			String location = readString();
+			Date createdDate = (fields & PROFILE_CREATED_DATE) != 0 ? new Date(readSignedVarLong()) : null;
+			TwitterProfile profile = new TwitterProfile(id, idStr, screenName, name, url, profileImageUrl, description, location, createdDate);
+			// the rest of a profile has no setters; Jackson sets its fields directly too
+			ProfileFields.LANGUAGE.set(profile, readString());
+			ProfileFields.STATUSES_COUNT.set(profile, (int) readSignedVarLong());
+			ProfileFields.FRIENDS_COUNT.set(profile, (int) readSignedVarLong());
+			ProfileFields.FOLLOWERS_COUNT.set(profile, (int) readSignedVarLong());
+			ProfileFields.FAVORITES_COUNT.set(profile, (int) readSignedVarLong());
+			ProfileFields.LISTED_COUNT.set(profile, (int) readSignedVarLong());
+			ProfileFields.TIME_ZONE.set(profile, readString());
+			ProfileFields.UTC_OFFSET.set(profile, (int) readSignedVarLong());
+			ProfileFields.SIDEBAR_BORDER_COLOR.set(profile, readString());
+			ProfileFields.SIDEBAR_FILL_COLOR.set(profile, readString());
+			ProfileFields.BACKGROUND_COLOR.set(profile, readString());
+			ProfileFields.BACKGROUND_IMAGE_URL.set(profile, readString());
+			ProfileFields.TEXT_COLOR.set(profile, readString());
+			ProfileFields.LINK_COLOR.set(profile, readString());
+			ProfileFields.PROFILE_BANNER_URL.set(profile, readString());
+			ProfileFields.FOLLOWING.set(profile, (fields & PROFILE_FOLLOWING) != 0);
+			ProfileFields.FOLLOW_REQUEST_SENT.set(profile, (fields & PROFILE_FOLLOW_REQUEST_SENT) != 0);
+			ProfileFields.PROTECTED.set(profile, (fields & PROFILE_PROTECTED) != 0);
+			ProfileFields.NOTIFICATIONS_ENABLED.set(profile, (fields & PROFILE_NOTIFICATIONS_ENABLED) != 0);
+			ProfileFields.VERIFIED.set(profile, (fields & PROFILE_VERIFIED) != 0);
+			ProfileFields.GEO_ENABLED.set(profile, (fields & PROFILE_GEO_ENABLED) != 0);
+			ProfileFields.CONTRIBUTORS_ENABLED.set(profile, (fields & PROFILE_CONTRIBUTORS_ENABLED) != 0);
+			ProfileFields.TRANSLATOR.set(profile, (fields & PROFILE_TRANSLATOR) != 0);
+			ProfileFields.USE_BACKGROUND_IMAGE.set(profile, (fields & PROFILE_USE_BACKGROUND_IMAGE) != 0);
+			ProfileFields.BACKGROUND_IMAGE_TILED.set(profile, (fields & PROFILE_BACKGROUND_IMAGE_TILED) != 0);
+			ProfileFields.SHOW_ALL_INLINE_MEDIA.set(profile, (fields & PROFILE_SHOW_ALL_INLINE_MEDIA) != 0);
+			return profile;
+		}
+
+		private int readCount() throws IOException {
+			int count = readVarInt();
+			if (count < 0) {
+				throw new IOException("Corrupt entity count");
+			}
+			return count;
+		}
+
+		private String readString() throws IOException {
+			int reference = readVarInt();
+			switch (reference) {
+				case NULL_STRING:
+					return null;
+				case LITERAL_STRING:
+					return readUtf8();
+				case NEW_POOLED_STRING:
+					String value = readUtf8();
+					dictionary.add(value);
+					return value;
+				default:
+					int index = reference - FIRST_POOLED_STRING;
+					if (index < 0 || index >= dictionary.size()) {
+						throw new IOException("Reference to string " + index + " of " + dictionary.size());
+					}
+					return dictionary.get(index);
+			}
+		}
+
+		private String readUtf8() throws IOException {
+			int length = readVarInt();
+			if (length < 0) {
+				throw new IOException("Corrupt string length");
+			}
+			if (buffer != null) {
+				if (buffer.remaining() < length) {
+					throw new EOFException();
+				}
+				if (buffer.hasArray()) {
+					String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+					buffer.position(buffer.position() + length);
+					return value;
+				}
+			}
+			if (scratch == null || scratch.length < length) {
+				scratch = new byte[Math.max(length, 256)];
+			}
+			if (buffer != null) {
+				buffer.get(scratch, 0, length);
+			} else {
+				for (int read = 0; read < length; ) {
+					int count = in.read(scratch, read, length - read);
+					if (count < 0) {
+						throw new EOFException();
+					}
+					read += count;
+				}
+			}
+			return new String(scratch, 0, length, StandardCharsets.UTF_8);
+		}
+
+		private long readSignedVarLong() throws IOException {
+			long value = readVarLong();
+			return (value >>> 1) ^ -(value & 1);
+		}
+
+		private int readVarInt() throws IOException {
+			return (int) readVarLong();
+		}
+
+		private long readVarLong() throws IOException {
+			long value = 0;
+			for (int shift = 0; shift < 64; shift += 7) {
+				int b = readByte();
+				value |= (long) (b & 0x7f) << shift;
+				if ((b & 0x80) == 0) {
+					return value;
+				}
+			}
+			throw new IOException("Corrupt varint");
+		}
+
+		private int readByte() throws IOException {
+			if (in != null) {
+				int b = in.read();
+				if (b < 0) {
+					throw new EOFException();
+				}
+				return b;
+			}
+			try {
+				return buffer.get() & 0xff;
+			} catch (BufferUnderflowException e) {
+				throw new EOFException();
+			}
+		}
+
+		private static String recordName(int recordType) {
+			return recordType == TWEET_RECORD ? "tweet" : recordType == PROFILE_RECORD ? "profile" : "record of type " + recordType;
+		}
+
+	}
+
+	// TwitterProfile's fields that its constructor doesn't take
+	private enum ProfileFields {
+
+		LANGUAGE("language"),
+		STATUSES_COUNT("statusesCount"),
+		FRIENDS_COUNT("friendsCount"),
+		FOLLOWERS_COUNT("followersCount"),
+		FAVORITES_COUNT("favoritesCount"),
+		LISTED_COUNT("listedCount"),
+		FOLLOWING("following"),
+		FOLLOW_REQUEST_SENT("followRequestSent"),
+		PROTECTED("isProtected"),
+		NOTIFICATIONS_ENABLED("notificationsEnabled"),
+		VERIFIED("verified"),
+		GEO_ENABLED("geoEnabled"),
+		CONTRIBUTORS_ENABLED("contributorsEnabled"),
+		TRANSLATOR("translator"),
+		TIME_ZONE("timeZone"),
+		UTC_OFFSET("utcOffset"),
+		SIDEBAR_BORDER_COLOR("sidebarBorderColor"),
+		SIDEBAR_FILL_COLOR("sidebarFillColor"),
+		BACKGROUND_COLOR("backgroundColor"),
+		USE_BACKGROUND_IMAGE("useBackgroundImage"),
+		BACKGROUND_IMAGE_URL("backgroundImageUrl"),
+		BACKGROUND_IMAGE_TILED("backgroundImageTiled"),
+		TEXT_COLOR("textColor"),
+		LINK_COLOR("linkColor"),
+		SHOW_ALL_INLINE_MEDIA("showAllInlineMedia"),
+		PROFILE_BANNER_URL("profileBannerUrl");
+
+		private final Field field;
+
+		private ProfileFields(String name) {
+			field = ReflectionUtils.findField(TwitterProfile.class, name);
+			ReflectionUtils.makeAccessible(field);
+		}
+
+		void set(TwitterProfile profile, Object value) {
+			ReflectionUtils.setField(field, profile, value);
+		}
+
+	}
+
+	private static final int MAGIC = 0xb7;
+
+	private static final int TWEET_RECORD = 1;
+
+	private static final int PROFILE_RECORD = 2;
+
+	// string references: null, a string written out but not pooled, a string written out and pooled, or an index into the pool (from 3 on)
+	private static final int NULL_STRING = 0;
+
+	private static final int LITERAL_STRING = 1;
+
+	private static final int NEW_POOLED_STRING = 2;
+
+	private static final int FIRST_POOLED_STRING = 3;
+
+	// so that a corrupt count can't have a list allocated at an absurd size
+	private static final int MAX_PRESIZED_COUNT = 16;
+
+	// bounds what an encoder and decoder hold on to; once full, strings are written out every time
+	private static final int MAX_DICTIONARY_SIZE = 4096;
+
+	private static final int TWEET_NUMERIC_ID = 1;
+
+	private static final int TWEET_CREATED_AT = 1 << 1;
+
+	private static final int TWEET_TO_USER_ID = 1 << 2;
+
+	private static final int TWEET_IN_REPLY_TO_STATUS_ID = 1 << 3;
+
+	private static final int TWEET_IN_REPLY_TO_USER_ID = 1 << 4;
+
+	private static final int TWEET_RETWEET_COUNT = 1 << 5;
+
+	private static final int TWEET_FAVORITE_COUNT = 1 << 6;
+
+	private static final int TWEET_RETWEETED = 1 << 7;
+
+	private static final int TWEET_FAVORITED = 1 << 8;
+
+	private static final int TWEET_ENTITIES = 1 << 9;
+
+	private static final int TWEET_USER = 1 << 10;
+
+	private static final int TWEET_RETWEETED_STATUS = 1 << 11;
+
+	private static final int PROFILE_CREATED_DATE = 1;
+
+	private static final int PROFILE_CUSTOM_ID_STR = 1 << 1;
+
+	private static final int PROFILE_FOLLOWING = 1 << 2;
+
+	private static final int PROFILE_FOLLOW_REQUEST_SENT = 1 << 3;
+
+	private static final int PROFILE_PROTECTED = 1 << 4;
+
+	private static final int PROFILE_NOTIFICATIONS_ENABLED = 1 << 5;
+
+	private static final int PROFILE_VERIFIED = 1 << 6;
+
+	private static final int PROFILE_GEO_ENABLED = 1 << 7;
+
+	private static final int PROFILE_CONTRIBUTORS_ENABLED = 1 << 8;
+
+	private static final int PROFILE_TRANSLATOR = 1 << 9;
+
+	private static final int PROFILE_USE_BACKGROUND_IMAGE = 1 << 10;
+
+	private static final int PROFILE_BACKGROUND_IMAGE_TILED = 1 << 11;
+
+	private static final int PROFILE_SHOW_ALL_INLINE_MEDIA = 1 << 12;
+
+}
@@ -39,10 +39,9 @@ import org.springframework.social.twitter.api.InvalidMessageRecipientException;
 import org.springframework.social.twitter.api.MessageTooLongException;
 import org.springframework.web.client.DefaultResponseErrorHandler;
 
-import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 
 /**
  * Subclass of {@link DefaultResponseErrorHandler} that handles errors from Twitter's
@@ -136,9 +135,8 @@ class TwitterErrorHandler extends DefaultResponseErrorHandler {
 	}
 
 	private Map<String, Object> extractErrorDetailsFromResponse(ClientHttpResponse response) throws IOException {
-		ObjectMapper mapper = new ObjectMapper(new JsonFactory());
 		try {
-			return mapper.<Map<String, Object>>readValue(response.getBody(), new TypeReference<Map<String, Object>>() {});
+			return ERROR_DETAILS_READER.readValue(response.getBody());
 		} catch (JsonParseException e) {
 			return Collections.emptyMap();
 		}
@@ -151,6 +149,8 @@ class TwitterErrorHandler extends DefaultResponseErrorHandler {
 	private static final String DAILY_RATE_LIMIT_TEXT = "User is over daily status update limit.";
 
 	
+	private static final ObjectReader ERROR_DETAILS_READER = TwitterObjectMapper.get().readerFor(new TypeReference<Map<String, Object>>() {});
+
 	private static final int ENHANCE_YOUR_CALM = 420;
 	private static final int TOO_MANY_REQUESTS = 429;
 }
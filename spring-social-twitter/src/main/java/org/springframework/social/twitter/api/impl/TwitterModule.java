@@ -16,6 +16,7 @@
 package org.springframework.social.twitter.api.impl;
 
 import org.springframework.social.twitter.api.AccountSettings;
+import org.springframework.social.twitter.api.CursoredLongArray;
 import org.springframework.social.twitter.api.DirectMessage;
 import org.springframework.social.twitter.api.Entities;
 import org.springframework.social.twitter.api.HashTagEntity;
@@ -25,6 +26,14 @@ import org.springframework.social.twitter.api.OEmbedTweet;
 import org.springframework.social.twitter.api.Place;
 import org.springframework.social.twitter.api.SavedSearch;
 import org.springframework.social.twitter.api.SearchResults;
+import org.springframework.social.twitter.api.StreamDeleteEvent;
+import org.springframework.social.twitter.api.StreamDisconnectEvent;
+import org.springframework.social.twitter.api.StreamFriendsEvent;
+import org.springframework.social.twitter.api.StreamScrubGeoEvent;
+import org.springframework.social.twitter.api.StreamStatusWithheldEvent;
+import org.springframework.social.twitter.api.StreamUserEvent;
+import org.springframework.social.twitter.api.StreamUserWithheldEvent;
+import org.springframework.social.twitter.api.StreamWarningEvent;
 import org.springframework.social.twitter.api.SuggestionCategory;
 import org.springframework.social.twitter.api.Trend;
 import org.springframework.social.twitter.api.Trends;
@@ -68,6 +77,15 @@ class TwitterModule extends SimpleModule {
 		context.setMixInAnnotations(AccountSettings.SleepTime.class, AccountSettingsMixin.SleepTimeMixin.class);
 		context.setMixInAnnotations(AccountSettings.TrendLocation.class, AccountSettingsMixin.TrendLocationMixin.class);
 		context.setMixInAnnotations(OEmbedTweet.class, OEmbedTweetMixin.class);
+		context.setMixInAnnotations(StreamDeleteEvent.class, StreamDeleteEventMixin.class);
+		context.setMixInAnnotations(StreamWarningEvent.class, StreamWarningEventMixin.class);
+		context.setMixInAnnotations(StreamScrubGeoEvent.class, StreamScrubGeoEventMixin.class);
+		context.setMixInAnnotations(StreamStatusWithheldEvent.class, StreamStatusWithheldEventMixin.class);
+		context.setMixInAnnotations(StreamUserWithheldEvent.class, StreamUserWithheldEventMixin.class);
+		context.setMixInAnnotations(StreamDisconnectEvent.class, StreamDisconnectEventMixin.class);
+		context.setMixInAnnotations(StreamFriendsEvent.class, StreamFriendsEventMixin.class);
+		context.setMixInAnnotations(StreamUserEvent.class, StreamUserEventMixin.class);
+		context.setMixInAnnotations(CursoredLongArray.class, CursoredLongArrayMixin.class);
 	}
 
 }
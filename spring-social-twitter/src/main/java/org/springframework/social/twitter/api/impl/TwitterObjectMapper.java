@@ -0,0 +1,94 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.social.twitter.api.AccountSettings;
+import org.springframework.social.twitter.api.DirectMessage;
+import org.springframework.social.twitter.api.Entities;
+import org.springframework.social.twitter.api.OEmbedTweet;
+import org.springframework.social.twitter.api.Place;
+import org.springframework.social.twitter.api.SavedSearch;
+import org.springframework.social.twitter.api.SearchResults;
+import org.springframework.social.twitter.api.SuggestionCategory;
+import org.springframework.social.twitter.api.Trends;
+import org.springframework.social.twitter.api.Tweet;
+import org.springframework.social.twitter.api.TwitterProfile;
+import org.springframework.social.twitter.api.UserList;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * The one ObjectMapper, with {@link TwitterModule} registered, that the library reads Twitter's JSON with.
+ * Jackson caches the deserializers it builds per mapper, so sharing a mapper means each type's deserializer is built once rather than once per template, stream or error.
+ * The mapper mustn't be reconfigured once it's shared; anything that varies, such as a stream's profile cache or projection, goes on an {@link ObjectReader} instead, since readers are immutable.
+ * It's shared with the templates' message converters and codecs too, where callers can reach it; {@link TwitterTemplate}'s documentation warns them off changing it.
+ */
+final class TwitterObjectMapper {
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().registerModule(new TwitterModule());
+
+	private static final ConcurrentMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<Class<?>, ObjectReader>();
+
+	private TwitterObjectMapper() {}
+
+	static ObjectMapper get() {
+		return OBJECT_MAPPER;
+	}
+
+	/**
+	 * @return a reader for the given type, whose deserializer has already been resolved
+	 */
+	static ObjectReader readerFor(Class<?> type) {
+		ObjectReader reader = readers.get(type);
+		if (reader == null) {
+			// readers fetch their root deserializer when they're created
+			reader = OBJECT_MAPPER.readerFor(type);
+			ObjectReader existing = readers.putIfAbsent(type, reader);
+			if (existing != null) {
+				reader = existing;
+			}
+		}
+		return reader;
+	}
+
+	/**
+	 * Resolves the deserializers for every type the library reads, so that the first response or stream message of each type doesn't wait on it.
+	 */
+	static void preload() {
+		for (Class<?> type : MODEL_TYPES) {
+			readerFor(type);
+		}
+		for (StreamMessageType type : StreamMessageType.values()) {
+			if (type != StreamMessageType.LAZY_TWEET) {
+				readerFor(type.getMessageType());
+			}
+		}
+	}
+
+	private static final List<Class<?>> MODEL_TYPES = Arrays.<Class<?>>asList(
+			Tweet.class, TwitterProfile.class, DirectMessage.class, UserList.class, SavedSearch.class, Place.class,
+			AccountSettings.class, OEmbedTweet.class, SearchResults.class, SuggestionCategory.class, Trends.class, Entities.class,
+			CursoredLongList.class, CursoredTwitterProfileUsersList.class, DirectMessageList.class, LocalTrendsHolder.class,
+			PlacesList.class, RateLimitStatusHolder.class, SavedSearchList.class, SimilarPlacesResponse.class,
+			SuggestionCategoryList.class, TwitterProfileList.class, TwitterProfileUsersList.class, UserListList.class);
+
+}
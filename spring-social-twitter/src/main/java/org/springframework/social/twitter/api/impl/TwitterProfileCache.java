@@ -0,0 +1,372 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.social.twitter.api.TwitterProfile;
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * A cache of the profiles that come with tweets, so that tweets by the same author can share a single {@link TwitterProfile}.
+ * Prolific accounts appear in a stream over and over, and each of their tweets (and each retweet of them) carries their profile.
+ * <p>
+ * Profiles are keyed by user ID and a signature of the profile's fields other than its counts (of statuses, friends, followers, favorites and lists),
+ * which change from one tweet to the next while the rest of a profile rarely does.
+ * A repeat of a profile whose other fields are unchanged isn't deserialized again: if its counts are unchanged too, the cached instance is reused,
+ * and otherwise it's copied, sharing the cached instance's field values but taking the new counts, and the copy is cached in its place.
+ * A profile that has been handed out is never modified, so each tweet's profile has the counts it was received with.
+ * A profile that has changed in any other way is deserialized afresh and replaces the cached one.
+ * <p>
+ * The cache is direct-mapped by user ID and bounded by its capacity. It's safe for use by multiple threads without locking.
+ * Enable it for streams with {@link TwitterTemplate#setStreamProfileCache(TwitterProfileCache)}.
+ */
+public class TwitterProfileCache {
+
+	private final CachedProfile[] profiles;
+
+	private final int mask;
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * Creates a cache holding up to 4096 profiles.
+	 */
+	public TwitterProfileCache() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param capacity the number of profiles to hold, rounded up to a power of two
+	 */
+	public TwitterProfileCache(int capacity) {
+		Assert.isTrue(capacity > 0, "capacity must be greater than zero");
+		int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+		this.profiles = new CachedProfile[size];
+		this.mask = size - 1;
+	}
+
+	/**
+	 * @return how many profiles have been served from the cache
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return how many profiles have had to be deserialized
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * Reads the profile object the parser is positioned at, reusing the cached profile if it's unchanged other than in its counts.
+	 * The profile is scanned once without creating a string for any of its values, picking up its user ID and counts and skipping fields that a TwitterProfile doesn't hold.
+	 * The rest is written out as JSON to a buffer kept by the thread, whose hash is the profile's signature; the JSON is only deserialized if there's no match.
+	 */
+	TwitterProfile read(JsonParser jp, DeserializationContext ctx, ObjectReader profileReader) throws IOException {
+		Scratch json = SCRATCH.get();
+		int[] counts = json.counts;
+		json.length = 0;
+		Arrays.fill(counts, 0);
+		long id = 0;
+		int depth = 0;
+		boolean idNext = false;
+		boolean afterValue = false;
+		JsonToken token = jp.getCurrentToken();
+		do {
+			switch (token) {
+				case START_OBJECT:
+				case START_ARRAY:
+					if (afterValue) {
+						json.append(',');
+					}
+					json.append(token == JsonToken.START_OBJECT ? '{' : '[');
+					afterValue = false;
+					depth++;
+					break;
+				case END_OBJECT:
+				case END_ARRAY:
+					json.append(token == JsonToken.END_OBJECT ? '}' : ']');
+					afterValue = true;
+					depth--;
+					break;
+				case FIELD_NAME:
+					String name = jp.getCurrentName();
+					idNext = false;
+					if (depth == 1) {
+						Integer field = PROFILE_FIELDS.get(name);
+						if (field == null) {
+							// not read into a TwitterProfile, so it can't make a difference to one
+							jp.nextToken();
+							jp.skipChildren();
+							break;
+						}
+						if (field.intValue() != NOT_A_COUNT) {
+							// left out of the signature, and so of the JSON
+							counts[field.intValue()] = jp.nextToken() == JsonToken.VALUE_NUMBER_INT ? jp.getIntValue() : 0;
+							break;
+						}
+						idNext = "id".equals(name);
+					}
+					if (afterValue) {
+						json.append(',');
+					}
+					json.appendQuoted(jp.getTextCharacters(), jp.getTextOffset(), jp.getTextLength());
+					json.append(':');
+					afterValue = false;
+					break;
+				default:
+					if (afterValue) {
+						json.append(',');
+					}
+					if (token == JsonToken.VALUE_STRING) {
+						json.appendQuoted(jp.getTextCharacters(), jp.getTextOffset(), jp.getTextLength());
+					} else {
+						json.append(jp.getTextCharacters(), jp.getTextOffset(), jp.getTextLength());
+					}
+					afterValue = true;
+					if (idNext && token == JsonToken.VALUE_NUMBER_INT) {
+						id = jp.getLongValue();
+					}
+			}
+			token = depth > 0 ? jp.nextToken() : null;
+		} while (token != null);
+
+		long signature = json.signature();
+		int slot = slot(id);
+		CachedProfile cached = profiles[slot];
+		if (cached != null && cached.id == id && cached.signature == signature) {
+			hits.increment();
+			if (Arrays.equals(cached.counts, counts)) {
+				return cached.profile;
+			}
+			TwitterProfile profile = withCounts(cached.profile, counts);
+			profiles[slot] = new CachedProfile(id, signature, counts, profile);
+			return profile;
+		}
+		misses.increment();
+		TwitterProfile profile = profileReader.readValue(profileReader.getFactory().createParser(json.chars, 0, json.length));
+		if (json.chars.length > MAX_SCRATCH_CAPACITY) {
+			SCRATCH.remove();
+		}
+		if (profile != null) {
+			setCounts(profile, counts);
+			if (id != 0) {
+				profiles[slot] = new CachedProfile(id, signature, counts, profile);
+			}
+		}
+		return profile;
+	}
+
+	// a copy of the profile holding the same field values, other than its counts
+	private static TwitterProfile withCounts(TwitterProfile cached, int[] counts) {
+		TwitterProfile profile = new TwitterProfile(cached.getId(), cached.getIdStr(), cached.getScreenName(), cached.getName(), cached.getUrl(),
+				cached.getProfileImageUrl(), cached.getDescription(), cached.getLocation(), cached.getCreatedDate());
+		ReflectionUtils.shallowCopyFieldState(cached, profile);
+		setCounts(profile, counts);
+		return profile;
+	}
+
+	// only called on a profile that hasn't been handed out yet
+	private static void setCounts(TwitterProfile profile, int[] counts) {
+		try {
+			for (int i = 0; i < COUNT_PROFILE_FIELDS.length; i++) {
+				COUNT_PROFILE_FIELDS[i].setInt(profile, counts[i]);
+			}
+		} catch (IllegalAccessException e) {
+			ReflectionUtils.handleReflectionException(e);
+		}
+	}
+
+	private int slot(long id) {
+		long hash = id * 0x9E3779B97F4A7C15L;
+		return (int) (hash >>> 32) & mask;
+	}
+
+	// what a thread reading profiles reuses from one profile to the next: a buffer the profile is written out to as JSON, and its counts
+	private static final class Scratch {
+
+		private char[] chars = new char[INITIAL_SCRATCH_CAPACITY];
+
+		private int length;
+
+		private final int[] counts = new int[COUNT_FIELDS.length];
+
+		void append(char c) {
+			if (length == chars.length) {
+				chars = Arrays.copyOf(chars, chars.length * 2);
+			}
+			chars[length++] = c;
+		}
+
+		void append(char[] text, int offset, int count) {
+			if (length + count > chars.length) {
+				chars = Arrays.copyOf(chars, Math.max(chars.length * 2, length + count));
+			}
+			System.arraycopy(text, offset, chars, length, count);
+			length += count;
+		}
+
+		void appendQuoted(char[] text, int offset, int count) {
+			append('"');
+			int unescaped = offset;
+			for (int i = offset, end = offset + count; i < end; i++) {
+				char c = text[i];
+				if (c == '"' || c == '\\' || c < 0x20) {
+					append(text, unescaped, i - unescaped);
+					append('\\');
+					if (c < 0x20) {
+						append('u');
+						append('0');
+						append('0');
+						append(HEX_DIGITS[c >> 4]);
+						append(HEX_DIGITS[c & 0xf]);
+					} else {
+						append(c);
+					}
+					unescaped = i + 1;
+				}
+			}
+			append(text, unescaped, offset + count - unescaped);
+			append('"');
+		}
+
+		// a 64-bit hash of what's been written, taking four characters at a time in each of four independent lanes
+		long signature() {
+			long lane0 = length;
+			long lane1 = 1;
+			long lane2 = 2;
+			long lane3 = 3;
+			int i = 0;
+			for (int end = length - 15; i < end; i += 16) {
+				lane0 = mix(lane0 ^ word(i));
+				lane1 = mix(lane1 ^ word(i + 4));
+				lane2 = mix(lane2 ^ word(i + 8));
+				lane3 = mix(lane3 ^ word(i + 12));
+			}
+			for (; i < length; i++) {
+				lane0 = mix(lane0 ^ chars[i]);
+			}
+			return mix(mix(mix(lane0 ^ lane1) ^ lane2) ^ lane3);
+		}
+
+		private long word(int i) {
+			return chars[i] | (long) chars[i + 1] << 16 | (long) chars[i + 2] << 32 | (long) chars[i + 3] << 48;
+		}
+
+		private static long mix(long hash) {
+			hash *= 0x9E3779B97F4A7C15L;
+			return hash ^ (hash >>> 32);
+		}
+
+	}
+
+	private static final class CachedProfile {
+
+		private final long id;
+
+		private final long signature;
+
+		private final int[] counts;
+
+		private final TwitterProfile profile;
+
+		CachedProfile(long id, long signature, int[] counts, TwitterProfile profile) {
+			this.id = id;
+			this.signature = signature;
+			this.counts = counts.clone();
+			this.profile = profile;
+		}
+
+	}
+
+	private static final int DEFAULT_CAPACITY = 4096;
+
+	private static final int INITIAL_SCRATCH_CAPACITY = 4096;
+
+	// so that an outsized profile doesn't leave its thread holding on to a buffer as large
+	private static final int MAX_SCRATCH_CAPACITY = 64 * 1024;
+
+	private static final ThreadLocal<Scratch> SCRATCH = new ThreadLocal<Scratch>() {
+		@Override
+		protected Scratch initialValue() {
+			return new Scratch();
+		}
+	};
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	// the counts left out of a profile's signature, and the TwitterProfile fields they're deserialized into
+	private static final String[] COUNT_FIELDS = { "statuses_count", "friends_count", "followers_count", "favourites_count", "listed_count" };
+
+	private static final int NOT_A_COUNT = -1;
+
+	// the fields that TwitterProfileMixin maps onto a TwitterProfile, with the index of each count among COUNT_FIELDS
+	private static final Map<String, Integer> PROFILE_FIELDS = profileFields();
+
+	private static final Field[] COUNT_PROFILE_FIELDS = countProfileFields("statusesCount", "friendsCount", "followersCount", "favoritesCount", "listedCount");
+
+	private static Map<String, Integer> profileFields() {
+		Map<String, Integer> fields = new HashMap<String, Integer>();
+		for (Field field : TwitterProfileMixin.class.getDeclaredFields()) {
+			JsonProperty property = field.getAnnotation(JsonProperty.class);
+			if (property != null) {
+				fields.put(property.value(), NOT_A_COUNT);
+			}
+		}
+		for (Constructor<?> constructor : TwitterProfileMixin.class.getDeclaredConstructors()) {
+			for (Annotation[] annotations : constructor.getParameterAnnotations()) {
+				for (Annotation annotation : annotations) {
+					if (annotation instanceof JsonProperty) {
+						fields.put(((JsonProperty) annotation).value(), NOT_A_COUNT);
+					}
+				}
+			}
+		}
+		for (int i = 0; i < COUNT_FIELDS.length; i++) {
+			fields.put(COUNT_FIELDS[i], i);
+		}
+		return fields;
+	}
+
+	private static Field[] countProfileFields(String... names) {
+		Field[] fields = new Field[names.length];
+		for (int i = 0; i < names.length; i++) {
+			fields[i] = ReflectionUtils.findField(TwitterProfile.class, names[i]);
+			ReflectionUtils.makeAccessible(fields[i]);
+		}
+		return fields;
+	}
+
+}
@@ -31,10 +31,10 @@ abstract class TwitterProfileMixin extends TwitterObjectMixin {
 	@JsonCreator
 	TwitterProfileMixin(
 			@JsonProperty("id") long id, 
-			@JsonProperty("screen_name") String screenName, 
+			@JsonProperty("screen_name") @JsonDeserialize(using=InternedStringDeserializer.class) String screenName, 
 			@JsonProperty("name") String name, 
 			@JsonProperty("url") String url, 
-			@JsonProperty("profile_image_url") String profileImageUrl, 
+			@JsonProperty("profile_image_url") @JsonDeserialize(using=InternedStringDeserializer.class) String profileImageUrl, 
 			@JsonProperty("description") String description, 
 			@JsonProperty("location") String location, 
 			@JsonProperty("created_at") @JsonDeserialize(using=TimelineDateDeserializer.class) Date createdDate) {}
@@ -43,6 +43,7 @@ abstract class TwitterProfileMixin extends TwitterObjectMixin {
 	private boolean notificationsEnabled;
 
 	@JsonProperty("lang")
+	@JsonDeserialize(using=InternedStringDeserializer.class)
 	private String language;
 
 	@JsonProperty("statuses_count")
@@ -82,6 +83,7 @@ abstract class TwitterProfileMixin extends TwitterObjectMixin {
 	private boolean translator;
 
 	@JsonProperty("time_zone")
+	@JsonDeserialize(using=InternedStringDeserializer.class)
 	private String timeZone;
 	
 	@JsonProperty("utc_offset")
@@ -91,24 +93,30 @@ abstract class TwitterProfileMixin extends TwitterObjectMixin {
 	private boolean useBackgroundImage;
 	
 	@JsonProperty("profile_sidebar_border_color")
+	@JsonDeserialize(using=InternedStringDeserializer.class)
 	private String sidebarBorderColor;
 
 	@JsonProperty("profile_sidebar_fill_color")
+	@JsonDeserialize(using=InternedStringDeserializer.class)
 	private String sidebarFillColor;
 
 	@JsonProperty("profile_background_color")
+	@JsonDeserialize(using=InternedStringDeserializer.class)
 	private String backgroundColor;
 
 	@JsonProperty("profile_background_image_url")
+	@JsonDeserialize(using=InternedStringDeserializer.class)
 	private String backgroundImageUrl;
 
 	@JsonProperty("profile_background_tile")
 	private boolean backgroundImageTiled;
 	
 	@JsonProperty("profile_text_color")
+	@JsonDeserialize(using=InternedStringDeserializer.class)
 	private String textColor;
 
 	@JsonProperty("profile_link_color")
+	@JsonDeserialize(using=InternedStringDeserializer.class)
 	private String linkColor;
 
 	@JsonProperty("show_all_inline_media")
@@ -15,6 +15,10 @@
  */
 package org.springframework.social.twitter.api.impl;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.http.converter.FormHttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.social.oauth1.AbstractOAuth1ApiBinding;
@@ -25,17 +29,18 @@ import org.springframework.social.twitter.api.DirectMessageOperations;
 import org.springframework.social.twitter.api.FriendOperations;
 import org.springframework.social.twitter.api.GeoOperations;
 import org.springframework.social.twitter.api.ListOperations;
+import org.springframework.social.twitter.api.ReconnectPolicy;
 import org.springframework.social.twitter.api.SearchOperations;
+import org.springframework.social.twitter.api.StreamMetrics;
 import org.springframework.social.twitter.api.StreamingOperations;
 import org.springframework.social.twitter.api.TimelineOperations;
 import org.springframework.social.twitter.api.Twitter;
+import org.springframework.social.twitter.api.TwitterProfile;
 import org.springframework.social.twitter.api.UserOperations;
 import org.springframework.util.Assert;
 import org.springframework.web.client.RestOperations;
 import org.springframework.web.client.RestTemplate;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 /**
  * This is the central class for interacting with Twitter.
  * <p>
@@ -44,6 +49,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
  * amount of information required to sign requests to Twitter's API with an
  * OAuth <code>Authorization</code> header.
  * </p>
+ * <p>
+ * Every TwitterTemplate and ReactiveTwitterTemplate reads JSON with one shared ObjectMapper, so that Jackson builds each deserializer once.
+ * That mapper is the one held by the JSON message converter of {@link #getRestTemplate()}, and it must not be reconfigured:
+ * a change would apply to every template, stream and lazily-read tweet in the application.
+ * </p>
  * @author Craig Walls
  */
 public class TwitterTemplate extends AbstractOAuth1ApiBinding implements Twitter {
@@ -52,9 +62,9 @@ public class TwitterTemplate extends AbstractOAuth1ApiBinding implements Twitter
 
 	private UserOperations userOperations;
 
-	private FriendOperations friendOperations;
+	private FriendTemplate friendOperations;
 
-	private ListOperations listOperations;
+	private ListTemplate listOperations;
 
 	private SearchOperations searchOperations;
 
@@ -64,7 +74,7 @@ public class TwitterTemplate extends AbstractOAuth1ApiBinding implements Twitter
 	
 	private GeoOperations geoOperations;
 
-	private StreamingOperations streamOperations;
+	private StreamingTemplate streamOperations;
 	
 	private RestTemplate clientRestTemplate = null;
 	
@@ -145,6 +155,86 @@ public class TwitterTemplate extends AbstractOAuth1ApiBinding implements Twitter
 	public RestOperations restOperations() {
 		return getRestTemplate();
 	}
+
+	/**
+	 * Sets the policy that streams opened through {@link #streamingOperations()} use to decide when to reconnect after a failure.
+	 * Defaults to a {@link JitteredReconnectPolicy} drawing from the JVM-wide {@link ReconnectBudget#shared() shared reconnect budget}.
+	 * Only affects streams opened after the policy is set.
+	 * @param reconnectPolicy the reconnect policy
+	 */
+	public void setStreamReconnectPolicy(ReconnectPolicy reconnectPolicy) {
+		streamOperations.setReconnectPolicy(reconnectPolicy);
+	}
+
+	/**
+	 * Sets where streams opened through {@link #streamingOperations()} report their lag, latency and throughput.
+	 * Use a {@link MicrometerStreamMetrics} to publish to Micrometer or a {@link HistogramStreamMetrics} to keep the figures in memory.
+	 * By default, nothing is recorded. Takes effect the next time a stream connects.
+	 * @param metrics the stream metrics
+	 */
+	public void setStreamMetrics(StreamMetrics metrics) {
+		streamOperations.setMetrics(metrics);
+	}
+
+	/**
+	 * Sets how streams opened through {@link #streamingOperations()} protect their listeners from one another:
+	 * how long each listener may take per message, when a misbehaving listener is quarantined, and where its messages go meanwhile.
+	 * Defaults to a {@link ListenerIsolationPolicy} with its default settings. Takes effect the next time a stream connects.
+	 * @param isolationPolicy the listener isolation policy
+	 */
+	public void setStreamListenerIsolationPolicy(ListenerIsolationPolicy isolationPolicy) {
+		streamOperations.setListenerIsolationPolicy(isolationPolicy);
+	}
+
+	/**
+	 * Sets a cache through which streams opened through {@link #streamingOperations()} share one {@link TwitterProfile} among tweets by the same author,
+	 * for as long as the author's profile doesn't change. Worthwhile for streams in which the same accounts appear over and over.
+	 * By default, each tweet's profile is deserialized on its own. Takes effect the next time a stream connects.
+	 * @param profileCache the profile cache, or null not to cache profiles
+	 */
+	public void setStreamProfileCache(TwitterProfileCache profileCache) {
+		streamOperations.setProfileCache(profileCache);
+	}
+
+	/**
+	 * Sets how many pages of a cursored resource the iterateAll and streamAll methods (e.g. {@link FriendOperations#iterateAllFollowerIds(long)})
+	 * fetch in the background, ahead of the page being consumed. Defaults to 1, which overlaps fetching each page with consuming the one before it;
+	 * 0 fetches each page on the consuming thread once it is needed.
+	 * @param prefetchDepth how many pages to fetch ahead
+	 */
+	public void setCursorPrefetchDepth(int prefetchDepth) {
+		Assert.isTrue(prefetchDepth >= 0, "The prefetch depth cannot be negative.");
+		friendOperations.setPrefetchDepth(prefetchDepth);
+		listOperations.setPrefetchDepth(prefetchDepth);
+	}
+
+	/**
+	 * Sets a governor that keeps requests through this template within Twitter's rate limits, holding back or failing requests
+	 * that would exceed an endpoint's remaining budget instead of sending them to be refused. Requests aren't governed by default.
+	 * The governor runs ahead of the template's other interceptors, so that a request that waits for its budget is signed only once it's sent.
+	 * @param rateLimitGovernor the rate limit governor, or null to stop governing requests
+	 */
+	public void setRateLimitGovernor(RateLimitGovernor rateLimitGovernor) {
+		RestTemplate restTemplate = getRestTemplate();
+		List<ClientHttpRequestInterceptor> interceptors = new ArrayList<ClientHttpRequestInterceptor>(restTemplate.getInterceptors().size() + 1);
+		if (rateLimitGovernor != null) {
+			interceptors.add(rateLimitGovernor);
+		}
+		for (ClientHttpRequestInterceptor interceptor : restTemplate.getInterceptors()) {
+			if (!(interceptor instanceof RateLimitGovernor)) {
+				interceptors.add(interceptor);
+			}
+		}
+		restTemplate.setInterceptors(interceptors);
+	}
+
+	/**
+	 * Has Jackson build its deserializers for every type read from Twitter up front, rather than on the first response or stream message of each type.
+	 * Every TwitterTemplate shares these deserializers, so this need only be called once, e.g. at application startup.
+	 */
+	public static void preloadDeserializers() {
+		TwitterObjectMapper.preload();
+	}
 	
 	// Override getRestTemplate() to return an app-authorized RestTemplate if a client token is available.
 	@Override
@@ -160,7 +250,8 @@ public class TwitterTemplate extends AbstractOAuth1ApiBinding implements Twitter
 	@Override
 	protected MappingJackson2HttpMessageConverter getJsonMessageConverter() {
 		MappingJackson2HttpMessageConverter converter = super.getJsonMessageConverter();
-		converter.setObjectMapper(new ObjectMapper().registerModule(new TwitterModule()));		
+		// shared rather than copied, so that every template uses the deserializers already built; see the class comment
+		converter.setObjectMapper(TwitterObjectMapper.get());
 		return converter;
 	}
 	
@@ -19,6 +19,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.springframework.social.twitter.api.AccountSettings;
+import org.springframework.social.twitter.api.CloseableIterator;
 import org.springframework.social.twitter.api.RateLimitStatus;
 import org.springframework.social.twitter.api.ResourceFamily;
 import org.springframework.social.twitter.api.SuggestionCategory;
@@ -77,6 +78,22 @@ class UserTemplate extends AbstractTwitterOperations implements UserOperations {
 		return restTemplate.getForObject(buildUri("users/lookup.json", "screen_name", joinedScreenNames), TwitterProfileList.class);
 	}
 
+	public CloseableIterator<TwitterProfile> iterateUsers(long... userIds) {
+		return openUsers(userIds);
+	}
+
+	public CloseableIterator<TwitterProfile> iterateUsers(String... screenNames) {
+		return openUsers(screenNames);
+	}
+
+	public java.util.stream.Stream<TwitterProfile> streamUsers(long... userIds) {
+		return openUsers(userIds).stream();
+	}
+
+	public java.util.stream.Stream<TwitterProfile> streamUsers(String... screenNames) {
+		return openUsers(screenNames).stream();
+	}
+
 	public List<TwitterProfile> searchForUsers(String query) {
 		return searchForUsers(query, 1, 20);
 	}
@@ -114,4 +131,14 @@ class UserTemplate extends AbstractTwitterOperations implements UserOperations {
 		return restTemplate.postForObject(buildUri("account/settings.json"), accountSettingsData.toRequestParameters(), AccountSettings.class);
 	}
 
+	private JsonArrayIterator<TwitterProfile> openUsers(long... userIds) {
+		requireEitherUserOrAppAuthorization();
+		return JsonArrayIterator.open(restTemplate, buildUri("users/lookup.json", "user_id", ArrayUtils.join(userIds)), TwitterProfile.class, null, null);
+	}
+
+	private JsonArrayIterator<TwitterProfile> openUsers(String... screenNames) {
+		requireEitherUserOrAppAuthorization();
+		return JsonArrayIterator.open(restTemplate, buildUri("users/lookup.json", "screen_name", ArrayUtils.join(screenNames)), TwitterProfile.class, null, null);
+	}
+
 }
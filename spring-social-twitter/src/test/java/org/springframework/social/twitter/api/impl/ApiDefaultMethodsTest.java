@@ -0,0 +1,161 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import static org.junit.Assert.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.LongFunction;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.springframework.social.twitter.api.CloseableIterator;
+import org.springframework.social.twitter.api.CursoredList;
+import org.springframework.social.twitter.api.FriendOperations;
+import org.springframework.social.twitter.api.ListOperations;
+import org.springframework.social.twitter.api.SearchOperations;
+import org.springframework.social.twitter.api.Stream;
+import org.springframework.social.twitter.api.StreamingOperations;
+import org.springframework.social.twitter.api.TimelineOperations;
+import org.springframework.social.twitter.api.TweetFilter;
+import org.springframework.social.twitter.api.TweetProjection;
+import org.springframework.social.twitter.api.UserOperations;
+
+/**
+ * Checks that implementations of the public interfaces written before methods were added to them still compile,
+ * and that the added methods behave sensibly on them.
+ */
+public class ApiDefaultMethodsTest {
+
+	@Test
+	public void streamWithoutStatesOrDraining() {
+		Stream stream = new Stream() {
+			public void open() {
+			}
+			public void close() {
+			}
+		};
+		try {
+			stream.getState();
+			fail("Expected UnsupportedOperationException");
+		} catch (UnsupportedOperationException e) {
+		}
+		try {
+			stream.getStateTimestamp();
+			fail("Expected UnsupportedOperationException");
+		} catch (UnsupportedOperationException e) {
+		}
+		try {
+			stream.close(Duration.ofSeconds(1));
+			fail("Expected UnsupportedOperationException");
+		} catch (UnsupportedOperationException e) {
+		}
+	}
+
+	@Test
+	public void projections() throws Exception {
+		assertDefault(TimelineOperations.class, "withProjection", TweetProjection.class);
+		assertDefault(SearchOperations.class, "withProjection", TweetProjection.class);
+		assertDefault(StreamingOperations.class, "withProjection", TweetProjection.class);
+	}
+
+	@Test
+	public void streamFilters() throws Exception {
+		assertDefault(StreamingOperations.class, "withFilter", TweetFilter.class);
+	}
+
+	@Test
+	public void lazyIteratorsAndStreams() throws Exception {
+		for (String name : new String[] { "iterateUserTimeline", "streamUserTimeline" }) {
+			assertDefault(TimelineOperations.class, name, int.class, long.class, long.class);
+			assertDefault(TimelineOperations.class, name, String.class, int.class, long.class, long.class);
+			assertDefault(TimelineOperations.class, name, long.class, int.class, long.class, long.class);
+		}
+		for (String name : new String[] { "iterateUsers", "streamUsers" }) {
+			assertDefault(UserOperations.class, name, long[].class);
+			assertDefault(UserOperations.class, name, String[].class);
+		}
+		for (String name : new String[] { "iterateListMembers", "streamListMembers" }) {
+			assertDefault(ListOperations.class, name, long.class);
+			assertDefault(ListOperations.class, name, String.class, String.class);
+		}
+	}
+
+	@Test
+	public void closeableIteratorOverReadElements() {
+		CloseableIterator<String> iterator = CloseableIterator.of(Arrays.asList("a", "b", "c").iterator());
+		assertEquals("a", iterator.next());
+		iterator.close();
+		assertFalse(iterator.hasNext());
+		try {
+			iterator.next();
+			fail("Expected NoSuchElementException");
+		} catch (NoSuchElementException e) {
+		}
+	}
+
+	@Test
+	public void cursorWalks() throws Exception {
+		for (String kind : new String[] { "Friends", "FriendIds", "Followers", "FollowerIds" }) {
+			for (String prefix : new String[] { "iterateAll", "streamAll" }) {
+				assertDefault(FriendOperations.class, prefix + kind, long.class);
+				assertDefault(FriendOperations.class, prefix + kind, String.class);
+			}
+		}
+		for (String name : new String[] { "iterateAllListMembers", "streamAllListMembers" }) {
+			assertDefault(ListOperations.class, name, long.class);
+			assertDefault(ListOperations.class, name, String.class, String.class);
+		}
+	}
+
+	@Test
+	public void closeableIteratorOverCursor() {
+		final List<Long> cursors = new ArrayList<Long>();
+		LongFunction<CursoredList<Long>> pages = new LongFunction<CursoredList<Long>>() {
+			public CursoredList<Long> apply(long cursor) {
+				cursors.add(cursor);
+				long page = cursor == -1 ? 0 : cursor;
+				return new CursoredList<Long>(Arrays.asList(page * 10, page * 10 + 1), page - 1, page + 1 < 3 ? page + 1 : 0);
+			}
+		};
+		assertEquals(Arrays.asList(0L, 1L, 10L, 11L, 20L, 21L), CloseableIterator.ofCursor(pages).stream().collect(Collectors.toList()));
+		assertEquals(Arrays.asList(-1L, 1L, 2L), cursors);
+		cursors.clear();
+		CloseableIterator<Long> iterator = CloseableIterator.ofCursor(pages);
+		assertEquals(0L, iterator.next().longValue());
+		iterator.stream().close();
+		assertFalse(iterator.hasNext());
+		assertEquals(Arrays.asList(-1L), cursors);
+	}
+
+	@Test
+	public void idArrays() throws Exception {
+		for (String name : new String[] { "getFriendIdArrayInCursor", "getFollowerIdArrayInCursor" }) {
+			assertDefault(FriendOperations.class, name, long.class);
+			assertDefault(FriendOperations.class, name, long.class, long.class);
+			assertDefault(FriendOperations.class, name, String.class, long.class);
+		}
+	}
+
+	private void assertDefault(Class<?> type, String name, Class<?>... parameterTypes) throws NoSuchMethodException {
+		assertTrue(type.getSimpleName() + "." + name + " isn't a default method", type.getMethod(name, parameterTypes).isDefault());
+	}
+
+}
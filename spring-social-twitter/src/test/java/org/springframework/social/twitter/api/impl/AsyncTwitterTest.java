@@ -0,0 +1,199 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpResponse;
+import org.springframework.mock.http.client.reactive.MockClientHttpRequest;
+import org.springframework.mock.http.client.reactive.MockClientHttpResponse;
+import org.springframework.social.MissingAuthorizationException;
+import org.springframework.social.ResourceNotFoundException;
+import org.springframework.social.twitter.api.CursoredList;
+import org.springframework.social.twitter.api.ResourceFamily;
+import org.springframework.social.twitter.api.Tweet;
+import org.springframework.social.twitter.api.TwitterProfile;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+public class AsyncTwitterTest extends AbstractTwitterApiTest {
+
+	private HeldConnector connector;
+
+	private ReactiveTwitterTemplate reactiveTwitter;
+
+	@Before
+	public void setupReactive() {
+		connector = new HeldConnector();
+		reactiveTwitter = new ReactiveTwitterTemplate(WebClient.builder().clientConnector(connector), "API_KEY", "API_SECRET", "ACCESS_TOKEN", "ACCESS_TOKEN_SECRET");
+	}
+
+	@Test
+	public void getUserTimeline() throws Exception {
+		AsyncTwitter asyncTwitter = new AsyncTwitter(reactiveTwitter);
+		CompletableFuture<List<Tweet>> timeline = asyncTwitter.getUserTimeline("habuma", 20, 0, 0);
+		connector.respond(0, HttpStatus.OK, json("timeline"));
+		assertTimelineTweets(timeline.get(5, TimeUnit.SECONDS));
+		assertEquals(URI.create("https://api.twitter.com/1.1/statuses/user_timeline.json?count=20&screen_name=habuma&include_entities=true"), connector.requests.get(0).getURI());
+	}
+
+	@Test
+	public void getFollowerIdsInCursor_fetchesOnePage() throws Exception {
+		AsyncTwitter asyncTwitter = new AsyncTwitter(reactiveTwitter);
+		CompletableFuture<CursoredList<Long>> ids = asyncTwitter.getFollowerIdsInCursor("habuma", -1);
+		connector.respond(0, HttpStatus.OK, json("friend-or-follower-ids"));
+		CursoredList<Long> page = ids.get(5, TimeUnit.SECONDS);
+		assertEquals(2, page.size());
+		assertEquals(332211L, page.getNextCursor());
+		assertEquals(1, connector.requests.size());
+		assertEquals(URI.create("https://api.twitter.com/1.1/followers/ids.json?cursor=-1&screen_name=habuma"), connector.requests.get(0).getURI());
+	}
+
+	@Test
+	public void failedOperation() throws Exception {
+		AsyncTwitter asyncTwitter = new AsyncTwitter(reactiveTwitter);
+		CompletableFuture<TwitterProfile> profile = asyncTwitter.getUserProfile("nobody");
+		connector.respond(0, HttpStatus.NOT_FOUND, "{\"errors\":[{\"code\":34,\"message\":\"Sorry, that page does not exist\"}]}");
+		try {
+			profile.get(5, TimeUnit.SECONDS);
+			fail("Expected ExecutionException");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof ResourceNotFoundException);
+		}
+	}
+
+	@Test
+	public void missingAuthorizationFailsTheFuture() throws Exception {
+		AsyncTwitter asyncTwitter = new AsyncTwitter(new ReactiveTwitterTemplate(WebClient.builder().clientConnector(connector), "APP_ACCESS_TOKEN"));
+		CompletableFuture<List<Tweet>> timeline = asyncTwitter.getHomeTimeline(20, 0, 0);
+		try {
+			timeline.get(5, TimeUnit.SECONDS);
+			fail("Expected ExecutionException");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof MissingAuthorizationException);
+		}
+		assertTrue(connector.requests.isEmpty());
+	}
+
+	@Test
+	public void concurrencyIsBoundedPerResourceFamily() throws Exception {
+		AsyncTwitter asyncTwitter = new AsyncTwitter(reactiveTwitter, 2);
+		List<CompletableFuture<Tweet>> calls = new ArrayList<CompletableFuture<Tweet>>();
+		for (int i = 0; i < 6; i++) {
+			calls.add(asyncTwitter.getStatus(i));
+		}
+		// two statuses calls are in flight and the rest are queued, without a thread waiting on any of them
+		assertEquals(2, connector.requests.size());
+		// the statuses family is saturated, but the users family isn't held up by it
+		CompletableFuture<TwitterProfile> profile = asyncTwitter.getUserProfile("habuma");
+		assertEquals(3, connector.requests.size());
+		assertTrue(connector.requests.get(2).getURI().getPath().endsWith("/users/show.json"));
+		connector.respond(2, HttpStatus.OK, json("twitter-profile"));
+		assertEquals("artnames", profile.get(5, TimeUnit.SECONDS).getScreenName());
+		// each completed statuses call starts a queued one
+		connector.respond(0, HttpStatus.OK, json("status"));
+		assertEquals(4, connector.requests.size());
+		calls.get(0).get(5, TimeUnit.SECONDS);
+		for (int i = 1; i < 7; i++) {
+			if (i != 2) {
+				connector.respond(i, HttpStatus.OK, json("status"));
+			}
+		}
+		for (CompletableFuture<Tweet> call : calls) {
+			assertNotNull(call.get(5, TimeUnit.SECONDS));
+		}
+		assertEquals(7, connector.requests.size());
+	}
+
+	@Test
+	public void cancellingAQueuedCallDropsIt() throws Exception {
+		AsyncTwitter asyncTwitter = new AsyncTwitter(reactiveTwitter, 1);
+		CompletableFuture<Tweet> first = asyncTwitter.getStatus(1);
+		CompletableFuture<Tweet> second = asyncTwitter.getStatus(2);
+		CompletableFuture<Tweet> third = asyncTwitter.getStatus(3);
+		second.cancel(true);
+		connector.respond(0, HttpStatus.OK, json("status"));
+		first.get(5, TimeUnit.SECONDS);
+		assertEquals(2, connector.requests.size());
+		assertTrue(connector.requests.get(1).getURI().getPath().endsWith("/statuses/show/3.json"));
+		connector.respond(1, HttpStatus.OK, json("status"));
+		third.get(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void toFuture() throws Exception {
+		AsyncTwitter asyncTwitter = new AsyncTwitter(reactiveTwitter, 1);
+		CompletableFuture<String> first = asyncTwitter.toFuture(ResourceFamily.HELP, Mono.just("first"));
+		CompletableFuture<Void> empty = asyncTwitter.toFuture(ResourceFamily.HELP, Mono.<Void>empty());
+		assertEquals("first", first.get(5, TimeUnit.SECONDS));
+		assertNull(empty.get(5, TimeUnit.SECONDS));
+	}
+
+	private String json(String name) throws IOException {
+		return StreamUtils.copyToString(jsonResource(name).getInputStream(), StandardCharsets.UTF_8);
+	}
+
+	// holds each response until the test gives it, so that calls stay in flight
+	private static class HeldConnector implements ClientHttpConnector {
+
+		final List<MockClientHttpRequest> requests = new CopyOnWriteArrayList<MockClientHttpRequest>();
+
+		private final List<MonoProcessor<ClientHttpResponse>> responses = new CopyOnWriteArrayList<MonoProcessor<ClientHttpResponse>>();
+
+		void respond(int request, HttpStatus status, String body) {
+			MockClientHttpResponse response = new MockClientHttpResponse(status);
+			response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+			response.setBody(body);
+			responses.get(request).onNext(response);
+		}
+
+		public Mono<ClientHttpResponse> connect(final HttpMethod method, final URI uri, final Function<? super ClientHttpRequest, Mono<Void>> requestCallback) {
+			return Mono.defer(new Supplier<Mono<ClientHttpResponse>>() {
+				public Mono<ClientHttpResponse> get() {
+					MockClientHttpRequest request = new MockClientHttpRequest(method, uri);
+					MonoProcessor<ClientHttpResponse> response = MonoProcessor.create();
+					requests.add(request);
+					responses.add(response);
+					return requestCallback.apply(request).then(response);
+				}
+			});
+		}
+
+	}
+
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.social.twitter.api.StreamDeleteEvent;
+import org.springframework.social.twitter.api.StreamListener;
+import org.springframework.social.twitter.api.StreamOverflowHandler;
+import org.springframework.social.twitter.api.StreamWarningEvent;
+import org.springframework.social.twitter.api.Tweet;
+
+public class ControlMessagePriorityTest {
+
+	private String tweetLine;
+
+	private String warningLine;
+
+	private Queue<QueuedMessage> queue;
+
+	private Queue<QueuedMessage> controlQueue;
+
+	private int backlogged;
+
+	@Before
+	public void setup() throws Exception {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(new ClassPathResource("filter-stream-track.json", getClass()).getInputStream()));
+		List<String> lines = new ArrayList<String>();
+		String line;
+		while ((line = reader.readLine()) != null) {
+			lines.add(line);
+		}
+		reader.close();
+		tweetLine = lines.get(0);
+		warningLine = lines.get(7);
+		queue = new ConcurrentLinkedQueue<QueuedMessage>();
+		controlQueue = new ConcurrentLinkedQueue<QueuedMessage>();
+	}
+
+	@Test
+	public void isControlMessage() {
+		assertTrue(StreamMessageType.isControlMessage(warningLine));
+		assertTrue(StreamMessageType.isControlMessage("{\"limit\":{\"track\":369}}"));
+		assertTrue(StreamMessageType.isControlMessage("{\"disconnect\":{\"code\":4}}"));
+		assertFalse(StreamMessageType.isControlMessage(tweetLine));
+		assertFalse(StreamMessageType.isControlMessage("{\"delete\":{\"status\":{\"id\":1}}}"));
+		assertFalse(StreamMessageType.isControlMessage("{\"limitless\":true}"));
+		assertFalse(StreamMessageType.isControlMessage("BOGUS LINE"));
+	}
+
+	@Test
+	public void controlMessagesDispatchedAheadOfQueuedMessages() throws Exception {
+		RecordingListener listener = new RecordingListener(false);
+		StreamDispatcher dispatcher = createDispatcher(100, listener);
+		for (int i = 0; i < 100; i++) {
+			queue.add(new QueuedMessage(tweetLine));
+		}
+		controlQueue.add(new QueuedMessage(warningLine));
+		dispatcher.run();
+		assertTrue(dispatcher.drain(deadline()).isComplete());
+		assertEquals(101, listener.received.size());
+		assertEquals("warning", listener.received.get(0));
+	}
+
+	@Test
+	public void controlMessagesJumpListenerBacklog() throws Exception {
+		RecordingListener listener = new RecordingListener(true);
+		StreamDispatcher dispatcher = createDispatcher(100, listener);
+		queue.add(new QueuedMessage(tweetLine));
+		dispatcher.run();
+		assertTrue(listener.blocked.await(5, TimeUnit.SECONDS));
+		for (int i = 0; i < 3; i++) {
+			queue.add(new QueuedMessage(tweetLine));
+		}
+		dispatcher.run();
+		controlQueue.add(new QueuedMessage(warningLine));
+		dispatcher.run();
+		listener.release.countDown();
+		assertTrue(dispatcher.drain(deadline()).isComplete());
+		assertEquals(asList("tweet", "warning", "tweet", "tweet", "tweet"), listener.received);
+	}
+
+	@Test
+	public void controlMessagesMakeRoomInFullBacklog() throws Exception {
+		RecordingListener listener = new RecordingListener(true);
+		StreamDispatcher dispatcher = createDispatcher(2, listener);
+		queue.add(new QueuedMessage(tweetLine));
+		dispatcher.run();
+		assertTrue(listener.blocked.await(5, TimeUnit.SECONDS));
+		queue.add(new QueuedMessage(tweetLine));
+		queue.add(new QueuedMessage(tweetLine));
+		dispatcher.run();
+		controlQueue.add(new QueuedMessage(warningLine));
+		dispatcher.run();
+		assertEquals(1, backlogged);
+		listener.release.countDown();
+		assertTrue(dispatcher.drain(deadline()).isComplete());
+		assertEquals(asList("tweet", "warning", "tweet"), listener.received);
+	}
+
+	private StreamDispatcher createDispatcher(int laneCapacity, StreamListener listener) {
+		StreamOverflowHandler overflowHandler = new StreamOverflowHandler() {
+			public void onOverflow(StreamListener listener, String message, Reason reason) {
+				if (reason == Reason.BACKLOGGED) {
+					backlogged++;
+				}
+			}
+		};
+		ListenerIsolationPolicy policy = new ListenerIsolationPolicy(Duration.ofMinutes(1), 5, Duration.ofMinutes(1), laneCapacity, overflowHandler);
+		return new StreamDispatcher(queue, controlQueue, asList(listener), "filter", NoOpStreamMetrics.INSTANCE, policy, null, null, null);
+	}
+
+	private long deadline() {
+		return System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+	}
+
+	private static class RecordingListener implements StreamListener {
+		private final List<String> received = new ArrayList<String>();
+		private final CountDownLatch blocked = new CountDownLatch(1);
+		private final CountDownLatch release = new CountDownLatch(1);
+		private final boolean blockOnFirstTweet;
+
+		public RecordingListener(boolean blockOnFirstTweet) {
+			this.blockOnFirstTweet = blockOnFirstTweet;
+		}
+
+		public void onTweet(Tweet tweet) {
+			if (blockOnFirstTweet && blocked.getCount() > 0) {
+				blocked.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {}
+			}
+			received.add("tweet");
+		}
+
+		public void onWarning(StreamWarningEvent warningEvent) {
+			received.add("warning");
+		}
+
+		public void onDelete(StreamDeleteEvent deleteEvent) {}
+		public void onLimit(int numberOfLimitedTweets) {}
+	}
+
+}
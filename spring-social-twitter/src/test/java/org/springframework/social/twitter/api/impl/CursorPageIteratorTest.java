@@ -0,0 +1,267 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.social.ResourceNotFoundException;
+import org.springframework.social.twitter.api.CursoredList;
+import org.springframework.web.client.RestTemplate;
+
+public class CursorPageIteratorTest {
+
+	@Test
+	public void walksEveryPage() {
+		CountingSource source = new CountingSource(3);
+		CursorPageIterator<Long> iterator = new CursorPageIterator<Long>(new RestTemplate(), "followers/ids.json", 1, source);
+		List<Long> ids = new ArrayList<Long>();
+		while (iterator.hasNext()) {
+			ids.add(iterator.next());
+		}
+		assertEquals(Arrays.asList(0L, 1L, 10L, 11L, 20L, 21L), ids);
+		assertEquals(Arrays.asList(-1L, 1L, 2L), source.cursors);
+	}
+
+	@Test
+	public void walksEveryPage_withoutPrefetching() {
+		CountingSource source = new CountingSource(3);
+		CursorPageIterator<Long> iterator = new CursorPageIterator<Long>(new RestTemplate(), "followers/ids.json", 0, source);
+		assertEquals(Arrays.asList(0L, 1L, 10L, 11L, 20L, 21L), iterator.stream().collect(Collectors.toList()));
+		assertEquals(Arrays.asList(-1L, 1L, 2L), source.cursors);
+	}
+
+	@Test
+	public void fetchesNextPageWhileCurrentPageIsConsumed() throws Exception {
+		final CountDownLatch secondPageFetched = new CountDownLatch(1);
+		CountingSource source = new CountingSource(3) {
+			public CursoredList<Long> fetch(long cursor) {
+				CursoredList<Long> page = super.fetch(cursor);
+				if (cursor == 1) {
+					secondPageFetched.countDown();
+				}
+				return page;
+			}
+		};
+		CursorPageIterator<Long> iterator = new CursorPageIterator<Long>(new RestTemplate(), "followers/ids.json", 1, source);
+		assertEquals(0L, iterator.next().longValue());
+		// still consuming the first page
+		assertTrue(secondPageFetched.await(5, TimeUnit.SECONDS));
+		iterator.close();
+	}
+
+	@Test
+	public void prefetchIsBoundedByDepth() throws Exception {
+		CountingSource source = new CountingSource(10);
+		CursorPageIterator<Long> iterator = new CursorPageIterator<Long>(new RestTemplate(), "followers/ids.json", 2, source);
+		iterator.next();
+		awaitFetches(source, 3);
+		Thread.sleep(100);
+		assertEquals(3, source.fetches.get());
+		iterator.next();
+		iterator.next();
+		// taking the second page lets one more be fetched ahead
+		awaitFetches(source, 4);
+		Thread.sleep(100);
+		assertEquals(4, source.fetches.get());
+		iterator.close();
+	}
+
+	@Test
+	public void fetchesOnDemandWhenRateLimitBudgetIsLow() throws Exception {
+		RateLimitGovernor governor = new RateLimitGovernor();
+		reportBudget(governor, "https://api.twitter.com/1.1/followers/ids.json", 1);
+		RestTemplate restTemplate = new RestTemplate();
+		restTemplate.setInterceptors(Collections.<ClientHttpRequestInterceptor>singletonList(governor));
+		CountingSource source = new CountingSource(3);
+		CursorPageIterator<Long> iterator = new CursorPageIterator<Long>(restTemplate, "followers/ids.json", 1, source);
+		iterator.next();
+		Thread.sleep(100);
+		assertEquals(1, source.fetches.get());
+		iterator.next();
+		iterator.next();
+		assertEquals(2, source.fetches.get());
+		iterator.close();
+	}
+
+	@Test
+	public void prefetchesWhenRateLimitBudgetIsPlentiful() throws Exception {
+		RateLimitGovernor governor = new RateLimitGovernor();
+		reportBudget(governor, "https://api.twitter.com/1.1/followers/ids.json", 14);
+		RestTemplate restTemplate = new RestTemplate();
+		restTemplate.setInterceptors(Collections.<ClientHttpRequestInterceptor>singletonList(governor));
+		CountingSource source = new CountingSource(3);
+		CursorPageIterator<Long> iterator = new CursorPageIterator<Long>(restTemplate, "followers/ids.json", 1, source);
+		iterator.next();
+		awaitFetches(source, 2);
+		iterator.close();
+	}
+
+	@Test
+	public void errorIsThrownWhenItsPageIsReached() {
+		CountingSource source = new CountingSource(3) {
+			public CursoredList<Long> fetch(long cursor) {
+				if (cursor == 1) {
+					throw new ResourceNotFoundException("twitter", "Sorry, that page does not exist");
+				}
+				return super.fetch(cursor);
+			}
+		};
+		CursorPageIterator<Long> iterator = new CursorPageIterator<Long>(new RestTemplate(), "followers/ids.json", 1, source);
+		assertEquals(0L, iterator.next().longValue());
+		assertEquals(1L, iterator.next().longValue());
+		try {
+			iterator.hasNext();
+			fail("Expected ResourceNotFoundException");
+		} catch (ResourceNotFoundException e) {
+			assertEquals("Sorry, that page does not exist", e.getMessage());
+		}
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void closeStopsPrefetching() throws Exception {
+		CountingSource source = new CountingSource(100);
+		CursorPageIterator<Long> iterator = new CursorPageIterator<Long>(new RestTemplate(), "followers/ids.json", 1, source);
+		iterator.next();
+		awaitFetches(source, 2);
+		iterator.close();
+		assertFalse(iterator.hasNext());
+		Thread.sleep(100);
+		assertEquals(2, source.fetches.get());
+	}
+
+	@Test
+	public void abandonedWalkIsLeftForTheGarbageCollector() throws Exception {
+		CountingSource source = new CountingSource(100);
+		CursorPageIterator<Long> iterator = new CursorPageIterator<Long>(new RestTemplate(), "followers/ids.json", 1, source);
+		iterator.next();
+		awaitFetches(source, 2);
+		WeakReference<CursorPageIterator<Long>> abandoned = new WeakReference<CursorPageIterator<Long>>(iterator);
+		iterator = null;
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (abandoned.get() != null && System.nanoTime() < deadline) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertNull(abandoned.get());
+		assertEquals(2, source.fetches.get());
+	}
+
+	@Test
+	public void consumerFetchesItsOwnPageWhenPrefetchThreadsAreBusy() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		final AtomicInteger blocked = new AtomicInteger();
+		List<CursorPageIterator<Long>> busyWalks = new ArrayList<CursorPageIterator<Long>>();
+		for (int i = 0; i < CursorPageIterator.PREFETCH_THREADS; i++) {
+			CursorPageIterator<Long> busyWalk = new CursorPageIterator<Long>(new RestTemplate(), "followers/ids.json", 1, new CountingSource(3) {
+				public CursoredList<Long> fetch(long cursor) {
+					if (cursor == 1) {
+						blocked.incrementAndGet();
+						try {
+							release.await(5, TimeUnit.SECONDS);
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+					}
+					return super.fetch(cursor);
+				}
+			});
+			busyWalk.next();
+			busyWalks.add(busyWalk);
+		}
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (blocked.get() < CursorPageIterator.PREFETCH_THREADS && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(CursorPageIterator.PREFETCH_THREADS, blocked.get());
+		try {
+			CountingSource source = new CountingSource(3);
+			CursorPageIterator<Long> iterator = new CursorPageIterator<Long>(new RestTemplate(), "followers/ids.json", 1, source);
+			assertEquals(Arrays.asList(0L, 1L, 10L, 11L, 20L, 21L), iterator.stream().collect(Collectors.toList()));
+		} finally {
+			release.countDown();
+			for (CursorPageIterator<Long> busyWalk : busyWalks) {
+				busyWalk.close();
+			}
+		}
+	}
+
+	private void awaitFetches(CountingSource source, int fetches) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (source.fetches.get() < fetches && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(fetches, source.fetches.get());
+	}
+
+	// passes a response reporting the endpoint's remaining budget through the governor
+	private void reportBudget(RateLimitGovernor governor, String uri, int remaining) throws IOException {
+		final MockClientHttpResponse response = new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+		response.getHeaders().set("x-rate-limit-limit", "15");
+		response.getHeaders().set("x-rate-limit-remaining", String.valueOf(remaining));
+		response.getHeaders().set("x-rate-limit-reset", String.valueOf(System.currentTimeMillis() / 1000 + 900));
+		governor.intercept(new MockClientHttpRequest(HttpMethod.GET, URI.create(uri)), new byte[0], new ClientHttpRequestExecution() {
+			public ClientHttpResponse execute(HttpRequest request, byte[] body) {
+				return response;
+			}
+		});
+	}
+
+	// pages of two IDs each, page n holding n * 10 and n * 10 + 1, with page n + 1 as its next cursor
+	private static class CountingSource implements CursorPageIterator.PageSource<Long> {
+
+		final AtomicInteger fetches = new AtomicInteger();
+
+		final List<Long> cursors = Collections.synchronizedList(new ArrayList<Long>());
+
+		private final int pageCount;
+
+		CountingSource(int pageCount) {
+			this.pageCount = pageCount;
+		}
+
+		public CursoredList<Long> fetch(long cursor) {
+			cursors.add(cursor);
+			fetches.incrementAndGet();
+			long page = cursor == -1 ? 0 : cursor;
+			long nextCursor = page + 1 < pageCount ? page + 1 : 0;
+			return new CursoredList<Long>(Arrays.asList(page * 10, page * 10 + 1), page - 1, nextCursor);
+		}
+
+	}
+
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.BiConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+
+import org.junit.Test;
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.social.twitter.api.CursoredList;
+import org.springframework.social.twitter.api.CursoredLongArray;
+import org.springframework.social.twitter.api.LongIdCollector;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class CursoredLongArrayTest {
+
+	private final ObjectMapper objectMapper = TwitterObjectMapper.get();
+
+	@Test
+	public void deserialize() throws IOException {
+		CursoredLongArray page = objectMapper.readValue(new ClassPathResource("friend-or-follower-ids.json", getClass()).getInputStream(), CursoredLongArray.class);
+		assertArrayEquals(new long[] { 14846645, 14718006 }, page.toArray());
+		assertEquals(112233, page.getPreviousCursor());
+		assertEquals(332211, page.getNextCursor());
+		assertTrue(page.hasPrevious());
+		assertTrue(page.hasNext());
+	}
+
+	@Test
+	public void deserialize_moreIdsThanAFullPage() throws IOException {
+		StringBuilder json = new StringBuilder("{\"ids\":[");
+		for (int i = 0; i < 12000; i++) {
+			json.append(i > 0 ? "," : "").append(i);
+		}
+		json.append("],\"next_cursor\":0,\"previous_cursor\":0}");
+		CursoredLongArray page = objectMapper.readValue(json.toString(), CursoredLongArray.class);
+		assertEquals(12000, page.size());
+		assertEquals(11999, page.get(11999));
+		assertFalse(page.hasNext());
+	}
+
+	@Test
+	public void deserialize_stringifiedIds() throws IOException {
+		CursoredLongArray page = objectMapper.readValue("{\"ids\":[\"1234567890123456789\",\"42\"],\"next_cursor\":5,\"next_cursor_str\":\"5\",\"previous_cursor\":0}", CursoredLongArray.class);
+		assertArrayEquals(new long[] { 1234567890123456789L, 42 }, page.toArray());
+		assertEquals(5, page.getNextCursor());
+	}
+
+	@Test
+	public void deserialize_noIds() throws IOException {
+		CursoredLongArray page = objectMapper.readValue("{\"ids\":[],\"next_cursor\":0,\"previous_cursor\":0}", CursoredLongArray.class);
+		assertTrue(page.isEmpty());
+		assertFalse(page.hasNext());
+		page = objectMapper.readValue("{\"next_cursor\":0,\"previous_cursor\":0}", CursoredLongArray.class);
+		assertTrue(page.isEmpty());
+	}
+
+	@Test
+	public void ofCursoredList() {
+		CursoredLongArray page = CursoredLongArray.of(new CursoredList<Long>(Arrays.asList(14846645L, 14718006L), 3, 5));
+		assertArrayEquals(new long[] { 14846645, 14718006 }, page.toArray());
+		assertEquals(3, page.getPreviousCursor());
+		assertEquals(5, page.getNextCursor());
+	}
+
+	@Test
+	public void primitiveIteration() {
+		CursoredLongArray page = new CursoredLongArray(new long[] { 3, 1, 2 }, 0, 0);
+		PrimitiveIterator.OfLong ids = page.iterator();
+		assertEquals(3, ids.nextLong());
+		assertEquals(1, ids.nextLong());
+		assertEquals(2, ids.nextLong());
+		assertFalse(ids.hasNext());
+		try {
+			ids.nextLong();
+			fail("Expected NoSuchElementException");
+		} catch (NoSuchElementException e) {
+		}
+		assertEquals(6, page.stream().sum());
+	}
+
+	@Test
+	public void collectPages() {
+		LongIdCollector collector = new LongIdCollector(2);
+		collector.addAll(new CursoredLongArray(new long[] { 1, 2, 3 }, 0, 7));
+		collector.addAll(new CursoredLongArray(new long[] { 4, 5 }, 7, 0));
+		collector.add(6);
+		assertEquals(6, collector.size());
+		assertEquals(4, collector.get(3));
+		assertArrayEquals(new long[] { 1, 2, 3, 4, 5, 6 }, collector.toArray());
+		assertEquals(21, collector.stream().sum());
+	}
+
+	@Test
+	public void collectStream() {
+		LongIdCollector collector = LongStream.range(0, 10000).parallel().collect(new Supplier<LongIdCollector>() {
+			public LongIdCollector get() {
+				return new LongIdCollector();
+			}
+		}, new ObjLongConsumer<LongIdCollector>() {
+			public void accept(LongIdCollector collector, long id) {
+				collector.add(id);
+			}
+		}, new BiConsumer<LongIdCollector, LongIdCollector>() {
+			public void accept(LongIdCollector collector, LongIdCollector other) {
+				collector.addAll(other);
+			}
+		});
+		assertArrayEquals(LongStream.range(0, 10000).toArray(), collector.toArray());
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void collectorIndexBeyondSize() {
+		new LongIdCollector().add(1).get(1);
+	}
+
+	// sizes vary with the JVM's object layout, so they're compared with the layouts involved rather than with fixed numbers
+	@Test
+	public void footprint() throws IOException {
+		StringBuilder json = new StringBuilder("{\"ids\":[");
+		for (int i = 0; i < 5000; i++) {
+			json.append(i > 0 ? "," : "").append(1000000000L + i * 7919L);
+		}
+		json.append("],\"next_cursor\":1,\"previous_cursor\":0}");
+		CursoredLongArray page = objectMapper.readValue(json.toString(), CursoredLongArray.class);
+		// nothing but the page and a long[] holding exactly its IDs
+		long expected = ClassLayout.parseClass(CursoredLongArray.class).instanceSize() + GraphLayout.parseInstance((Object) new long[5000]).totalSize();
+		long pageSize = GraphLayout.parseInstance(page).totalSize();
+		assertEquals(expected, pageSize);
+		// a Long and a reference to it for each ID, against 8 bytes
+		CursoredList<Long> boxed = objectMapper.readValue(json.toString(), CursoredLongList.class).getList();
+		assertTrue(GraphLayout.parseInstance(boxed).totalSize() > 3 * pageSize);
+	}
+
+}
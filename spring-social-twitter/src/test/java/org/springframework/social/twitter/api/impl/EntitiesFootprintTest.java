@@ -0,0 +1,106 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+
+import org.junit.Test;
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.social.twitter.api.Entities;
+import org.springframework.social.twitter.api.HashTagEntity;
+import org.springframework.social.twitter.api.MediaEntity;
+import org.springframework.social.twitter.api.MentionEntity;
+import org.springframework.social.twitter.api.Tweet;
+import org.springframework.social.twitter.api.UrlEntity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Measures the memory held by entities, with JOL.
+ * Sizes vary with the JVM's object layout, so they're compared with the layouts of the classes involved rather than with fixed numbers.
+ */
+public class EntitiesFootprintTest {
+
+	@Test
+	public void emptyEntities() {
+		Entities entities = new Entities(new ArrayList<UrlEntity>(), new ArrayList<HashTagEntity>(), new ArrayList<MentionEntity>(), new ArrayList<MediaEntity>());
+		assertSame(Collections.emptyList(), entities.getUrls());
+		assertSame(Collections.emptyList(), entities.getHashTags());
+		assertSame(Collections.emptyList(), entities.getMentions());
+		assertSame(Collections.emptyList(), entities.getMedia());
+		assertSame(Collections.emptyList(), entities.getTickerSymbols());
+		// nothing but the Entities itself and the shared empty list
+		long expected = ClassLayout.parseClass(Entities.class).instanceSize() + GraphLayout.parseInstance(Collections.emptyList()).totalSize();
+		assertEquals(expected, GraphLayout.parseInstance(entities).totalSize());
+	}
+
+	@Test
+	public void entityIndices() {
+		String text = "spring";
+		HashTagEntity hashTag = new HashTagEntity(text, new int[] { 0, 7 });
+		assertArrayEquals(new int[] { 0, 7 }, hashTag.getIndices());
+		// no int[] and no extra data map
+		long expected = ClassLayout.parseClass(HashTagEntity.class).instanceSize() + GraphLayout.parseInstance(text).totalSize();
+		assertEquals(expected, GraphLayout.parseInstance(hashTag).totalSize());
+	}
+
+	@Test
+	public void listsAreRightSized() throws ClassNotFoundException {
+		HashTagEntity hashTag1 = new HashTagEntity("one", new int[] { 0, 4 });
+		HashTagEntity hashTag2 = new HashTagEntity("two", new int[] { 5, 9 });
+		ArrayList<HashTagEntity> hashTags = new ArrayList<HashTagEntity>(100);
+		hashTags.add(hashTag1);
+		hashTags.add(hashTag2);
+		Entities entities = new Entities(null, hashTags, null, null);
+		assertEquals(Arrays.asList(hashTag1, hashTag2), entities.getHashTags());
+		long entitiesSize = GraphLayout.parseInstance(entities).totalSize();
+		long hashTagsSize = GraphLayout.parseInstance(hashTag1, hashTag2).totalSize();
+		// the hashtags in a two-element array, in a list that holds nothing else
+		long expected = ClassLayout.parseClass(Entities.class).instanceSize() + GraphLayout.parseInstance(Collections.emptyList()).totalSize()
+				+ ClassLayout.parseClass(Class.forName(Entities.class.getName() + "$EntityList")).instanceSize()
+				+ GraphLayout.parseInstance((Object) new Object[2]).totalSize() + hashTagsSize;
+		assertEquals(expected, entitiesSize);
+	}
+
+	@Test
+	public void parsedTweet() throws IOException {
+		ObjectMapper objectMapper = new ObjectMapper();
+		objectMapper.registerModule(new TwitterModule());
+		Tweet tweet = objectMapper.readValue(new ClassPathResource("status.json", getClass()).getInputStream(), Tweet.class);
+		Entities entities = tweet.getEntities();
+		assertTrue(entities.hasTags());
+		assertTrue(entities.hasUrls());
+		assertTrue(entities.hasMentions());
+		GraphLayout layout = GraphLayout.parseInstance(entities);
+		assertFalse(layout.getClasses().contains(LinkedList.class));
+		assertFalse(layout.getClasses().contains(int[].class));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void immutable() {
+		Entities entities = new Entities(null, new ArrayList<HashTagEntity>(Arrays.asList(new HashTagEntity("one", new int[] { 0, 4 }))), null, null);
+		entities.getHashTags().add(new HashTagEntity("two", new int[] { 5, 9 }));
+	}
+
+}
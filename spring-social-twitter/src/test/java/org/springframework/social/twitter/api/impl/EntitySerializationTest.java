@@ -0,0 +1,101 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Base64;
+
+import org.junit.Test;
+import org.springframework.social.twitter.api.Entities;
+import org.springframework.social.twitter.api.HashTagEntity;
+import org.springframework.social.twitter.api.MediaEntity;
+import org.springframework.social.twitter.api.MentionEntity;
+import org.springframework.social.twitter.api.TickerSymbolEntity;
+import org.springframework.social.twitter.api.UrlEntity;
+
+/**
+ * Checks that entities still read and write the serialized form of earlier versions, which held their indices as an int[].
+ */
+public class EntitySerializationTest {
+
+	// serialized by the entity classes as they were before they held their indices as two ints
+	private static final String HASHTAG = "rO0ABXNyADRvcmcuc3ByaW5nZnJhbWV3b3JrLnNvY2lhbC50d2l0dGVyLmFwaS5IYXNoVGFnRW50aXR5AAAAAAAAAAECAAJbAAdpbmRpY2VzdAACW0lMAAR0ZXh0dAASTGphdmEvbGFuZy9TdHJpbmc7eHB1cgACW0lNumAmduqypQIAAHhwAAAAAgAAAAgAAAAPdAAGc3ByaW5n";
+
+	private static final String URL = "rO0ABXNyADBvcmcuc3ByaW5nZnJhbWV3b3JrLnNvY2lhbC50d2l0dGVyLmFwaS5VcmxFbnRpdHkAAAAAAAAAAQIABEwAB2Rpc3BsYXl0ABJMamF2YS9sYW5nL1N0cmluZztMAAhleHBhbmRlZHEAfgABWwAHaW5kaWNlc3QAAltJTAADdXJscQB+AAF4cHQABnQuY28veHQAFGh0dHA6Ly9leGFtcGxlLmNvbS94dXIAAltJTbpgJnbqsqUCAAB4cAAAAAIAAAAUAAAAJ3QADWh0dHA6Ly90LmNvL3g=";
+
+	private static final String MENTION = "rO0ABXNyADRvcmcuc3ByaW5nZnJhbWV3b3JrLnNvY2lhbC50d2l0dGVyLmFwaS5NZW50aW9uRW50aXR5AAAAAAAAAAECAARKAAJpZFsAB2luZGljZXN0AAJbSUwABG5hbWV0ABJMamF2YS9sYW5nL1N0cmluZztMAApzY3JlZW5OYW1lcQB+AAJ4cAAAAAAAADA5dXIAAltJTbpgJnbqsqUCAAB4cAAAAAIAAAADAAAACnQAC0NyYWlnIFdhbGxzdAAGaGFidW1h";
+
+	private static final String MEDIA = "rO0ABXNyADJvcmcuc3ByaW5nZnJhbWV3b3JrLnNvY2lhbC50d2l0dGVyLmFwaS5NZWRpYUVudGl0eQAAAAAAAAABAgAISgACaWRMAAdkaXNwbGF5dAASTGphdmEvbGFuZy9TdHJpbmc7TAAIZXhwYW5kZWRxAH4AAVsAB2luZGljZXN0AAJbSUwACW1lZGlhSHR0cHEAfgABTAAKbWVkaWFIdHRwc3EAfgABTAAEdHlwZXEAfgABTAADdXJscQB+AAF4cAAAAAAAAABjdAARcGljLnR3aXR0ZXIuY29tL210ABRodHRwOi8vdHdpdHRlci5jb20vbXVyAAJbSU26YCZ26rKlAgAAeHAAAAACAAAAKAAAADx0AA5odHRwOi8vbS8xLnBuZ3QAD2h0dHBzOi8vbS8xLnBuZ3QABXBob3RvdAANaHR0cDovL3QuY28vbQ==";
+
+	private static final String TICKER_SYMBOL = "rO0ABXNyADlvcmcuc3ByaW5nZnJhbWV3b3JrLnNvY2lhbC50d2l0dGVyLmFwaS5UaWNrZXJTeW1ib2xFbnRpdHkAAAAAAAAAAQIAA1sAB2luZGljZXN0AAJbSUwADHRpY2tlclN5bWJvbHQAEkxqYXZhL2xhbmcvU3RyaW5nO0wAA3VybHEAfgACeHB1cgACW0lNumAmduqypQIAAHhwAAAAAgAAAAAAAAAEdAAEJFNQUnQAI2h0dHBzOi8vdHdpdHRlci5jb20vc2VhcmNoP3E9JTI0U1BS";
+
+	private static final String HASHTAG_WITHOUT_INDICES = "rO0ABXNyADRvcmcuc3ByaW5nZnJhbWV3b3JrLnNvY2lhbC50d2l0dGVyLmFwaS5IYXNoVGFnRW50aXR5AAAAAAAAAAECAAJbAAdpbmRpY2VzdAACW0lMAAR0ZXh0dAASTGphdmEvbGFuZy9TdHJpbmc7eHBwdAAJbm9pbmRpY2Vz";
+
+	@Test
+	public void readsEarlierSerializedForm() throws Exception {
+		assertEquals(new HashTagEntity("spring", new int[] { 8, 15 }), read(HASHTAG));
+		assertEquals(new UrlEntity("t.co/x", "http://example.com/x", "http://t.co/x", new int[] { 20, 39 }), read(URL));
+		assertEquals(new MentionEntity(12345L, "habuma", "Craig Walls", new int[] { 3, 10 }), read(MENTION));
+		assertEquals(new MediaEntity(99L, "http://m/1.png", "https://m/1.png", "http://t.co/m", "pic.twitter.com/m", "http://twitter.com/m", "photo", new int[] { 40, 60 }), read(MEDIA));
+		assertEquals(new TickerSymbolEntity("$SPR", "https://twitter.com/search?q=%24SPR", new int[] { 0, 4 }), read(TICKER_SYMBOL));
+		HashTagEntity withoutIndices = (HashTagEntity) read(HASHTAG_WITHOUT_INDICES);
+		assertEquals("noindices", withoutIndices.getText());
+		assertEquals(0, withoutIndices.getIndices().length);
+	}
+
+	@Test
+	public void entitiesRoundTrip() throws Exception {
+		for (String serialized : new String[] { HASHTAG, URL, MENTION, MEDIA, TICKER_SYMBOL }) {
+			Object entity = read(serialized);
+			assertEquals(entity, read(write(entity)));
+		}
+	}
+
+	@Test
+	public void entitiesListsRoundTrip() throws Exception {
+		Entities entities = new Entities(Arrays.asList(new UrlEntity("t.co/x", "http://example.com/x", "http://t.co/x", new int[] { 20, 39 })),
+				Arrays.asList(new HashTagEntity("spring", new int[] { 8, 15 })), null, null);
+		Entities copy = (Entities) read(write(entities));
+		assertEquals(entities, copy);
+		assertArrayEquals(new int[] { 8, 15 }, copy.getHashTags().get(0).getIndices());
+		assertTrue(copy.getMentions().isEmpty());
+	}
+
+	private Object read(String serialized) throws IOException, ClassNotFoundException {
+		ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(serialized)));
+		try {
+			return in.readObject();
+		} finally {
+			in.close();
+		}
+	}
+
+	private String write(Object object) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream out = new ObjectOutputStream(bytes);
+		out.writeObject(object);
+		out.close();
+		return Base64.getEncoder().encodeToString(bytes.toByteArray());
+	}
+
+}
@@ -21,10 +21,16 @@ import static org.springframework.http.MediaType.*;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.junit.Test;
+import org.springframework.social.MissingAuthorizationException;
+import org.springframework.social.twitter.api.CloseableIterator;
 import org.springframework.social.twitter.api.CursoredList;
+import org.springframework.social.twitter.api.CursoredLongArray;
 import org.springframework.social.twitter.api.TwitterProfile;
 
 
@@ -500,6 +506,74 @@ public class FriendTemplateTest extends AbstractTwitterApiTest {
 		assertFriendFollowerIdsList(followerIds);
 	}
 
+	@Test
+	public void getFollowerIdArrayInCursor_byScreenName() {
+		mockServer.expect(requestTo("https://api.twitter.com/1.1/followers/ids.json?cursor=24680&screen_name=habuma"))
+			.andExpect(method(GET))
+			.andRespond(withSuccess(jsonResource("friend-or-follower-ids"), APPLICATION_JSON));
+
+		CursoredLongArray followerIds = twitter.friendOperations().getFollowerIdArrayInCursor("habuma", 24680);
+		assertArrayEquals(new long[] { 14846645, 14718006 }, followerIds.toArray());
+		assertEquals(112233, followerIds.getPreviousCursor());
+		assertEquals(332211, followerIds.getNextCursor());
+	}
+
+	@Test
+	public void getFriendIdArrayInCursor_byUserId_appAuthorization() {
+		appAuthMockServer.expect(requestTo("https://api.twitter.com/1.1/friends/ids.json?cursor=-1&user_id=98765"))
+			.andExpect(method(GET))
+			.andExpect(header("Authorization", "Bearer APP_ACCESS_TOKEN"))
+			.andRespond(withSuccess(jsonResource("friend-or-follower-ids"), APPLICATION_JSON));
+
+		CursoredLongArray friendIds = appAuthTwitter.friendOperations().getFriendIdArrayInCursor(98765, -1);
+		assertArrayEquals(new long[] { 14846645, 14718006 }, friendIds.toArray());
+	}
+
+	@Test(expected = MissingAuthorizationException.class)
+	public void getFriendIdArrayInCursor_currentUser_appAuthorization() {
+		appAuthTwitter.friendOperations().getFriendIdArrayInCursor(-1);
+	}
+
+	@Test
+	public void iterateAllFollowerIds_byScreenName() {
+		mockServer.expect(requestTo("https://api.twitter.com/1.1/followers/ids.json?cursor=-1&screen_name=habuma"))
+			.andExpect(method(GET))
+			.andRespond(withSuccess(jsonResource("friend-or-follower-ids"), APPLICATION_JSON));
+		mockServer.expect(requestTo("https://api.twitter.com/1.1/followers/ids.json?cursor=332211&screen_name=habuma"))
+			.andExpect(method(GET))
+			.andRespond(withSuccess("{\"ids\":[14846646],\"previous_cursor\":332211,\"next_cursor\":0}", APPLICATION_JSON));
+
+		CloseableIterator<Long> followerIds = twitter.friendOperations().iterateAllFollowerIds("habuma");
+		List<Long> ids = new ArrayList<Long>();
+		while (followerIds.hasNext()) {
+			ids.add(followerIds.next());
+		}
+		assertEquals(Arrays.asList(14846645L, 14718006L, 14846646L), ids);
+		mockServer.verify();
+	}
+
+	@Test
+	public void streamAllFollowers_byUserId_withoutPrefetching() {
+		twitter.setCursorPrefetchDepth(0);
+		mockServer.expect(requestTo("https://api.twitter.com/1.1/followers/list.json?cursor=-1&user_id=98765"))
+			.andExpect(method(GET))
+			.andRespond(withSuccess(jsonResource("list-members"), APPLICATION_JSON));
+		mockServer.expect(requestTo("https://api.twitter.com/1.1/followers/list.json?cursor=332211&user_id=98765"))
+			.andExpect(method(GET))
+			.andRespond(withSuccess("{\"users\":[],\"previous_cursor\":332211,\"next_cursor\":0}", APPLICATION_JSON));
+
+		java.util.stream.Stream<TwitterProfile> followers = twitter.friendOperations().streamAllFollowers(98765L);
+		try {
+			List<TwitterProfile> profiles = followers.collect(Collectors.<TwitterProfile>toList());
+			assertEquals(2, profiles.size());
+			assertEquals("royclarkson", profiles.get(0).getScreenName());
+			assertEquals("kdonald", profiles.get(1).getScreenName());
+		} finally {
+			followers.close();
+		}
+		mockServer.verify();
+	}
+
 	@Test
 	public void getFollowerIdsInCursor_byScreenName_appAuthorization() {
 		appAuthMockServer.expect(requestTo("https://api.twitter.com/1.1/followers/ids.json?cursor=24680&screen_name=habuma"))
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import static org.junit.Assert.*;
+import static org.springframework.social.twitter.api.ReconnectReason.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.springframework.social.twitter.api.impl.JitteredReconnectPolicy.Jitter;
+
+public class JitteredReconnectPolicyTest {
+
+	@Test
+	public void noJitter() {
+		JitteredReconnectPolicy policy = new JitteredReconnectPolicy(Jitter.NONE, ReconnectBudget.unlimited());
+		assertEquals(0, policy.getReconnectDelay(CONNECTION_DROPPED, 1, 0));
+		assertEquals(250, policy.getReconnectDelay(NETWORK_ERROR, 1, 0));
+		assertEquals(750, policy.getReconnectDelay(NETWORK_ERROR, 3, 500));
+		assertEquals(16000, policy.getReconnectDelay(NETWORK_ERROR, 1000, 16000));
+		assertEquals(5000, policy.getReconnectDelay(SERVER_ERROR, 1, 0));
+		assertEquals(20000, policy.getReconnectDelay(HTTP_ERROR, 3, 10000));
+		assertEquals(-1, policy.getReconnectDelay(HTTP_ERROR, 8, 320000));
+		assertEquals(60000, policy.getReconnectDelay(RATE_LIMITED, 1, 0));
+		assertEquals(960000, policy.getReconnectDelay(RATE_LIMITED, 5, 480000));
+		assertEquals(-1, policy.getReconnectDelay(RATE_LIMITED, 6, 960000));
+		assertEquals(-1, policy.getReconnectDelay(RATE_LIMITED, 100, 960000));
+	}
+
+	@Test
+	public void fullJitter() {
+		JitteredReconnectPolicy policy = new JitteredReconnectPolicy(Jitter.FULL, ReconnectBudget.unlimited());
+		for (int i = 0; i < 1000; i++) {
+			long delay = policy.getReconnectDelay(SERVER_ERROR, 3, 0);
+			assertTrue(delay >= 0 && delay <= 20000);
+		}
+		assertEquals(-1, policy.getReconnectDelay(SERVER_ERROR, 8, 0));
+	}
+
+	@Test
+	public void decorrelatedJitter() {
+		JitteredReconnectPolicy policy = new JitteredReconnectPolicy(Jitter.DECORRELATED, ReconnectBudget.unlimited());
+		assertEquals(60000, policy.getReconnectDelay(RATE_LIMITED, 1, 0));
+		long previousDelay = 60000;
+		for (int i = 0; i < 1000; i++) {
+			long delay = policy.getReconnectDelay(RATE_LIMITED, 2, previousDelay);
+			assertTrue(delay >= 60000 && delay <= 180000);
+		}
+		for (int i = 0; i < 1000; i++) {
+			long delay = policy.getReconnectDelay(NETWORK_ERROR, 2, 10000);
+			assertTrue(delay >= 250 && delay <= 16000);
+		}
+	}
+
+	@Test
+	public void budgetSpreadsReconnects() {
+		ReconnectBudget budget = new ReconnectBudget(2, 10, TimeUnit.SECONDS);
+		JitteredReconnectPolicy policy = new JitteredReconnectPolicy(Jitter.NONE, budget);
+		assertEquals(0, policy.getReconnectDelay(CONNECTION_DROPPED, 1, 0));
+		assertEquals(250, policy.getReconnectDelay(NETWORK_ERROR, 1, 0));
+		long thirdDelay = policy.getReconnectDelay(CONNECTION_DROPPED, 1, 0);
+		assertTrue(thirdDelay > 4000 && thirdDelay <= 5000);
+		long fourthDelay = policy.getReconnectDelay(CONNECTION_DROPPED, 1, 0);
+		assertTrue(fourthDelay > 9000 && fourthDelay <= 10000);
+	}
+
+}
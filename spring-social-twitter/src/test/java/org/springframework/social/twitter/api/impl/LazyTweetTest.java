@@ -0,0 +1,236 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.social.twitter.api.LazyTweet;
+import org.springframework.social.twitter.api.LazyTweetListener;
+import org.springframework.social.twitter.api.StreamDeleteEvent;
+import org.springframework.social.twitter.api.StreamListener;
+import org.springframework.social.twitter.api.StreamWarningEvent;
+import org.springframework.social.twitter.api.Tweet;
+import org.springframework.social.twitter.api.TwitterProfile;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class LazyTweetTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new TwitterModule());
+
+	@Test
+	public void sameAsDeserializedTweet() throws Exception {
+		for (String line : streamTweets()) {
+			Tweet tweet = objectMapper.readValue(line, Tweet.class);
+			assertSameTweet(tweet, new LazyTweetImpl(line));
+		}
+	}
+
+	@Test
+	public void retweetedStatus() throws Exception {
+		String line = streamTweets().get(0);
+		Tweet tweet = objectMapper.readValue(line, Tweet.class);
+		LazyTweet lazyTweet = new LazyTweetImpl(line);
+		assertTrue(lazyTweet.isRetweet());
+		assertSameTweet(tweet.getRetweetedStatus(), lazyTweet.getRetweetedStatus());
+		assertTrue(lazyTweet.getRetweetedStatus().getJson().startsWith("{"));
+		assertTrue(lazyTweet.getRetweetedStatus().getJson().endsWith("}"));
+		assertFalse(lazyTweet.getRetweetedStatus().isRetweet());
+		assertNull(lazyTweet.getRetweetedStatus().getRetweetedStatus());
+	}
+
+	@Test
+	public void multiByteText() throws Exception {
+		// characters that take more than one byte, or more than one char, mustn't throw the offsets off
+		String line = "{\"text\":\"Caf\u00e9 \ud83d\ude00 #spring\",\"lang\":\"fr\",\"retweeted_status\":{\"text\":\"\u00fcber\",\"id\":1},\"id\":42,"
+				+ "\"user\":{\"screen_name\":\"j\u00fcrgen\",\"id\":7}}";
+		LazyTweet lazyTweet = new LazyTweetImpl(line);
+		assertEquals("42", lazyTweet.getId());
+		assertEquals("fr", lazyTweet.getLanguageCode());
+		assertEquals("Caf\u00e9 \ud83d\ude00 #spring", lazyTweet.getText());
+		assertEquals("\u00fcber", lazyTweet.getRetweetedStatus().getText());
+		assertEquals("1", lazyTweet.getRetweetedStatus().getId());
+		assertEquals("j\u00fcrgen", lazyTweet.getFromUser());
+		assertEquals(7, lazyTweet.getFromUserId());
+		assertEquals("spring", lazyTweet.getEntities().getHashTags().get(0).getText());
+		assertEquals(line, lazyTweet.getJson());
+	}
+
+	@Test
+	public void missingValues() throws Exception {
+		LazyTweet lazyTweet = new LazyTweetImpl("{\"id\":1,\"text\":\"Hello\",\"lang\":null,\"retweeted_status\":null}");
+		assertNull(lazyTweet.getLanguageCode());
+		assertNull(lazyTweet.getSource());
+		assertNull(lazyTweet.getCreatedAt());
+		assertNull(lazyTweet.getRetweetCount());
+		assertNull(lazyTweet.getUser());
+		assertNull(lazyTweet.getFromUser());
+		assertEquals(0, lazyTweet.getFromUserId());
+		assertFalse(lazyTweet.isRetweet());
+		assertNull(lazyTweet.getRetweetedStatus());
+		assertFalse(lazyTweet.isFavorited());
+		assertFalse(lazyTweet.getEntities().hasTags());
+	}
+
+	@Test(expected = com.fasterxml.jackson.core.JsonParseException.class)
+	public void notATweet() throws Exception {
+		new LazyTweetImpl("[1, 2, 3]");
+	}
+
+	@Test
+	public void valuesAreDecodedOnce() throws Exception {
+		final LazyTweet lazyTweet = new LazyTweetImpl(streamTweets().get(2));
+		assertSame(lazyTweet.getUser(), lazyTweet.getUser());
+		assertSame(lazyTweet.getEntities(), lazyTweet.getEntities());
+		assertSame(lazyTweet.toTweet(), lazyTweet.toTweet());
+		// the author's ID and screen name come from the profile once it's been decoded
+		assertEquals(lazyTweet.getUser().getId(), lazyTweet.getFromUserId());
+	}
+
+	@Test
+	public void sharedAcrossThreads() throws Exception {
+		String line = streamTweets().get(1);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			for (int i = 0; i < 50; i++) {
+				final LazyTweet lazyTweet = new LazyTweetImpl(line);
+				List<Callable<TwitterProfile>> readers = new ArrayList<Callable<TwitterProfile>>();
+				for (int j = 0; j < 4; j++) {
+					readers.add(new Callable<TwitterProfile>() {
+						public TwitterProfile call() {
+							lazyTweet.getFromUserId();
+							return lazyTweet.getUser();
+						}
+					});
+				}
+				List<Future<TwitterProfile>> profiles = executor.invokeAll(readers);
+				for (Future<TwitterProfile> profile : profiles) {
+					assertSame(profiles.get(0).get(), profile.get());
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void dispatchedToLazyListenersOnly() throws Exception {
+		Queue<QueuedMessage> queue = new ConcurrentLinkedQueue<QueuedMessage>();
+		for (String line : readLines()) {
+			queue.add(new QueuedMessage(line));
+		}
+		LazyListener lazyListener = new LazyListener();
+		StreamListener eagerListener = mock(StreamListener.class);
+		StreamDispatcher dispatcher = new StreamDispatcher(queue, asList(lazyListener, eagerListener));
+		dispatcher.run();
+		assertTrue(dispatcher.drain(System.nanoTime() + TimeUnit.SECONDS.toNanos(5)).isComplete());
+		assertEquals(4, lazyListener.lazyTweets.size());
+		assertEquals(0, lazyListener.tweets.size());
+		assertEquals(2, lazyListener.deletes.size());
+		verify(eagerListener, times(4)).onTweet(any(Tweet.class));
+		assertEquals("73115209899835392", lazyListener.lazyTweets.get(0).getId());
+	}
+
+	private void assertSameTweet(Tweet tweet, LazyTweet lazyTweet) {
+		assertEquals(tweet.getId(), lazyTweet.getId());
+		assertEquals(tweet.getText(), lazyTweet.getText());
+		assertEquals(tweet.getCreatedAt(), lazyTweet.getCreatedAt());
+		assertEquals(tweet.getFromUser(), lazyTweet.getFromUser());
+		assertEquals(tweet.getFromUserId(), lazyTweet.getFromUserId());
+		assertEquals(tweet.getLanguageCode(), lazyTweet.getLanguageCode());
+		assertEquals(tweet.getSource(), lazyTweet.getSource());
+		assertEquals(tweet.getInReplyToStatusId(), lazyTweet.getInReplyToStatusId());
+		assertEquals(tweet.getInReplyToUserId(), lazyTweet.getInReplyToUserId());
+		assertEquals(tweet.getRetweetCount(), lazyTweet.getRetweetCount());
+		assertEquals(tweet.getFavoriteCount(), lazyTweet.getFavoriteCount());
+		assertEquals(tweet.isRetweeted(), lazyTweet.isRetweeted());
+		assertEquals(tweet.isFavorited(), lazyTweet.isFavorited());
+		assertEquals(tweet.isRetweet(), lazyTweet.isRetweet());
+		assertEquals(tweet.getUser(), lazyTweet.getUser());
+		assertEquals(tweet.getEntities(), lazyTweet.getEntities());
+		assertEquals(tweet.getId(), lazyTweet.toTweet().getId());
+		assertEquals(tweet.getUser(), lazyTweet.toTweet().getUser());
+	}
+
+	private List<String> streamTweets() throws Exception {
+		List<String> tweets = new ArrayList<String>();
+		for (String line : readLines()) {
+			if (StreamMessageType.classify(line) == StreamMessageType.TWEET) {
+				tweets.add(line);
+			}
+		}
+		return tweets;
+	}
+
+	private List<String> readLines() throws Exception {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(new ClassPathResource("filter-stream-track.json", getClass()).getInputStream(), StandardCharsets.UTF_8));
+		try {
+			List<String> lines = new ArrayList<String>();
+			String line;
+			while ((line = reader.readLine()) != null) {
+				lines.add(line);
+			}
+			return lines;
+		} finally {
+			reader.close();
+		}
+	}
+
+	private static class LazyListener implements StreamListener, LazyTweetListener {
+
+		private final List<LazyTweet> lazyTweets = new CopyOnWriteArrayList<LazyTweet>();
+
+		private final List<Tweet> tweets = new CopyOnWriteArrayList<Tweet>();
+
+		private final List<StreamDeleteEvent> deletes = new CopyOnWriteArrayList<StreamDeleteEvent>();
+
+		public void onLazyTweet(LazyTweet tweet) {
+			lazyTweets.add(tweet);
+		}
+
+		public void onTweet(Tweet tweet) {
+			tweets.add(tweet);
+		}
+
+		public void onDelete(StreamDeleteEvent deleteEvent) {
+			deletes.add(deleteEvent);
+		}
+
+		public void onLimit(int numberOfLimitedTweets) {}
+
+		public void onWarning(StreamWarningEvent warningEvent) {}
+
+	}
+
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.social.twitter.api.StreamListener;
+import org.springframework.social.twitter.api.StreamOverflowHandler;
+import org.springframework.social.twitter.api.StreamOverflowHandler.Reason;
+import org.springframework.social.twitter.api.Tweet;
+
+public class ListenerIsolationTest {
+
+	private String tweetLine;
+
+	private Queue<QueuedMessage> queue;
+
+	private RecordingOverflowHandler overflowHandler;
+
+	@Before
+	public void setup() throws Exception {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(new ClassPathResource("filter-stream-track.json", getClass()).getInputStream()));
+		tweetLine = reader.readLine();
+		reader.close();
+		queue = new ConcurrentLinkedQueue<QueuedMessage>();
+		overflowHandler = new RecordingOverflowHandler();
+	}
+
+	@Test
+	public void throwingListenerIsQuarantined() throws Exception {
+		StreamListener healthyListener = mock(StreamListener.class);
+		StreamListener throwingListener = mock(StreamListener.class);
+		doThrow(new IllegalStateException("Boom")).when(throwingListener).onTweet(any(Tweet.class));
+		StreamDispatcher dispatcher = createDispatcher(policy(Duration.ofSeconds(5), 3, Duration.ofMinutes(1), 100), healthyListener, throwingListener);
+		ListenerLane throwingLane = dispatcher.getLanes().get(1);
+
+		dispatchTweets(dispatcher, 3);
+		awaitErrors(throwingLane, 3);
+		assertTrue(throwingLane.isQuarantined());
+		dispatchTweets(dispatcher, 7);
+		assertTrue(dispatcher.drain(deadline()).isComplete());
+
+		verify(healthyListener, times(10)).onTweet(any(Tweet.class));
+		verify(throwingListener, times(3)).onTweet(any(Tweet.class));
+		assertEquals(3, throwingLane.getErrorCount());
+		assertEquals(7, throwingLane.getDivertedCount());
+		assertEquals(7, overflowHandler.count(throwingListener, Reason.QUARANTINED));
+		assertEquals(0, overflowHandler.count(healthyListener, Reason.QUARANTINED));
+		assertFalse(dispatcher.getLanes().get(0).isQuarantined());
+	}
+
+	@Test
+	public void blockedListenerDoesNotHoldUpOthers() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		StreamListener healthyListener = mock(StreamListener.class);
+		StreamListener blockedListener = mock(StreamListener.class);
+		doAnswer(new Answer<Void>() {
+			public Void answer(InvocationOnMock invocation) throws Throwable {
+				release.await();
+				return null;
+			}
+		}).when(blockedListener).onTweet(any(Tweet.class));
+		StreamDispatcher dispatcher = createDispatcher(policy(Duration.ofMillis(50), 3, Duration.ofMinutes(1), 100), healthyListener, blockedListener);
+		ListenerLane blockedLane = dispatcher.getLanes().get(1);
+
+		dispatchTweets(dispatcher, 1);
+		Thread.sleep(100); // the blocked listener is now past its time budget
+		dispatchTweets(dispatcher, 5);
+
+		verify(healthyListener, timeout(1000).times(6)).onTweet(any(Tweet.class));
+		assertTrue(blockedLane.isQuarantined());
+		assertEquals(5, overflowHandler.count(blockedListener, Reason.QUARANTINED));
+		release.countDown();
+		assertTrue(dispatcher.drain(deadline()).isComplete());
+		verify(blockedListener, times(1)).onTweet(any(Tweet.class));
+		assertEquals(1, blockedLane.getSlowCount());
+	}
+
+	@Test
+	public void backloggedListenerOverflows() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		StreamListener slowListener = mock(StreamListener.class);
+		doAnswer(new Answer<Void>() {
+			public Void answer(InvocationOnMock invocation) throws Throwable {
+				release.await();
+				return null;
+			}
+		}).when(slowListener).onTweet(any(Tweet.class));
+		StreamDispatcher dispatcher = createDispatcher(policy(Duration.ofMinutes(1), 3, Duration.ofMinutes(1), 2), slowListener);
+
+		dispatchTweets(dispatcher, 1);
+		verify(slowListener, timeout(1000)).onTweet(any(Tweet.class));
+		dispatchTweets(dispatcher, 4);
+		// one being handled, two waiting, and no room for the rest
+		assertEquals(2, overflowHandler.count(slowListener, Reason.BACKLOGGED));
+		release.countDown();
+		assertTrue(dispatcher.drain(deadline()).isComplete());
+		verify(slowListener, times(3)).onTweet(any(Tweet.class));
+		assertFalse(dispatcher.getLanes().get(0).isQuarantined());
+	}
+
+	@Test
+	public void quarantinedListenerIsReleasedAfterSuccess() throws Exception {
+		StreamListener flakyListener = mock(StreamListener.class);
+		doThrow(new IllegalStateException("Boom")).doThrow(new IllegalStateException("Boom")).doNothing().when(flakyListener).onTweet(any(Tweet.class));
+		StreamDispatcher dispatcher = createDispatcher(policy(Duration.ofSeconds(5), 2, Duration.ofMillis(100), 100), flakyListener);
+		ListenerLane lane = dispatcher.getLanes().get(0);
+
+		dispatchTweets(dispatcher, 2);
+		awaitErrors(lane, 2);
+		assertTrue(lane.isQuarantined());
+		dispatchTweets(dispatcher, 1);
+		assertEquals(1, lane.getDivertedCount());
+		Thread.sleep(150);
+		dispatchTweets(dispatcher, 1);
+		assertTrue(dispatcher.drain(deadline()).isComplete());
+		verify(flakyListener, times(3)).onTweet(any(Tweet.class));
+		assertFalse(lane.isQuarantined());
+	}
+
+	private StreamDispatcher createDispatcher(ListenerIsolationPolicy policy, StreamListener... listeners) {
+		return new StreamDispatcher(queue, new ConcurrentLinkedQueue<QueuedMessage>(), asList(listeners), "filter", NoOpStreamMetrics.INSTANCE, policy, null, null, null);
+	}
+
+	private ListenerIsolationPolicy policy(Duration timeBudget, int maxConsecutiveFailures, Duration quarantineTime, int laneCapacity) {
+		return new ListenerIsolationPolicy(timeBudget, maxConsecutiveFailures, quarantineTime, laneCapacity, overflowHandler);
+	}
+
+	private void dispatchTweets(StreamDispatcher dispatcher, int count) {
+		for (int i = 0; i < count; i++) {
+			queue.add(new QueuedMessage(tweetLine));
+		}
+		dispatcher.run();
+	}
+
+	private void awaitErrors(ListenerLane lane, int errors) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (lane.getErrorCount() < errors && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		Thread.sleep(10); // the lane counts the error just before it decides on quarantine
+	}
+
+	private long deadline() {
+		return System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+	}
+
+	private static class RecordingOverflowHandler implements StreamOverflowHandler {
+		private final List<Object[]> overflows = new ArrayList<Object[]>();
+
+		public synchronized void onOverflow(StreamListener listener, String message, Reason reason) {
+			overflows.add(new Object[] { listener, reason });
+		}
+
+		public synchronized int count(StreamListener listener, Reason reason) {
+			int count = 0;
+			for (Object[] overflow : overflows) {
+				if (overflow[0] == listener && overflow[1] == reason) {
+					count++;
+				}
+			}
+			return count;
+		}
+	}
+
+}
@@ -22,9 +22,12 @@ import static org.springframework.http.MediaType.*;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.*;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.junit.Test;
+import org.springframework.social.twitter.api.CloseableIterator;
 import org.springframework.social.twitter.api.CursoredList;
 import org.springframework.social.twitter.api.Tweet;
 import org.springframework.social.twitter.api.TwitterProfile;
@@ -188,6 +191,68 @@ public class ListsTemplateTest extends AbstractTwitterApiTest {
 		assertEquals(112233, listMembers.getPreviousCursor());
 	}
 
+	@Test
+	public void iterateListMembers_byListId() {
+		mockServer.expect(requestTo("https://api.twitter.com/1.1/lists/members.json?list_id=40841803"))
+			.andExpect(method(GET))
+			.andRespond(withSuccess(jsonResource("list-members"), APPLICATION_JSON));
+		CloseableIterator<TwitterProfile> members = twitter.listOperations().iterateListMembers(40841803);
+		List<TwitterProfile> listMembers = new ArrayList<TwitterProfile>();
+		while (members.hasNext()) {
+			listMembers.add(members.next());
+		}
+		assertListMembers(listMembers);
+	}
+
+	@Test
+	public void streamListMembers_byScreenNameAndListSlug() {
+		mockServer.expect(requestTo("https://api.twitter.com/1.1/lists/members.json?owner_screen_name=habuma&slug=forfun"))
+			.andExpect(method(GET))
+			.andRespond(withSuccess(jsonResource("list-members"), APPLICATION_JSON));
+		java.util.stream.Stream<TwitterProfile> members = twitter.listOperations().streamListMembers("habuma", "forfun");
+		try {
+			assertListMembers(members.collect(Collectors.<TwitterProfile>toList()));
+		} finally {
+			members.close();
+		}
+	}
+
+	@Test
+	public void iterateAllListMembers_byListId() {
+		mockServer.expect(requestTo("https://api.twitter.com/1.1/lists/members.json?list_id=40841803&cursor=-1"))
+			.andExpect(method(GET))
+			.andRespond(withSuccess(jsonResource("list-members"), APPLICATION_JSON));
+		mockServer.expect(requestTo("https://api.twitter.com/1.1/lists/members.json?list_id=40841803&cursor=332211"))
+			.andExpect(method(GET))
+			.andRespond(withSuccess("{\"users\":[],\"previous_cursor\":332211,\"next_cursor\":0}", APPLICATION_JSON));
+		CloseableIterator<TwitterProfile> members = twitter.listOperations().iterateAllListMembers(40841803);
+		List<TwitterProfile> listMembers = new ArrayList<TwitterProfile>();
+		while (members.hasNext()) {
+			listMembers.add(members.next());
+		}
+		assertListMembers(listMembers);
+		mockServer.verify();
+	}
+
+	@Test
+	public void streamAllListMembers_byScreenNameAndListSlug_appAuthorization() {
+		appAuthMockServer.expect(requestTo("https://api.twitter.com/1.1/lists/members.json?owner_screen_name=habuma&slug=forfun&cursor=-1"))
+			.andExpect(method(GET))
+			.andExpect(header("Authorization", "Bearer APP_ACCESS_TOKEN"))
+			.andRespond(withSuccess(jsonResource("list-members"), APPLICATION_JSON));
+		appAuthMockServer.expect(requestTo("https://api.twitter.com/1.1/lists/members.json?owner_screen_name=habuma&slug=forfun&cursor=332211"))
+			.andExpect(method(GET))
+			.andExpect(header("Authorization", "Bearer APP_ACCESS_TOKEN"))
+			.andRespond(withSuccess("{\"users\":[],\"previous_cursor\":332211,\"next_cursor\":0}", APPLICATION_JSON));
+		java.util.stream.Stream<TwitterProfile> members = appAuthTwitter.listOperations().streamAllListMembers("habuma", "forfun");
+		try {
+			assertListMembers(members.collect(Collectors.<TwitterProfile>toList()));
+		} finally {
+			members.close();
+		}
+		appAuthMockServer.verify();
+	}
+
 	@Test
 	public void getListMembers_byScreenNameAndListSlug_appAuthorization() {
 		appAuthMockServer.expect(requestTo("https://api.twitter.com/1.1/lists/members.json?owner_screen_name=habuma&slug=forfun"))
@@ -15,6 +15,9 @@
  */
 package org.springframework.social.twitter.api.impl;
 
+import java.time.Duration;
+
+import org.springframework.social.twitter.api.StreamDrainReport;
 import org.springframework.social.twitter.api.StreamingException;
 
 public class MockStream implements StreamReader {
@@ -36,6 +39,11 @@ public class MockStream implements StreamReader {
 		open = false;
 	}
 
+	public StreamDrainReport close(Duration drainTimeout) {
+		close();
+		return new StreamDrainReport(0, 0);
+	}
+
 	public boolean isOpen() {
 		return open;
 	}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import static org.junit.Assert.*;
+
+import java.net.URI;
+
+import org.junit.Test;
+import org.springframework.social.support.URIBuilder;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+public class OAuth1SigningFilterTest {
+
+	// the example from Twitter's "Creating a signature" documentation, which predates version 1.1 of the API
+	@Test
+	public void buildAuthorizationHeaderValue() {
+		URI uri = URIBuilder.fromUri("https://api.twitter.com/1/statuses/update.json").queryParam("include_entities", "true").build();
+		MultiValueMap<String, String> formData = new LinkedMultiValueMap<String, String>();
+		formData.set("status", "Hello Ladies + Gentlemen, a signed OAuth request!");
+		String header = filter().buildAuthorizationHeaderValue("POST", uri, formData, "kYjzVBB8Y0ZFabxSWbWovY3uYSQ2pTgmZeNu2VS4cg", 1318622958);
+		assertEquals(EXPECTED_HEADER, header);
+	}
+
+	@Test
+	public void buildAuthorizationHeaderValue_queryParameters() {
+		URI uri = URIBuilder.fromUri("https://api.twitter.com/1/statuses/update.json")
+				.queryParam("include_entities", "true")
+				.queryParam("status", "Hello Ladies + Gentlemen, a signed OAuth request!")
+				.build();
+		String header = filter().buildAuthorizationHeaderValue("POST", uri, null, "kYjzVBB8Y0ZFabxSWbWovY3uYSQ2pTgmZeNu2VS4cg", 1318622958);
+		assertEquals(EXPECTED_HEADER, header);
+	}
+
+	@Test
+	public void encode() {
+		assertEquals("Ladies%20%2B%20Gentlemen", OAuth1SigningFilter.encode("Ladies + Gentlemen"));
+		assertEquals("An%20encoded%20string%21", OAuth1SigningFilter.encode("An encoded string!"));
+		assertEquals("Dogs%2C%20Cats%20%26%20Mice", OAuth1SigningFilter.encode("Dogs, Cats & Mice"));
+		assertEquals("%E2%98%83", OAuth1SigningFilter.encode("\u2603"));
+		assertEquals("-._~", OAuth1SigningFilter.encode("-._~"));
+	}
+
+	private OAuth1SigningFilter filter() {
+		return new OAuth1SigningFilter("xvz1evFS4wEEPTGEFPHBog", "kAcSOqF21Fu85e7zjz7ZN2U4ZRhfV3WpwPAoE3Z7kBw",
+				"370773112-GmHxMAgYyLbNEtIKZeRNFsMKPR9EyMZeS9weJAEb", "LswwdoUaIvS8ltyTt5jkRh4J50vUPVVHtR2YPi5kE");
+	}
+
+	private static final String EXPECTED_HEADER = "OAuth oauth_consumer_key=\"xvz1evFS4wEEPTGEFPHBog\", oauth_nonce=\"kYjzVBB8Y0ZFabxSWbWovY3uYSQ2pTgmZeNu2VS4cg\", "
+			+ "oauth_signature_method=\"HMAC-SHA1\", oauth_timestamp=\"1318622958\", oauth_token=\"370773112-GmHxMAgYyLbNEtIKZeRNFsMKPR9EyMZeS9weJAEb\", "
+			+ "oauth_version=\"1.0\", oauth_signature=\"tnnArxj06cWHq44gCs1OSKk%2FjLY%3D\"";
+
+}
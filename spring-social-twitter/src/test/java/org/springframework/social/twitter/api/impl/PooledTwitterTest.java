@@ -0,0 +1,271 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import static org.junit.Assert.*;
+import static org.springframework.http.HttpMethod.*;
+import static org.springframework.http.HttpStatus.*;
+import static org.springframework.http.MediaType.*;
+import static org.springframework.social.twitter.api.TweetProjection.Field.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.*;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.social.MissingAuthorizationException;
+import org.springframework.social.RateLimitExceededException;
+import org.springframework.social.twitter.api.BlockOperations;
+import org.springframework.social.twitter.api.DirectMessageOperations;
+import org.springframework.social.twitter.api.FriendOperations;
+import org.springframework.social.twitter.api.GeoOperations;
+import org.springframework.social.twitter.api.ListOperations;
+import org.springframework.social.twitter.api.SearchOperations;
+import org.springframework.social.twitter.api.TimelineOperations;
+import org.springframework.social.twitter.api.Tweet;
+import org.springframework.social.twitter.api.TweetProjection;
+import org.springframework.social.twitter.api.UserOperations;
+import org.springframework.test.web.client.MockRestServiceServer;
+
+public class PooledTwitterTest {
+
+	private static final String USER_TIMELINE = "https://api.twitter.com/1.1/statuses/user_timeline.json?count=20&screen_name=habuma&include_entities=true";
+
+	private static final String HOME_TIMELINE = "https://api.twitter.com/1.1/statuses/home_timeline.json?count=20&include_entities=true";
+
+	private TwitterTemplate user1;
+
+	private TwitterTemplate user2;
+
+	private TwitterTemplate app;
+
+	private MockRestServiceServer user1Server;
+
+	private MockRestServiceServer user2Server;
+
+	private MockRestServiceServer appServer;
+
+	private long reset;
+
+	private static final Class<?>[] POOLED_OPERATIONS = { BlockOperations.class, DirectMessageOperations.class, FriendOperations.class,
+			GeoOperations.class, ListOperations.class, SearchOperations.class, TimelineOperations.class, UserOperations.class };
+
+	@Before
+	public void setup() {
+		user1 = new TwitterTemplate("API_KEY", "API_SECRET", "ACCESS_TOKEN_1", "ACCESS_TOKEN_SECRET_1");
+		user1Server = MockRestServiceServer.createServer(user1.getRestTemplate());
+		user2 = new TwitterTemplate("API_KEY", "API_SECRET", "ACCESS_TOKEN_2", "ACCESS_TOKEN_SECRET_2");
+		user2Server = MockRestServiceServer.createServer(user2.getRestTemplate());
+		app = new TwitterTemplate("APP_ACCESS_TOKEN");
+		appServer = MockRestServiceServer.createServer(app.getRestTemplate());
+		reset = System.currentTimeMillis() / 1000 + 600;
+	}
+
+	@Test
+	public void routesToMemberWithMostBudgetLeft() {
+		PooledTwitter twitter = new PooledTwitter(user1, user2);
+		expect(user1Server, USER_TIMELINE, 1);
+		expect(user2Server, USER_TIMELINE, 100);
+		expect(user2Server, USER_TIMELINE, 99);
+		twitter.timelineOperations().getUserTimeline("habuma");
+		twitter.timelineOperations().getUserTimeline("habuma");
+		twitter.timelineOperations().getUserTimeline("habuma");
+		user1Server.verify();
+		user2Server.verify();
+	}
+
+	@Test
+	public void passesOverMembersWhoseBudgetIsSpent() {
+		PooledTwitter twitter = new PooledTwitter(user1, user2);
+		expect(user1Server, USER_TIMELINE, 0);
+		expect(user2Server, USER_TIMELINE, 0);
+		twitter.timelineOperations().getUserTimeline("habuma");
+		twitter.timelineOperations().getUserTimeline("habuma");
+		try {
+			twitter.timelineOperations().getUserTimeline("habuma");
+			fail("Expected RateLimitExceededException");
+		} catch (RateLimitExceededException e) {
+			// neither member has budget left, so nothing was sent
+		}
+		user1Server.verify();
+		user2Server.verify();
+	}
+
+	@Test
+	public void retriesOnAnotherMemberWhenRateLimited() {
+		PooledTwitter twitter = new PooledTwitter(user1, user2);
+		user1Server.expect(requestTo(USER_TIMELINE))
+			.andExpect(method(GET))
+			.andRespond(withStatus(TOO_MANY_REQUESTS).body("{\"errors\":[{\"code\":88,\"message\":\"Rate limit exceeded\"}]}").contentType(APPLICATION_JSON).headers(rateLimitHeaders(0)));
+		expect(user2Server, USER_TIMELINE, 50);
+		List<Tweet> timeline = twitter.timelineOperations().getUserTimeline("habuma");
+		assertEquals(2, timeline.size());
+		user1Server.verify();
+		user2Server.verify();
+	}
+
+	@Test
+	public void userOperationsOnlyGoToUserMembers() {
+		PooledTwitter twitter = new PooledTwitter(app, user1);
+		expect(user1Server, HOME_TIMELINE, 14);
+		expect(user1Server, HOME_TIMELINE, 13);
+		twitter.timelineOperations().getHomeTimeline();
+		twitter.timelineOperations().getHomeTimeline();
+		user1Server.verify();
+		appServer.verify();
+	}
+
+	@Test
+	public void appAuthorizedOperationsGoToAppMembers() {
+		PooledTwitter twitter = new PooledTwitter(app, user1);
+		appServer.expect(requestTo("https://api.twitter.com/1.1/statuses/user_timeline.json?count=20&screen_name=habuma&include_entities=true"))
+			.andExpect(method(GET))
+			.andExpect(header("Authorization", "Bearer APP_ACCESS_TOKEN"))
+			.andRespond(withSuccess(new ClassPathResource("timeline.json", getClass()), APPLICATION_JSON).headers(rateLimitHeaders(1400)));
+		twitter.timelineOperations().getUserTimeline("habuma");
+		appServer.verify();
+		user1Server.verify();
+	}
+
+	@Test
+	public void userContextOperationsGoToFirstUserMember() {
+		PooledTwitter twitter = new PooledTwitter(app, user1, user2);
+		expect(user1Server, HOME_TIMELINE, 1);
+		expect(user1Server, HOME_TIMELINE, 0);
+		user1Server.expect(requestTo("https://api.twitter.com/1.1/statuses/update.json"))
+			.andExpect(method(POST))
+			.andRespond(withSuccess(new ClassPathResource("status.json", getClass()), APPLICATION_JSON));
+		twitter.timelineOperations().getHomeTimeline();
+		twitter.timelineOperations().getHomeTimeline();
+		twitter.timelineOperations().updateStatus("Test Message");
+		user1Server.verify();
+		user2Server.verify();
+		appServer.verify();
+	}
+
+	@Test
+	public void userContextOperationsAreNotRetriedOnAnotherMember() {
+		PooledTwitter twitter = new PooledTwitter(user1, user2);
+		user1Server.expect(requestTo("https://api.twitter.com/1.1/statuses/update.json"))
+			.andExpect(method(POST))
+			.andRespond(withStatus(TOO_MANY_REQUESTS).body("{\"errors\":[{\"code\":88,\"message\":\"Rate limit exceeded\"}]}").contentType(APPLICATION_JSON).headers(rateLimitHeaders(0)));
+		try {
+			twitter.timelineOperations().updateStatus("Test Message");
+			fail("Expected RateLimitExceededException");
+		} catch (RateLimitExceededException e) {
+			// the tweet isn't sent again as another user
+		}
+		user1Server.verify();
+		user2Server.verify();
+	}
+
+	@Test
+	public void isSharedRead() throws Exception {
+		assertTrue(PooledTwitter.isSharedRead(TimelineOperations.class.getMethod("getUserTimeline", long.class)));
+		assertTrue(PooledTwitter.isSharedRead(TimelineOperations.class.getMethod("getStatus", long.class)));
+		assertTrue(PooledTwitter.isSharedRead(UserOperations.class.getMethod("getUserProfile", String.class)));
+		assertTrue(PooledTwitter.isSharedRead(FriendOperations.class.getMethod("getFriendIdsInCursor", long.class, long.class)));
+		assertTrue(PooledTwitter.isSharedRead(SearchOperations.class.getMethod("search", String.class)));
+		assertFalse(PooledTwitter.isSharedRead(TimelineOperations.class.getMethod("getUserTimeline")));
+		assertFalse(PooledTwitter.isSharedRead(TimelineOperations.class.getMethod("getHomeTimeline", int.class)));
+		assertFalse(PooledTwitter.isSharedRead(TimelineOperations.class.getMethod("getMentions")));
+		assertFalse(PooledTwitter.isSharedRead(TimelineOperations.class.getMethod("updateStatus", String.class)));
+		assertFalse(PooledTwitter.isSharedRead(TimelineOperations.class.getMethod("deleteStatus", long.class)));
+		assertFalse(PooledTwitter.isSharedRead(UserOperations.class.getMethod("getUserProfile")));
+		assertFalse(PooledTwitter.isSharedRead(FriendOperations.class.getMethod("follow", long.class)));
+		assertFalse(PooledTwitter.isSharedRead(FriendOperations.class.getMethod("getFriendIdsInCursor", long.class)));
+		assertFalse(PooledTwitter.isSharedRead(DirectMessageOperations.class.getMethod("getDirectMessage", long.class)));
+		assertFalse(PooledTwitter.isSharedRead(DirectMessageOperations.class.getMethod("sendDirectMessage", long.class, String.class)));
+		assertFalse(PooledTwitter.isSharedRead(ListOperations.class.getMethod("createList", String.class, String.class, boolean.class)));
+	}
+
+	@Test
+	public void sharedReadsAreOperationsOfThePooledInterfaces() {
+		Set<String> operations = new HashSet<String>();
+		for (Class<?> operationsType : POOLED_OPERATIONS) {
+			for (Method method : operationsType.getMethods()) {
+				operations.add(PooledTwitter.signature(method));
+				if (PooledTwitter.isSharedRead(method)) {
+					assertNotEquals(void.class, method.getReturnType());
+					assertNotEquals(operationsType, method.getReturnType());
+					assertTrue(method.getParameterTypes().length > 0);
+				}
+			}
+		}
+		for (String read : PooledTwitter.SHARED_READS) {
+			assertTrue(read + " is not an operation", operations.contains(read));
+		}
+	}
+
+	@Test
+	public void memberKeepsItsOwnGovernor() {
+		RateLimitGovernor governor = new RateLimitGovernor(Duration.ZERO);
+		user1.setRateLimitGovernor(governor);
+		PooledTwitter twitter = new PooledTwitter(user1, app);
+		assertTrue(user1.getRestTemplate().getInterceptors().contains(governor));
+		assertTrue(app.getRestTemplate().getInterceptors().get(1) instanceof RateLimitGovernor);
+		expect(user1Server, HOME_TIMELINE, 7);
+		twitter.timelineOperations().getHomeTimeline();
+		assertEquals(7, governor.getRateLimitStatus("/statuses/home_timeline").getRemainingHits());
+		user1Server.verify();
+	}
+
+	@Test(expected = MissingAuthorizationException.class)
+	public void userOperationsWithoutUserMembers() {
+		PooledTwitter twitter = new PooledTwitter(app);
+		twitter.timelineOperations().getHomeTimeline();
+	}
+
+	@Test
+	public void derivedOperationsArePooled() {
+		PooledTwitter twitter = new PooledTwitter(user1, user2);
+		expect(user1Server, USER_TIMELINE, 0);
+		expect(user2Server, USER_TIMELINE, 10);
+		twitter.timelineOperations().withProjection(TweetProjection.of(ID, TEXT)).getUserTimeline("habuma");
+		List<Tweet> timeline = twitter.timelineOperations().withProjection(TweetProjection.of(ID, TEXT)).getUserTimeline("habuma");
+		assertNull(timeline.get(0).getRetweetCount());
+		user1Server.verify();
+		user2Server.verify();
+	}
+
+	@Test
+	public void isAuthorized() {
+		assertTrue(new PooledTwitter(app, user1).isAuthorized());
+		assertFalse(new PooledTwitter(app).isAuthorized());
+	}
+
+	private void expect(MockRestServiceServer server, String uri, int remaining) {
+		server.expect(requestTo(uri))
+			.andExpect(method(GET))
+			.andRespond(withSuccess(new ClassPathResource("timeline.json", getClass()), APPLICATION_JSON).headers(rateLimitHeaders(remaining)));
+	}
+
+	private HttpHeaders rateLimitHeaders(int remaining) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.set("x-rate-limit-limit", "900");
+		headers.set("x-rate-limit-remaining", String.valueOf(remaining));
+		headers.set("x-rate-limit-reset", String.valueOf(reset));
+		return headers;
+	}
+
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import static org.junit.Assert.*;
+import static org.springframework.http.HttpMethod.*;
+import static org.springframework.http.HttpStatus.*;
+import static org.springframework.http.MediaType.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.social.RateLimitExceededException;
+import org.springframework.social.twitter.api.RateLimitStatus;
+import org.springframework.social.twitter.api.ResourceFamily;
+import org.springframework.web.client.ResourceAccessException;
+
+public class RateLimitGovernorTest extends AbstractTwitterApiTest {
+
+	private static final long NOW = 1500000000000L;
+
+	private final SettableClock clock = new SettableClock(NOW);
+
+	@Test
+	public void failsFastOnceBudgetIsSpent() {
+		twitter.setRateLimitGovernor(new RateLimitGovernor(Duration.ZERO, clock));
+		expectUserTimeline(180, 1, NOW / 1000 + 600);
+		expectUserTimeline(180, 0, NOW / 1000 + 600);
+		twitter.timelineOperations().getUserTimeline();
+		twitter.timelineOperations().getUserTimeline();
+		try {
+			twitter.timelineOperations().getUserTimeline();
+			fail("Expected RateLimitExceededException");
+		} catch (RateLimitExceededException e) {
+			// the third request was never sent
+		}
+		mockServer.verify();
+	}
+
+	@Test
+	public void budgetsAreKeptPerEndpoint() {
+		twitter.setRateLimitGovernor(new RateLimitGovernor(Duration.ZERO, clock));
+		expectUserTimeline(180, 0, NOW / 1000 + 600);
+		mockServer.expect(requestTo("https://api.twitter.com/1.1/statuses/home_timeline.json?count=20&include_entities=true"))
+			.andExpect(method(GET))
+			.andRespond(withSuccess(jsonResource("timeline"), APPLICATION_JSON).headers(rateLimitHeaders(15, 14, NOW / 1000 + 600)));
+		twitter.timelineOperations().getUserTimeline();
+		twitter.timelineOperations().getHomeTimeline();
+		mockServer.verify();
+	}
+
+	@Test
+	public void budgetIsRestoredOnceWindowHasPassed() {
+		RateLimitGovernor governor = new RateLimitGovernor(Duration.ZERO, clock);
+		twitter.setRateLimitGovernor(governor);
+		expectUserTimeline(180, 0, NOW / 1000 + 600);
+		expectUserTimeline(180, 179, NOW / 1000 + 1500);
+		twitter.timelineOperations().getUserTimeline();
+		clock.set(NOW + 602000);
+		twitter.timelineOperations().getUserTimeline();
+		mockServer.verify();
+		RateLimitStatus status = governor.getRateLimitStatus("/statuses/user_timeline");
+		assertEquals(179, status.getRemainingHits());
+		assertEquals(NOW / 1000 + 1500, status.getResetTimeInSeconds());
+	}
+
+	@Test
+	public void waitsForBudgetToReset() {
+		twitter.setRateLimitGovernor(new RateLimitGovernor(Duration.ofSeconds(5)));
+		long reset = System.currentTimeMillis() / 1000 + 1;
+		expectUserTimeline(180, 0, reset);
+		expectUserTimeline(180, 179, reset + 900);
+		twitter.timelineOperations().getUserTimeline();
+		twitter.timelineOperations().getUserTimeline();
+		assertTrue(System.currentTimeMillis() >= reset * 1000);
+		mockServer.verify();
+	}
+
+	@Test(expected = RateLimitExceededException.class)
+	public void failsWhenResetIsFurtherOffThanMaxWait() {
+		twitter.setRateLimitGovernor(new RateLimitGovernor(Duration.ofMinutes(1), clock));
+		expectUserTimeline(180, 0, NOW / 1000 + 600);
+		twitter.timelineOperations().getUserTimeline();
+		twitter.timelineOperations().getUserTimeline();
+	}
+
+	@Test
+	public void interruptWhileWaitingIsNotReportedAsRateLimited() {
+		twitter.setRateLimitGovernor(new RateLimitGovernor(Duration.ofSeconds(5)));
+		expectUserTimeline(180, 0, System.currentTimeMillis() / 1000 + 3);
+		twitter.timelineOperations().getUserTimeline();
+		Thread.currentThread().interrupt();
+		try {
+			twitter.timelineOperations().getUserTimeline();
+			fail("Expected ResourceAccessException");
+		} catch (ResourceAccessException e) {
+			assertTrue(Thread.interrupted());
+		} finally {
+			Thread.interrupted();
+		}
+		mockServer.verify();
+	}
+
+	@Test
+	public void rateLimitStatusByResourceFamily() {
+		RateLimitGovernor governor = new RateLimitGovernor(Duration.ZERO, clock);
+		twitter.setRateLimitGovernor(governor);
+		expectUserTimeline(180, 100, NOW / 1000 + 600);
+		mockServer.expect(requestTo("https://api.twitter.com/1.1/statuses/show/12345.json?include_entities=true"))
+			.andExpect(method(GET))
+			.andRespond(withSuccess(jsonResource("status"), APPLICATION_JSON).headers(rateLimitHeaders(900, 899, NOW / 1000 + 300)));
+		mockServer.expect(requestTo("https://api.twitter.com/1.1/users/show.json?screen_name=habuma"))
+			.andExpect(method(GET))
+			.andRespond(withSuccess(jsonResource("twitter-profile"), APPLICATION_JSON).headers(rateLimitHeaders(900, 12, NOW / 1000 + 300)));
+		twitter.timelineOperations().getUserTimeline();
+		twitter.timelineOperations().getStatus(12345);
+		twitter.userOperations().getUserProfile("habuma");
+		Map<ResourceFamily, List<RateLimitStatus>> statuses = governor.getRateLimitStatus();
+		assertEquals(2, statuses.size());
+		assertEquals(2, statuses.get(ResourceFamily.STATUSES).size());
+		RateLimitStatus show = governor.getRateLimitStatus("/statuses/show/:id");
+		assertEquals(900, show.getQuarterOfHourLimit());
+		assertEquals(899, show.getRemainingHits());
+		assertEquals(NOW / 1000 + 300, show.getResetTimeInSeconds());
+		RateLimitStatus users = statuses.get(ResourceFamily.USERS).get(0);
+		assertEquals("/users/show", users.getEndpoint());
+		assertEquals(12, users.getRemainingHits());
+	}
+
+	@Test
+	public void rateLimitedResponseSpendsBudget() {
+		twitter.setRateLimitGovernor(new RateLimitGovernor(Duration.ZERO, clock));
+		mockServer.expect(requestTo("https://api.twitter.com/1.1/statuses/user_timeline.json?count=20&include_entities=true"))
+			.andExpect(method(GET))
+			.andRespond(withStatus(TOO_MANY_REQUESTS).body("{\"errors\":[{\"code\":88,\"message\":\"Rate limit exceeded\"}]}").contentType(APPLICATION_JSON)
+					.headers(rateLimitHeaders(180, 0, NOW / 1000 + 600)));
+		try {
+			twitter.timelineOperations().getUserTimeline();
+			fail("Expected RateLimitExceededException");
+		} catch (RateLimitExceededException e) {
+			// refused by Twitter
+		}
+		try {
+			twitter.timelineOperations().getUserTimeline();
+			fail("Expected RateLimitExceededException");
+		} catch (RateLimitExceededException e) {
+			// refused by the governor
+		}
+		mockServer.verify();
+	}
+
+	@Test
+	public void endpointOf() {
+		assertEquals("/statuses/user_timeline", RateLimitGovernor.endpointOf("/1.1/statuses/user_timeline.json"));
+		assertEquals("/statuses/show/:id", RateLimitGovernor.endpointOf("/1.1/statuses/show/12345.json"));
+		assertEquals("/statuses/retweets/:id", RateLimitGovernor.endpointOf("/1.1/statuses/retweets/12345.json"));
+		assertEquals("/friendships/show", RateLimitGovernor.endpointOf("/1.1/friendships/show.json"));
+	}
+
+	private void expectUserTimeline(int limit, int remaining, long reset) {
+		mockServer.expect(requestTo("https://api.twitter.com/1.1/statuses/user_timeline.json?count=20&include_entities=true"))
+			.andExpect(method(GET))
+			.andRespond(withSuccess(jsonResource("timeline"), APPLICATION_JSON).headers(rateLimitHeaders(limit, remaining, reset)));
+	}
+
+	private HttpHeaders rateLimitHeaders(int limit, int remaining, long reset) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.set("x-rate-limit-limit", String.valueOf(limit));
+		headers.set("x-rate-limit-remaining", String.valueOf(remaining));
+		headers.set("x-rate-limit-reset", String.valueOf(reset));
+		return headers;
+	}
+
+	private static class SettableClock extends Clock {
+
+		private volatile long millis;
+
+		SettableClock(long millis) {
+			this.millis = millis;
+		}
+
+		void set(long millis) {
+			this.millis = millis;
+		}
+
+		@Override
+		public long millis() {
+			return millis;
+		}
+
+		@Override
+		public Instant instant() {
+			return Instant.ofEpochMilli(millis);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+	}
+
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ClientHttpResponse;
+import org.springframework.mock.http.client.reactive.MockClientHttpRequest;
+import org.springframework.mock.http.client.reactive.MockClientHttpResponse;
+import org.springframework.social.MissingAuthorizationException;
+import org.springframework.social.ResourceNotFoundException;
+import org.springframework.social.twitter.api.CursoredList;
+import org.springframework.social.twitter.api.Tweet;
+import org.springframework.social.twitter.api.TwitterProfile;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+public class ReactiveTwitterTemplateTest extends AbstractTwitterApiTest {
+
+	private FakeConnector connector;
+
+	private ReactiveTwitterTemplate reactiveTwitter;
+
+	private ReactiveTwitterTemplate appAuthReactiveTwitter;
+
+	@Before
+	public void setupReactive() {
+		connector = new FakeConnector();
+		reactiveTwitter = new ReactiveTwitterTemplate(WebClient.builder().clientConnector(connector), "API_KEY", "API_SECRET", "ACCESS_TOKEN", "ACCESS_TOKEN_SECRET");
+		appAuthReactiveTwitter = new ReactiveTwitterTemplate(WebClient.builder().clientConnector(connector), "APP_ACCESS_TOKEN");
+	}
+
+	@Test
+	public void getHomeTimeline() throws IOException {
+		connector.respond(HttpStatus.OK, json("timeline"));
+		List<Tweet> timeline = reactiveTwitter.timelineOperations().getHomeTimeline(20, 0, 0).collectList().block();
+		assertTimelineTweets(timeline);
+		MockClientHttpRequest request = connector.requests.get(0);
+		assertEquals(HttpMethod.GET, request.getMethod());
+		assertEquals(URI.create("https://api.twitter.com/1.1/statuses/home_timeline.json?count=20&include_entities=true"), request.getURI());
+		assertTrue(request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION).startsWith("OAuth oauth_consumer_key=\"API_KEY\""));
+		assertTrue(request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION).contains("oauth_signature=\""));
+	}
+
+	@Test
+	public void getHomeTimeline_requestsNothingUntilSubscribed() throws IOException {
+		connector.respond(HttpStatus.OK, json("timeline"));
+		Flux<Tweet> timeline = reactiveTwitter.timelineOperations().getHomeTimeline(20, 0, 0);
+		assertTrue(connector.requests.isEmpty());
+		assertEquals(2, timeline.count().block().intValue());
+		assertEquals(1, connector.requests.size());
+	}
+
+	@Test
+	public void getHomeTimeline_appAuthorization() {
+		// assembling the call doesn't throw; subscribing to it signals the error
+		Flux<Tweet> timeline = appAuthReactiveTwitter.timelineOperations().getHomeTimeline(20, 0, 0);
+		try {
+			timeline.collectList().block();
+			fail("Expected MissingAuthorizationException");
+		} catch (MissingAuthorizationException e) {
+		}
+		assertTrue(connector.requests.isEmpty());
+	}
+
+	@Test
+	public void missingAuthorizationIsSignalled() {
+		assertSignalsMissingAuthorization(appAuthReactiveTwitter.timelineOperations().updateStatus("Test Message"));
+		assertSignalsMissingAuthorization(appAuthReactiveTwitter.timelineOperations().deleteStatus(12345));
+		assertSignalsMissingAuthorization(appAuthReactiveTwitter.userOperations().getUserProfile());
+		WebClient unauthorized = WebClient.builder().clientConnector(connector).build();
+		assertSignalsMissingAuthorization(new ReactiveFriendTemplate(unauthorized, false, false).getFollowerIds("habuma").collectList());
+		assertSignalsMissingAuthorization(new ReactiveUserTemplate(unauthorized, false, false).getUsers("habuma").collectList());
+		assertTrue(connector.requests.isEmpty());
+	}
+
+	@Test
+	public void getAllUserTimeline_pagesByMaxId() throws IOException {
+		connector.respond(HttpStatus.OK, json("timeline"));
+		connector.respond(HttpStatus.OK, "[]");
+		List<Tweet> timeline = appAuthReactiveTwitter.timelineOperations().getAllUserTimeline("habuma", 200).collectList().block();
+		assertTimelineTweets(timeline);
+		assertEquals(URI.create("https://api.twitter.com/1.1/statuses/user_timeline.json?count=200&screen_name=habuma&include_entities=true"), connector.requests.get(0).getURI());
+		assertEquals(URI.create("https://api.twitter.com/1.1/statuses/user_timeline.json?count=200&max_id=54320&screen_name=habuma&include_entities=true"), connector.requests.get(1).getURI());
+		assertEquals("Bearer APP_ACCESS_TOKEN", connector.requests.get(0).getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+	}
+
+	@Test
+	public void updateStatus() throws IOException {
+		connector.respond(HttpStatus.OK, json("status"));
+		Tweet tweet = reactiveTwitter.timelineOperations().updateStatus("Test Message").block();
+		assertSingleTweet(tweet);
+		MockClientHttpRequest request = connector.requests.get(0);
+		assertEquals(HttpMethod.POST, request.getMethod());
+		assertEquals(URI.create("https://api.twitter.com/1.1/statuses/update.json"), request.getURI());
+		assertTrue(MediaType.APPLICATION_FORM_URLENCODED.isCompatibleWith(request.getHeaders().getContentType()));
+		assertEquals("status=Test+Message", bodyOf(request));
+		// signed with the form's parameters
+		String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+		MultiValueMap<String, String> formData = new LinkedMultiValueMap<String, String>();
+		formData.set("status", "Test Message");
+		String resigned = new OAuth1SigningFilter("API_KEY", "API_SECRET", "ACCESS_TOKEN", "ACCESS_TOKEN_SECRET").buildAuthorizationHeaderValue("POST",
+				request.getURI(), formData, headerParameter(authorization, "oauth_nonce"), Long.parseLong(headerParameter(authorization, "oauth_timestamp")));
+		assertEquals(resigned, authorization);
+	}
+
+	@Test
+	public void getUserProfile_appAuthorization() throws IOException {
+		connector.respond(HttpStatus.OK, json("twitter-profile"));
+		TwitterProfile profile = appAuthReactiveTwitter.userOperations().getUserProfile("artnames").block();
+		assertEquals("artnames", profile.getScreenName());
+		assertEquals(URI.create("https://api.twitter.com/1.1/users/show.json?screen_name=artnames"), connector.requests.get(0).getURI());
+	}
+
+	@Test
+	public void getFollowerIds_followsCursorAcrossPages() throws IOException {
+		connector.respond(HttpStatus.OK, json("friend-or-follower-ids"));
+		connector.respond(HttpStatus.OK, json("many-friend-or-follower-ids"));
+		List<Long> ids = reactiveTwitter.friendOperations().getFollowerIds("habuma").collectList().block();
+		assertEquals(2 + TwitterObjectMapper.get().readTree(json("many-friend-or-follower-ids")).get("ids").size(), ids.size());
+		assertEquals(14846645L, ids.get(0).longValue());
+		assertEquals(1L, ids.get(2).longValue());
+		assertEquals(URI.create("https://api.twitter.com/1.1/followers/ids.json?cursor=-1&screen_name=habuma"), connector.requests.get(0).getURI());
+		assertEquals(URI.create("https://api.twitter.com/1.1/followers/ids.json?cursor=332211&screen_name=habuma"), connector.requests.get(1).getURI());
+	}
+
+	@Test
+	public void getFollowerIds_onlyFetchesPagesThatAreRequested() throws IOException {
+		connector.respond(HttpStatus.OK, json("friend-or-follower-ids"));
+		connector.respond(HttpStatus.OK, json("many-friend-or-follower-ids"));
+		List<Long> ids = reactiveTwitter.friendOperations().getFollowerIds("habuma").take(2).collectList().block();
+		assertEquals(2, ids.size());
+		assertEquals(1, connector.requests.size());
+	}
+
+	@Test
+	public void getFriends_followsCursor() throws IOException {
+		connector.respond(HttpStatus.OK, json("list-members"));
+		connector.respond(HttpStatus.OK, "{\"users\":[],\"previous_cursor\":332211,\"next_cursor\":0}");
+		List<TwitterProfile> friends = reactiveTwitter.friendOperations().getFriends(98765L).collectList().block();
+		assertEquals(2, friends.size());
+		assertEquals("royclarkson", friends.get(0).getScreenName());
+		assertEquals(URI.create("https://api.twitter.com/1.1/friends/list.json?cursor=332211&user_id=98765"), connector.requests.get(1).getURI());
+	}
+
+	@Test
+	public void getFriendIdsInCursor_fetchesOnlyThatPage() throws IOException {
+		connector.respond(HttpStatus.OK, json("many-friend-or-follower-ids"));
+		CursoredList<Long> page = reactiveTwitter.friendOperations().getFriendIdsInCursor(98765L, 332211).block();
+		assertEquals(TwitterObjectMapper.get().readTree(json("many-friend-or-follower-ids")).get("ids").size(), page.size());
+		assertEquals(1, connector.requests.size());
+		assertEquals(URI.create("https://api.twitter.com/1.1/friends/ids.json?cursor=332211&user_id=98765"), connector.requests.get(0).getURI());
+	}
+
+	@Test
+	public void errorResponse_signalledAsTwitterException() {
+		connector.respond(HttpStatus.NOT_FOUND, "{\"errors\":[{\"code\":34,\"message\":\"Sorry, that page does not exist\"}]}");
+		Mono<TwitterProfile> profile = reactiveTwitter.userOperations().getUserProfile("nobody");
+		try {
+			profile.block();
+			fail("Expected ResourceNotFoundException");
+		} catch (ResourceNotFoundException e) {
+			assertEquals("Sorry, that page does not exist", e.getMessage());
+		}
+	}
+
+	@Test
+	public void cursored_walksThousandsOfPages() {
+		assertEquals(2 * 5000, new AbstractReactiveTwitterOperations(null, true, false).cursored(countingPages(5000, new AtomicInteger()), -1).count().block().longValue());
+	}
+
+	@Test
+	public void cursored_walksThousandsOfPagesFetchedOnOtherThreads() {
+		final Function<Long, Mono<CursoredList<Long>>> pages = countingPages(5000, new AtomicInteger());
+		Flux<Long> ids = new AbstractReactiveTwitterOperations(null, true, false).cursored(new Function<Long, Mono<CursoredList<Long>>>() {
+			public Mono<CursoredList<Long>> apply(Long cursor) {
+				return pages.apply(cursor).publishOn(Schedulers.elastic());
+			}
+		}, -1);
+		assertEquals(2 * 5000, ids.count().block(Duration.ofSeconds(30)).longValue());
+	}
+
+	@Test
+	public void cursored_fetchesPagesAsTheyAreNeeded() {
+		AtomicInteger fetches = new AtomicInteger();
+		List<Long> ids = new AbstractReactiveTwitterOperations(null, true, false).cursored(countingPages(5000, fetches), -1).take(3).collectList().block();
+		assertEquals(Arrays.asList(0L, 1L, 10L), ids);
+		assertEquals(2, fetches.get());
+	}
+
+	// pages of two IDs each, page n holding n * 10 and n * 10 + 1, with page n + 1 as its next cursor
+	private Function<Long, Mono<CursoredList<Long>>> countingPages(final int pageCount, final AtomicInteger fetches) {
+		return new Function<Long, Mono<CursoredList<Long>>>() {
+			public Mono<CursoredList<Long>> apply(final Long cursor) {
+				// fetching on subscription, as a request does
+				return Mono.fromSupplier(new Supplier<CursoredList<Long>>() {
+					public CursoredList<Long> get() {
+						fetches.incrementAndGet();
+						long page = cursor == -1 ? 0 : cursor;
+						return new CursoredList<Long>(Arrays.asList(page * 10, page * 10 + 1), page - 1, page + 1 < pageCount ? page + 1 : 0);
+					}
+				});
+			}
+		};
+	}
+
+	private void assertSignalsMissingAuthorization(Mono<?> call) {
+		try {
+			call.block();
+			fail("Expected MissingAuthorizationException");
+		} catch (MissingAuthorizationException e) {
+		}
+	}
+
+	private String json(String name) throws IOException {
+		return StreamUtils.copyToString(jsonResource(name).getInputStream(), StandardCharsets.UTF_8);
+	}
+
+	// answers requests with canned responses, in order, recording each request
+	private static String headerParameter(String authorization, String name) {
+		int start = authorization.indexOf(name + "=\"") + name.length() + 2;
+		return authorization.substring(start, authorization.indexOf('"', start));
+	}
+
+	private static String bodyOf(MockClientHttpRequest request) {
+		StringBuilder body = new StringBuilder();
+		for (DataBuffer buffer : request.getBody().collectList().block()) {
+			body.append(StandardCharsets.UTF_8.decode(buffer.asByteBuffer()));
+		}
+		return body.toString();
+	}
+
+	private static class FakeConnector implements ClientHttpConnector {
+
+		final List<MockClientHttpRequest> requests = new ArrayList<MockClientHttpRequest>();
+
+		private final Queue<MockClientHttpResponse> responses = new LinkedList<MockClientHttpResponse>();
+
+		void respond(HttpStatus status, String body) {
+			MockClientHttpResponse response = new MockClientHttpResponse(status);
+			response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+			response.setBody(body);
+			responses.add(response);
+		}
+
+		public Mono<ClientHttpResponse> connect(final HttpMethod method, final URI uri, final Function<? super ClientHttpRequest, Mono<Void>> requestCallback) {
+			// connecting on subscription, as a real connector does
+			return Mono.defer(new Supplier<Mono<ClientHttpResponse>>() {
+				public Mono<ClientHttpResponse> get() {
+					MockClientHttpRequest request = new MockClientHttpRequest(method, uri);
+					requests.add(request);
+					return requestCallback.apply(request).then(Mono.<ClientHttpResponse>just(responses.remove()));
+				}
+			});
+		}
+
+	}
+
+}
@@ -18,6 +18,7 @@ package org.springframework.social.twitter.api.impl;
 import static org.junit.Assert.*;
 import static org.springframework.http.HttpMethod.*;
 import static org.springframework.http.MediaType.*;
+import static org.springframework.social.twitter.api.TweetProjection.Field.*;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.*;
 
@@ -29,6 +30,7 @@ import org.springframework.social.twitter.api.SearchResults;
 import org.springframework.social.twitter.api.Trend;
 import org.springframework.social.twitter.api.Trends;
 import org.springframework.social.twitter.api.Tweet;
+import org.springframework.social.twitter.api.TweetProjection;
 
 
 /**
@@ -48,6 +50,23 @@ public class SearchTemplateTest extends AbstractTwitterApiTest {
 		assertSearchTweets(tweets);
 	}
 	
+	@Test
+	public void search_withProjection() {
+		mockServer.expect(requestTo("https://api.twitter.com/1.1/search/tweets.json?q=%23spring&count=50"))
+				.andExpect(method(GET))
+				.andRespond(withSuccess(jsonResource("search"), APPLICATION_JSON));
+		SearchResults searchResults = twitter.searchOperations().withProjection(TweetProjection.of(ID, LANGUAGE)).search("#spring");
+		assertEquals(999, searchResults.getSearchMetadata().getMaxId());
+		List<Tweet> tweets = searchResults.getTweets();
+		assertEquals(2, tweets.size());
+		assertEquals("12345", tweets.get(0).getId());
+		assertEquals("en", tweets.get(0).getLanguageCode());
+		assertEquals("de", tweets.get(1).getLanguageCode());
+		assertNull(tweets.get(0).getText());
+		assertNull(tweets.get(0).getUser());
+		assertNull(tweets.get(0).getEntities());
+	}
+
 	@Test
 	public void search_pageAndResultsPerPage() {
 		mockServer.expect(requestTo("https://api.twitter.com/1.1/search/tweets.json?q=%23spring&count=10"))
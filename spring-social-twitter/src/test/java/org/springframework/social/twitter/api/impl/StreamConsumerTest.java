@@ -18,22 +18,47 @@ package org.springframework.social.twitter.api.impl;
 import static org.junit.Assert.*;
 
 import java.net.ConnectException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Test;
 import org.springframework.http.HttpStatus;
+import org.springframework.social.twitter.api.ReconnectPolicy;
+import org.springframework.social.twitter.api.StreamDeleteEvent;
+import org.springframework.social.twitter.api.StreamDisconnectEvent;
+import org.springframework.social.twitter.api.StreamDrainReport;
+import org.springframework.social.twitter.api.StreamListener;
+import org.springframework.social.twitter.api.StreamState;
+import org.springframework.social.twitter.api.StreamStateEvent;
+import org.springframework.social.twitter.api.StreamStateListener;
+import org.springframework.social.twitter.api.StreamWarningEvent;
+import org.springframework.social.twitter.api.StreamingException;
+import org.springframework.social.twitter.api.Tweet;
+import org.springframework.social.twitter.api.impl.JitteredReconnectPolicy.Jitter;
 
 public class StreamConsumerTest {
 	
+	private static final List<StreamListener> NO_LISTENERS = Collections.emptyList();
+	private static final ReconnectPolicy NO_JITTER = new JitteredReconnectPolicy(Jitter.NONE, ReconnectBudget.unlimited());
+
 	private int streamsToCreateBeforeFailure = 3;
 	private long expectedTimeToSleep;
 	
 	@Test
 	public void run_failWithHttpError() {		
-		expectedTimeToSleep = 5000;
-		ThreadedStreamConsumer consumer = new ThreadedStreamConsumer() {
+		// the dropped connection before the first failure was attempt 1, so the failures start at attempt 2
+		expectedTimeToSleep = 10000;
+		ThreadedStreamConsumer consumer = new ThreadedStreamConsumer(NO_LISTENERS, NO_JITTER) {
 			@Override
 			protected StreamReader getStreamReader() throws StreamCreationException {
-				return createStream(new StreamCreationException("Unable to create stream", HttpStatus.valueOf(420)));
+				return createStream(new StreamCreationException("Unable to create stream", HttpStatus.SERVICE_UNAVAILABLE));
 			}
 			
 			@Override
@@ -43,12 +68,36 @@ public class StreamConsumerTest {
 		};
 		
 		consumer.run();
+		assertEquals(640000, expectedTimeToSleep);
+		assertEquals(StreamState.CLOSED, consumer.getState());
+	}
+
+	@Test
+	public void run_failWithRateLimitError() {
+		// the dropped connection before the first failure was attempt 1, so the failures start at attempt 2
+		expectedTimeToSleep = 120000;
+		ThreadedStreamConsumer consumer = new ThreadedStreamConsumer(NO_LISTENERS, NO_JITTER) {
+			@Override
+			protected StreamReader getStreamReader() throws StreamCreationException {
+				return createStream(new StreamCreationException("Unable to create stream", HttpStatus.valueOf(420)));
+			}
+
+			@Override
+			protected void sleepBeforeRetry(long timeToSleep) {
+				assertSleepWithExponentialBackOff(timeToSleep);
+			}
+		};
+
+		consumer.run();
+		assertEquals(1920000, expectedTimeToSleep);
+		assertEquals(StreamState.CLOSED, consumer.getState());
 	}
 
 	@Test
 	public void run_failWithNetworkError() {		
-		expectedTimeToSleep = 250;
-		ThreadedStreamConsumer consumer = new ThreadedStreamConsumer() {
+		// the dropped connection before the first failure was attempt 1, so the failures start at attempt 2
+		expectedTimeToSleep = 500;
+		ThreadedStreamConsumer consumer = new ThreadedStreamConsumer(NO_LISTENERS, NO_JITTER) {
 			@Override
 			protected StreamReader getStreamReader() throws StreamCreationException {
 				return createStream(new StreamCreationException("Unable to create stream", new ConnectException()));
@@ -57,7 +106,7 @@ public class StreamConsumerTest {
 			@Override
 			protected void sleepBeforeRetry(long timeToSleep) {
 				assertSleepWithLinearBackOff(timeToSleep);
-				if(timeToSleep >= ThreadedStreamConsumer.NETWORK_ERROR_SLEEP_MAX) {
+				if(timeToSleep >= JitteredReconnectPolicy.NETWORK_ERROR_SLEEP_MAX) {
 					close(); // to keep the test from running forever
 				}
 			}
@@ -66,6 +115,164 @@ public class StreamConsumerTest {
 		consumer.run();
 	}
 	
+	@Test
+	public void close_stopsConsumerThreadWhileBackingOff() throws Exception {
+		final AtomicReference<Thread> consumerThread = new AtomicReference<Thread>();
+		final AtomicInteger connectionAttempts = new AtomicInteger();
+		final StateRecordingListener stateListener = new StateRecordingListener(0);
+		ThreadedStreamConsumer consumer = new ThreadedStreamConsumer(Arrays.<StreamListener>asList(stateListener), NO_JITTER) {
+			@Override
+			protected StreamReader getStreamReader() throws StreamCreationException {
+				consumerThread.set(Thread.currentThread());
+				connectionAttempts.incrementAndGet();
+				// backs off for 5 seconds
+				throw new StreamCreationException("Unable to create stream", HttpStatus.SERVICE_UNAVAILABLE);
+			}
+		};
+		consumer.open();
+		long deadline = System.currentTimeMillis() + 5000;
+		while (consumer.getState() != StreamState.BACKING_OFF && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(StreamState.BACKING_OFF, consumer.getState());
+		consumer.close();
+		consumerThread.get().join(2000);
+		assertFalse(consumerThread.get().isAlive());
+		assertEquals(1, connectionAttempts.get());
+		assertEquals(StreamState.CLOSED, consumer.getState());
+	}
+
+	@Test
+	public void run_notifiesStateListenersUntilClosed() {
+		final StateRecordingListener stateListener = new StateRecordingListener(0);
+		ThreadedStreamConsumer consumer = new ThreadedStreamConsumer(Arrays.<StreamListener>asList(stateListener), NO_JITTER) {
+			@Override
+			protected StreamReader getStreamReader() throws StreamCreationException {
+				return createStream(new StreamCreationException("Unable to create stream", HttpStatus.valueOf(420)));
+			}
+
+			@Override
+			protected void sleepBeforeRetry(long timeToSleep) {
+				assertEquals(StreamState.BACKING_OFF, getState());
+			}
+		};
+
+		consumer.run();
+
+		assertEquals(StreamState.CLOSED, consumer.getState());
+		List<StreamStateEvent> events = stateListener.events;
+		assertEquals(StreamState.CONNECTING, events.get(0).getPreviousState());
+		assertEquals(StreamState.CONNECTED, events.get(0).getState());
+		assertEquals(StreamState.CONNECTING, events.get(1).getState());
+		assertTrue(events.get(1).getCause() instanceof StreamingException);
+		assertEquals(StreamState.BACKING_OFF, events.get(6).getState());
+		assertTrue(events.get(6).getCause() instanceof StreamCreationException);
+		StreamStateEvent last = events.get(events.size() - 1);
+		assertEquals(StreamState.CLOSED, last.getState());
+		assertTrue(last.getCause() instanceof StreamCreationException);
+		assertSame(consumer, last.getStream());
+		assertEquals(last.getTimestamp(), consumer.getStateTimestamp());
+	}
+
+	@Test
+	public void checkForStall_dropsAndReconnects() throws Exception {
+		final StateRecordingListener stateListener = new StateRecordingListener(4);
+		final ThreadedStreamConsumer consumer = new ThreadedStreamConsumer(Arrays.<StreamListener>asList(stateListener), NO_JITTER) {
+			@Override
+			protected StreamReader getStreamReader() throws StreamCreationException {
+				return new BlockingStream();
+			}
+		};
+		Thread thread = new Thread(consumer);
+		thread.start();
+		stateListener.awaitState(StreamState.CONNECTED);
+
+		consumer.checkForStall(System.currentTimeMillis());
+		assertEquals(StreamState.CONNECTED, consumer.getState());
+		consumer.checkForStall(System.currentTimeMillis() + ThreadedStreamConsumer.STALL_TIMEOUT + 1);
+
+		assertTrue(stateListener.latch.await(5, TimeUnit.SECONDS));
+		consumer.close();
+		thread.join(5000);
+		List<StreamState> states = new ArrayList<StreamState>();
+		for (StreamStateEvent event : stateListener.events) {
+			states.add(event.getState());
+		}
+		assertEquals(Arrays.asList(StreamState.CONNECTED, StreamState.STALLED, StreamState.CONNECTING, StreamState.CONNECTED, StreamState.CLOSED), states);
+	}
+
+	@Test
+	public void run_failWithAlternatingErrors() {
+		final List<Long> sleeps = new ArrayList<Long>();
+		ThreadedStreamConsumer consumer = new ThreadedStreamConsumer(NO_LISTENERS, NO_JITTER) {
+			private int connections;
+
+			@Override
+			protected StreamReader getStreamReader() throws StreamCreationException {
+				HttpStatus status = connections++ % 2 == 0 ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.valueOf(420);
+				throw new StreamCreationException("Unable to create stream", status);
+			}
+
+			@Override
+			protected void sleepBeforeRetry(long timeToSleep) {
+				sleeps.add(timeToSleep);
+				if (sleeps.size() > 20) {
+					close(); // to keep the test from running forever if the attempts aren't counted
+				}
+			}
+		};
+
+		consumer.run();
+		// attempts are counted from the last connection whatever their reasons, so the backoff keeps growing until the rate limit's gives out
+		assertEquals(Arrays.asList(5000L, 120000L, 20000L, 480000L, 80000L), sleeps);
+		assertEquals(StreamState.CLOSED, consumer.getState());
+	}
+
+	@Test
+	public void run_disconnectedWithFatalCode() {
+		final List<StreamReader> readers = new ArrayList<StreamReader>();
+		ThreadedStreamConsumer consumer = new ThreadedStreamConsumer(NO_LISTENERS, NO_JITTER) {
+			@Override
+			protected StreamReader getStreamReader() throws StreamCreationException {
+				StreamReader reader = new DisconnectingStream(StreamDisconnectEvent.TOKEN_REVOKED);
+				readers.add(reader);
+				return reader;
+			}
+		};
+
+		consumer.run();
+		assertEquals(1, readers.size());
+		assertEquals(StreamState.CLOSED, consumer.getState());
+	}
+
+	@Test
+	public void run_disconnectedWithRecoverableCode() {
+		final List<Long> sleeps = new ArrayList<Long>();
+		final int[] disconnectCodes = { StreamDisconnectEvent.STALL, StreamDisconnectEvent.SHED_LOAD, StreamDisconnectEvent.SHED_LOAD };
+		ThreadedStreamConsumer consumer = new ThreadedStreamConsumer(NO_LISTENERS, NO_JITTER) {
+			private int connections;
+
+			@Override
+			protected StreamReader getStreamReader() throws StreamCreationException {
+				if (connections == disconnectCodes.length) {
+					close();
+					return new MockStream(0);
+				}
+				return new DisconnectingStream(disconnectCodes[connections++]);
+			}
+
+			@Override
+			protected void sleepBeforeRetry(long timeToSleep) {
+				sleeps.add(timeToSleep);
+			}
+		};
+
+		consumer.run();
+		// reconnects immediately after a stall, but backs off when Twitter is shedding load
+		assertEquals(Arrays.asList(5000L, 5000L), sleeps);
+		assertEquals(StreamState.CLOSED, consumer.getState());
+	}
+
 	private void assertSleepWithExponentialBackOff(long timeToSleep) {
 		assertEquals(expectedTimeToSleep, timeToSleep);
 		expectedTimeToSleep = expectedTimeToSleep * 2;
@@ -73,7 +280,7 @@ public class StreamConsumerTest {
 
 	private void assertSleepWithLinearBackOff(long timeToSleep) {
 		assertEquals(expectedTimeToSleep, timeToSleep);
-		expectedTimeToSleep = Math.min(expectedTimeToSleep + 250, ThreadedStreamConsumer.NETWORK_ERROR_SLEEP_MAX);
+		expectedTimeToSleep = Math.min(expectedTimeToSleep + 250, JitteredReconnectPolicy.NETWORK_ERROR_SLEEP_MAX);
 	}
 
 	private StreamReader createStream(StreamCreationException exceptionToThrow) throws StreamCreationException {
@@ -83,5 +290,66 @@ public class StreamConsumerTest {
 		streamsToCreateBeforeFailure--;
 		return new MockStream(5);		
 	}
+
+	private static class BlockingStream implements StreamReader {
+		private final CountDownLatch closed = new CountDownLatch(1);
+
+		public void next() {
+			try {
+				closed.await();
+			} catch (InterruptedException e) {}
+			throw new StreamingException("Stream closed", null);
+		}
+
+		public void close() {
+			closed.countDown();
+		}
+
+		public StreamDrainReport close(Duration drainTimeout) {
+			close();
+			return new StreamDrainReport(0, 0);
+		}
+	}
+
+	private static class DisconnectingStream extends MockStream {
+		private final int code;
+
+		public DisconnectingStream(int code) {
+			super(0);
+			this.code = code;
+		}
+
+		public void next() {
+			close();
+			throw new StreamDisconnectException(new StreamDisconnectEvent(code, "test-stream", "Disconnected"));
+		}
+	}
+
+	private static class StateRecordingListener implements StreamListener, StreamStateListener {
+		private final List<StreamStateEvent> events = new ArrayList<StreamStateEvent>();
+		private final CountDownLatch latch;
+
+		public StateRecordingListener(int expectedEvents) {
+			this.latch = new CountDownLatch(expectedEvents);
+		}
+
+		public synchronized void onStateChange(StreamStateEvent event) {
+			events.add(event);
+			latch.countDown();
+			notifyAll();
+		}
+
+		public synchronized void awaitState(StreamState state) throws InterruptedException {
+			long deadline = System.currentTimeMillis() + 5000;
+			while ((events.isEmpty() || events.get(events.size() - 1).getState() != state) && System.currentTimeMillis() < deadline) {
+				wait(100);
+			}
+		}
+
+		public void onTweet(Tweet tweet) {}
+		public void onDelete(StreamDeleteEvent deleteEvent) {}
+		public void onLimit(int numberOfLimitedTweets) {}
+		public void onWarning(StreamWarningEvent warningEvent) {}
+	}
 	
 }
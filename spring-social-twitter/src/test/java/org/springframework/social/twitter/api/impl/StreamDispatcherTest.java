@@ -39,7 +39,7 @@ public class StreamDispatcherTest {
 	@Test
 	public void activeWithItemsInQueue() throws Exception {
 		StreamListener mockListener = mock(StreamListener.class);		
-		Queue<String> queue = createQueueWithItems();
+		Queue<QueuedMessage> queue = createQueueWithItems();
 		StreamDispatcher dispatcher = new StreamDispatcher(queue, Arrays.asList(mockListener));
 		runAndAssert(mockListener, dispatcher, 4, 2, 1, 3);
 //		dispatcher.stop();
@@ -48,7 +48,7 @@ public class StreamDispatcherTest {
 	@Test
 	public void activeWithEmptyQueue() throws Exception {
 		StreamListener mockListener = mock(StreamListener.class);		
-		Queue<String> queue = new ConcurrentLinkedQueue<String>();
+		Queue<QueuedMessage> queue = new ConcurrentLinkedQueue<QueuedMessage>();
 		StreamDispatcher dispatcher = new StreamDispatcher(queue, Arrays.asList(mockListener));
 		runAndAssert(mockListener, dispatcher, 0, 0, 0, 0);
 //		dispatcher.stop();
@@ -57,7 +57,7 @@ public class StreamDispatcherTest {
 	@Test
 	public void stoppedWithItemsInQueue() throws Exception {
 		StreamListener mockListener = mock(StreamListener.class);		
-		Queue<String> queue = createQueueWithItems();
+		Queue<QueuedMessage> queue = createQueueWithItems();
 		StreamDispatcher dispatcher = new StreamDispatcher(queue, Arrays.asList(mockListener));
 //		dispatcher.stop();
 		runAndAssert(mockListener, dispatcher, 4, 2, 1, 3);
@@ -66,7 +66,7 @@ public class StreamDispatcherTest {
 	@Test
 	public void stoppedWithEmptyQueue() throws Exception {
 		StreamListener mockListener = mock(StreamListener.class);		
-		Queue<String> queue = new ConcurrentLinkedQueue<String>();
+		Queue<QueuedMessage> queue = new ConcurrentLinkedQueue<QueuedMessage>();
 		StreamDispatcher dispatcher = new StreamDispatcher(queue, Arrays.asList(mockListener));
 //		dispatcher.stop();
 		runAndAssert(mockListener, dispatcher, 0, 0, 0, 0);
@@ -75,9 +75,9 @@ public class StreamDispatcherTest {
 	@Test
 	public void ignoreUnrecognizedEvent() throws Exception {
 		StreamListener mockListener = mock(StreamListener.class);		
-		Queue<String> queue = new ConcurrentLinkedQueue<String>();
-		queue.add("BOGUS LINE");
-		queue.add("{\"unrecognized\":\"event\"}");
+		Queue<QueuedMessage> queue = new ConcurrentLinkedQueue<QueuedMessage>();
+		queue.add(new QueuedMessage("BOGUS LINE"));
+		queue.add(new QueuedMessage("{\"unrecognized\":\"event\"}"));
 		StreamDispatcher dispatcher = new StreamDispatcher(queue, Arrays.asList(mockListener));
 		runAndAssert(mockListener, dispatcher, 0, 0, 0, 0);		
 //		dispatcher.stop();
@@ -92,14 +92,14 @@ public class StreamDispatcherTest {
 		verify(mockListener, times(warningEvents)).onWarning(any(StreamWarningEvent.class));
 	}
 
-	private Queue<String> createQueueWithItems() {
+	private Queue<QueuedMessage> createQueueWithItems() {
 		InputStream inputStream = null;
-		Queue<String> queue = new ConcurrentLinkedQueue<String>();
+		Queue<QueuedMessage> queue = new ConcurrentLinkedQueue<QueuedMessage>();
 		try {
 			inputStream = new ClassPathResource("filter-stream-track.json", getClass()).getInputStream();
 			BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream));
 			while (reader.ready()) {
-				queue.add(reader.readLine());
+				queue.add(new QueuedMessage(reader.readLine()));
 			}
 		} catch (IOException e) {
 			try {
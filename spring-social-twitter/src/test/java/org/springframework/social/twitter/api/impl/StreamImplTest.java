@@ -16,14 +16,23 @@
 package org.springframework.social.twitter.api.impl;
 
 import static java.util.Arrays.*;
+import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
 import java.io.InputStream;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.Ignore;
 import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.social.twitter.api.StreamDeleteEvent;
+import org.springframework.social.twitter.api.StreamDrainReport;
 import org.springframework.social.twitter.api.StreamListener;
+import org.springframework.social.twitter.api.StreamWarningEvent;
 import org.springframework.social.twitter.api.StreamingException;
 import org.springframework.social.twitter.api.Tweet;
 
@@ -44,4 +53,79 @@ public class StreamImplTest {
 		verify(mockListener, times(4)).onTweet(any(Tweet.class));
 		inputStream.close();
 	}
+
+	@Test
+	public void close_drainsReceivedMessages() throws Exception {
+		StreamListener mockListener = mock(StreamListener.class);
+		InputStream inputStream = new ClassPathResource("filter-stream-track.json", getClass()).getInputStream();
+		StreamReaderImpl stream = new StreamReaderImpl(inputStream, asList(mockListener));
+		for (int i = 0; i < 10; i++) {
+			stream.next();
+		}
+		StreamDrainReport report = stream.close(Duration.ofSeconds(10));
+		assertTrue(report.isComplete());
+		verify(mockListener, times(4)).onTweet(any(Tweet.class));
+		verify(mockListener, times(2)).onDelete(any(StreamDeleteEvent.class));
+		verify(mockListener, times(1)).onLimit(369);
+		verify(mockListener, times(3)).onWarning(any(StreamWarningEvent.class));
+		assertEquals(0, stream.close(Duration.ofSeconds(10)).getDeliveredCount());
+	}
+
+	@Test
+	public void close_discardsMessagesNotDeliveredByDeadline() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		StreamListener blockingListener = mock(StreamListener.class);
+		doAnswer(new Answer<Void>() {
+			public Void answer(InvocationOnMock invocation) throws Throwable {
+				release.await();
+				return null;
+			}
+		}).when(blockingListener).onTweet(any(Tweet.class));
+		InputStream inputStream = new ClassPathResource("filter-stream-track.json", getClass()).getInputStream();
+		StreamReaderImpl stream = new StreamReaderImpl(inputStream, asList(blockingListener));
+		for (int i = 0; i < 10; i++) {
+			stream.next();
+		}
+		long start = System.currentTimeMillis();
+		StreamDrainReport report = stream.close(Duration.ofMillis(200));
+		assertTrue(System.currentTimeMillis() - start < 5000);
+		assertFalse(report.isComplete());
+		// a listener gets its messages in order, so the other tweets and the deletes are stuck behind the first tweet;
+		// the limit and warnings jump the queue, so they are only stuck if they arrived after the first tweet was dispatched
+		assertTrue(report.getDiscardedCount() >= 6);
+	}
+
+	@Test
+	public void reconnect_deliversMessagesAlreadyRead() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		final AtomicBoolean interrupted = new AtomicBoolean();
+		StreamListener blockingListener = mock(StreamListener.class);
+		doAnswer(new Answer<Void>() {
+			public Void answer(InvocationOnMock invocation) throws Throwable {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					interrupted.set(true);
+				}
+				return null;
+			}
+		}).when(blockingListener).onTweet(any(Tweet.class));
+		InputStream inputStream = new ClassPathResource("filter-stream-track.json", getClass()).getInputStream();
+		StreamReaderImpl stream = new StreamReaderImpl(inputStream, asList(blockingListener));
+		try {
+			while (true) {
+				stream.next();
+			}
+		} catch (StreamingException e) {
+			// the end of the input, as when the connection drops; the consumer would now reconnect
+		}
+		// the first tweet's callback is still running, with the rest of the messages queued behind it
+		release.countDown();
+		verify(blockingListener, timeout(5000).times(4)).onTweet(any(Tweet.class));
+		verify(blockingListener, timeout(5000).times(2)).onDelete(any(StreamDeleteEvent.class));
+		verify(blockingListener, timeout(5000).times(1)).onLimit(369);
+		verify(blockingListener, timeout(5000).times(3)).onWarning(any(StreamWarningEvent.class));
+		assertFalse(interrupted.get());
+	}
+
 }
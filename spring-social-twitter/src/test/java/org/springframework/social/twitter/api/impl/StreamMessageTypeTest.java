@@ -0,0 +1,179 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.social.twitter.api.StreamComplianceListener;
+import org.springframework.social.twitter.api.StreamDeleteEvent;
+import org.springframework.social.twitter.api.StreamDisconnectEvent;
+import org.springframework.social.twitter.api.StreamDisconnectListener;
+import org.springframework.social.twitter.api.StreamDrainReport;
+import org.springframework.social.twitter.api.StreamFriendsEvent;
+import org.springframework.social.twitter.api.StreamListener;
+import org.springframework.social.twitter.api.StreamScrubGeoEvent;
+import org.springframework.social.twitter.api.StreamStatusWithheldEvent;
+import org.springframework.social.twitter.api.StreamUserEvent;
+import org.springframework.social.twitter.api.StreamUserWithheldEvent;
+import org.springframework.social.twitter.api.StreamWarningEvent;
+import org.springframework.social.twitter.api.Tweet;
+import org.springframework.social.twitter.api.UserStreamListener;
+
+public class StreamMessageTypeTest {
+
+	@Test
+	public void classify() throws Exception {
+		List<String> filterLines = readLines("filter-stream-track.json");
+		assertEquals(StreamMessageType.TWEET, StreamMessageType.classify(filterLines.get(0)));
+		assertEquals(StreamMessageType.DELETE, StreamMessageType.classify(filterLines.get(4)));
+		assertEquals(StreamMessageType.LIMIT, StreamMessageType.classify(filterLines.get(6)));
+		assertEquals(StreamMessageType.WARNING, StreamMessageType.classify(filterLines.get(7)));
+		List<String> userLines = readLines("user-stream.json");
+		assertEquals(StreamMessageType.FRIENDS, StreamMessageType.classify(userLines.get(0)));
+		assertEquals(StreamMessageType.USER_EVENT, StreamMessageType.classify(userLines.get(1)));
+		assertEquals(StreamMessageType.SCRUB_GEO, StreamMessageType.classify(userLines.get(4)));
+		assertEquals(StreamMessageType.STATUS_WITHHELD, StreamMessageType.classify(userLines.get(5)));
+		assertEquals(StreamMessageType.USER_WITHHELD, StreamMessageType.classify(userLines.get(6)));
+		assertNull(StreamMessageType.classify(userLines.get(7)));
+		assertEquals(StreamMessageType.DISCONNECT, StreamMessageType.classify(userLines.get(8)));
+		assertEquals(StreamMessageType.FRIENDS, StreamMessageType.classify("{\"friends_str\":[\"14090452\"]}"));
+	}
+
+	@Test
+	public void classify_unrecognized() {
+		assertNull(StreamMessageType.classify("BOGUS LINE"));
+		assertNull(StreamMessageType.classify("{\"unrecognized\":\"event\"}"));
+		assertNull(StreamMessageType.classify("[1,2,3]"));
+		assertNull(StreamMessageType.classify("{\"truncated"));
+	}
+
+	@Test
+	public void dispatch_typedCallbacks() throws Exception {
+		RecordingListener listener = new RecordingListener();
+		StreamDispatcher dispatcher = new StreamDispatcher(queueOf("user-stream.json"), asList((StreamListener) listener));
+		dispatcher.run();
+		StreamDrainReport report = dispatcher.drain(System.nanoTime() + TimeUnit.SECONDS.toNanos(5));
+		assertTrue(report.isComplete());
+
+		assertEquals(asList(14090452L, 161064614L, 18543014L), listener.friends.get(0).getFriendIds());
+
+		assertEquals(3, listener.userEvents.size());
+		StreamUserEvent favorite = listener.userEvent("favorite");
+		assertEquals("kdonald", favorite.getSource().getScreenName());
+		assertEquals("artnames", favorite.getTarget().getScreenName());
+		assertEquals("12345", favorite.getTargetTweet().getId());
+		assertNull(favorite.getTargetList());
+		assertNotNull(favorite.getCreatedAt());
+		StreamUserEvent listMemberAdded = listener.userEvent("list_member_added");
+		assertEquals(40841803L, listMemberAdded.getTargetList().getId());
+		assertNull(listMemberAdded.getTargetTweet());
+		StreamUserEvent follow = listener.userEvent("follow");
+		assertNull(follow.getTargetTweet());
+		assertNull(follow.getTargetList());
+
+		StreamScrubGeoEvent scrubGeo = listener.scrubGeos.get(0);
+		assertEquals(14090452L, scrubGeo.getUserId());
+		assertEquals(23260136625L, scrubGeo.getUpToTweetId());
+		StreamStatusWithheldEvent statusWithheld = listener.statusesWithheld.get(0);
+		assertEquals(1234567890L, statusWithheld.getTweetId());
+		assertEquals(123456L, statusWithheld.getUserId());
+		assertEquals(asList("DE", "AR"), statusWithheld.getWithheldInCountries());
+		StreamUserWithheldEvent userWithheld = listener.usersWithheld.get(0);
+		assertEquals(123456L, userWithheld.getUserId());
+		assertEquals(asList("DE", "AR"), userWithheld.getWithheldInCountries());
+
+		StreamDisconnectEvent disconnect = listener.disconnects.get(0);
+		assertEquals(StreamDisconnectEvent.STALL, disconnect.getCode());
+		assertEquals("habuma-user", disconnect.getStreamName());
+		assertEquals("Client stalled", disconnect.getReason());
+		assertFalse(disconnect.isFatal());
+	}
+
+	@Test
+	public void dispatch_skipsTypesWithoutListeners() throws Exception {
+		StreamListener mockListener = mock(StreamListener.class);
+		StreamDispatcher dispatcher = new StreamDispatcher(queueOf("user-stream.json"), asList(mockListener));
+		dispatcher.run();
+		StreamDrainReport report = dispatcher.drain(System.nanoTime() + TimeUnit.SECONDS.toNanos(5));
+		assertTrue(report.isComplete());
+		verifyZeroInteractions(mockListener);
+	}
+
+	private Queue<QueuedMessage> queueOf(String resource) throws IOException {
+		Queue<QueuedMessage> queue = new ConcurrentLinkedQueue<QueuedMessage>();
+		for (String line : readLines(resource)) {
+			queue.add(new QueuedMessage(line));
+		}
+		return queue;
+	}
+
+	private List<String> readLines(String resource) throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(new ClassPathResource(resource, getClass()).getInputStream()));
+		try {
+			List<String> lines = new ArrayList<String>();
+			String line;
+			while ((line = reader.readLine()) != null) {
+				lines.add(line);
+			}
+			return lines;
+		} finally {
+			reader.close();
+		}
+	}
+
+	private static class RecordingListener implements StreamListener, StreamComplianceListener, StreamDisconnectListener, UserStreamListener {
+		private final List<StreamFriendsEvent> friends = new ArrayList<StreamFriendsEvent>();
+		private final List<StreamUserEvent> userEvents = new ArrayList<StreamUserEvent>();
+		private final List<StreamScrubGeoEvent> scrubGeos = new ArrayList<StreamScrubGeoEvent>();
+		private final List<StreamStatusWithheldEvent> statusesWithheld = new ArrayList<StreamStatusWithheldEvent>();
+		private final List<StreamUserWithheldEvent> usersWithheld = new ArrayList<StreamUserWithheldEvent>();
+		private final List<StreamDisconnectEvent> disconnects = new ArrayList<StreamDisconnectEvent>();
+
+		public synchronized StreamUserEvent userEvent(String eventType) {
+			for (StreamUserEvent userEvent : userEvents) {
+				if (userEvent.getEventType().equals(eventType)) {
+					return userEvent;
+				}
+			}
+			return null;
+		}
+
+		public synchronized void onFriends(StreamFriendsEvent friendsEvent) { friends.add(friendsEvent); }
+		public synchronized void onUserEvent(StreamUserEvent userEvent) { userEvents.add(userEvent); }
+		public synchronized void onScrubGeo(StreamScrubGeoEvent scrubGeoEvent) { scrubGeos.add(scrubGeoEvent); }
+		public synchronized void onStatusWithheld(StreamStatusWithheldEvent statusWithheldEvent) { statusesWithheld.add(statusWithheldEvent); }
+		public synchronized void onUserWithheld(StreamUserWithheldEvent userWithheldEvent) { usersWithheld.add(userWithheldEvent); }
+		public synchronized void onDisconnect(StreamDisconnectEvent disconnectEvent) { disconnects.add(disconnectEvent); }
+		public void onTweet(Tweet tweet) {}
+		public void onDelete(StreamDeleteEvent deleteEvent) {}
+		public void onLimit(int numberOfLimitedTweets) {}
+		public void onWarning(StreamWarningEvent warningEvent) {}
+	}
+
+}
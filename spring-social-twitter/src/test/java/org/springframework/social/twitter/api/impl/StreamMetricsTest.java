@@ -0,0 +1,136 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.social.twitter.api.StreamListener;
+import org.springframework.social.twitter.api.Tweet;
+import org.springframework.social.twitter.api.TweetFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class StreamMetricsTest {
+
+	@Test
+	public void recordsEachStageOfTheStream() throws Exception {
+		HistogramStreamMetrics metrics = new HistogramStreamMetrics();
+		long startTime = System.currentTimeMillis();
+		InputStream inputStream = new ClassPathResource("filter-stream-track.json", getClass()).getInputStream();
+		StreamReaderImpl stream = new StreamReaderImpl(inputStream, asList(mock(StreamListener.class)), "filter", metrics, new ListenerIsolationPolicy(), null, null, null);
+		for (int i = 0; i < 10; i++) {
+			stream.next();
+		}
+		long receivedBy = System.currentTimeMillis();
+		assertTrue(stream.close(Duration.ofSeconds(10)).isComplete());
+
+		assertEquals(10, metrics.getReceivedCount("filter"));
+		assertEquals(10, metrics.getDeliveredCount("filter"));
+		assertEquals(10, metrics.getQueueTime("filter").getCount());
+		assertEquals(10, metrics.getDeserializationTime("filter").getCount());
+		assertEquals(10, metrics.getListenerTime("filter").getCount());
+		// only tweets have a creation time; those in the file were all posted on May 24, 2011
+		LatencyHistogram lag = metrics.getLag("filter");
+		assertEquals(4, lag.getCount());
+		assertTrue(lag.getMax() <= receivedBy - MAY_24_2011);
+		assertTrue(lag.getValueAtPercentile(0) >= startTime - MAY_25_2011);
+		assertEquals(0, metrics.getReceivedCount("sample"));
+	}
+
+	@Test
+	public void recordsFilterEvaluations() throws Exception {
+		HistogramStreamMetrics metrics = new HistogramStreamMetrics();
+		StreamListener listener = mock(StreamListener.class);
+		InputStream inputStream = new ClassPathResource("filter-stream-track.json", getClass()).getInputStream();
+		TweetFilter filter = TweetFilter.absent("retweeted_status").and(TweetFilter.atLeast("user.followers_count", 1000));
+		StreamReaderImpl stream = new StreamReaderImpl(inputStream, asList(listener), "filter", metrics, new ListenerIsolationPolicy(), null, null, filter);
+		for (int i = 0; i < 10; i++) {
+			stream.next();
+		}
+		assertTrue(stream.close(Duration.ofSeconds(10)).isComplete());
+
+		// two of the four tweets are retweets and another's author has too few followers
+		verify(listener, times(1)).onTweet(any(Tweet.class));
+		assertEquals(1, metrics.getFilterAcceptedCount("filter"));
+		assertEquals(3, metrics.getFilterRejectedCount("filter"));
+		assertEquals(4, metrics.getFilterTime("filter").getCount());
+		// rejected tweets are never deserialized; the other six messages aren't filtered
+		assertEquals(7, metrics.getDeserializationTime("filter").getCount());
+		assertEquals(10, metrics.getReceivedCount("filter"));
+		assertEquals(7, metrics.getDeliveredCount("filter"));
+	}
+
+	@Test
+	public void timestampOf_snowflakeId() {
+		Tweet tweet = new Tweet("73115209899835392", "text", new Date(1306266999000L), "habuma", null, null, 0L, "en", "web");
+		// the ID's timestamp carries milliseconds that created_at doesn't
+		assertEquals(1306266999112L, StreamDispatcher.timestampOf(tweet));
+	}
+
+	@Test
+	public void timestampOf_preSnowflakeId() {
+		Date createdAt = new Date(1262304000000L);
+		Tweet tweet = new Tweet("7123456789", "text", createdAt, "habuma", null, null, 0L, "en", "web");
+		assertEquals(createdAt.getTime(), StreamDispatcher.timestampOf(tweet));
+		assertEquals(0, StreamDispatcher.timestampOf(new Tweet("7123456789", "text", null, "habuma", null, null, 0L, "en", "web")));
+	}
+
+	@Test
+	public void micrometerBinding() {
+		MeterRegistry registry = new SimpleMeterRegistry();
+		MicrometerStreamMetrics metrics = new MicrometerStreamMetrics(registry);
+		metrics.messageReceived("sample");
+		metrics.messageReceived("sample");
+		metrics.messageDelivered("sample");
+		metrics.recordLag("sample", 1500);
+		metrics.recordQueueTime("sample", 2000);
+		metrics.recordDeserializationTime("sample", 3000);
+		metrics.recordListenerTime("sample", 4000);
+		metrics.recordListenerTime("user", 5000);
+		metrics.recordFilterEvaluation("sample", true, 100);
+		metrics.recordFilterEvaluation("sample", false, 200);
+		metrics.recordFilterEvaluation("sample", false, 300);
+
+		assertEquals(2.0, registry.get("twitter.stream.messages.received").tag("stream", "sample").counter().count(), 0.0);
+		assertEquals(1.0, registry.get("twitter.stream.messages.delivered").tag("stream", "sample").counter().count(), 0.0);
+		Timer lag = registry.get("twitter.stream.lag").tag("stream", "sample").timer();
+		assertEquals(1, lag.count());
+		assertEquals(1500.0, lag.totalTime(TimeUnit.MILLISECONDS), 0.0);
+		assertEquals(2000.0, registry.get("twitter.stream.queue").timer().totalTime(TimeUnit.NANOSECONDS), 0.0);
+		assertEquals(3000.0, registry.get("twitter.stream.deserialization").timer().totalTime(TimeUnit.NANOSECONDS), 0.0);
+		assertEquals(4000.0, registry.get("twitter.stream.listener").tag("stream", "sample").timer().totalTime(TimeUnit.NANOSECONDS), 0.0);
+		assertEquals(5000.0, registry.get("twitter.stream.listener").tag("stream", "user").timer().totalTime(TimeUnit.NANOSECONDS), 0.0);
+		assertEquals(1, registry.get("twitter.stream.filter").tag("stream", "sample").tag("result", "accepted").timer().count());
+		assertEquals(2, registry.get("twitter.stream.filter").tag("stream", "sample").tag("result", "rejected").timer().count());
+		assertEquals(500.0, registry.get("twitter.stream.filter").tag("stream", "sample").tag("result", "rejected").timer().totalTime(TimeUnit.NANOSECONDS), 0.0);
+	}
+
+	private static final long MAY_24_2011 = 1306195200000L;
+
+	private static final long MAY_25_2011 = 1306281600000L;
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.springframework.social.twitter.api.Tweet;
+import org.springframework.social.twitter.api.TwitterProfile;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class StringInternerTest {
+
+	@Test
+	public void intern() {
+		StringInterner interner = new StringInterner(16, 10);
+		String first = new String("en");
+		String second = new String("en");
+		assertSame(first, interner.intern(first));
+		assertSame(first, interner.intern(second));
+		assertNull(interner.intern(null));
+	}
+
+	@Test
+	public void intern_chars() {
+		StringInterner interner = new StringInterner(16, 10);
+		char[] chars = "xx\"web\"xx".toCharArray();
+		String first = interner.intern(chars, 3, 3);
+		assertEquals("web", first);
+		assertSame(first, interner.intern(chars, 3, 3));
+		assertSame(first, interner.intern(new String("web")));
+	}
+
+	@Test
+	public void intern_tooLong() {
+		StringInterner interner = new StringInterner(16, 3);
+		String first = new String("abcd");
+		assertSame(first, interner.intern(first));
+		assertNotSame(first, interner.intern(new String("abcd")));
+		char[] chars = "abcd".toCharArray();
+		assertNotSame(interner.intern(chars, 0, 4), interner.intern(chars, 0, 4));
+	}
+
+	@Test
+	public void intern_bounded() {
+		StringInterner interner = new StringInterner(4, 10);
+		List<String> strings = new ArrayList<String>();
+		for (int i = 0; i < 100; i++) {
+			strings.add(interner.intern("value" + i));
+		}
+		// at most 4 of them can still be pooled
+		int pooled = 0;
+		for (int i = 0; i < 100; i++) {
+			if (interner.intern(new String("value" + i)) == strings.get(i)) {
+				pooled++;
+			}
+		}
+		assertTrue(pooled <= 4);
+	}
+
+	@Test
+	public void intern_concurrently() throws Exception {
+		final StringInterner interner = new StringInterner(64, 10);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+			for (int t = 0; t < 4; t++) {
+				results.add(executor.submit(new Callable<Boolean>() {
+					public Boolean call() {
+						for (int i = 0; i < 100000; i++) {
+							String value = "v" + (i % 200);
+							if (!value.equals(interner.intern(value)) || !value.equals(interner.intern(value.toCharArray(), 0, value.length()))) {
+								return false;
+							}
+						}
+						return true;
+					}
+				}));
+			}
+			for (Future<Boolean> result : results) {
+				assertTrue(result.get());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void deserializedValuesAreShared() throws Exception {
+		ObjectMapper objectMapper = new ObjectMapper();
+		objectMapper.registerModule(new TwitterModule());
+		String json = "{\"id\":1,\"text\":\"Hello\",\"source\":\"web\",\"lang\":\"en\",\"created_at\":\"Tue Jul 13 17:38:21 +0000 2010\","
+				+ "\"user\":{\"id\":2,\"screen_name\":\"habuma\",\"lang\":\"en\",\"time_zone\":\"Central Time (US & Canada)\",\"profile_link_color\":\"0084B4\"}}";
+		Tweet first = objectMapper.readValue(json, Tweet.class);
+		Tweet second = objectMapper.readValue(json, Tweet.class);
+		assertNotSame(first, second);
+		assertEquals("web", first.getSource());
+		assertSame(first.getSource(), second.getSource());
+		assertSame(first.getLanguageCode(), second.getLanguageCode());
+		TwitterProfile firstUser = first.getUser();
+		TwitterProfile secondUser = second.getUser();
+		assertEquals("Central Time (US & Canada)", firstUser.getTimeZone());
+		assertSame(firstUser.getScreenName(), secondUser.getScreenName());
+		assertSame(firstUser.getLanguage(), secondUser.getLanguage());
+		assertSame(firstUser.getTimeZone(), secondUser.getTimeZone());
+		assertSame(firstUser.getLinkColor(), secondUser.getLinkColor());
+		assertSame(first.getLanguageCode(), firstUser.getLanguage());
+	}
+
+	@Test
+	public void nonScalarValuesAreSkipped() throws Exception {
+		ObjectMapper objectMapper = new ObjectMapper();
+		objectMapper.registerModule(new TwitterModule());
+		String json = "{\"id\":2,\"screen_name\":\"habuma\",\"time_zone\":{\"name\":\"Central\",\"offsets\":[-6,-5]},"
+				+ "\"profile_link_color\":[\"0084B4\"],\"lang\":\"en\"}";
+		TwitterProfile profile = objectMapper.readValue(json, TwitterProfile.class);
+		assertNull(profile.getTimeZone());
+		assertNull(profile.getLinkColor());
+		assertEquals("en", profile.getLanguage());
+		assertEquals("habuma", profile.getScreenName());
+	}
+
+}
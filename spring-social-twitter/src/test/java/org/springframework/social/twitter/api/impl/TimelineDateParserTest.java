@@ -0,0 +1,100 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.junit.Test;
+
+public class TimelineDateParserTest {
+
+	@Test
+	public void parse() throws Exception {
+		assertEquals(1279042701000L, TimelineDateParser.parse("Tue Jul 13 17:38:21 +0000 2010", 0, 30));
+		assertEquals(1279042701000L, TimelineDateParser.parse("Tue Jul 13 19:38:21 +0200 2010", 0, 30));
+		assertEquals(1279042701000L, TimelineDateParser.parse("Tue Jul 13 12:08:21 -0530 2010", 0, 30));
+		assertEquals(0L, TimelineDateParser.parse("Thu Jan 01 00:00:00 +0000 1970", 0, 30));
+		assertEquals(951782400000L, TimelineDateParser.parse("Tue Feb 29 00:00:00 +0000 2000", 0, 30));
+	}
+
+	@Test
+	public void parse_matchesSimpleDateFormat() throws Exception {
+		SimpleDateFormat format = new SimpleDateFormat("EEE MMM dd HH:mm:ss ZZZZZ yyyy", Locale.ENGLISH);
+		Random random = new Random(42);
+		String[] zones = { "UTC", "America/Los_Angeles", "Asia/Kolkata", "Australia/Eucla", "Pacific/Chatham" };
+		for (int i = 0; i < 10000; i++) {
+			format.setTimeZone(TimeZone.getTimeZone(zones[random.nextInt(zones.length)]));
+			long millis = (long) (random.nextDouble() * 4102444800000L) / 1000 * 1000;
+			String text = format.format(new Date(millis));
+			assertEquals(text, millis, TimelineDateParser.parse(text, 0, text.length()));
+			assertEquals(text, format.parse(text).getTime(), TimelineDateParser.parse(text, 0, text.length()));
+		}
+	}
+
+	@Test
+	public void parse_ranges() throws Exception {
+		String text = "{\"created_at\":\"Tue Jul 13 17:38:21 +0000 2010\"}";
+		assertEquals(1279042701000L, TimelineDateParser.parse(text, 15, 30));
+		assertEquals(1279042701000L, TimelineDateParser.parse(text.toCharArray(), 15, 30));
+		assertEquals(1279042701000L, TimelineDateParser.parse(text.getBytes(StandardCharsets.UTF_8), 15, 30));
+	}
+
+	@Test
+	public void parse_repeatedValues() throws Exception {
+		// the second time around, each value comes from the cache
+		for (int i = 0; i < 2; i++) {
+			assertEquals(1279042701000L, TimelineDateParser.parse("Tue Jul 13 17:38:21 +0000 2010", 0, 30));
+			assertEquals(1279042701000L + 86400000L, TimelineDateParser.parse("Wed Jul 14 17:38:21 +0000 2010".toCharArray(), 0, 30));
+			assertEquals(1279042701000L - 3600000L, TimelineDateParser.parse("Tue Jul 13 17:38:21 +0100 2010".getBytes(StandardCharsets.US_ASCII), 0, 30));
+		}
+	}
+
+	@Test
+	public void parse_namesIgnoreCase() throws Exception {
+		assertEquals(1279042701000L, TimelineDateParser.parse("TUE jul 13 17:38:21 +0000 2010", 0, 30));
+	}
+
+	@Test
+	public void parse_outsideFixedWidthLayout() throws Exception {
+		// these are left to SimpleDateFormat, which is lenient about them
+		assertEquals(1279042701000L, TimelineDateParser.parse("Tue July 13 17:38:21 +0000 2010", 0, 31));
+		assertEquals(1279042701000L, TimelineDateParser.parse("Tue Jul 13 17:38:21 +0000 2010 and then some", 0, 44));
+		assertEquals(TimelineDateParser.parse("Thu Mar 01 00:00:00 +0000 2001", 0, 30), TimelineDateParser.parse("Thu Feb 29 00:00:00 +0000 2001", 0, 30));
+		assertEquals(-3600000L, TimelineDateParser.parse("Wed Dec 31 23:00:00 +0000 1969", 0, 30));
+	}
+
+	@Test(expected = ParseException.class)
+	public void parse_notATimestamp() throws Exception {
+		TimelineDateParser.parse("2010-07-13T17:38:21Z", 0, 20);
+	}
+
+	@Test
+	public void toDate() {
+		assertEquals(new Date(1279042701000L), TimelineDateParser.toDate("Tue Jul 13 17:38:21 +0000 2010"));
+		assertNull(TimelineDateParser.toDate("Xyz Jul 13 17:38:21 +0000 2010"));
+		assertNull(TimelineDateParser.toDate(""));
+		assertNull(TimelineDateParser.toDate((String) null));
+	}
+
+}
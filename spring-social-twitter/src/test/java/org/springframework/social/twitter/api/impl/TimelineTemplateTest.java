@@ -19,16 +19,21 @@ import static org.junit.Assert.*;
 import static org.springframework.http.HttpMethod.*;
 import static org.springframework.http.HttpStatus.*;
 import static org.springframework.http.MediaType.*;
+import static org.springframework.social.twitter.api.TweetProjection.Field.*;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.*;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.junit.Test;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.social.DuplicateStatusException;
 import org.springframework.social.OperationNotPermittedException;
+import org.springframework.social.ResourceNotFoundException;
+import org.springframework.social.twitter.api.CloseableIterator;
 import org.springframework.social.twitter.api.Entities;
 import org.springframework.social.twitter.api.MessageTooLongException;
 import org.springframework.social.twitter.api.OEmbedOptions;
@@ -36,6 +41,7 @@ import org.springframework.social.twitter.api.OEmbedTweet;
 import org.springframework.social.twitter.api.TickerSymbolEntity;
 import org.springframework.social.twitter.api.Tweet;
 import org.springframework.social.twitter.api.TweetData;
+import org.springframework.social.twitter.api.TweetProjection;
 
 
 /**
@@ -70,6 +76,89 @@ public class TimelineTemplateTest extends AbstractTwitterApiTest {
 		assertTimelineTweets(timeline);
 	}
 
+	@Test
+	public void getHomeTimeline_withProjection() {
+		mockServer.expect(requestTo("https://api.twitter.com/1.1/statuses/home_timeline.json?count=20&include_entities=true"))
+				.andExpect(method(GET))
+				.andExpect(header("Accept", "application/json"))
+				.andRespond(withSuccess(jsonResource("timeline"), APPLICATION_JSON));
+		List<Tweet> timeline = twitter.timelineOperations().withProjection(TweetProjection.of(ID, TEXT, USER_ID, CREATED_AT, HASHTAGS)).getHomeTimeline();
+		assertEquals(2, timeline.size());
+		Tweet tweet = timeline.get(0);
+		assertEquals("12345", tweet.getId());
+		assertEquals("Tweet 1", tweet.getText());
+		assertEquals(112233, tweet.getFromUserId());
+		assertEquals(1279042701000L, tweet.getCreatedAt().getTime());
+		assertEquals("testhash", tweet.getEntities().getHashTags().get(0).getText());
+		assertTrue(tweet.getEntities().getUrls().isEmpty());
+		assertTrue(tweet.getEntities().getMentions().isEmpty());
+		assertNull(tweet.getFromUser());
+		assertNull(tweet.getUser());
+		assertNull(tweet.getSource());
+		assertNull(tweet.getRetweetCount());
+		assertEquals("54321", timeline.get(1).getId());
+	}
+
+	@Test(expected = ResourceNotFoundException.class)
+	public void getStatus_withProjection_notFound() {
+		mockServer.expect(requestTo("https://api.twitter.com/1.1/statuses/show/12345.json?include_entities=true"))
+			.andExpect(method(GET))
+			.andRespond(withStatus(NOT_FOUND).body("{\"errors\":[{\"code\":34,\"message\":\"Sorry, that page does not exist\"}]}").contentType(APPLICATION_JSON));
+		twitter.timelineOperations().withProjection(TweetProjection.of(ID)).getStatus(12345);
+	}
+
+	@Test
+	public void iterateUserTimeline_forScreenName() {
+		mockServer.expect(requestTo("https://api.twitter.com/1.1/statuses/user_timeline.json?count=200&screen_name=habuma&include_entities=true"))
+				.andExpect(method(GET))
+				.andExpect(header("Accept", "application/json"))
+				.andRespond(withSuccess(jsonResource("timeline"), APPLICATION_JSON));
+		CloseableIterator<Tweet> tweets = twitter.timelineOperations().iterateUserTimeline("habuma", 200, 0, 0);
+		List<Tweet> timeline = new ArrayList<Tweet>();
+		while (tweets.hasNext()) {
+			timeline.add(tweets.next());
+		}
+		assertTimelineTweets(timeline);
+		assertFalse(tweets.hasNext());
+		tweets.close();
+	}
+
+	@Test
+	public void iterateUserTimeline_closedBeforeTheEnd() {
+		mockServer.expect(requestTo("https://api.twitter.com/1.1/statuses/user_timeline.json?count=200&user_id=2&include_entities=true"))
+				.andExpect(method(GET))
+				.andRespond(withSuccess(jsonResource("timeline"), APPLICATION_JSON));
+		CloseableIterator<Tweet> tweets = twitter.timelineOperations().iterateUserTimeline(2, 200, 0, 0);
+		assertEquals("12345", tweets.next().getId());
+		tweets.close();
+		assertFalse(tweets.hasNext());
+	}
+
+	@Test(expected = ResourceNotFoundException.class)
+	public void iterateUserTimeline_notFound() {
+		mockServer.expect(requestTo("https://api.twitter.com/1.1/statuses/user_timeline.json?count=200&screen_name=nobody&include_entities=true"))
+				.andExpect(method(GET))
+				.andRespond(withStatus(NOT_FOUND).body("{\"errors\":[{\"code\":34,\"message\":\"Sorry, that page does not exist\"}]}").contentType(APPLICATION_JSON));
+		twitter.timelineOperations().iterateUserTimeline("nobody", 200, 0, 0);
+	}
+
+	@Test
+	public void streamUserTimeline_withProjection() {
+		mockServer.expect(requestTo("https://api.twitter.com/1.1/statuses/user_timeline.json?count=20&since_id=123456&max_id=654321&include_entities=true"))
+				.andExpect(method(GET))
+				.andRespond(withSuccess(jsonResource("timeline"), APPLICATION_JSON));
+		java.util.stream.Stream<Tweet> tweets = twitter.timelineOperations().withProjection(TweetProjection.of(ID, TEXT)).streamUserTimeline(20, 123456, 654321);
+		try {
+			List<Tweet> timeline = tweets.collect(Collectors.<Tweet>toList());
+			assertEquals(2, timeline.size());
+			assertEquals("Tweet 1", timeline.get(0).getText());
+			assertNull(timeline.get(0).getRetweetCount());
+			assertEquals("Tweet 2", timeline.get(1).getText());
+		} finally {
+			tweets.close();
+		}
+	}
+
 	@Test
 	public void getUserTimeline() {
 		mockServer.expect(requestTo("https://api.twitter.com/1.1/statuses/user_timeline.json?count=20&include_entities=true"))
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.springframework.social.twitter.api.Entities;
+import org.springframework.social.twitter.api.HashTagEntity;
+import org.springframework.social.twitter.api.MentionEntity;
+import org.springframework.social.twitter.api.TickerSymbolEntity;
+import org.springframework.social.twitter.api.UrlEntity;
+
+public class TweetEntityExtractorTest {
+
+	@Test
+	public void extractEntities() {
+		Entities entities = TweetEntityExtractor.extractEntities("RT @habuma: #Spring Social 1.1 is out! $VMW https://spring.io/projects/spring-social.");
+		List<MentionEntity> mentions = entities.getMentions();
+		assertEquals(1, mentions.size());
+		assertEquals("habuma", mentions.get(0).getScreenName());
+		assertIndices(3, 10, mentions.get(0).getIndices());
+		List<HashTagEntity> hashTags = entities.getHashTags();
+		assertEquals(1, hashTags.size());
+		assertEquals("Spring", hashTags.get(0).getText());
+		assertIndices(12, 19, hashTags.get(0).getIndices());
+		List<TickerSymbolEntity> tickerSymbols = entities.getTickerSymbols();
+		assertEquals(1, tickerSymbols.size());
+		assertEquals("VMW", tickerSymbols.get(0).getTickerSymbol());
+		assertEquals("https://twitter.com/search?q=%24VMW&src=ctag", tickerSymbols.get(0).getUrl());
+		assertIndices(39, 43, tickerSymbols.get(0).getIndices());
+		List<UrlEntity> urls = entities.getUrls();
+		assertEquals(1, urls.size());
+		assertEquals("https://spring.io/projects/spring-social", urls.get(0).getUrl());
+		assertEquals("https://spring.io/projects/spring-social", urls.get(0).getExpandedUrl());
+		assertEquals("spring.io/projects/spring-social", urls.get(0).getDisplayUrl());
+		assertIndices(44, 84, urls.get(0).getIndices());
+		assertFalse(entities.hasMedia());
+	}
+
+	@Test
+	public void extractEntities_none() {
+		Entities entities = TweetEntityExtractor.extractEntities("Just a tweet");
+		assertFalse(entities.hasUrls());
+		assertFalse(entities.hasTags());
+		assertFalse(entities.hasMentions());
+		assertFalse(entities.hasTickerSymbols());
+		assertEquals(0, entities.getHashTags().size());
+	}
+
+	@Test
+	public void indicesAreCodePoints() {
+		// the emoji is a surrogate pair, but only one code point
+		Entities entities = TweetEntityExtractor.extractEntities("\ud83d\ude00 #happy @habuma");
+		assertIndices(2, 8, entities.getHashTags().get(0).getIndices());
+		assertIndices(9, 16, entities.getMentions().get(0).getIndices());
+		entities = TweetEntityExtractor.extractEntities("#caf\u00e9\ud840\udc0b $FB");
+		assertEquals("caf\u00e9\ud840\udc0b", entities.getHashTags().get(0).getText());
+		assertIndices(0, 6, entities.getHashTags().get(0).getIndices());
+		assertIndices(7, 10, entities.getTickerSymbols().get(0).getIndices());
+	}
+
+	@Test
+	public void hashTags() {
+		assertHashTags("#hashtag", "hashtag");
+		assertHashTags("a #hashtag here", "hashtag");
+		assertHashTags("\uff03fullwidth", "fullwidth");
+		assertHashTags("#has_underscore #\u65e5\u672c\u8a9e #caf\u00e9", "has_underscore", "\u65e5\u672c\u8a9e", "caf\u00e9");
+		assertHashTags("#1st #2013", "1st");
+		assertHashTags("#one#two");
+		assertHashTags("&#nbsp; foo#bar");
+		assertHashTags("#http://example.com");
+		assertHashTags("#\ufe0f\u20e3");
+		assertHashTags("#end.", "end");
+	}
+
+	@Test
+	public void mentions() {
+		assertMentions("@habuma", "habuma");
+		assertMentions("hi @habuma, @rclarkson!", "habuma", "rclarkson");
+		assertMentions("\uff20fullwidth", "fullwidth");
+		assertMentions("RT@habuma", "habuma");
+		assertMentions("habuma@example.com");
+		assertMentions("@habuma@example.com");
+		assertMentions("@habuma/spring-team");
+		assertMentions("@abcdefghijklmnopqrstu");
+		assertMentions("@abcdefghijklmnopqrst_1", "abcdefghijklmnopqrst");
+		assertMentions("@ alone");
+	}
+
+	@Test
+	public void tickerSymbols() {
+		assertTickerSymbols("$VMW", "VMW");
+		assertTickerSymbols("Stocks to watch: $VMW, $FB, $AAPL", "VMW", "FB", "AAPL");
+		assertTickerSymbols("$BRK.A and $RDS_A", "BRK.A", "RDS_A");
+		assertTickerSymbols("$TOOLONG");
+		assertTickerSymbols("US$10 or $5 or a$VMW");
+	}
+
+	@Test
+	public void addTickerSymbols() {
+		Entities entities = TweetEntityExtractor.extractEntities("#tag @user");
+		Entities withTickerSymbols = TweetEntityExtractor.addTickerSymbols("#tag @user $VMW", entities);
+		assertEquals(entities.getHashTags(), withTickerSymbols.getHashTags());
+		assertEquals(entities.getMentions(), withTickerSymbols.getMentions());
+		List<TickerSymbolEntity> tickerSymbols = withTickerSymbols.getTickerSymbols();
+		assertEquals(1, tickerSymbols.size());
+		assertEquals("VMW", tickerSymbols.get(0).getTickerSymbol());
+		assertIndices(11, 15, tickerSymbols.get(0).getIndices());
+		assertSame(entities, TweetEntityExtractor.addTickerSymbols("#tag @user", entities));
+	}
+
+	@Test
+	public void urls() {
+		assertUrls("http://example.com", "http://example.com");
+		assertUrls("see https://example.com/path?q=1&r=2#frag, then", "https://example.com/path?q=1&r=2#frag");
+		assertUrls("(http://example.com/a)", "http://example.com/a");
+		assertUrls("http://en.wikipedia.org/wiki/Spring_(framework).", "http://en.wikipedia.org/wiki/Spring_(framework)");
+		assertUrls("HTTP://EXAMPLE.COM:8080/x", "HTTP://EXAMPLE.COM:8080/x");
+		assertUrls("\"http://example.com/quoted\"", "http://example.com/quoted");
+		assertUrls("http://localhost");
+		assertUrls("http://.example.com");
+		assertUrls("xhttp://example.com");
+		assertUrls("example.com");
+	}
+
+	@Test
+	public void urls_hideEntitiesWithin() {
+		Entities entities = TweetEntityExtractor.extractEntities("https://example.com/#anchor/@user/$VMW");
+		assertEquals(1, entities.getUrls().size());
+		assertFalse(entities.hasTags());
+		assertFalse(entities.hasMentions());
+		assertFalse(entities.hasTickerSymbols());
+	}
+
+	private void assertHashTags(String text, String... expected) {
+		List<HashTagEntity> hashTags = TweetEntityExtractor.extractEntities(text).getHashTags();
+		assertEquals(text, expected.length, hashTags.size());
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], hashTags.get(i).getText());
+		}
+	}
+
+	private void assertMentions(String text, String... expected) {
+		List<MentionEntity> mentions = TweetEntityExtractor.extractEntities(text).getMentions();
+		assertEquals(text, expected.length, mentions.size());
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], mentions.get(i).getScreenName());
+		}
+	}
+
+	private void assertTickerSymbols(String text, String... expected) {
+		List<TickerSymbolEntity> tickerSymbols = TweetEntityExtractor.extractEntities(text).getTickerSymbols();
+		assertEquals(text, expected.length, tickerSymbols.size());
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], tickerSymbols.get(i).getTickerSymbol());
+		}
+	}
+
+	private void assertUrls(String text, String... expected) {
+		List<UrlEntity> urls = TweetEntityExtractor.extractEntities(text).getUrls();
+		assertEquals(text, expected.length, urls.size());
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], urls.get(i).getUrl());
+		}
+	}
+
+	private void assertIndices(int start, int end, int[] indices) {
+		assertEquals(2, indices.length);
+		assertEquals(start, indices[0]);
+		assertEquals(end, indices[1]);
+	}
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import static org.junit.Assert.*;
+import static org.springframework.social.twitter.api.TweetFilter.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Test;
+import org.springframework.social.twitter.api.TweetFilter;
+
+public class TweetFilterTest {
+
+	@Test
+	public void topLevelValues() {
+		assertTrue(accepts(equalTo("lang", "en"), TWEET));
+		assertFalse(accepts(equalTo("lang", "de"), TWEET));
+		assertTrue(accepts(in("lang", "de", "en"), TWEET));
+		assertTrue(accepts(equalTo("retweeted", "false"), TWEET));
+		assertTrue(accepts(equalTo("id", "12345"), TWEET));
+		assertFalse(accepts(equalTo("in_reply_to_user_id", "null"), TWEET));
+	}
+
+	@Test
+	public void nestedValues() {
+		assertTrue(accepts(atLeast("user.followers_count", 1000), TWEET));
+		assertFalse(accepts(atLeast("user.followers_count", 1001), TWEET));
+		assertTrue(accepts(atMost("user.followers_count", 1000), TWEET));
+		assertTrue(accepts(equalTo("user.screen_name", "habuma"), TWEET));
+		// the retweeted tweet's author is a different path from this tweet's author
+		assertTrue(accepts(equalTo("retweeted_status.user.screen_name", "rclarkson"), RETWEET));
+		assertFalse(accepts(equalTo("retweeted_status.user.screen_name", "habuma"), RETWEET));
+	}
+
+	@Test
+	public void presence() {
+		assertTrue(accepts(absent("retweeted_status"), TWEET));
+		assertFalse(accepts(absent("retweeted_status"), RETWEET));
+		assertTrue(accepts(present("retweeted_status"), RETWEET));
+		assertTrue(accepts(present("entities.hashtags"), TWEET));
+		// a null is as good as missing
+		assertFalse(accepts(present("in_reply_to_user_id"), TWEET));
+		assertFalse(accepts(present("user.missing"), TWEET));
+		assertFalse(accepts(present("lang.nested"), TWEET));
+	}
+
+	@Test
+	public void numbersOnly() {
+		assertFalse(accepts(atLeast("lang", 0), TWEET));
+		assertFalse(accepts(atLeast("user.missing", 0), TWEET));
+		assertFalse(accepts(atLeast("user", 0), TWEET));
+	}
+
+	@Test
+	public void combinations() {
+		TweetFilter filter = equalTo("lang", "en").and(absent("retweeted_status")).and(atLeast("user.followers_count", 1000));
+		assertTrue(accepts(filter, TWEET));
+		assertFalse(accepts(filter, RETWEET));
+		assertTrue(accepts(filter.or(equalTo("retweeted_status.user.screen_name", "rclarkson")), RETWEET));
+		assertFalse(accepts(filter.negate(), TWEET));
+		assertEquals(new HashSet<String>(Arrays.asList("lang", "retweeted_status", "user.followers_count")), filter.getPaths());
+	}
+
+	@Test
+	public void unparseableLinesAreLeftToDeserialization() {
+		assertTrue(accepts(equalTo("lang", "en"), "not json"));
+		assertTrue(accepts(equalTo("lang", "en"), "[1, 2]"));
+	}
+
+	private boolean accepts(TweetFilter filter, String json) {
+		return new TweetFilterScanner(filter).accepts(json);
+	}
+
+	private static final String TWEET = "{\"id\":12345,\"text\":\"Hello #spring\",\"lang\":\"en\",\"retweeted\":false,\"in_reply_to_user_id\":null,"
+			+ "\"entities\":{\"hashtags\":[{\"text\":\"spring\",\"indices\":[6,13]}]},"
+			+ "\"user\":{\"id\":112233,\"screen_name\":\"habuma\",\"followers_count\":1000,\"entities\":{\"description\":{\"urls\":[]}}}}";
+
+	private static final String RETWEET = "{\"id\":54321,\"text\":\"RT @rclarkson: Hi\",\"lang\":\"en\","
+			+ "\"user\":{\"id\":112233,\"screen_name\":\"habuma\",\"followers_count\":1000},"
+			+ "\"retweeted_status\":{\"id\":111,\"text\":\"Hi\",\"user\":{\"id\":332211,\"screen_name\":\"rclarkson\",\"followers_count\":5}}}";
+
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import static java.util.Arrays.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.social.twitter.api.TweetProjection.Field.*;
+
+import java.io.InputStream;
+import java.time.Duration;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.social.twitter.api.StreamListener;
+import org.springframework.social.twitter.api.Tweet;
+import org.springframework.social.twitter.api.TweetProjection;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+public class TweetProjectionTest {
+
+	private final ObjectReader reader = new ObjectMapper().registerModule(new TwitterModule()).readerFor(Tweet.class);
+
+	@Test
+	public void readsOnlyProjectedFields() throws Exception {
+		Tweet tweet = read(TweetProjection.of(ID, TEXT, USER_ID, CREATED_AT, HASHTAGS), TWEET);
+		assertEquals("12345", tweet.getId());
+		assertEquals("Hello $SPRG #spring @habuma", tweet.getText());
+		assertEquals(112233, tweet.getFromUserId());
+		assertEquals(1279042701000L, tweet.getCreatedAt().getTime());
+		assertEquals(1, tweet.getEntities().getHashTags().size());
+		assertEquals("spring", tweet.getEntities().getHashTags().get(0).getText());
+		assertTrue(tweet.getEntities().getMentions().isEmpty());
+		assertTrue(tweet.getEntities().getTickerSymbols().isEmpty());
+		assertNull(tweet.getFromUser());
+		assertNull(tweet.getProfileImageUrl());
+		assertNull(tweet.getUser());
+		assertNull(tweet.getSource());
+		assertNull(tweet.getLanguageCode());
+		assertNull(tweet.getToUserId());
+		assertNull(tweet.getInReplyToStatusId());
+		assertNull(tweet.getInReplyToScreenName());
+		assertNull(tweet.getRetweetCount());
+		assertFalse(tweet.isRetweeted());
+		assertNull(tweet.getRetweetedStatus());
+		assertNull(tweet.getFavoriteCount());
+		assertFalse(tweet.isFavorited());
+	}
+
+	@Test
+	public void textNotProjected() throws Exception {
+		Tweet tweet = read(TweetProjection.of(ID, TICKER_SYMBOLS), TWEET);
+		assertEquals("12345", tweet.getId());
+		assertNull(tweet.getText());
+		assertEquals("SPRG", tweet.getEntities().getTickerSymbols().get(0).getTickerSymbol());
+		assertTrue(tweet.getEntities().getHashTags().isEmpty());
+		assertNull(tweet.getCreatedAt());
+	}
+
+	@Test
+	public void userFieldsWithoutProfile() throws Exception {
+		Tweet tweet = read(TweetProjection.of(USER_SCREEN_NAME), TWEET);
+		assertEquals("habuma", tweet.getFromUser());
+		assertEquals(0, tweet.getFromUserId());
+		assertNull(tweet.getUser());
+		assertNull(tweet.getId());
+		assertNull(tweet.getEntities());
+	}
+
+	@Test
+	public void fullProfile() throws Exception {
+		Tweet tweet = read(TweetProjection.of(USER), TWEET);
+		assertEquals("habuma", tweet.getFromUser());
+		assertEquals(112233, tweet.getFromUserId());
+		assertEquals("https://a3.twimg.com/profile_images/1205746571/me2_300.jpg", tweet.getProfileImageUrl());
+		assertEquals("Craig Walls", tweet.getUser().getName());
+	}
+
+	@Test
+	public void retweetedStatusProjectedTheSameWay() throws Exception {
+		String retweet = "{\"id\":54321,\"text\":\"RT @habuma: Hello\",\"source\":\"web\",\"retweeted_status\":" + TWEET + "}";
+		Tweet tweet = read(TweetProjection.of(ID, RETWEETED_STATUS), retweet);
+		assertEquals("54321", tweet.getId());
+		assertNull(tweet.getSource());
+		assertEquals("12345", tweet.getRetweetedStatus().getId());
+		assertNull(tweet.getRetweetedStatus().getText());
+		assertNull(tweet.getRetweetedStatus().getRetweetedStatus());
+	}
+
+	@Test
+	public void entitiesExtractedFromTextWhenMissing() throws Exception {
+		Tweet tweet = read(TweetProjection.of(MENTIONS), "{\"id\":1,\"text\":\"Hello @habuma #spring\"}");
+		assertEquals("habuma", tweet.getEntities().getMentions().get(0).getScreenName());
+		assertTrue(tweet.getEntities().getHashTags().isEmpty());
+	}
+
+	@Test
+	public void emptyTextStillSkippedWhenProjected() throws Exception {
+		assertNull(read(TweetProjection.of(ID, TEXT), "{\"id\":1,\"text\":\"\"}"));
+	}
+
+	@Test
+	public void allIsTheSameAsNoProjection() throws Exception {
+		Tweet whole = reader.readValue(TWEET);
+		Tweet all = read(TweetProjection.ALL, TWEET);
+		assertEquals(whole.getId(), all.getId());
+		assertEquals(whole.getSource(), all.getSource());
+		assertEquals(whole.getUser(), all.getUser());
+		assertEquals(whole.getEntities(), all.getEntities());
+		assertEquals(whole.getInReplyToScreenName(), all.getInReplyToScreenName());
+		assertEquals(TweetProjection.ALL, TweetProjection.of(ID, TweetProjection.Field.values()));
+	}
+
+	@Test
+	public void streamDeliversProjectedTweets() throws Exception {
+		StreamListener listener = mock(StreamListener.class);
+		InputStream inputStream = new ClassPathResource("filter-stream-track.json", getClass()).getInputStream();
+		StreamReaderImpl stream = new StreamReaderImpl(inputStream, asList(listener), "filter", NoOpStreamMetrics.INSTANCE, new ListenerIsolationPolicy(), null, TweetProjection.of(ID, TEXT), null);
+		for (int i = 0; i < 10; i++) {
+			stream.next();
+		}
+		assertTrue(stream.close(Duration.ofSeconds(10)).isComplete());
+		ArgumentCaptor<Tweet> tweets = ArgumentCaptor.forClass(Tweet.class);
+		verify(listener, times(4)).onTweet(tweets.capture());
+		for (Tweet tweet : tweets.getAllValues()) {
+			assertNotNull(tweet.getId());
+			assertNotNull(tweet.getText());
+			assertNull(tweet.getUser());
+			assertNull(tweet.getEntities());
+		}
+	}
+
+	private Tweet read(TweetProjection projection, String json) throws Exception {
+		return reader.withAttribute(TweetProjection.class, projection).readValue(json);
+	}
+
+	private static final String TWEET = "{\"id\":12345,\"text\":\"Hello $SPRG #spring @habuma\",\"created_at\":\"Tue Jul 13 17:38:21 +0000 2010\","
+			+ "\"source\":\"web\",\"lang\":\"en\",\"in_reply_to_status_id\":123,\"in_reply_to_user_id\":332211,\"in_reply_to_screen_name\":\"rclarkson\","
+			+ "\"retweet_count\":12,\"retweeted\":true,\"favorite_count\":5,\"favorited\":true,"
+			+ "\"user\":{\"id\":112233,\"screen_name\":\"habuma\",\"name\":\"Craig Walls\",\"profile_image_url\":\"https://a3.twimg.com/profile_images/1205746571/me2_300.jpg\","
+			+ "\"entities\":{\"description\":{\"urls\":[]}}},"
+			+ "\"entities\":{\"hashtags\":[{\"text\":\"spring\",\"indices\":[12,19]}],\"urls\":[],"
+			+ "\"user_mentions\":[{\"id\":112233,\"screen_name\":\"habuma\",\"name\":\"Craig Walls\",\"indices\":[20,27]}]}}";
+
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.social.twitter.api.Tweet;
+import org.springframework.social.twitter.api.TwitterProfile;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+public class TwitterBinaryCodecTest {
+
+	@Test
+	public void tweetRoundTrip() throws Exception {
+		for (Tweet tweet : tweets()) {
+			Tweet decoded = TwitterBinaryCodec.decodeTweet(TwitterBinaryCodec.encode(tweet));
+			assertEquals(tweet, decoded);
+			assertEquals(tweet.getUser(), decoded.getUser());
+			assertEquals(tweet.getEntities(), decoded.getEntities());
+			assertEquals(tweet.isFavorited(), decoded.isFavorited());
+			assertEquals(tweet.getFavoriteCount(), decoded.getFavoriteCount());
+		}
+	}
+
+	@Test
+	public void retweetRoundTrip() throws Exception {
+		Tweet retweet = streamTweets().get(0);
+		assertTrue(retweet.isRetweet());
+		Tweet decoded = TwitterBinaryCodec.decodeTweet(TwitterBinaryCodec.encode(retweet));
+		assertEquals(retweet.getRetweetedStatus(), decoded.getRetweetedStatus());
+		assertEquals(retweet.getRetweetedStatus().getUser(), decoded.getRetweetedStatus().getUser());
+	}
+
+	@Test
+	public void profileRoundTrip() throws Exception {
+		TwitterProfile profile = TwitterObjectMapper.get().readValue(new ClassPathResource("twitter-profile.json", getClass()).getInputStream(), TwitterProfile.class);
+		TwitterProfile decoded = TwitterBinaryCodec.decodeProfile(TwitterBinaryCodec.encode(profile));
+		assertEquals(profile, decoded);
+		assertEquals(profile.getIdStr(), decoded.getIdStr());
+		assertEquals(profile.getFollowersCount(), decoded.getFollowersCount());
+		assertEquals(profile.getLinkColor(), decoded.getLinkColor());
+		assertEquals(profile.isVerified(), decoded.isVerified());
+		assertEquals(profile.getUtcOffset(), decoded.getUtcOffset());
+	}
+
+	@Test
+	public void sparseTweet() throws Exception {
+		Tweet tweet = new Tweet("not-a-number", null, null, null, null, -1L, -2, null, null);
+		Tweet decoded = TwitterBinaryCodec.decodeTweet(TwitterBinaryCodec.encode(tweet));
+		assertEquals(tweet, decoded);
+		assertEquals("not-a-number", decoded.getId());
+		assertNull(decoded.getRetweetCount());
+		assertNull(decoded.getEntities());
+		assertNull(decoded.getUser());
+	}
+
+	@Test
+	public void multiByteStrings() throws Exception {
+		// two, three and four bytes a character, and an unpaired surrogate
+		Tweet tweet = new Tweet("1", "Caf\u00e9 \u20ac5 \ud83d\ude00 \ud83d!", null, "j\u00fcrgen", null, null, 2, "de", null);
+		Tweet decoded = TwitterBinaryCodec.decodeTweet(TwitterBinaryCodec.encode(tweet));
+		assertEquals("Caf\u00e9 \u20ac5 \ud83d\ude00 ?!", decoded.getText());
+		assertEquals("j\u00fcrgen", decoded.getFromUser());
+		assertEquals("de", decoded.getLanguageCode());
+	}
+
+	@Test
+	public void stringsPooledAcrossRecords() throws Exception {
+		List<Tweet> tweets = streamTweets();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		TwitterBinaryCodec.Encoder encoder = new TwitterBinaryCodec.Encoder(out);
+		int total = 0;
+		for (Tweet tweet : tweets) {
+			encoder.writeTweet(tweet);
+			total += TwitterBinaryCodec.encode(tweet).length;
+		}
+		encoder.writeProfile(tweets.get(0).getUser());
+		encoder.writeTweet(tweets.get(0));
+		int firstSize = TwitterBinaryCodec.encode(tweets.get(0)).length;
+		assertTrue(out.size() < total + firstSize);
+
+		TwitterBinaryCodec.Decoder decoder = new TwitterBinaryCodec.Decoder(new ByteArrayInputStream(out.toByteArray()));
+		for (Tweet tweet : tweets) {
+			assertEquals(tweet, decoder.readTweet());
+		}
+		TwitterProfile profile = decoder.readProfile();
+		assertEquals(tweets.get(0).getUser(), profile);
+		Tweet again = decoder.readTweet();
+		assertEquals(tweets.get(0), again);
+		// pooled strings decode to the same instance
+		assertSame(profile.getScreenName(), again.getUser().getScreenName());
+		assertNull(decoder.readTweet());
+	}
+
+	@Test
+	public void withoutProfiles() throws Exception {
+		Tweet tweet = streamTweets().get(1);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		TwitterBinaryCodec.Encoder encoder = new TwitterBinaryCodec.Encoder(out);
+		encoder.setIncludeProfiles(false);
+		encoder.writeTweet(tweet);
+		assertTrue(out.size() < TwitterBinaryCodec.encode(tweet).length);
+		Tweet decoded = TwitterBinaryCodec.decodeTweet(out.toByteArray());
+		assertNull(decoded.getUser());
+		assertEquals(tweet.getFromUser(), decoded.getFromUser());
+		assertEquals(tweet.getFromUserId(), decoded.getFromUserId());
+		assertEquals(tweet.getText(), decoded.getText());
+	}
+
+	@Test
+	public void byteBufferOverflowLeavesEncoderUsable() throws Exception {
+		List<Tweet> tweets = streamTweets();
+		ByteBuffer buffer = ByteBuffer.allocate(TwitterBinaryCodec.encode(tweets.get(0)).length + 10);
+		TwitterBinaryCodec.Encoder encoder = new TwitterBinaryCodec.Encoder(buffer);
+		encoder.writeTweet(tweets.get(0));
+		int position = buffer.position();
+		try {
+			encoder.writeTweet(tweets.get(1));
+			fail("Expected the buffer to overflow");
+		} catch (BufferOverflowException e) {
+			assertEquals(position, buffer.position());
+		}
+		ByteArrayOutputStream drained = new ByteArrayOutputStream();
+		drain(buffer, drained);
+		for (Tweet tweet : tweets.subList(1, tweets.size())) {
+			encoder.writeTweet(tweet);
+			drain(buffer, drained);
+		}
+		TwitterBinaryCodec.Decoder decoder = new TwitterBinaryCodec.Decoder(ByteBuffer.wrap(drained.toByteArray()));
+		for (Tweet tweet : tweets) {
+			assertEquals(tweet, decoder.readTweet());
+		}
+		assertNull(decoder.readTweet());
+	}
+
+	@Test
+	public void failedWriteLeavesEncoderUsable() throws Exception {
+		List<Tweet> tweets = streamTweets();
+		FailingOutputStream out = new FailingOutputStream();
+		TwitterBinaryCodec.Encoder encoder = new TwitterBinaryCodec.Encoder(out);
+		encoder.writeTweet(tweets.get(0));
+		out.failing = true;
+		try {
+			encoder.writeTweet(tweets.get(1));
+			fail("Expected the write to fail");
+		} catch (IOException e) {
+			assertEquals("Write failed", e.getMessage());
+		}
+		out.failing = false;
+		for (Tweet tweet : tweets.subList(1, tweets.size())) {
+			encoder.writeTweet(tweet);
+		}
+		TwitterBinaryCodec.Decoder decoder = new TwitterBinaryCodec.Decoder(new ByteArrayInputStream(out.toByteArray()));
+		for (Tweet tweet : tweets) {
+			assertEquals(tweet, decoder.readTweet());
+		}
+		assertNull(decoder.readTweet());
+	}
+
+	@Test(expected = IOException.class)
+	public void newerVersion() throws Exception {
+		byte[] bytes = TwitterBinaryCodec.encode(streamTweets().get(0));
+		bytes[1] = (byte) (TwitterBinaryCodec.VERSION + 1);
+		TwitterBinaryCodec.decodeTweet(bytes);
+	}
+
+	@Test(expected = IOException.class)
+	public void notATweet() throws Exception {
+		TwitterBinaryCodec.decodeTweet(TwitterBinaryCodec.encode(streamTweets().get(0).getUser()));
+	}
+
+	@Test(expected = IOException.class)
+	public void truncated() throws Exception {
+		byte[] bytes = TwitterBinaryCodec.encode(streamTweets().get(0));
+		TwitterBinaryCodec.decodeTweet(Arrays.copyOf(bytes, bytes.length / 2));
+	}
+
+	// fails every write while failing is set, writing nothing
+	private static class FailingOutputStream extends OutputStream {
+
+		private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+
+		boolean failing;
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] bytes, int offset, int length) throws IOException {
+			if (failing) {
+				throw new IOException("Write failed");
+			}
+			written.write(bytes, offset, length);
+		}
+
+		byte[] toByteArray() {
+			return written.toByteArray();
+		}
+
+	}
+
+	private void drain(ByteBuffer buffer, ByteArrayOutputStream out) {
+		buffer.flip();
+		out.write(buffer.array(), buffer.position(), buffer.remaining());
+		buffer.clear();
+	}
+
+	private List<Tweet> tweets() throws IOException {
+		List<Tweet> tweets = new ArrayList<Tweet>(streamTweets());
+		tweets.addAll(TwitterObjectMapper.get().<List<Tweet>>readValue(new ClassPathResource("timeline.json", getClass()).getInputStream(), new TypeReference<List<Tweet>>() {}));
+		tweets.add(TwitterObjectMapper.get().readValue(new ClassPathResource("status_with_tickers.json", getClass()).getInputStream(), Tweet.class));
+		return tweets;
+	}
+
+	private List<Tweet> streamTweets() throws IOException {
+		List<Tweet> tweets = new ArrayList<Tweet>();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(new ClassPathResource("filter-stream-track.json", getClass()).getInputStream(), StandardCharsets.UTF_8));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (StreamMessageType.classify(line) == StreamMessageType.TWEET) {
+					tweets.add(TwitterObjectMapper.get().readValue(line, Tweet.class));
+				}
+			}
+		} finally {
+			reader.close();
+		}
+		return tweets;
+	}
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.Test;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.social.twitter.api.StreamListener;
+import org.springframework.social.twitter.api.Tweet;
+import org.springframework.social.twitter.api.TweetProjection;
+import org.springframework.social.twitter.api.TwitterProfile;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class TwitterObjectMapperTest {
+
+	@Test
+	public void sharedByTemplates() {
+		ObjectMapper first = objectMapperOf(new TwitterTemplate("consumerKey", "consumerSecret", "accessToken", "accessTokenSecret"));
+		ObjectMapper second = objectMapperOf(new TwitterTemplate("otherConsumerKey", "otherConsumerSecret", "otherAccessToken", "otherAccessTokenSecret"));
+		assertSame(TwitterObjectMapper.get(), first);
+		assertSame(first, second);
+	}
+
+	@Test
+	public void readersAreCached() {
+		TwitterTemplate.preloadDeserializers();
+		assertSame(TwitterObjectMapper.readerFor(Tweet.class), TwitterObjectMapper.readerFor(Tweet.class));
+		assertSame(TwitterObjectMapper.readerFor(TwitterProfile.class), TwitterObjectMapper.readerFor(TwitterProfile.class));
+	}
+
+	@Test
+	public void streamSettingsStayOffTheSharedMapper() throws Exception {
+		String json = "{\"id\":1,\"text\":\"Hello\",\"lang\":\"en\",\"user\":{\"id\":2,\"screen_name\":\"habuma\"}}";
+		StreamDispatcher dispatcher = new StreamDispatcher(new ConcurrentLinkedQueue<QueuedMessage>(), new ConcurrentLinkedQueue<QueuedMessage>(),
+				Collections.<StreamListener>emptyList(), "stream", NoOpStreamMetrics.INSTANCE, new ListenerIsolationPolicy(), null,
+				TweetProjection.of(TweetProjection.Field.ID), null);
+		Tweet projected = (Tweet) dispatcher.read(StreamMessageType.TWEET, json);
+		assertNull(projected.getLanguageCode());
+		Tweet whole = TwitterObjectMapper.get().readValue(json, Tweet.class);
+		assertEquals("en", whole.getLanguageCode());
+		assertEquals("habuma", whole.getFromUser());
+	}
+
+	private ObjectMapper objectMapperOf(TwitterTemplate twitter) {
+		for (HttpMessageConverter<?> converter : twitter.getRestTemplate().getMessageConverters()) {
+			if (converter instanceof MappingJackson2HttpMessageConverter) {
+				return ((MappingJackson2HttpMessageConverter) converter).getObjectMapper();
+			}
+		}
+		throw new AssertionError("No JSON message converter");
+	}
+
+}
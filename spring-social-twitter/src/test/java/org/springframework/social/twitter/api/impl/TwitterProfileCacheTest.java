@@ -0,0 +1,157 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.social.twitter.api.impl;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.social.twitter.api.Tweet;
+import org.springframework.social.twitter.api.TwitterProfile;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+public class TwitterProfileCacheTest {
+
+	private TwitterProfileCache profileCache;
+
+	private ObjectReader cachingReader;
+
+	private ObjectReader plainReader;
+
+	@Before
+	public void setup() {
+		ObjectMapper objectMapper = new ObjectMapper();
+		objectMapper.registerModule(new TwitterModule());
+		profileCache = new TwitterProfileCache(16);
+		cachingReader = objectMapper.readerFor(Tweet.class).withAttribute(TwitterProfileCache.class, profileCache);
+		plainReader = objectMapper.readerFor(Tweet.class);
+	}
+
+	@Test
+	public void unchangedProfileIsShared() throws Exception {
+		Tweet first = cachingReader.readValue(tweet(1, 112233, 100));
+		Tweet second = cachingReader.readValue(tweet(2, 112233, 100));
+		assertSame(first.getUser(), second.getUser());
+		assertEquals(1, profileCache.getHitCount());
+		assertEquals(1, profileCache.getMissCount());
+		assertEquals("habuma", second.getFromUser());
+		assertEquals(112233, second.getFromUserId());
+	}
+
+	@Test
+	public void changedCountsGetACopyOfTheProfile() throws Exception {
+		Tweet first = cachingReader.readValue(tweet(1, 112233, 100));
+		Tweet second = cachingReader.readValue(tweet(2, 112233, 101));
+		assertNotSame(first.getUser(), second.getUser());
+		assertEquals(100, first.getUser().getFollowersCount());
+		assertEquals(101, second.getUser().getFollowersCount());
+		assertSame(first.getUser().getName(), second.getUser().getName());
+		assertSame(first.getUser().getCreatedDate(), second.getUser().getCreatedDate());
+		assertEquals(first.getUser().getLinkColor(), second.getUser().getLinkColor());
+		assertEquals(1, profileCache.getHitCount());
+		assertEquals(1, profileCache.getMissCount());
+		Tweet plain = plainReader.readValue(tweet(2, 112233, 101));
+		assertEquals(plain.getUser(), second.getUser());
+		assertEquals(plain.getUser().getFollowersCount(), second.getUser().getFollowersCount());
+		// the copy is the one cached from now on
+		Tweet third = cachingReader.readValue(tweet(3, 112233, 101));
+		assertSame(second.getUser(), third.getUser());
+		assertEquals(2, profileCache.getHitCount());
+	}
+
+	@Test
+	public void changedProfileIsReplaced() throws Exception {
+		Tweet first = cachingReader.readValue(tweet(1, 112233, 100, "Craig Walls"));
+		Tweet second = cachingReader.readValue(tweet(2, 112233, 100, "Craig"));
+		assertNotSame(first.getUser(), second.getUser());
+		assertEquals("Craig Walls", first.getUser().getName());
+		assertEquals("Craig", second.getUser().getName());
+		assertEquals(0, profileCache.getHitCount());
+		assertEquals(2, profileCache.getMissCount());
+		// the changed profile is the one cached from now on
+		Tweet third = cachingReader.readValue(tweet(3, 112233, 100, "Craig"));
+		assertSame(second.getUser(), third.getUser());
+	}
+
+	@Test
+	public void fieldsNotHeldByProfileAreIgnored() throws Exception {
+		Tweet first = cachingReader.readValue(tweet(1, 112233, 100).replace("\"lang\"", "\"default_profile\":true,\"lang\""));
+		Tweet second = cachingReader.readValue(tweet(2, 112233, 100).replace("\"lang\"", "\"default_profile\":false,\"lang\""));
+		assertSame(first.getUser(), second.getUser());
+	}
+
+	@Test
+	public void escapedTextSurvivesCaching() throws Exception {
+		String json = tweet(1, 112233, 100, "Craig \\\"Spring\\\" Walls\\n\\u00e9\\\\");
+		Tweet cached = cachingReader.readValue(json);
+		Tweet plain = plainReader.readValue(json);
+		assertEquals("Craig \"Spring\" Walls\n\u00e9\\", cached.getUser().getName());
+		assertEquals(plain.getUser(), cached.getUser());
+	}
+
+	@Test
+	public void differentUsers() throws Exception {
+		Tweet first = cachingReader.readValue(tweet(1, 112233, 100));
+		Tweet second = cachingReader.readValue(tweet(2, 332211, 100));
+		assertNotSame(first.getUser(), second.getUser());
+		assertEquals(112233, first.getUser().getId());
+		assertEquals(332211, second.getUser().getId());
+	}
+
+	@Test
+	public void retweetedStatusProfilesAreShared() throws Exception {
+		String retweet = "{\"id\":10,\"text\":\"RT @habuma: Hello\",\"user\":" + user(332211, 5)
+				+ ",\"retweeted_status\":" + tweet(1, 112233, 100) + "}";
+		Tweet original = cachingReader.readValue(tweet(1, 112233, 100));
+		Tweet first = cachingReader.readValue(retweet);
+		Tweet second = cachingReader.readValue(retweet);
+		assertSame(original.getUser(), first.getRetweetedStatus().getUser());
+		assertSame(first.getUser(), second.getUser());
+	}
+
+	@Test
+	public void sameAsWithoutCache() throws Exception {
+		String json = tweet(1, 112233, 100);
+		cachingReader.readValue(json);
+		Tweet cached = cachingReader.readValue(json);
+		Tweet plain = plainReader.readValue(json);
+		assertEquals(1, profileCache.getHitCount());
+		assertEquals(plain.getUser(), cached.getUser());
+		assertEquals(plain.getText(), cached.getText());
+		assertEquals(plain.getCreatedAt(), cached.getCreatedAt());
+	}
+
+	private String tweet(long id, long userId, int followersCount) {
+		return tweet(id, userId, followersCount, "Craig Walls");
+	}
+
+	private String tweet(long id, long userId, int followersCount, String name) {
+		return "{\"id\":" + id + ",\"text\":\"Hello\",\"created_at\":\"Tue Jul 13 17:38:21 +0000 2010\",\"user\":" + user(userId, followersCount, name) + "}";
+	}
+
+	private String user(long userId, int followersCount) {
+		return user(userId, followersCount, "Craig Walls");
+	}
+
+	private String user(long userId, int followersCount, String name) {
+		return "{\"id\":" + userId + ",\"screen_name\":\"" + (userId == 112233 ? "habuma" : "rclarkson") + "\",\"name\":\"" + name + "\","
+				+ "\"entities\":{\"description\":{\"urls\":[]}},\"followers_count\":" + followersCount + ",\"lang\":\"en\","
+				+ "\"created_at\":\"Tue Jul 13 17:38:21 +0000 2010\",\"profile_link_color\":\"0084B4\"}";
+	}
+
+}
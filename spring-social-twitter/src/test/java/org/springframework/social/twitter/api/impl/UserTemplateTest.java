@@ -23,9 +23,11 @@ import static org.springframework.test.web.client.response.MockRestResponseCreat
 
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.junit.Test;
 import org.springframework.social.twitter.api.AccountSettings;
+import org.springframework.social.twitter.api.CloseableIterator;
 import org.springframework.social.twitter.api.RateLimitStatus;
 import org.springframework.social.twitter.api.ResourceFamily;
 import org.springframework.social.twitter.api.SuggestionCategory;
@@ -186,6 +188,34 @@ public class UserTemplateTest extends AbstractTwitterApiTest {
 		assertEquals("kdonald", users.get(1).getScreenName());
 	}
 	
+	@Test
+	public void iterateUsers_byUserId_appAuthorization() {
+		appAuthMockServer.expect(requestTo("https://api.twitter.com/1.1/users/lookup.json?user_id=14846645%2C14718006"))
+			.andExpect(method(GET))
+			.andExpect(header("Authorization", "Bearer APP_ACCESS_TOKEN"))
+			.andRespond(withSuccess(jsonResource("list-of-profiles"), APPLICATION_JSON));
+		CloseableIterator<TwitterProfile> users = appAuthTwitter.userOperations().iterateUsers(14846645, 14718006);
+		assertEquals("royclarkson", users.next().getScreenName());
+		assertEquals("kdonald", users.next().getScreenName());
+		assertFalse(users.hasNext());
+	}
+
+	@Test
+	public void streamUsers_byScreenName() {
+		mockServer.expect(requestTo("https://api.twitter.com/1.1/users/lookup.json?screen_name=royclarkson%2Ckdonald"))
+			.andExpect(method(GET))
+			.andRespond(withSuccess(jsonResource("list-of-profiles"), APPLICATION_JSON));
+		java.util.stream.Stream<TwitterProfile> users = twitter.userOperations().streamUsers("royclarkson", "kdonald");
+		try {
+			List<TwitterProfile> profiles = users.collect(Collectors.<TwitterProfile>toList());
+			assertEquals(2, profiles.size());
+			assertEquals("royclarkson", profiles.get(0).getScreenName());
+			assertEquals("kdonald", profiles.get(1).getScreenName());
+		} finally {
+			users.close();
+		}
+	}
+
 	@Test
 	public void getUsers_byScreenName() {
 		mockServer.expect(requestTo("https://api.twitter.com/1.1/users/lookup.json?screen_name=royclarkson%2Ckdonald"))